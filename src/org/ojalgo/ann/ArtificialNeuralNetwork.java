@@ -34,6 +34,7 @@ import org.ojalgo.function.special.MissingMath;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Structure2D;
 
 public final class ArtificialNeuralNetwork implements BasicFunction.PlainUnary<Access1D<Double>, MatrixStore<Double>> {
@@ -136,6 +137,74 @@ public final class ArtificialNeuralNetwork implements BasicFunction.PlainUnary<A
 
     }
 
+    /**
+     * Invokes (evaluates) the network using its own buffers for the intermediate and final results. The
+     * network itself is only read, so any number of invokers (one per thread) can share the same network, as
+     * long as the network is not trained/modified at the same time. An invoker is not thread safe - use one
+     * per thread, for instance via a {@link ThreadLocal}:
+     *
+     * <pre>
+     * ThreadLocal&lt;ArtificialNeuralNetwork.Invoker&gt; invokers = ThreadLocal.withInitial(network::newInvoker);
+     * </pre>
+     *
+     * Apart from when the number of samples in a batch changes, invoking does not allocate any memory. The
+     * returned results are the invoker's buffers, and are overwritten by the next call.
+     *
+     * @author apete
+     */
+    public static final class Invoker implements BasicFunction.PlainUnary<Access1D<Double>, MatrixStore<Double>> {
+
+        private final Primitive64Store[] myBatchValues;
+        private final CalculationLayer[] myLayers;
+        private final Primitive64Store[] myValues;
+
+        Invoker(final CalculationLayer[] layers) {
+
+            super();
+
+            myLayers = layers;
+
+            myValues = new Primitive64Store[layers.length];
+            for (int l = 0; l < layers.length; l++) {
+                myValues[l] = Primitive64Store.FACTORY.make(1L, layers[l].getStructure().countColumns());
+            }
+
+            myBatchValues = new Primitive64Store[1 + layers.length];
+        }
+
+        /**
+         * @param input One sample
+         * @return The network output (a row)
+         */
+        public MatrixStore<Double> invoke(final Access1D<Double> input) {
+            Access1D<Double> current = input;
+            for (int l = 0; l < myLayers.length; l++) {
+                current = myLayers[l].invoke(current, myValues[l]);
+            }
+            return myValues[myLayers.length - 1];
+        }
+
+        /**
+         * @param inputs One sample per row
+         * @return The network output, one row per sample
+         */
+        public MatrixStore<Double> invokeBatch(final Access2D<Double> inputs) {
+
+            final long numberOfSamples = inputs.countRows();
+
+            myBatchValues[0] = ArtificialNeuralNetwork.reuse(myBatchValues[0], numberOfSamples, inputs.countColumns());
+            myBatchValues[0].fillMatching(inputs);
+
+            for (int l = 0; l < myLayers.length; l++) {
+                myBatchValues[l + 1] = ArtificialNeuralNetwork.reuse(myBatchValues[l + 1], numberOfSamples, myValues[l].count());
+                myLayers[l].invokeBatch(myBatchValues[l], myBatchValues[l + 1]);
+            }
+
+            return myBatchValues[myLayers.length];
+        }
+
+    }
+
     interface ActivatorFunctionFactory {
 
         PrimitiveFunction.Unary make(Primitive64Store arguments);
@@ -146,6 +215,17 @@ public final class ArtificialNeuralNetwork implements BasicFunction.PlainUnary<A
         return new NetworkBuilder(numberOfInputNodes, nodesPerCalculationLayer);
     }
 
+    /**
+     * @return The existing store if it has the right shape, otherwise a new one
+     */
+    static Primitive64Store reuse(final Primitive64Store existing, final long rows, final long columns) {
+        if ((existing != null) && (existing.countRows() == rows) && (existing.countColumns() == columns)) {
+            return existing;
+        } else {
+            return Primitive64Store.FACTORY.make(rows, columns);
+        }
+    }
+
     private final CalculationLayer[] myLayers;
 
     ArtificialNeuralNetwork(final int inputs, final int[] layers) {
@@ -186,6 +266,10 @@ public final class ArtificialNeuralNetwork implements BasicFunction.PlainUnary<A
         return result;
     }
 
+    /**
+     * Not thread safe - the results are stored in the network's (layers') internal buffers. To invoke the
+     * same network concurrently use one {@link #newInvoker()} per thread.
+     */
     public MatrixStore<Double> invoke(Access1D<Double> input) {
         MatrixStore<Double> retVal = null;
         for (int i = 0, limit = myLayers.length; i < limit; i++) {
@@ -195,6 +279,14 @@ public final class ArtificialNeuralNetwork implements BasicFunction.PlainUnary<A
         return retVal;
     }
 
+    /**
+     * @return A new invoker, with its own buffers, for this network
+     * @see Invoker
+     */
+    public Invoker newInvoker() {
+        return new Invoker(myLayers);
+    }
+
     @Override
     public String toString() {
         StringBuilder tmpBuilder = new StringBuilder();
@@ -24,6 +24,7 @@ package org.ojalgo.ann;
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import org.ojalgo.function.BasicFunction;
+import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.random.Uniform;
@@ -36,6 +37,7 @@ final class CalculationLayer implements BasicFunction.PlainUnary<Access1D<Double
     private final Primitive64Store myBias;
     private final Primitive64Store myOutput;
     private final Primitive64Store myWeights;
+    private Primitive64Store myWeightsGradient = null;
 
     CalculationLayer(final int numberOfInputs, final int numberOfOutputs, final ArtificialNeuralNetwork.Activator activator) {
 
@@ -111,6 +113,26 @@ final class CalculationLayer implements BasicFunction.PlainUnary<Access1D<Double
         return tmpBuilder.toString();
     }
 
+    /**
+     * Applies the activator function to each row (sample) of the output.
+     */
+    private void activate(final Primitive64Store output) {
+        if (myActivator.isSingleFolded()) {
+            output.modifyAll(myActivator.getFunction(output));
+        } else {
+            // SOFTMAX, the only activator that is not single folded, normalises each row separately
+            for (long i = 0L, numbSamples = output.countRows(); i < numbSamples; i++) {
+                double total = ZERO;
+                for (long j = 0L, numbOutput = output.countColumns(); j < numbOutput; j++) {
+                    total += EXP.invoke(output.doubleValue(i, j));
+                }
+                for (long j = 0L, numbOutput = output.countColumns(); j < numbOutput; j++) {
+                    output.set(i, j, EXP.invoke(output.doubleValue(i, j)) / total);
+                }
+            }
+        }
+    }
+
     private void randomise(final double numberOfInputs) {
 
         double magnitude = ONE / Math.sqrt(numberOfInputs);
@@ -142,6 +164,73 @@ final class CalculationLayer implements BasicFunction.PlainUnary<Access1D<Double
         }
     }
 
+    /**
+     * Mini-batch version of {@link #adjust(Access1D, Primitive64Store, double, Primitive64Store)}. Each row
+     * of the inputs/outputs/gradients is one sample. The weights and bias are adjusted with the average
+     * gradient of the batch.
+     */
+    void adjust(final Primitive64Store layerInput, final Primitive64Store layerOutput, final Primitive64Store downstreamGradient, final double learningRate,
+            final Primitive64Store upstreamGradient) {
+
+        final int batchSize = (int) layerInput.countRows();
+
+        downstreamGradient.modifyMatching(MULTIPLY, layerOutput.operateOnAll(myActivator.getDerivativeInTermsOfOutput()));
+
+        if (upstreamGradient != null) {
+            // No need to do this multiplication for the input layer
+            upstreamGradient.fillByMultiplying(downstreamGradient, myWeights.transpose());
+        }
+
+        if (myWeightsGradient == null) {
+            myWeightsGradient = Primitive64Store.FACTORY.make(myWeights.countRows(), myWeights.countColumns());
+        }
+        myWeightsGradient.fillByMultiplying(layerInput.transpose(), downstreamGradient);
+
+        final double scaledRate = learningRate / batchSize;
+
+        myWeightsGradient.axpy(scaledRate, myWeights);
+
+        for (long j = 0L, numbOutput = myWeights.countColumns(); j < numbOutput; j++) {
+            myBias.add(j, scaledRate * downstreamGradient.aggregateColumn(j, Aggregator.SUM));
+        }
+    }
+
+    /**
+     * Same as {@link #invoke(Access1D)} but with a caller supplied output (1 row) instead of the internal one.
+     * Does not allocate any memory and does not modify the state of this layer.
+     */
+    Primitive64Store invoke(final Access1D<Double> input, final Primitive64Store output) {
+
+        output.fillByMultiplying(input, myWeights);
+        output.modifyMatching(ADD, myBias);
+
+        this.activate(output);
+
+        return output;
+    }
+
+    /**
+     * Batch version of {@link #invoke(Access1D, Primitive64Store)}. Each row of the input is one sample, and
+     * the corresponding row of the output is set to the output of this layer. Does not allocate any memory
+     * (apart from what the multiplication may need to run in parallel) and does not modify the state of this
+     * layer.
+     */
+    Primitive64Store invokeBatch(final Primitive64Store input, final Primitive64Store output) {
+
+        output.fillByMultiplying(input, myWeights);
+
+        for (long j = 0L, numbOutput = myBias.count(); j < numbOutput; j++) {
+            final double bias = myBias.doubleValue(j);
+            for (long i = 0L, numbSamples = output.countRows(); i < numbSamples; i++) {
+                output.add(i, j, bias);
+            }
+        }
+
+        this.activate(output);
+
+        return output;
+    }
+
     double getBias(final int output) {
         return myBias.doubleValue(output);
     }
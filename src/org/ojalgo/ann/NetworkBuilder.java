@@ -23,9 +23,11 @@ package org.ojalgo.ann;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.function.Supplier;
 
 import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.BasicArray;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.structure.Access1D;
@@ -40,9 +42,15 @@ import org.ojalgo.structure.Structure2D;
 public final class NetworkBuilder implements Supplier<ArtificialNeuralNetwork> {
 
     private final ArtificialNeuralNetwork myANN;
+    private final Primitive64Store[] myBatchGradients;
+    private Primitive64Store myBatchInput = null;
+    private int myBatchSize = 1;
+    private Primitive64Store myBatchTarget = null;
+    private final Primitive64Store[] myBatchValues;
     private ArtificialNeuralNetwork.Error myError = ArtificialNeuralNetwork.Error.HALF_SQUARED_DIFFERENCE;
     private final Primitive64Store[] myLayerValues;
     private double myLearningRate = 1.0;
+    private Random myShuffler = null;
 
     NetworkBuilder(final int numberOfInputNodes, final int... outputNodesPerCalculationLayer) {
 
@@ -59,6 +67,9 @@ public final class NetworkBuilder implements Supplier<ArtificialNeuralNetwork> {
         for (int l = 0; l < outputNodesPerCalculationLayer.length; l++) {
             myLayerValues[1 + l] = Primitive64Store.FACTORY.make(outputNodesPerCalculationLayer[l], 1);
         }
+
+        myBatchValues = new Primitive64Store[myLayerValues.length];
+        myBatchGradients = new Primitive64Store[myLayerValues.length];
     }
 
     /**
@@ -84,6 +95,20 @@ public final class NetworkBuilder implements Supplier<ArtificialNeuralNetwork> {
         return this;
     }
 
+    /**
+     * The number of samples to use for each weight update when training on multiple samples. With a batch
+     * size of 1 (the default) the weights are updated after each sample. With larger batch sizes the samples
+     * of a batch are stacked as rows of a matrix, the forward and backward passes are done as matrix-matrix
+     * multiplications, and the weights are adjusted with the average gradient of the batch.
+     */
+    public NetworkBuilder batch(final int size) {
+        if (size < 1) {
+            ProgrammingError.throwWithMessage("The batch size must be at least 1!");
+        }
+        myBatchSize = size;
+        return this;
+    }
+
     public NetworkBuilder bias(final int layer, final int output, final double bias) {
         myANN.getLayer(layer).setBias(output, bias);
         return this;
@@ -144,6 +169,25 @@ public final class NetworkBuilder implements Supplier<ArtificialNeuralNetwork> {
         return this;
     }
 
+    /**
+     * Shuffle the samples (at the start of each epoch) when training with
+     * {@link #train(Access2D, Access2D, int)}.
+     *
+     * @see #shuffle(Random)
+     */
+    public NetworkBuilder shuffle(final boolean shuffle) {
+        return this.shuffle(shuffle ? new Random() : null);
+    }
+
+    /**
+     * Shuffle the samples using this generator - seed it to get reproducible training. null means no
+     * shuffling.
+     */
+    public NetworkBuilder shuffle(final Random shuffler) {
+        myShuffler = shuffler;
+        return this;
+    }
+
     public Structure2D[] structure() {
         return myANN.structure();
     }
@@ -167,17 +211,101 @@ public final class NetworkBuilder implements Supplier<ArtificialNeuralNetwork> {
         }
     }
 
+    /**
+     * Mini-batch training. Each row of the inputs/outputs is one sample. The samples are (optionally)
+     * shuffled at the start of each epoch and then processed in batches of the configured size.
+     *
+     * @param givenInputs One sample per row
+     * @param targetOutputs One sample per row
+     * @param epochs The number of times to go through all the samples
+     * @see #batch(int)
+     * @see #shuffle(boolean)
+     */
+    public void train(final Access2D<Double> givenInputs, final Access2D<Double> targetOutputs, final int epochs) {
+
+        final int numberOfSamples = Math.toIntExact(Math.min(givenInputs.countRows(), targetOutputs.countRows()));
+        final long numberOfInputs = givenInputs.countColumns();
+        final long numberOfOutputs = targetOutputs.countColumns();
+
+        final int[] order = BasicArray.makeIncreasingRange(0, numberOfSamples);
+
+        for (int e = 0; e < epochs; e++) {
+
+            if (myShuffler != null) {
+                for (int i = numberOfSamples - 1; i > 0; i--) {
+                    final int j = myShuffler.nextInt(i + 1);
+                    final int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                }
+            }
+
+            for (int first = 0; first < numberOfSamples; first += myBatchSize) {
+
+                final int rows = Math.min(myBatchSize, numberOfSamples - first);
+
+                myBatchInput = ArtificialNeuralNetwork.reuse(myBatchInput, rows, numberOfInputs);
+                myBatchTarget = ArtificialNeuralNetwork.reuse(myBatchTarget, rows, numberOfOutputs);
+
+                for (int r = 0; r < rows; r++) {
+                    final int sample = order[first + r];
+                    for (long j = 0L; j < numberOfInputs; j++) {
+                        myBatchInput.set(r, j, givenInputs.doubleValue(sample, j));
+                    }
+                    for (long j = 0L; j < numberOfOutputs; j++) {
+                        myBatchTarget.set(r, j, targetOutputs.doubleValue(sample, j));
+                    }
+                }
+
+                this.trainBatch(myBatchInput, myBatchTarget);
+            }
+        }
+    }
+
     /**
      * Note that the required {@link Iterable}:s can be obtained from calling {@link Access2D#rows()} or
      * {@link Access2D#columns()} on anything "2D".
+     * <p>
+     * If the batch size is larger than 1 consecutive samples are stacked in to batches (in the order they
+     * are iterated), but no shuffling is done.
+     *
+     * @see #batch(int)
      */
     public void train(final Iterable<? extends Access1D<Double>> givenInputs, final Iterable<? extends Access1D<Double>> targetOutputs) {
 
         Iterator<? extends Access1D<Double>> iterI = givenInputs.iterator();
         Iterator<? extends Access1D<Double>> iterO = targetOutputs.iterator();
 
-        while (iterI.hasNext() && iterO.hasNext()) {
-            this.train(iterI.next(), iterO.next());
+        if (myBatchSize == 1) {
+
+            while (iterI.hasNext() && iterO.hasNext()) {
+                this.train(iterI.next(), iterO.next());
+            }
+
+        } else {
+
+            final long numberOfInputs = myLayerValues[0].count();
+            final long numberOfOutputs = myLayerValues[myLayerValues.length - 1].count();
+
+            myBatchInput = ArtificialNeuralNetwork.reuse(myBatchInput, myBatchSize, numberOfInputs);
+            myBatchTarget = ArtificialNeuralNetwork.reuse(myBatchTarget, myBatchSize, numberOfOutputs);
+
+            int rows = 0;
+            while (iterI.hasNext() && iterO.hasNext()) {
+
+                myBatchInput.fillRow(rows, 0L, iterI.next());
+                myBatchTarget.fillRow(rows, 0L, iterO.next());
+
+                if (++rows == myBatchSize) {
+                    this.trainBatch(myBatchInput, myBatchTarget);
+                    rows = 0;
+                }
+            }
+
+            if (rows > 0) {
+                this.trainBatch(Primitive64Store.FACTORY.copy(myBatchInput.logical().limits(rows, -1).get()),
+                        Primitive64Store.FACTORY.copy(myBatchTarget.logical().limits(rows, -1).get()));
+            }
         }
     }
 
@@ -186,6 +314,29 @@ public final class NetworkBuilder implements Supplier<ArtificialNeuralNetwork> {
         return this;
     }
 
+    /**
+     * One forward/backward pass with a batch of samples, one per row.
+     */
+    private void trainBatch(final Primitive64Store givenInputs, final Primitive64Store targetOutputs) {
+
+        final int numberOfLayers = myANN.countCalculationLayers();
+        final long rows = givenInputs.countRows();
+
+        myBatchValues[0] = givenInputs;
+        for (int k = 0; k < numberOfLayers; k++) {
+            final long columns = myLayerValues[k + 1].count();
+            myBatchValues[k + 1] = ArtificialNeuralNetwork.reuse(myBatchValues[k + 1], rows, columns);
+            myBatchGradients[k + 1] = ArtificialNeuralNetwork.reuse(myBatchGradients[k + 1], rows, columns);
+            myANN.getLayer(k).invokeBatch(myBatchValues[k], myBatchValues[k + 1]);
+        }
+
+        myBatchGradients[numberOfLayers].fillMatching(targetOutputs, myError.getDerivative(), myBatchValues[numberOfLayers]);
+
+        for (int k = numberOfLayers - 1; k >= 0; k--) {
+            myANN.getLayer(k).adjust(myBatchValues[k], myBatchValues[k + 1], myBatchGradients[k + 1], -myLearningRate, k == 0 ? null : myBatchGradients[k]);
+        }
+    }
+
     double error(final Access1D<?> target, final Access1D<?> current) {
         return myError.invoke(target, current);
     }
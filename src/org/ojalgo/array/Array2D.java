@@ -261,6 +261,14 @@ public final class Array2D<N extends Comparable<N>> implements Access2D<N>, Acce
             return myDelegate.scalar();
         }
 
+        /**
+         * @param array The (column major) elements
+         * @param rows The number of rows
+         */
+        public Array2D<N> wrap(final BasicArray<N> array, final long rows) {
+            return array.wrapInArray2D(rows);
+        }
+
     }
 
     public static final Factory<BigDecimal> BIG = new Factory<>(BigArray.FACTORY);
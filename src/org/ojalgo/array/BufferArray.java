@@ -34,7 +34,6 @@ import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
 
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.function.BinaryFunction;
@@ -58,6 +57,10 @@ import org.ojalgo.structure.StructureAnyD;
  * The odd member among the array implementations. It allows to create arrays based on memory mapped files or
  * direct buffers.
  * </p>
+ * <p>
+ * Larger memory mapped files are handled by {@link MappedArray}, that is long indexed and maps the file in
+ * several windows.
+ * </p>
  *
  * @author apete
  */
@@ -234,49 +237,8 @@ public abstract class BufferArray extends PlainArray<Double> {
 
             if (tmpCount > (1L << 8)) {
 
-                final DenseArray.Factory<Double> tmpFactory = new DenseArray.Factory<Double>() {
-
-                    long offset = 0L;
-
-                    @Override
-                    public AggregatorSet<Double> aggregator() {
-                        return PrimitiveAggregator.getSet();
-                    }
-
-                    @Override
-                    public FunctionSet<Double> function() {
-                        return PrimitiveFunction.getSet();
-                    }
-
-                    @Override
-                    public Scalar.Factory<Double> scalar() {
-                        return PrimitiveScalar.FACTORY;
-                    }
-
-                    @Override
-                    long getElementSize() {
-                        return DOUBLE_ELEMENT_SIZE;
-                    }
-
-                    @Override
-                    PlainArray<Double> makeDenseArray(final long size) {
-
-                        final long tmpSize2 = size * DOUBLE_ELEMENT_SIZE;
-                        try {
-
-                            final MappedByteBuffer tmpMap = tmpFileChannel.map(MapMode.READ_WRITE, offset, tmpSize2);
-                            tmpMap.order(ByteOrder.nativeOrder());
-                            return new DoubleBufferArray(tmpMap.asDoubleBuffer(), tmpRandomAccessFile);
-                        } catch (final IOException exception) {
-                            throw new RuntimeException(exception);
-                        } finally {
-                            offset += tmpSize2;
-                        }
-                    }
-
-                };
-
-                return tmpFactory.makeSegmented(structure);
+                // Mapped in several windows, each no larger than DIRECT64.getCapacityLimit()
+                return new MappedArray(tmpRandomAccessFile, tmpCount, MappedArray.WINDOW_BITS);
 
             } else {
 
@@ -0,0 +1,422 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.constant.PrimitiveMath;
+import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * <p>
+ * A long indexed array of double backed by a memory mapped file. The file is mapped in fixed size windows (a
+ * single mapping can't be larger than 2GB), in the spirit of {@link SegmentedArray}, so the number of elements
+ * is only limited by the file system.
+ * </p>
+ * <p>
+ * The range/bulk operations ({@link #fillRange(long, long, Double)}, {@link #visitRange(long, long, VoidFunction)},
+ * {@link #modifyRange(long, long, UnaryFunction)}...) iterate window by window, reading and writing the mapped
+ * memory directly - nothing is copied to the heap. All element access is absolute (doesn't change the state of
+ * the underlying buffers) so different threads may work on different ranges concurrently.
+ * </p>
+ *
+ * @author apete
+ */
+public final class MappedArray extends BasicArray<Double> {
+
+    /**
+     * 2^27 doubles = 1GB per window. A window can never be larger than what a single mapped buffer can hold,
+     * {@link BufferArray#DIRECT64}'s capacity limit.
+     */
+    static final int WINDOW_BITS = 27;
+
+    /**
+     * Will create the file if it doesn't exist. If it does exist its current contents become the initial
+     * elements of the array.
+     */
+    public static MappedArray make(final File file, final long count) {
+        return MappedArray.make(file, count, WINDOW_BITS);
+    }
+
+    static MappedArray make(final File file, final long count, final int windowBits) {
+        try {
+            return new MappedArray(new RandomAccessFile(file, "rw"), count, windowBits);
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * A mapping is otherwise only released when it's garbage collected. There is no public API for this -
+     * sun.misc.Unsafe#invokeCleaner (Java 9+) or the buffer's cleaner (Java 8) are used if available. If
+     * neither works the mapping is left for the garbage collector.
+     */
+    private static void unmap(final MappedByteBuffer mapping) {
+        try {
+            final Class<?> tmpUnsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field tmpUnsafeField = tmpUnsafeClass.getDeclaredField("theUnsafe");
+            tmpUnsafeField.setAccessible(true);
+            tmpUnsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(tmpUnsafeField.get(null), mapping);
+        } catch (final ReflectiveOperationException | RuntimeException java9) {
+            try {
+                final Method tmpCleanerMethod = mapping.getClass().getMethod("cleaner");
+                tmpCleanerMethod.setAccessible(true);
+                final Object tmpCleaner = tmpCleanerMethod.invoke(mapping);
+                if (tmpCleaner != null) {
+                    tmpCleaner.getClass().getMethod("clean").invoke(tmpCleaner);
+                }
+            } catch (final ReflectiveOperationException | RuntimeException java8) {
+                // Left for the garbage collector
+            }
+        }
+    }
+
+    private final long myCount;
+    private final RandomAccessFile myFile;
+    private final int myWindowBits;
+    private final long myWindowMask;
+    private final MappedByteBuffer[] myMappings;
+    private final DoubleBuffer[] myWindows;
+
+    MappedArray(final RandomAccessFile file, final long count, final int windowBits) throws IOException {
+
+        super(BufferArray.DIRECT64);
+
+        if ((windowBits < 0) || ((1L << windowBits) > BufferArray.DIRECT64.getCapacityLimit())) {
+            throw new IllegalArgumentException("The window size must be a power of 2 that fits in a single mapped buffer!");
+        }
+
+        myCount = count;
+        myFile = file;
+        myWindowBits = windowBits;
+
+        final long tmpWindowSize = 1L << windowBits;
+        myWindowMask = tmpWindowSize - 1L;
+
+        final int tmpNumberOfWindows = (int) ((count + myWindowMask) >> windowBits);
+
+        myMappings = new MappedByteBuffer[tmpNumberOfWindows];
+        myWindows = new DoubleBuffer[tmpNumberOfWindows];
+
+        final FileChannel tmpChannel = file.getChannel();
+
+        for (int w = 0; w < tmpNumberOfWindows; w++) {
+
+            final long tmpFirst = w * tmpWindowSize;
+            final long tmpSize = Math.min(tmpWindowSize, count - tmpFirst);
+
+            final MappedByteBuffer tmpMapping = tmpChannel.map(MapMode.READ_WRITE, tmpFirst * BufferArray.DOUBLE_ELEMENT_SIZE,
+                    tmpSize * BufferArray.DOUBLE_ELEMENT_SIZE);
+            tmpMapping.order(ByteOrder.nativeOrder());
+
+            myMappings[w] = tmpMapping;
+            myWindows[w] = tmpMapping.asDoubleBuffer();
+        }
+    }
+
+    @Override
+    public void add(final long index, final Comparable<?> addend) {
+        this.add(index, Scalar.doubleValue(addend));
+    }
+
+    @Override
+    public void add(final long index, final double addend) {
+        final DoubleBuffer tmpWindow = myWindows[(int) (index >> myWindowBits)];
+        final int tmpIndex = (int) (index & myWindowMask);
+        tmpWindow.put(tmpIndex, tmpWindow.get(tmpIndex) + addend);
+    }
+
+    /**
+     * Unmaps the windows and closes the file. The array can not be used after this.
+     */
+    public void close() {
+        for (int w = 0; w < myMappings.length; w++) {
+            final MappedByteBuffer tmpMapping = myMappings[w];
+            myMappings[w] = null;
+            myWindows[w] = null;
+            if (tmpMapping != null) {
+                MappedArray.unmap(tmpMapping);
+            }
+        }
+        try {
+            myFile.close();
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public long count() {
+        return myCount;
+    }
+
+    @Override
+    public double doubleValue(final long index) {
+        return myWindows[(int) (index >> myWindowBits)].get((int) (index & myWindowMask));
+    }
+
+    @Override
+    public void fillMatching(final Access1D<?> values) {
+
+        final long tmpLimit = Math.min(myCount, values.count());
+
+        long i = 0L;
+        while (i < tmpLimit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(tmpLimit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i++) {
+                tmpWindow.put((int) (i - tmpOffset), values.doubleValue(i));
+            }
+        }
+    }
+
+    @Override
+    public void fillOne(final long index, final Access1D<?> values, final long valueIndex) {
+        this.set(index, values.doubleValue(valueIndex));
+    }
+
+    @Override
+    public void fillOne(final long index, final Double value) {
+        this.set(index, value.doubleValue());
+    }
+
+    @Override
+    public void fillOne(final long index, final NullaryFunction<?> supplier) {
+        this.set(index, supplier.doubleValue());
+    }
+
+    @Override
+    public void fillRange(final long first, final long limit, final Double value) {
+        this.fill(first, limit, 1L, value);
+    }
+
+    @Override
+    public void fillRange(final long first, final long limit, final NullaryFunction<?> supplier) {
+        this.fill(first, limit, 1L, supplier);
+    }
+
+    /**
+     * Forces any changes to be written to the file.
+     *
+     * @see MappedByteBuffer#force()
+     */
+    public void force() {
+        for (final MappedByteBuffer tmpMapping : myMappings) {
+            if (tmpMapping != null) {
+                tmpMapping.force();
+            }
+        }
+    }
+
+    @Override
+    public Double get(final long index) {
+        return this.doubleValue(index);
+    }
+
+    @Override
+    public boolean isAbsolute(final long index) {
+        return PrimitiveScalar.isAbsolute(this.doubleValue(index));
+    }
+
+    @Override
+    public boolean isSmall(final long index, final double comparedTo) {
+        return PrimitiveScalar.isSmall(comparedTo, this.doubleValue(index));
+    }
+
+    @Override
+    public void modifyOne(final long index, final UnaryFunction<Double> modifier) {
+        final DoubleBuffer tmpWindow = myWindows[(int) (index >> myWindowBits)];
+        final int tmpIndex = (int) (index & myWindowMask);
+        tmpWindow.put(tmpIndex, modifier.invoke(tmpWindow.get(tmpIndex)));
+    }
+
+    @Override
+    public void reset() {
+        this.fill(0L, myCount, 1L, PrimitiveMath.ZERO);
+    }
+
+    @Override
+    public void set(final long index, final Comparable<?> value) {
+        this.set(index, Scalar.doubleValue(value));
+    }
+
+    @Override
+    public void set(final long index, final double value) {
+        myWindows[(int) (index >> myWindowBits)].put((int) (index & myWindowMask), value);
+    }
+
+    @Override
+    public void visitOne(final long index, final VoidFunction<Double> visitor) {
+        visitor.invoke(this.doubleValue(index));
+    }
+
+    @Override
+    protected void exchange(final long firstA, final long firstB, final long step, final long count) {
+
+        long tmpIndexA = firstA;
+        long tmpIndexB = firstB;
+
+        double tmpVal;
+
+        for (long i = 0L; i < count; i++) {
+
+            tmpVal = this.doubleValue(tmpIndexA);
+            this.set(tmpIndexA, this.doubleValue(tmpIndexB));
+            this.set(tmpIndexB, tmpVal);
+
+            tmpIndexA += step;
+            tmpIndexB += step;
+        }
+    }
+
+    @Override
+    protected void fill(final long first, final long limit, final long step, final Double value) {
+        this.fill(first, limit, step, value.doubleValue());
+    }
+
+    @Override
+    protected void fill(final long first, final long limit, final long step, final NullaryFunction<?> supplier) {
+
+        long i = first;
+        while (i < limit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(limit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i += step) {
+                tmpWindow.put((int) (i - tmpOffset), supplier.doubleValue());
+            }
+        }
+    }
+
+    @Override
+    protected boolean isSmall(final long first, final long limit, final long step, final double comparedTo) {
+
+        long i = first;
+        while (i < limit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(limit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i += step) {
+                if (!PrimitiveScalar.isSmall(comparedTo, tmpWindow.get((int) (i - tmpOffset)))) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    protected void modify(final long first, final long limit, final long step, final Access1D<Double> left, final BinaryFunction<Double> function) {
+
+        long i = first;
+        while (i < limit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(limit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i += step) {
+                final int tmpIndex = (int) (i - tmpOffset);
+                tmpWindow.put(tmpIndex, function.invoke(left.doubleValue(i), tmpWindow.get(tmpIndex)));
+            }
+        }
+    }
+
+    @Override
+    protected void modify(final long first, final long limit, final long step, final BinaryFunction<Double> function, final Access1D<Double> right) {
+
+        long i = first;
+        while (i < limit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(limit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i += step) {
+                final int tmpIndex = (int) (i - tmpOffset);
+                tmpWindow.put(tmpIndex, function.invoke(tmpWindow.get(tmpIndex), right.doubleValue(i)));
+            }
+        }
+    }
+
+    @Override
+    protected void modify(final long first, final long limit, final long step, final UnaryFunction<Double> function) {
+
+        long i = first;
+        while (i < limit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(limit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i += step) {
+                final int tmpIndex = (int) (i - tmpOffset);
+                tmpWindow.put(tmpIndex, function.invoke(tmpWindow.get(tmpIndex)));
+            }
+        }
+    }
+
+    @Override
+    protected void visit(final long first, final long limit, final long step, final VoidFunction<Double> visitor) {
+
+        long i = first;
+        while (i < limit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(limit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i += step) {
+                visitor.invoke(tmpWindow.get((int) (i - tmpOffset)));
+            }
+        }
+    }
+
+    @Override
+    boolean isPrimitive() {
+        return true;
+    }
+
+    private void fill(final long first, final long limit, final long step, final double value) {
+
+        long i = first;
+        while (i < limit) {
+            final DoubleBuffer tmpWindow = myWindows[(int) (i >> myWindowBits)];
+            final long tmpOffset = i & ~myWindowMask;
+            final long tmpWindowLimit = Math.min(limit, tmpOffset + myWindowMask + 1L);
+            for (; i < tmpWindowLimit; i += step) {
+                tmpWindow.put((int) (i - tmpOffset), value);
+            }
+        }
+    }
+
+}
@@ -60,6 +60,9 @@ public interface ArrayOperation {
         FillAll.THRESHOLD = Math.min(value, FillAll.THRESHOLD);
         FillMatchingDual.THRESHOLD = Math.min(value, FillMatchingDual.THRESHOLD);
         FillMatchingSingle.THRESHOLD = Math.min(value, FillMatchingSingle.THRESHOLD);
+        GEMM.THRESHOLD = Math.min(value, GEMM.THRESHOLD);
+        GEQRF.THRESHOLD = Math.min(value, GEQRF.THRESHOLD);
+        GETRF.THRESHOLD = Math.min(value, GETRF.THRESHOLD);
         GenerateApplyAndCopyHouseholderColumn.THRESHOLD = Math.min(value, GenerateApplyAndCopyHouseholderColumn.THRESHOLD);
         GenerateApplyAndCopyHouseholderRow.THRESHOLD = Math.min(value, GenerateApplyAndCopyHouseholderRow.THRESHOLD);
         HermitianRank2Update.THRESHOLD = Math.min(value, HermitianRank2Update.THRESHOLD);
@@ -78,6 +81,7 @@ public interface ArrayOperation {
         OperationParameter.THRESHOLD = Math.min(value, OperationParameter.THRESHOLD);
         OperationUnary.THRESHOLD = Math.min(value, OperationUnary.THRESHOLD);
         OperationVoid.THRESHOLD = Math.min(value, OperationVoid.THRESHOLD);
+        POTRF.THRESHOLD = Math.min(value, POTRF.THRESHOLD);
         ROT.THRESHOLD = Math.min(value, ROT.THRESHOLD);
         RotateLeft.THRESHOLD = Math.min(value, RotateLeft.THRESHOLD);
         RotateRight.THRESHOLD = Math.min(value, RotateRight.THRESHOLD);
@@ -90,6 +94,7 @@ public interface ArrayOperation {
         SubstituteBackwards.THRESHOLD = Math.min(value, SubstituteBackwards.THRESHOLD);
         SubstituteForwards.THRESHOLD = Math.min(value, SubstituteForwards.THRESHOLD);
         SWAP.THRESHOLD = Math.min(value, SWAP.THRESHOLD);
+        SYRK.THRESHOLD = Math.min(value, SYRK.THRESHOLD);
         VisitAll.THRESHOLD = Math.min(value, VisitAll.THRESHOLD);
     }
 
@@ -117,6 +122,9 @@ public interface ArrayOperation {
         FillAll.THRESHOLD = Math.max(value, FillAll.THRESHOLD);
         FillMatchingDual.THRESHOLD = Math.max(value, FillMatchingDual.THRESHOLD);
         FillMatchingSingle.THRESHOLD = Math.max(value, FillMatchingSingle.THRESHOLD);
+        GEMM.THRESHOLD = Math.max(value, GEMM.THRESHOLD);
+        GEQRF.THRESHOLD = Math.max(value, GEQRF.THRESHOLD);
+        GETRF.THRESHOLD = Math.max(value, GETRF.THRESHOLD);
         GenerateApplyAndCopyHouseholderColumn.THRESHOLD = Math.max(value, GenerateApplyAndCopyHouseholderColumn.THRESHOLD);
         GenerateApplyAndCopyHouseholderRow.THRESHOLD = Math.max(value, GenerateApplyAndCopyHouseholderRow.THRESHOLD);
         HermitianRank2Update.THRESHOLD = Math.max(value, HermitianRank2Update.THRESHOLD);
@@ -135,6 +143,7 @@ public interface ArrayOperation {
         OperationParameter.THRESHOLD = Math.max(value, OperationParameter.THRESHOLD);
         OperationUnary.THRESHOLD = Math.max(value, OperationUnary.THRESHOLD);
         OperationVoid.THRESHOLD = Math.max(value, OperationVoid.THRESHOLD);
+        POTRF.THRESHOLD = Math.max(value, POTRF.THRESHOLD);
         ROT.THRESHOLD = Math.max(value, ROT.THRESHOLD);
         RotateLeft.THRESHOLD = Math.max(value, RotateLeft.THRESHOLD);
         RotateRight.THRESHOLD = Math.max(value, RotateRight.THRESHOLD);
@@ -147,6 +156,7 @@ public interface ArrayOperation {
         SubstituteBackwards.THRESHOLD = Math.max(value, SubstituteBackwards.THRESHOLD);
         SubstituteForwards.THRESHOLD = Math.max(value, SubstituteForwards.THRESHOLD);
         SWAP.THRESHOLD = Math.max(value, SWAP.THRESHOLD);
+        SYRK.THRESHOLD = Math.max(value, SYRK.THRESHOLD);
         VisitAll.THRESHOLD = Math.max(value, VisitAll.THRESHOLD);
     }
 
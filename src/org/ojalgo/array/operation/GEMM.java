@@ -0,0 +1,340 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.operation;
+
+import org.ojalgo.OjAlgoUtils;
+
+/**
+ * General matrix-matrix multiplication, <code>C = C + A * B</code>, for column-major double[] data. The
+ * operands are traversed in cache sized blocks. The blocks are copied (packed) in to contiguous panels that
+ * are consumed by a register tiled {@value #MR}x{@value #NR} micro-kernel. The block sizes are derived from
+ * the L1, L2 and top level cache sizes of {@link OjAlgoUtils#ENVIRONMENT}.
+ * <ul>
+ * <li>kc: The depth of a block - a {@value #NR} columns wide panel of B, and a {@value #MR} rows tall panel
+ * of A, share the L1 cache.</li>
+ * <li>mc: The number of rows in a block of A - an mc x kc block of A fits in half the L2 cache.</li>
+ * <li>nc: The number of columns in a block of B - a kc x nc block of B fits in half the top level
+ * cache.</li>
+ * </ul>
+ * Based on "Anatomy of High-Performance Matrix Multiplication" by Kazushige Goto and Robert A. van de Geijn.
+ *
+ * @author apete
+ */
+public final class GEMM implements BLAS3 {
+
+    static final class BlockSizes {
+
+        final int kc;
+        final int mc;
+        final int nc;
+
+        BlockSizes(final long l1, final long l2, final long top) {
+
+            super();
+
+            final int l1Elements = (int) Math.min(Integer.MAX_VALUE, l1 / ELEMENT_SIZE);
+            final int l2Elements = (int) Math.min(Integer.MAX_VALUE, l2 / ELEMENT_SIZE);
+            final int topElements = (int) Math.min(Integer.MAX_VALUE, top / ELEMENT_SIZE);
+
+            kc = Math.max(MR + NR, l1Elements / (2 * (MR + NR)));
+            mc = Math.max(MR, ((l2Elements / (2 * kc)) / MR) * MR);
+            nc = Math.max(NR, ((Math.max(topElements, l2Elements) / (2 * kc)) / NR) * NR);
+        }
+
+    }
+
+    /**
+     * Use this kernel when the number of rows, and the complexity, are both larger than this.
+     */
+    public static int THRESHOLD = 64;
+
+    static final int MR = 4;
+    static final int NR = 4;
+
+    private static final long ELEMENT_SIZE = 8L;
+
+    /**
+     * @param product The (column-major) product, m x n, the result is added to what's already there
+     * @param firstColumn The first column, in the product and the right argument, to include.
+     * @param columnLimit The first column NOT to include.
+     * @param left The (column-major) left argument, m x complexity
+     * @param complexity The number of columns in left, and rows in right
+     * @param right The (column-major) right argument, complexity x n
+     */
+    public static void invoke(final double[] product, final int firstColumn, final int columnLimit, final double[] left, final int complexity,
+            final double[] right) {
+        GEMM.invoke(product, firstColumn, columnLimit, left, complexity, right, GEMM.sizes());
+    }
+
+    /**
+     * General, strided, variant: <code>C = C + alpha * A * B</code> where A, B and C are (column-major)
+     * sub-matrices of possibly larger arrays - they may even be different parts of the same array, as long
+     * as C does not overlap A or B.
+     *
+     * @param product C
+     * @param offsetProduct The index of C(0,0)
+     * @param structureProduct The distance between consecutive columns in C (leading dimension)
+     * @param alpha The scale factor
+     * @param left A
+     * @param offsetLeft The index of A(0,0)
+     * @param structureLeft The distance between consecutive columns in A
+     * @param right B
+     * @param offsetRight The index of B(0,0)
+     * @param structureRight The distance between consecutive columns in B
+     * @param rows The number of rows in C and A
+     * @param columns The number of columns in C and B
+     * @param complexity The number of columns in A and rows in B
+     */
+    public static void invoke(final double[] product, final int offsetProduct, final int structureProduct, final double alpha, final double[] left,
+            final int offsetLeft, final int structureLeft, final double[] right, final int offsetRight, final int structureRight, final int rows,
+            final int columns, final int complexity) {
+        GEMM.invoke(product, offsetProduct, structureProduct, alpha, left, offsetLeft, structureLeft, false, right, offsetRight, structureRight, rows,
+                columns, complexity, GEMM.sizes());
+    }
+
+    static void invoke(final double[] product, final int firstColumn, final int columnLimit, final double[] left, final int complexity,
+            final double[] right, final BlockSizes sizes) {
+
+        final int structure = left.length / complexity;
+
+        GEMM.invoke(product, firstColumn * structure, structure, 1.0, left, 0, structure, false, right, firstColumn * complexity, complexity,
+                structure, columnLimit - firstColumn, complexity, sizes);
+    }
+
+    /**
+     * With transposedLeft the left argument is instead stored as A<sup>T</sup> - element A(i,p) is at index
+     * offsetLeft + p + i * structureLeft.
+     */
+    static void invoke(final double[] product, final int offsetProduct, final int structureProduct, final double alpha, final double[] left,
+            final int offsetLeft, final int structureLeft, final boolean transposedLeft, final double[] right, final int offsetRight,
+            final int structureRight, final int rows, final int columns, final int complexity, final BlockSizes sizes) {
+
+        if ((rows <= 0) || (columns <= 0) || (complexity <= 0)) {
+            return;
+        }
+
+        final double[] packedLeft = new double[Math.min(sizes.mc, GEMM.roundUp(rows, MR)) * Math.min(sizes.kc, complexity)];
+        final double[] packedRight = new double[Math.min(sizes.nc, GEMM.roundUp(columns, NR)) * Math.min(sizes.kc, complexity)];
+
+        for (int jc = 0; jc < columns; jc += sizes.nc) {
+            final int nc = Math.min(sizes.nc, columns - jc);
+
+            for (int pc = 0; pc < complexity; pc += sizes.kc) {
+                final int kc = Math.min(sizes.kc, complexity - pc);
+
+                GEMM.packRight(right, offsetRight, structureRight, pc, kc, jc, nc, packedRight);
+
+                for (int ic = 0; ic < rows; ic += sizes.mc) {
+                    final int mc = Math.min(sizes.mc, rows - ic);
+
+                    GEMM.packLeft(left, offsetLeft, structureLeft, transposedLeft, alpha, ic, mc, pc, kc, packedLeft);
+
+                    for (int jr = 0; jr < nc; jr += NR) {
+                        final int nr = Math.min(NR, nc - jr);
+
+                        for (int ir = 0; ir < mc; ir += MR) {
+                            final int mr = Math.min(MR, mc - ir);
+
+                            GEMM.kernel(kc, packedLeft, ir * kc, packedRight, jr * kc, product,
+                                    offsetProduct + ic + ir + ((jc + jr) * structureProduct), structureProduct, mr, nr);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static BlockSizes sizes() {
+        return new BlockSizes(OjAlgoUtils.ENVIRONMENT.getL1Memory(), OjAlgoUtils.ENVIRONMENT.getL2Memory(), OjAlgoUtils.ENVIRONMENT.cache);
+    }
+
+    /**
+     * Multiplies an {@value #MR} x kc panel of A with a kc x {@value #NR} panel of B, and adds the (mr x nr
+     * part of the) result to C - starting at index baseC.
+     */
+    private static void kernel(final int kc, final double[] a, final int baseA, final double[] b, final int baseB, final double[] c, final int baseC,
+            final int structure, final int mr, final int nr) {
+
+        double c00 = 0.0;
+        double c10 = 0.0;
+        double c20 = 0.0;
+        double c30 = 0.0;
+        double c01 = 0.0;
+        double c11 = 0.0;
+        double c21 = 0.0;
+        double c31 = 0.0;
+        double c02 = 0.0;
+        double c12 = 0.0;
+        double c22 = 0.0;
+        double c32 = 0.0;
+        double c03 = 0.0;
+        double c13 = 0.0;
+        double c23 = 0.0;
+        double c33 = 0.0;
+
+        int indA = baseA;
+        int indB = baseB;
+
+        for (int p = 0; p < kc; p++) {
+
+            final double a0 = a[indA];
+            final double a1 = a[indA + 1];
+            final double a2 = a[indA + 2];
+            final double a3 = a[indA + 3];
+
+            double bj = b[indB];
+            c00 += a0 * bj;
+            c10 += a1 * bj;
+            c20 += a2 * bj;
+            c30 += a3 * bj;
+
+            bj = b[indB + 1];
+            c01 += a0 * bj;
+            c11 += a1 * bj;
+            c21 += a2 * bj;
+            c31 += a3 * bj;
+
+            bj = b[indB + 2];
+            c02 += a0 * bj;
+            c12 += a1 * bj;
+            c22 += a2 * bj;
+            c32 += a3 * bj;
+
+            bj = b[indB + 3];
+            c03 += a0 * bj;
+            c13 += a1 * bj;
+            c23 += a2 * bj;
+            c33 += a3 * bj;
+
+            indA += MR;
+            indB += NR;
+        }
+
+        if ((mr == MR) && (nr == NR)) {
+
+            int ind = baseC;
+            c[ind] += c00;
+            c[ind + 1] += c10;
+            c[ind + 2] += c20;
+            c[ind + 3] += c30;
+
+            ind += structure;
+            c[ind] += c01;
+            c[ind + 1] += c11;
+            c[ind + 2] += c21;
+            c[ind + 3] += c31;
+
+            ind += structure;
+            c[ind] += c02;
+            c[ind + 1] += c12;
+            c[ind + 2] += c22;
+            c[ind + 3] += c32;
+
+            ind += structure;
+            c[ind] += c03;
+            c[ind + 1] += c13;
+            c[ind + 2] += c23;
+            c[ind + 3] += c33;
+
+        } else {
+
+            final double[] tile = { c00, c10, c20, c30, c01, c11, c21, c31, c02, c12, c22, c32, c03, c13, c23, c33 };
+
+            for (int j = 0; j < nr; j++) {
+                final int base = baseC + (j * structure);
+                for (int i = 0; i < mr; i++) {
+                    c[base + i] += tile[i + (j * MR)];
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies (and scales) the mc x kc block of A, starting at (firstRow, firstColumn), in to {@value #MR} rows
+     * tall panels. Within each panel the elements are stored column by column. The last panel is padded with
+     * zeros.
+     */
+    private static void packLeft(final double[] left, final int offset, final int structure, final boolean transposed, final double alpha,
+            final int firstRow, final int mc, final int firstColumn, final int kc, final double[] packed) {
+
+        final int rowStride = transposed ? structure : 1;
+        final int colStride = transposed ? 1 : structure;
+
+        int ind = 0;
+
+        for (int ir = 0; ir < mc; ir += MR) {
+            final int mr = Math.min(MR, mc - ir);
+            final int row = firstRow + ir;
+
+            for (int p = 0; p < kc; p++) {
+                final int base = offset + (row * rowStride) + ((firstColumn + p) * colStride);
+                if (alpha == 1.0) {
+                    for (int i = 0; i < mr; i++) {
+                        packed[ind++] = left[base + (i * rowStride)];
+                    }
+                } else {
+                    for (int i = 0; i < mr; i++) {
+                        packed[ind++] = alpha * left[base + (i * rowStride)];
+                    }
+                }
+                for (int i = mr; i < MR; i++) {
+                    packed[ind++] = 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the kc x nc block of B, starting at (firstRow, firstColumn), in to {@value #NR} columns wide
+     * panels. Within each panel the elements are stored row by row. The last panel is padded with zeros.
+     */
+    private static void packRight(final double[] right, final int offset, final int structure, final int firstRow, final int kc, final int firstColumn,
+            final int nc, final double[] packed) {
+
+        int ind = 0;
+
+        for (int jr = 0; jr < nc; jr += NR) {
+            final int nr = Math.min(NR, nc - jr);
+            final int col = firstColumn + jr;
+
+            for (int p = 0; p < kc; p++) {
+                final int base = offset + firstRow + p + (col * structure);
+                for (int j = 0; j < nr; j++) {
+                    packed[ind++] = right[base + (j * structure)];
+                }
+                for (int j = nr; j < NR; j++) {
+                    packed[ind++] = 0.0;
+                }
+            }
+        }
+    }
+
+    private static int roundUp(final int value, final int multiple) {
+        return ((value + multiple - 1) / multiple) * multiple;
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
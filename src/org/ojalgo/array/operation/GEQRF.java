@@ -0,0 +1,269 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.operation;
+
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.matrix.transformation.Householder;
+
+/**
+ * Blocked Householder QR decomposition of a (column-major) matrix - [A] = [Q][R]. The Householder vectors are
+ * stored below the diagonal (with an implicit 1 on the diagonal) and [R] on and above the diagonal. For each
+ * panel of {@link #BLOCK} columns the reflectors are generated and applied within the panel one at a time.
+ * They are then accumulated in to compact WY form, H<sub>first</sub>...H<sub>limit-1</sub> = [I] -
+ * [V][T][V]<sup>T</sup>, and applied to the trailing matrix using {@link GEMM}, in parallel over column
+ * ranges. Corresponds to LAPACK's DGEQRF and DLARFB.
+ *
+ * @author apete
+ */
+public final class GEQRF implements ArrayOperation {
+
+    /**
+     * The panel width
+     */
+    public static int BLOCK = 32;
+    /**
+     * Use the blocked algorithm when the larger of the matrix dimensions is larger than this.
+     */
+    public static int THRESHOLD = 128;
+
+    /**
+     * @param data The (column-major) matrix to decompose, rows x columns
+     * @param rows The number of rows
+     * @param columns The number of columns
+     * @param worker Used to generate the individual reflectors
+     * @param betas Will be filled with the beta (scale) of each reflector - 0.0 where no reflector was needed
+     * @param factors Will be filled with the [T] factors calculated along the way, indexed by the first column
+     *        of their panel. Pass the same array to {@link #transformLeft(double[], int, int, double[], double[][], double[], int, boolean, boolean)}
+     *        to reuse them.
+     * @return The number of (non-identity) reflectors
+     */
+    public static int invoke(final double[] data, final int rows, final int columns, final Householder.Primitive64 worker, final double[] betas,
+            final double[][] factors) {
+
+        final int minDim = Math.min(rows, columns);
+        final int block = Math.max(1, BLOCK);
+
+        int count = 0;
+
+        for (int k = 0; k < minDim; k += block) {
+            final int limit = Math.min(minDim, k + block);
+
+            for (int j = k; j < limit; j++) {
+                if (((j + 1) < rows) && GenerateApplyAndCopyHouseholderColumn.invoke(data, rows, j, j, worker)) {
+                    HouseholderLeft.invoke(data, rows, j + 1, limit, worker);
+                    betas[j] = worker.beta;
+                    count++;
+                } else {
+                    betas[j] = 0.0;
+                }
+            }
+
+            if (limit < columns) {
+                GEQRF.update(data, rows, k, limit, betas, factors, data, limit, columns, true);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Multiplies the target, from the left, with [Q] or [Q]<sup>T</sup>.
+     *
+     * @param reflectors The Householder vectors as stored by
+     *        {@link #invoke(double[], int, int, Householder.Primitive64, double[], double[][])}
+     * @param rows The number of rows in both reflectors and target
+     * @param count The number of reflectors (min of rows and columns of the decomposed matrix)
+     * @param betas The reflector betas
+     * @param factors Cached [T] factors - any that are missing are calculated and stored
+     * @param target The (column-major) matrix to transform, in place
+     * @param columns The number of columns in target
+     * @param transposed true for [Q]<sup>T</sup>[target], and false for [Q][target]
+     * @param identity true if target is (the first columns of) the identity matrix. When building [Q] the
+     *        columns before each panel are then unaffected, and skipped.
+     */
+    public static void transformLeft(final double[] reflectors, final int rows, final int count, final double[] betas, final double[][] factors,
+            final double[] target, final int columns, final boolean transposed, final boolean identity) {
+
+        final int block = Math.max(1, BLOCK);
+
+        if (transposed) {
+            for (int k = 0; k < count; k += block) {
+                GEQRF.update(reflectors, rows, k, Math.min(count, k + block), betas, factors, target, 0, columns, true);
+            }
+        } else {
+            for (int k = ((count - 1) / block) * block; k >= 0; k -= block) {
+                GEQRF.update(reflectors, rows, k, Math.min(count, k + block), betas, factors, target, identity ? Math.min(k, columns) : 0,
+                        columns, false);
+            }
+        }
+    }
+
+    /**
+     * @return The upper triangular [T], width x width, so that H<sub>first</sub>...H<sub>limit-1</sub> = [I] -
+     *         [V][T][V]<sup>T</sup>
+     */
+    private static double[] factor(final double[] reflectors, final int rows, final int first, final int limit, final double[] betas,
+            final double[] unit) {
+
+        final int width = limit - first;
+
+        // Gram matrix [V]T[V] - the part in the diagonal block and then the rest
+        final double[] gram = new double[width * width];
+        for (int j = 0; j < width; j++) {
+            for (int i = 0; i <= j; i++) {
+                double sum = 0.0;
+                for (int r = j; r < width; r++) {
+                    sum += unit[r + (i * width)] * unit[r + (j * width)];
+                }
+                gram[i + (j * width)] = sum;
+            }
+        }
+        GEMM.invoke(gram, 0, width, 1.0, reflectors, limit + (first * rows), rows, true, reflectors, limit + (first * rows), rows, width, width,
+                rows - limit, GEMM.sizes());
+
+        final double[] retVal = new double[width * width];
+        for (int j = 0; j < width; j++) {
+            final double beta = betas[first + j];
+            retVal[j + (j * width)] = beta;
+            if (beta != 0.0) {
+                for (int i = 0; i < j; i++) {
+                    double sum = 0.0;
+                    for (int l = i; l < j; l++) {
+                        sum += retVal[i + (l * width)] * gram[l + (j * width)];
+                    }
+                    retVal[i + (j * width)] = -beta * sum;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    private static void multiply(final double[] reflectors, final int rows, final int first, final int limit, final double[] unit, final double[] factor,
+            final double[] target, final int firstColumn, final int columnLimit, final boolean transposed) {
+
+        final int width = limit - first;
+        final int count = columnLimit - firstColumn;
+
+        // [W] = [V]T[C]
+        final double[] work = new double[width * count];
+        for (int c = 0; c < count; c++) {
+            final int baseC = first + ((firstColumn + c) * rows);
+            for (int j = 0; j < width; j++) {
+                double sum = 0.0;
+                for (int i = j; i < width; i++) {
+                    sum += unit[i + (j * width)] * target[baseC + i];
+                }
+                work[j + (c * width)] = sum;
+            }
+        }
+        GEMM.invoke(work, 0, width, 1.0, reflectors, limit + (first * rows), rows, true, target, limit + (firstColumn * rows), rows, width, count,
+                rows - limit, GEMM.sizes());
+
+        // [W] = [T][W] or [T]T[W]
+        for (int c = 0; c < count; c++) {
+            final int baseW = c * width;
+            if (transposed) {
+                for (int i = width - 1; i >= 0; i--) {
+                    double sum = 0.0;
+                    for (int l = 0; l <= i; l++) {
+                        sum += factor[l + (i * width)] * work[baseW + l];
+                    }
+                    work[baseW + i] = sum;
+                }
+            } else {
+                for (int i = 0; i < width; i++) {
+                    double sum = 0.0;
+                    for (int l = i; l < width; l++) {
+                        sum += factor[i + (l * width)] * work[baseW + l];
+                    }
+                    work[baseW + i] = sum;
+                }
+            }
+        }
+
+        // [C] = [C] - [V][W]
+        for (int c = 0; c < count; c++) {
+            final int baseC = first + ((firstColumn + c) * rows);
+            final int baseW = c * width;
+            for (int i = 0; i < width; i++) {
+                double sum = 0.0;
+                for (int j = 0; j <= i; j++) {
+                    sum += unit[i + (j * width)] * work[baseW + j];
+                }
+                target[baseC + i] -= sum;
+            }
+        }
+        GEMM.invoke(target, limit + (firstColumn * rows), rows, -1.0, reflectors, limit + (first * rows), rows, false, work, 0, width, rows - limit,
+                count, width, GEMM.sizes());
+    }
+
+    private static void update(final double[] reflectors, final int rows, final int first, final int limit, final double[] betas,
+            final double[][] factors, final double[] target, final int firstColumn, final int columnLimit, final boolean transposed) {
+
+        final int width = limit - first;
+
+        if ((width <= 0) || (firstColumn >= columnLimit)) {
+            return;
+        }
+
+        // The diagonal block of [V] - unit lower triangular
+        final double[] unit = new double[width * width];
+        for (int j = 0; j < width; j++) {
+            unit[j + (j * width)] = 1.0;
+            for (int i = j + 1; i < width; i++) {
+                unit[i + (j * width)] = reflectors[first + i + ((first + j) * rows)];
+            }
+        }
+
+        double[] cached = factors[first];
+        if ((cached == null) || (cached.length != (width * width))) {
+            factors[first] = cached = GEQRF.factor(reflectors, rows, first, limit, betas, unit);
+        }
+        final double[] factor = cached;
+
+        final int block = Math.max(1, BLOCK);
+
+        if ((columnLimit - firstColumn) > block) {
+
+            final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first2, final int limit2) {
+                    GEQRF.multiply(reflectors, rows, first, limit, unit, factor, target, first2, limit2, transposed);
+                }
+            };
+
+            conquerer.invoke(firstColumn, columnLimit, block);
+
+        } else {
+
+            GEQRF.multiply(reflectors, rows, first, limit, unit, factor, target, firstColumn, columnLimit, transposed);
+        }
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
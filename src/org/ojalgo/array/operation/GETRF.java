@@ -0,0 +1,163 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.operation;
+
+import org.ojalgo.concurrent.DivideAndConquer;
+
+/**
+ * Blocked, right-looking, LU factorisation with (optional) partial pivoting of a (column-major) general
+ * matrix - [P][A] = [L][U]. For each panel of {@link #BLOCK} columns the panel is factorised column by
+ * column, then the remaining columns are (in parallel) first solved for the corresponding block row of [U]
+ * and then updated with {@link GEMM}. Corresponds to LAPACK's DGETRF.
+ *
+ * @author apete
+ */
+public final class GETRF implements ArrayOperation {
+
+    /**
+     * The panel width
+     */
+    public static int BLOCK = 64;
+    /**
+     * Use the blocked algorithm when the matrix (column) dimension is larger than this.
+     */
+    public static int THRESHOLD = 256;
+
+    /**
+     * @param data The (column-major) matrix to factorise, rows x columns
+     * @param rows The number of rows
+     * @param columns The number of columns
+     * @param pivoting Partial (row) pivoting or not
+     * @param interchanges Will be filled with the row that was exchanged with row ij at step ij (ij if there
+     *        was no exchange) - the exchanges are applied to the entire rows of data.
+     */
+    public static void invoke(final double[] data, final int rows, final int columns, final boolean pivoting, final int[] interchanges) {
+
+        final int block = Math.max(1, BLOCK);
+        final int minDim = Math.min(rows, columns);
+
+        for (int k = 0; k < minDim; k += block) {
+            final int first = k;
+            final int limit = Math.min(minDim, k + block);
+
+            GETRF.panel(data, rows, columns, first, limit, pivoting, interchanges);
+
+            if (limit < columns) {
+
+                if ((columns - limit) > block) {
+
+                    final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                        @Override
+                        protected void conquer(final int firstColumn, final int columnLimit) {
+                            GETRF.update(data, rows, first, limit, firstColumn, columnLimit);
+                        }
+                    };
+
+                    conquerer.invoke(limit, columns, block);
+
+                } else {
+
+                    GETRF.update(data, rows, first, limit, limit, columns);
+                }
+            }
+        }
+    }
+
+    private static void panel(final double[] data, final int rows, final int columns, final int first, final int limit, final boolean pivoting,
+            final int[] interchanges) {
+
+        for (int j = first; j < limit; j++) {
+
+            final int baseJ = j * rows;
+
+            if (pivoting) {
+
+                int pivotRow = j;
+                double largest = Math.abs(data[baseJ + j]);
+                for (int i = j + 1; i < rows; i++) {
+                    final double value = Math.abs(data[baseJ + i]);
+                    if (value > largest) {
+                        largest = value;
+                        pivotRow = i;
+                    }
+                }
+
+                interchanges[j] = pivotRow;
+
+                if (pivotRow != j) {
+                    for (int c = 0, index = 0; c < columns; c++, index += rows) {
+                        final double tmpVal = data[index + j];
+                        data[index + j] = data[index + pivotRow];
+                        data[index + pivotRow] = tmpVal;
+                    }
+                }
+
+            } else {
+
+                interchanges[j] = j;
+            }
+
+            final double pivot = data[baseJ + j];
+
+            if (pivot != 0.0) {
+
+                for (int i = baseJ + j + 1, end = baseJ + rows; i < end; i++) {
+                    data[i] /= pivot;
+                }
+
+                for (int jj = j + 1; jj < limit; jj++) {
+                    AXPY.invoke(data, jj * rows, -data[j + (jj * rows)], data, baseJ, j + 1, rows);
+                }
+
+            } else {
+
+                // Nothing to eliminate with - make sure this column has no effect on the others
+                for (int i = baseJ + j, end = baseJ + rows; i < end; i++) {
+                    data[i] = 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves for the block row of [U], and updates the trailing matrix, in the columns [firstColumn,columnLimit).
+     */
+    private static void update(final double[] data, final int rows, final int first, final int limit, final int firstColumn, final int columnLimit) {
+
+        for (int c = firstColumn; c < columnLimit; c++) {
+            final int baseC = c * rows;
+            for (int j = first; j < limit; j++) {
+                AXPY.invoke(data, baseC, -data[baseC + j], data, j * rows, j + 1, limit);
+            }
+        }
+
+        GEMM.invoke(data, limit + (firstColumn * rows), rows, -1.0, data, limit + (first * rows), rows, data, first + (firstColumn * rows), rows,
+                rows - limit, columnLimit - firstColumn, limit - first);
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
@@ -47,7 +47,7 @@ public final class MultiplyBoth implements ArrayOperation {
     public static int THRESHOLD = 16;
 
     static final MultiplyBoth.Primitive PRIMITIVE = (product, left, complexity, right) -> MultiplyBoth.invokePrimitive64(product, 0,
-            ((int) left.count()) / complexity, left, complexity, right);
+            (int) (left.count() / complexity), left, complexity, right);
 
     static final MultiplyBoth.Primitive PRIMITIVE_0XN = (product, left, complexity, right) -> {
 
@@ -558,7 +558,7 @@ public final class MultiplyBoth implements ArrayOperation {
             }
         };
 
-        tmpConquerer.invoke(0, ((int) left.count()) / complexity, THRESHOLD);
+        tmpConquerer.invoke(0, (int) (left.count() / complexity), THRESHOLD);
     };
 
     public static <N extends Scalar<N>> MultiplyBoth.Generic<N> newGeneric(final int rows, final int columns) {
@@ -742,11 +742,11 @@ public final class MultiplyBoth implements ArrayOperation {
             final int tmpLimitOfRow = MatrixStore.limitOfRow(left, i, complexity);
 
             for (int c = tmpFirstInRow; c < tmpLimitOfRow; c++) {
-                tmpLeftRow[c] = left.doubleValue(Structure2D.index(tmpRowDim, i, c));
+                tmpLeftRow[c] = left.doubleValue(Structure2D.index((long) tmpRowDim, i, c));
             }
 
             for (int j = 0; j < tmpColDim; j++) {
-                final int tmpColBase = j * complexity;
+                final long tmpColBase = j * (long) complexity;
 
                 tmpFirst = MatrixStore.firstInColumn(right, j, tmpFirstInRow);
                 tmpLimit = MatrixStore.limitOfColumn(right, j, tmpLimitOfRow);
@@ -559,15 +559,42 @@ public final class MultiplyNeither implements ArrayOperation {
 
         Arrays.fill(product, 0.0);
 
+        final int rows = left.length / complexity;
+        final int columns = right.length / complexity;
+
+        // Few rows are fine too, if the complexity is large enough
+        final boolean blocked = (complexity > GEMM.THRESHOLD) && ((rows > GEMM.THRESHOLD) || (complexity > (GEMM.THRESHOLD * GEMM.THRESHOLD)));
+
+        if (blocked && (columns <= THRESHOLD)) {
+
+            // Tall and narrow product - divide the rows rather than the columns
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    GEMM.invoke(product, first, rows, 1.0, left, first, rows, right, 0, complexity, limit - first, columns, complexity);
+                }
+            };
+
+            tmpConquerer.invoke(0, rows, GEMM.THRESHOLD);
+
+            return;
+        }
+
         final DivideAndConquer tmpConquerer = new DivideAndConquer() {
 
             @Override
             public void conquer(final int first, final int limit) {
-                MultiplyNeither.invoke(product, first, limit, left, complexity, right);
+                if (blocked) {
+                    GEMM.invoke(product, first, limit, left, complexity, right);
+                } else {
+                    MultiplyNeither.invoke(product, first, limit, left, complexity, right);
+                }
             }
         };
 
-        tmpConquerer.invoke(0, right.length / complexity, THRESHOLD);
+        tmpConquerer.invoke(0, columns, THRESHOLD);
     };
 
     public static <N extends Scalar<N>> MultiplyNeither.Generic<N> newGeneric(final long rows, final long columns) {
@@ -605,7 +632,7 @@ public final class MultiplyNeither implements ArrayOperation {
     }
 
     public static MultiplyNeither.Primitive64 newPrimitive64(final long rows, final long columns) {
-        if (rows > THRESHOLD) {
+        if ((rows > THRESHOLD) || ((rows > 10L) && (columns > THRESHOLD))) {
             return PRIMITIVE_MT;
         } else if (rows == 10) {
             return PRIMITIVE_0XN;
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.operation;
+
+/**
+ * Blocked, right-looking, Cholesky factorisation of a (column-major) symmetric positive definite matrix -
+ * [A] = [L][L]<sup>T</sup>. Only the lower triangle is referenced and overwritten with [L]. For each panel of
+ * {@link #BLOCK} columns the panel itself is factorised column by column, then the trailing matrix is updated
+ * with a (parallel, tiled) {@link SYRK}. Corresponds to LAPACK's DPOTRF.
+ *
+ * @author apete
+ */
+public final class POTRF implements ArrayOperation {
+
+    /**
+     * The panel width
+     */
+    public static int BLOCK = 64;
+    /**
+     * Use the blocked algorithm when the matrix dimension is larger than this.
+     */
+    public static int THRESHOLD = 256;
+
+    /**
+     * @param data The (column-major) matrix to factorise, dim x dim
+     * @param dim The number of rows/columns
+     * @param pivots Will be filled with the diagonal elements as they were just before taking their square
+     *        roots - up until and including the first that is not positive (if any)
+     * @return The number of successfully factorised columns, dim if the matrix is positive definite
+     */
+    public static int invoke(final double[] data, final int dim, final double[] pivots) {
+
+        final int block = Math.max(1, BLOCK);
+
+        for (int k = 0; k < dim; k += block) {
+            final int limit = Math.min(dim, k + block);
+
+            final int factorised = POTRF.panel(data, dim, k, limit, pivots);
+            if (factorised < limit) {
+                return factorised;
+            }
+
+            SYRK.invoke(data, limit + (limit * dim), dim, -1.0, data, limit + (k * dim), dim, dim - limit, limit - k);
+        }
+
+        return dim;
+    }
+
+    private static int panel(final double[] data, final int dim, final int first, final int limit, final double[] pivots) {
+
+        for (int j = first; j < limit; j++) {
+
+            final int diag = j + (j * dim);
+
+            final double pivot = data[diag];
+            pivots[j] = pivot;
+            if (!(pivot > 0.0)) {
+                return j;
+            }
+
+            final double value = data[diag] = Math.sqrt(pivot);
+            for (int i = diag + 1, end = (j + 1) * dim; i < end; i++) {
+                data[i] /= value;
+            }
+
+            for (int jj = j + 1; jj < limit; jj++) {
+                AXPY.invoke(data, jj * dim, -data[jj + (j * dim)], data, j * dim, jj, dim);
+            }
+        }
+
+        return limit;
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
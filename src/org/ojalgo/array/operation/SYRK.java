@@ -0,0 +1,123 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.operation;
+
+import org.ojalgo.concurrent.DivideAndConquer;
+
+/**
+ * Symmetric rank-k update, <code>C = C + alpha * A * A<sup>T</sup></code>, of the lower triangular part of
+ * the (column-major) square C. Only the lower triangle, including the diagonal, of C is touched. C is split
+ * in column tiles. The part of each tile below the diagonal block is calculated with {@link GEMM}, and the
+ * tiles are processed in parallel.
+ *
+ * @author apete
+ */
+public final class SYRK implements BLAS3 {
+
+    public static int THRESHOLD = 64;
+
+    /**
+     * @param product C
+     * @param offsetProduct The index of C(0,0)
+     * @param structureProduct The distance between consecutive columns in C
+     * @param alpha The scale factor
+     * @param left A
+     * @param offsetLeft The index of A(0,0)
+     * @param structureLeft The distance between consecutive columns in A
+     * @param dim The number of rows and columns in C, and rows in A
+     * @param complexity The number of columns in A
+     */
+    public static void invoke(final double[] product, final int offsetProduct, final int structureProduct, final double alpha, final double[] left,
+            final int offsetLeft, final int structureLeft, final int dim, final int complexity) {
+
+        if ((dim <= 0) || (complexity <= 0)) {
+            return;
+        }
+
+        // A transposed - complexity x dim - so that any range of columns is a contiguous (GEMM right) argument
+        final double[] transposed = new double[complexity * dim];
+        for (int p = 0; p < complexity; p++) {
+            final int base = offsetLeft + (p * structureLeft);
+            for (int i = 0; i < dim; i++) {
+                transposed[p + (i * complexity)] = left[base + i];
+            }
+        }
+
+        final int width = Math.max(GEMM.NR, THRESHOLD);
+        final int tiles = (dim + width - 1) / width;
+
+        if (tiles > 1) {
+
+            // The first tiles have (many) more rows than the last ones - pair them up to balance the load
+            final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int t = first; t < limit; t++) {
+                        SYRK.tile(product, offsetProduct, structureProduct, alpha, left, offsetLeft, structureLeft, transposed, dim, complexity,
+                                t * width, Math.min(dim, (t + 1) * width));
+                        final int mirror = tiles - 1 - t;
+                        if (mirror != t) {
+                            SYRK.tile(product, offsetProduct, structureProduct, alpha, left, offsetLeft, structureLeft, transposed, dim, complexity,
+                                    mirror * width, Math.min(dim, (mirror + 1) * width));
+                        }
+                    }
+                }
+            };
+
+            conquerer.invoke(0, (tiles + 1) / 2, 1);
+
+        } else {
+
+            SYRK.tile(product, offsetProduct, structureProduct, alpha, left, offsetLeft, structureLeft, transposed, dim, complexity, 0, dim);
+        }
+    }
+
+    private static void tile(final double[] product, final int offsetProduct, final int structureProduct, final double alpha, final double[] left,
+            final int offsetLeft, final int structureLeft, final double[] transposed, final int dim, final int complexity, final int first,
+            final int limit) {
+
+        // The diagonal block - lower triangle only
+        for (int j = first; j < limit; j++) {
+            final int baseJ = j * complexity;
+            final int baseC = offsetProduct + (j * structureProduct);
+            for (int i = j; i < limit; i++) {
+                final int baseI = i * complexity;
+                double sum = 0.0;
+                for (int p = 0; p < complexity; p++) {
+                    sum += transposed[baseI + p] * transposed[baseJ + p];
+                }
+                product[baseC + i] += alpha * sum;
+            }
+        }
+
+        // Everything below the diagonal block
+        GEMM.invoke(product, offsetProduct + limit + (first * structureProduct), structureProduct, alpha, left, offsetLeft + limit, structureLeft,
+                transposed, first * complexity, complexity, dim - limit, limit - first, complexity);
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
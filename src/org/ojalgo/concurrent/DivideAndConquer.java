@@ -21,17 +21,108 @@
  */
 package org.ojalgo.concurrent;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.ojalgo.OjAlgoUtils;
-import org.ojalgo.ProgrammingError;
 
 /**
+ * Recursively splits an index range in halves and executes the parts in parallel using a work-stealing
+ * {@link ForkJoinPool}. One half is forked and the other is computed by the current thread, so the number of
+ * threads involved never exceeds the parallelism of the pool - regardless of how many concurrent callers
+ * there are.
+ * <p>
+ * By default the tasks are executed by a shared pool of daemon threads with parallelism equal to
+ * {@link OjAlgoUtils#ENVIRONMENT} threads. A different pool can be specified per call or per thread (see
+ * {@link #setExecutor(ForkJoinPool)}). If the calling thread already is a worker in some {@link ForkJoinPool}
+ * (and no other pool was specified) then that pool is used.
+ *
  * @author apete
  */
 public abstract class DivideAndConquer {
 
+    static final class Divider extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DivideAndConquer myConquerer;
+        private final int myFirst;
+        private final int myLimit;
+        private final int myThreshold;
+        private final int myWorkers;
+
+        Divider(final DivideAndConquer conquerer, final int first, final int limit, final int threshold, final int workers) {
+            super();
+            myConquerer = conquerer;
+            myFirst = first;
+            myLimit = limit;
+            myThreshold = threshold;
+            myWorkers = workers;
+        }
+
+        @Override
+        protected void compute() {
+
+            final int count = myLimit - myFirst;
+
+            if ((count > myThreshold) && (myWorkers > 1)) {
+
+                final int split = myFirst + (count / 2);
+                final int nextWorkers = myWorkers / 2;
+
+                final Divider firstPart = new Divider(myConquerer, myFirst, split, myThreshold, nextWorkers);
+                final Divider secondPart = new Divider(myConquerer, split, myLimit, myThreshold, myWorkers - nextWorkers);
+
+                secondPart.fork();
+                firstPart.compute();
+                secondPart.join();
+
+            } else {
+
+                myConquerer.conquer(myFirst, myLimit);
+            }
+        }
+
+    }
+
+    private static final ForkJoinPool DEFAULT = new ForkJoinPool(OjAlgoUtils.ENVIRONMENT.threads, DaemonFactory.INSTANCE, null, false);
+
+    private static final ThreadLocal<ForkJoinPool> EXECUTOR = new ThreadLocal<>();
+
+    /**
+     * @return The pool that will be used by {@link #invoke(int, int, int)} when called from the current
+     *         thread.
+     */
+    public static ForkJoinPool getExecutor() {
+
+        final ForkJoinPool specified = EXECUTOR.get();
+
+        if (specified != null) {
+            return specified;
+        }
+
+        final ForkJoinPool current = ForkJoinTask.getPool();
+
+        if (current != null) {
+            return current;
+        }
+
+        return DEFAULT;
+    }
+
+    /**
+     * Specify which pool to use for all invocations made from the current thread. Set to null to revert to
+     * the default behaviour.
+     */
+    public static void setExecutor(final ForkJoinPool executor) {
+        if (executor != null) {
+            EXECUTOR.set(executor);
+        } else {
+            EXECUTOR.remove();
+        }
+    }
+
     public DivideAndConquer() {
         super();
     }
@@ -43,38 +134,27 @@ public abstract class DivideAndConquer {
      * @param limit The first index NOT to include - last (excl.) index in a range.
      */
     public final void invoke(final int first, final int limit, final int threshold) {
-
-        final int availableWorkers = OjAlgoUtils.ENVIRONMENT.threads - (DaemonPoolExecutor.INSTANCE.getActiveCount() / 2);
-
-        this.divide(first, limit, threshold, availableWorkers);
+        this.invoke(first, limit, threshold, DivideAndConquer.getExecutor());
     }
 
-    protected abstract void conquer(final int first, final int limit);
-
-    final void divide(final int first, final int limit, final int threshold, final int workers) {
-
-        final int count = limit - first;
-
-        if ((count > threshold) && (workers > 1)) {
-
-            final int split = first + (count / 2);
-            final int nextWorkers = workers / 2;
-
-            final Future<?> firstPart = DaemonPoolExecutor.INSTANCE.submit(() -> this.divide(first, split, threshold, nextWorkers));
-            final Future<?> secondPart = DaemonPoolExecutor.INSTANCE.submit(() -> this.divide(split, limit, threshold, nextWorkers));
+    /**
+     * Synchronous execution - wait until it's finished.
+     *
+     * @param first The first index, in a range, to include.
+     * @param limit The first index NOT to include - last (excl.) index in a range.
+     * @param executor The pool to execute with
+     */
+    public final void invoke(final int first, final int limit, final int threshold, final ForkJoinPool executor) {
 
-            try {
-                firstPart.get();
-                secondPart.get();
-            } catch (final InterruptedException | ExecutionException exception) {
-                exception.printStackTrace();
-                throw new ProgrammingError(exception);
-            }
+        final Divider task = new Divider(this, first, limit, threshold, executor.getParallelism());
 
+        if (ForkJoinTask.getPool() == executor) {
+            task.invoke();
         } else {
-
-            this.conquer(first, limit);
+            executor.invoke(task);
         }
     }
 
+    protected abstract void conquer(final int first, final int limit);
+
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.data;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.operation.SYRK;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Factory2D;
+import org.ojalgo.structure.Mutate2D;
+
+/**
+ * Accumulates the (sample) covariance matrix of a stream of observations - variables in columns and
+ * samples in rows - one row-block at a time. Each block is centred on its own means and its co-moments,
+ * XᵀX, calculated using the (blocked and multi-threaded) symmetric rank-k update kernel, {@link SYRK}. The
+ * block is then merged with what has been accumulated so far using the pairwise update formula of Chan,
+ * Golub and LeVeque. The observations are not stored, the memory used is O(p²) regardless of how many
+ * observations there are.
+ * <p>
+ * Accumulators can be merged, making it possible to have parallel workers each accumulate a part of the
+ * observations and then combine the results. An instance is not thread safe.
+ *
+ * @see DataProcessors#covariances(Factory2D, Access2D)
+ * @author apete
+ */
+public final class CovarianceAccumulator {
+
+    public static CovarianceAccumulator make(final int numberOfVariables) {
+        return new CovarianceAccumulator(numberOfVariables);
+    }
+
+    /**
+     * Centres the columns of data, and calculates the co-moments (the sums of products of deviations from
+     * the mean) matrix. The centred data is stored transposed, Xᵀ, as that is what {@link SYRK} takes. Only
+     * the lower triangle is calculated, the upper is copied from it.
+     *
+     * @param data Variables in columns and samples in rows
+     * @param means Will be filled with the column means
+     * @return The co-moments matrix, XᵀX where X is the centred data
+     */
+    static Primitive64Store comoments(final Access2D<?> data, final double[] means) {
+
+        int numberOfSamples = Math.toIntExact(data.countRows());
+        int numberOfVariables = Math.toIntExact(data.countColumns());
+
+        double[] transposed = new double[numberOfVariables * numberOfSamples];
+
+        for (int j = 0; j < numberOfVariables; j++) {
+
+            double mean = ZERO;
+            for (int i = 0; i < numberOfSamples; i++) {
+                mean += data.doubleValue(i, j);
+            }
+            mean /= numberOfSamples;
+            means[j] = mean;
+
+            for (int i = 0; i < numberOfSamples; i++) {
+                transposed[j + (i * numberOfVariables)] = data.doubleValue(i, j) - mean;
+            }
+        }
+
+        Primitive64Store retVal = Primitive64Store.FACTORY.make(numberOfVariables, numberOfVariables);
+        double[] comoments = retVal.data;
+
+        SYRK.invoke(comoments, 0, numberOfVariables, ONE, transposed, 0, numberOfVariables, numberOfVariables, numberOfSamples);
+
+        for (int j = 1; j < numberOfVariables; j++) {
+            for (int i = 0; i < j; i++) {
+                comoments[i + (j * numberOfVariables)] = comoments[j + (i * numberOfVariables)];
+            }
+        }
+
+        return retVal;
+    }
+
+    private final Primitive64Store myComoments;
+    private long myCount = 0L;
+    private final double[] myDeltas;
+    private final double[] myMeans;
+
+    @SuppressWarnings("unused")
+    private CovarianceAccumulator() {
+
+        this(1);
+
+        ProgrammingError.throwForIllegalInvocation();
+    }
+
+    CovarianceAccumulator(final int numberOfVariables) {
+
+        super();
+
+        myComoments = Primitive64Store.FACTORY.make(numberOfVariables, numberOfVariables);
+        myMeans = new double[numberOfVariables];
+        myDeltas = new double[numberOfVariables];
+    }
+
+    /**
+     * Accept (accumulate) a block of observations
+     *
+     * @param block Variables in columns and samples in rows
+     */
+    public void accept(final Access2D<?> block) {
+
+        if (block.countColumns() != myMeans.length) {
+            throw new ProgrammingError("Wrong number of variables!");
+        }
+
+        long count = block.countRows();
+        if (count == 0L) {
+            return;
+        }
+
+        double[] means = new double[myMeans.length];
+        Primitive64Store comoments = CovarianceAccumulator.comoments(block, means);
+
+        this.merge(count, means, comoments);
+    }
+
+    /**
+     * Accept (accumulate) a single observation
+     *
+     * @param observation One value per variable
+     */
+    public void accept(final double... observation) {
+
+        int numberOfVariables = myMeans.length;
+
+        if (observation.length != numberOfVariables) {
+            throw new ProgrammingError("Wrong number of variables!");
+        }
+
+        myCount++;
+
+        for (int j = 0; j < numberOfVariables; j++) {
+            double delta = observation[j] - myMeans[j];
+            myDeltas[j] = delta;
+            myMeans[j] += delta / myCount;
+        }
+
+        double scale = (myCount - 1L) / (double) myCount;
+        double[] comoments = myComoments.data;
+        for (int j = 0; j < numberOfVariables; j++) {
+            double scaled = scale * myDeltas[j];
+            int offset = j * numberOfVariables;
+            for (int i = 0; i < numberOfVariables; i++) {
+                comoments[offset + i] += myDeltas[i] * scaled;
+            }
+        }
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    public int countVariables() {
+        return myMeans.length;
+    }
+
+    /**
+     * @return The (sample) covariance, or 0.0 if there are less than 2 observations
+     */
+    public double getCovariance(final int row, final int col) {
+        if (myCount <= 1L) {
+            return ZERO;
+        }
+        return myComoments.doubleValue(row, col) / (myCount - 1L);
+    }
+
+    /**
+     * @param factory A factory that will produce the returned covariance matrix
+     * @return The (sample) covariance matrix of all observations accumulated so far, all zeros if there are
+     *         less than 2 observations
+     */
+    public <M extends Mutate2D> M getCovariances(final Factory2D<M> factory) {
+
+        int numberOfVariables = myMeans.length;
+        M retVal = factory.make(numberOfVariables, numberOfVariables);
+
+        if (myCount <= 1L) {
+            return retVal;
+        }
+
+        double divisor = myCount - 1L;
+        for (int j = 0; j < numberOfVariables; j++) {
+            for (int i = 0; i < numberOfVariables; i++) {
+                retVal.set(i, j, myComoments.doubleValue(i, j) / divisor);
+            }
+        }
+
+        return retVal;
+    }
+
+    public double getMean(final int index) {
+        return myMeans[index];
+    }
+
+    /**
+     * Merge (combine) with another accumulator. The other accumulator is left unmodified.
+     *
+     * @return this
+     */
+    public CovarianceAccumulator merge(final CovarianceAccumulator other) {
+
+        if (other.countVariables() != myMeans.length) {
+            throw new ProgrammingError("Wrong number of variables!");
+        }
+
+        if (other.count() > 0L) {
+            this.merge(other.count(), other.myMeans, other.myComoments);
+        }
+
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return myCount + " observations of " + myMeans.length + " variables";
+    }
+
+    private void merge(final long count, final double[] means, final Primitive64Store comoments) {
+
+        int numberOfVariables = myMeans.length;
+
+        long total = myCount + count;
+        double weight = (double) count / total;
+
+        for (int j = 0; j < numberOfVariables; j++) {
+            double delta = means[j] - myMeans[j];
+            myDeltas[j] = delta;
+            myMeans[j] += delta * weight;
+        }
+
+        double scale = myCount * weight;
+        double[] mine = myComoments.data;
+        double[] theirs = comoments.data;
+        for (int j = 0; j < numberOfVariables; j++) {
+            double scaled = scale * myDeltas[j];
+            int offset = j * numberOfVariables;
+            for (int i = 0; i < numberOfVariables; i++) {
+                mine[offset + i] += theirs[offset + i] + (myDeltas[i] * scaled);
+            }
+        }
+
+        myCount = total;
+    }
+
+}
@@ -32,6 +32,7 @@ import org.ojalgo.matrix.decomposition.SingularValue;
 import org.ojalgo.matrix.store.ElementsSupplier;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.matrix.store.RawStore;
 import org.ojalgo.random.SampleSet;
 import org.ojalgo.structure.Access2D;
@@ -76,27 +77,27 @@ public class DataProcessors {
             .newTransformation2D(ss -> SUBTRACT.by(ss.getMean()).andThen(DIVIDE.by(ss.getStandardDeviation())));
 
     /**
-     * Variables in columns and samples in rows
+     * Variables in columns and samples in rows. The data is centred once, and then the covariances are
+     * calculated as XᵀX/(n-1) using the blocked, multi-threaded, symmetric rank-k update. With less than 2
+     * samples the covariances are all 0.0.
+     *
+     * @see CovarianceAccumulator
      */
     public static <D extends Access2D<?> & Access2D.Sliceable<?>, M extends Mutate2D> M covariances(final Factory2D<M> factory, final D data) {
 
-        long numberOfVariables = data.countColumns();
+        int numberOfVariables = Math.toIntExact(data.countColumns());
         M retVal = factory.make(numberOfVariables, numberOfVariables);
 
-        SampleSet rowSet = SampleSet.make();
-        SampleSet colSet = SampleSet.make();
-
-        for (int j = 0; j < numberOfVariables; j++) {
-            colSet.swap(data.sliceColumn(j));
-
-            retVal.set(j, j, colSet.getVariance());
+        if (data.countRows() <= 1L) {
+            return retVal;
+        }
 
-            for (int i = 0; i < j; i++) {
-                rowSet.swap(data.sliceColumn(i));
+        Primitive64Store comoments = CovarianceAccumulator.comoments(data, new double[numberOfVariables]);
 
-                double covariance = rowSet.getCovariance(colSet);
-                retVal.set(i, j, covariance);
-                retVal.set(j, i, covariance);
+        double divisor = data.countRows() - 1L;
+        for (int j = 0; j < numberOfVariables; j++) {
+            for (int i = 0; i < numberOfVariables; i++) {
+                retVal.set(i, j, comoments.doubleValue(i, j) / divisor);
             }
         }
 
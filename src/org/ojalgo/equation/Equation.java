@@ -28,6 +28,7 @@ import org.ojalgo.array.SparseArray;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.scalar.Scalar;
 import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.ElementView1D;
 import org.ojalgo.structure.Mutate1D;
 
 public final class Equation implements Comparable<Equation>, Access1D<Double>, Mutate1D {
@@ -143,6 +144,14 @@ public final class Equation implements Comparable<Equation>, Access1D<Double>, M
         this.calculate(x, ZERO, ONE);
     }
 
+    /**
+     * @return A view of the nonzero elements only
+     */
+    @Override
+    public ElementView1D<Double, ?> nonzeros() {
+        return myElements.nonzeros();
+    }
+
     public void set(final long index, final Comparable<?> value) {
         this.set(index, Scalar.doubleValue(value));
     }
@@ -532,6 +532,20 @@ public final class Hardware extends AbstractMachine implements Comparable<Hardwa
         return result;
     }
 
+    /**
+     * @return The size (bytes) of the L1 cache
+     */
+    public long getL1Memory() {
+        return myLevels[myLevels.length - 1].memory;
+    }
+
+    /**
+     * @return The size (bytes) of the L2 cache, or the L1 cache size if no L2 cache is specified
+     */
+    public long getL2Memory() {
+        return this.isL2Specified() ? myLevels[myLevels.length - 2].memory : this.getL1Memory();
+    }
+
     public boolean isL2Specified() {
         return myLevels.length > 2;
     }
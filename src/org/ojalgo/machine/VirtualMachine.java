@@ -135,6 +135,20 @@ public final class VirtualMachine extends AbstractMachine {
         return tmpAvailable;
     }
 
+    /**
+     * @see Hardware#getL1Memory()
+     */
+    public long getL1Memory() {
+        return myHardware.getL1Memory();
+    }
+
+    /**
+     * @see Hardware#getL2Memory()
+     */
+    public long getL2Memory() {
+        return myHardware.getL2Memory();
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
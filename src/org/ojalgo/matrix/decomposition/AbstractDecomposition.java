@@ -74,6 +74,7 @@ abstract class AbstractDecomposition<N extends Comparable<N>> implements MatrixD
     }
 
     protected final boolean computed(final boolean computed) {
+        mySolvable = null;
         return (myComputed = computed);
     }
 
@@ -23,9 +23,11 @@ package org.ojalgo.matrix.decomposition;
 
 import org.ojalgo.array.DenseArray;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.type.context.NumberContext;
 
@@ -67,6 +69,15 @@ public interface Cholesky<N extends Comparable<N>> extends LDU<N>, MatrixDecompo
 
     Factory<RationalNumber> RATIONAL = typical -> new CholeskyDecomposition.Rational();
 
+    /**
+     * Decomposes in place in stores created by the supplied factory - use with
+     * {@link org.ojalgo.matrix.store.MappedStore#factory(java.io.File)} to decompose (out-of-core) matrices
+     * that don't fit on the heap.
+     */
+    static Factory<Double> newPrimitive(final PhysicalStore.Factory<Double, ? extends DecompositionStore<Double>> storeFactory) {
+        return typical -> new CholeskyDecomposition.Primitive(storeFactory);
+    }
+
     static <N extends Comparable<N>> boolean equals(final MatrixStore<N> matrix, final Cholesky<N> decomposition, final NumberContext context) {
 
         boolean retVal = false;
@@ -109,6 +120,16 @@ public interface Cholesky<N extends Comparable<N>> extends LDU<N>, MatrixDecompo
         return decomposition.reconstruct();
     }
 
+    /**
+     * Modify the already computed decomposition of [A] to instead be that of [A] - [x][x]<sup>H</sup>. This
+     * is an O(n<sup>2</sup>) operation compared to O(n<sup>3</sup>) for a full {@link #decompose(Access2D.Collectable)}.
+     *
+     * @param vector [x]
+     * @return false if the decomposition was not computed or if [A] - [x][x]<sup>H</sup> would not be
+     *         positive definite. In that case the decomposition is left unchanged.
+     */
+    boolean downdate(Access1D<?> vector);
+
     /**
      * Must implement either {@link #getL()} or {@link #getR()}.
      */
@@ -138,4 +159,14 @@ public interface Cholesky<N extends Comparable<N>> extends LDU<N>, MatrixDecompo
         return mtrxL.multiply(mtrxL.conjugate());
     }
 
+    /**
+     * Modify the already computed decomposition of [A] to instead be that of [A] + [x][x]<sup>H</sup>. This
+     * is an O(n<sup>2</sup>) operation compared to O(n<sup>3</sup>) for a full {@link #decompose(Access2D.Collectable)}.
+     *
+     * @param vector [x]
+     * @return false if the decomposition was not computed (or the dimensions don't match). In that case the
+     *         decomposition is left unchanged.
+     */
+    boolean update(Access1D<?> vector);
+
 }
@@ -25,6 +25,7 @@ import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import org.ojalgo.RecoverableCondition;
 import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.operation.POTRF;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.constant.PrimitiveMath;
@@ -36,8 +37,11 @@ import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Access2D.Collectable;
+import org.ojalgo.structure.Mutate2D;
 import org.ojalgo.structure.Structure2D;
 
 abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDecomposition<N> implements Cholesky<N> {
@@ -48,12 +52,33 @@ abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDec
             super(GenericStore.COMPLEX);
         }
 
+        @Override
+        boolean modify(final DecompositionStore<ComplexNumber> factor, final Access1D<?> vector, final double sign) {
+
+            ComplexNumber[] tmpVector = this.scalar().newArrayInstance((int) vector.count());
+            for (int i = 0; i < tmpVector.length; i++) {
+                tmpVector[i] = this.scalar().cast(vector.get(i));
+            }
+
+            if ((sign < ZERO) && !CholeskyDecomposition.isDowndatable(factor, tmpVector)) {
+                return false;
+            }
+
+            CholeskyDecomposition.modify(factor, tmpVector, sign);
+
+            return true;
+        }
+
     }
 
     static final class Primitive extends CholeskyDecomposition<Double> {
 
         Primitive() {
-            super(Primitive64Store.FACTORY);
+            this(Primitive64Store.FACTORY);
+        }
+
+        Primitive(final DecompositionStore.Factory<Double, ? extends DecompositionStore<Double>> factory) {
+            super(factory);
         }
 
     }
@@ -64,6 +89,23 @@ abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDec
             super(GenericStore.QUATERNION);
         }
 
+        @Override
+        boolean modify(final DecompositionStore<Quaternion> factor, final Access1D<?> vector, final double sign) {
+
+            Quaternion[] tmpVector = this.scalar().newArrayInstance((int) vector.count());
+            for (int i = 0; i < tmpVector.length; i++) {
+                tmpVector[i] = this.scalar().cast(vector.get(i));
+            }
+
+            if ((sign < ZERO) && !CholeskyDecomposition.isDowndatable(factor, tmpVector)) {
+                return false;
+            }
+
+            CholeskyDecomposition.modify(factor, tmpVector, sign);
+
+            return true;
+        }
+
     }
 
     static final class Rational extends CholeskyDecomposition<RationalNumber> {
@@ -74,6 +116,109 @@ abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDec
 
     }
 
+    /**
+     * Checks that [L][L]<sup>T</sup> - [x][x]<sup>T</sup> is positive definite, by solving [L][p] = [x] and
+     * verifying that |p| &lt; 1.
+     */
+    static boolean isDowndatable(final Access2D<?> factor, final double[] vector) {
+
+        int dim = vector.length;
+        double[] solution = new double[dim];
+
+        double sumOfSquares = ZERO;
+        for (int i = 0; i < dim; i++) {
+            double tmpVal = vector[i];
+            for (int j = 0; j < i; j++) {
+                tmpVal -= factor.doubleValue(i, j) * solution[j];
+            }
+            tmpVal /= factor.doubleValue(i, i);
+            solution[i] = tmpVal;
+            sumOfSquares += tmpVal * tmpVal;
+        }
+
+        return ONE - sumOfSquares > MACHINE_EPSILON;
+    }
+
+    /**
+     * Rank-one modification of the lower triangular factor (in place) so that it instead becomes the factor
+     * of [L][L]<sup>T</sup> + sign * [x][x]<sup>T</sup>. The vector is used as work space and is destroyed.
+     * A downdate (negative sign) must first be checked with {@link #isDowndatable(Access2D, double[])}.
+     */
+    static <T extends Access2D<?> & Mutate2D> void modify(final T factor, final double[] vector, final double sign) {
+
+        int dim = vector.length;
+
+        for (int k = 0; k < dim; k++) {
+
+            double diagVal = factor.doubleValue(k, k);
+            double vectVal = vector[k];
+
+            double radius = sign > ZERO ? HYPOT.invoke(diagVal, vectVal) : SQRT.invoke((diagVal - vectVal) * (diagVal + vectVal));
+            double cos = radius / diagVal;
+            double sin = vectVal / diagVal;
+
+            factor.set(k, k, radius);
+
+            for (int i = k + 1; i < dim; i++) {
+                double tmpVal = (factor.doubleValue(i, k) + sign * sin * vector[i]) / cos;
+                factor.set(i, k, tmpVal);
+                vector[i] = cos * vector[i] - sin * tmpVal;
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #isDowndatable(Access2D, double[])} but for the Hermitian case, [L][L]<sup>H</sup> -
+     * [x][x]<sup>H</sup>.
+     */
+    static <N extends Scalar<N>> boolean isDowndatable(final Access2D<N> factor, final N[] vector) {
+
+        int dim = vector.length;
+        N[] solution = vector.clone();
+
+        double sumOfSquares = ZERO;
+        for (int i = 0; i < dim; i++) {
+            N tmpVal = vector[i];
+            for (int j = 0; j < i; j++) {
+                tmpVal = tmpVal.subtract(factor.get(i, j).multiply(solution[j]).get()).get();
+            }
+            tmpVal = tmpVal.divide(factor.doubleValue(i, i)).get();
+            solution[i] = tmpVal;
+            sumOfSquares += tmpVal.norm() * tmpVal.norm();
+        }
+
+        return ONE - sumOfSquares > MACHINE_EPSILON;
+    }
+
+    /**
+     * Same as {@link #modify(Access2D, double[], double)} but for the Hermitian case, [L][L]<sup>H</sup> +
+     * sign * [x][x]<sup>H</sup>. The diagonal stays real and the sines are conjugated. Multiplication order
+     * is kept as is so that this also works for quaternions.
+     */
+    static <N extends Scalar<N>> void modify(final PhysicalStore<N> factor, final N[] vector, final double sign) {
+
+        int dim = vector.length;
+
+        for (int k = 0; k < dim; k++) {
+
+            double diagVal = factor.doubleValue(k, k);
+            double vectNorm = vector[k].norm();
+
+            double radius = sign > ZERO ? HYPOT.invoke(diagVal, vectNorm) : SQRT.invoke((diagVal - vectNorm) * (diagVal + vectNorm));
+            double cos = radius / diagVal;
+            N sin = vector[k].divide(diagVal).get();
+            N conjSin = sin.conjugate().get();
+
+            factor.set(k, k, radius);
+
+            for (int i = k + 1; i < dim; i++) {
+                N tmpVal = factor.get(i, k).add(vector[i].multiply(conjSin).multiply(sign).get()).divide(cos).get();
+                factor.set(i, k, tmpVal);
+                vector[i] = vector[i].multiply(cos).subtract(tmpVal.multiply(sin).get()).get();
+            }
+        }
+    }
+
     private double myMaxDiag = ONE;
     private double myMinDiag = ZERO;
     private boolean mySPD = false;
@@ -111,6 +256,10 @@ abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDec
         return this.compute(aStore, false);
     }
 
+    public boolean downdate(final Access1D<?> vector) {
+        return this.modify(vector, NEG);
+    }
+
     public N getDeterminant() {
 
         final AggregatorFunction<N> tmpAggrFunc = this.aggregator().product2();
@@ -243,6 +392,10 @@ abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDec
         }
     }
 
+    public boolean update(final Access1D<?> vector) {
+        return this.modify(vector, ONE);
+    }
+
     @Override
     protected boolean checkSolvability() {
         return mySPD && (myMinDiag > this.getRankThreshold());
@@ -270,6 +423,20 @@ abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDec
             tmpPositiveDefinite &= MatrixUtils.isHermitian(tmpInPlace);
         }
 
+        if (tmpPositiveDefinite && (tmpInPlace instanceof Primitive64Store) && (tmpMinDim > POTRF.THRESHOLD)) {
+
+            // Blocked (and multi-threaded) - for large matrices
+            final double[] tmpPivots = new double[tmpMinDim];
+            final int tmpFactorised = POTRF.invoke(((Primitive64Store) tmpInPlace).data, tmpMinDim, tmpPivots);
+
+            for (int ij = 0, limit = Math.min(tmpFactorised + 1, tmpMinDim); ij < limit; ij++) {
+                myMaxDiag = PrimitiveMath.MAX.invoke(myMaxDiag, tmpPivots[ij]);
+                myMinDiag = PrimitiveMath.MIN.invoke(myMinDiag, tmpPivots[ij]);
+            }
+
+            return this.computed(mySPD = (tmpFactorised == tmpMinDim));
+        }
+
         final UnaryFunction<N> tmpSqrtFunc = this.function().sqrt();
 
         // Main loop - along the diagonal
@@ -299,4 +466,40 @@ abstract class CholeskyDecomposition<N extends Comparable<N>> extends InPlaceDec
         return this.computed(mySPD = tmpPositiveDefinite);
     }
 
+    boolean modify(final DecompositionStore<N> factor, final Access1D<?> vector, final double sign) {
+
+        final double[] tmpVector = vector.toRawCopy1D();
+
+        if ((sign < ZERO) && !CholeskyDecomposition.isDowndatable(factor, tmpVector)) {
+            return false;
+        }
+
+        CholeskyDecomposition.modify(factor, tmpVector, sign);
+
+        return true;
+    }
+
+    private boolean modify(final Access1D<?> vector, final double sign) {
+
+        if (!this.isComputed() || (vector.count() != this.getRowDim())) {
+            return false;
+        }
+
+        final DecompositionStore<N> tmpInPlace = this.getInPlace();
+
+        if (!this.modify(tmpInPlace, vector, sign)) {
+            return false;
+        }
+
+        myMaxDiag = MACHINE_SMALLEST;
+        myMinDiag = MACHINE_LARGEST;
+        for (int ij = 0, limit = this.getMinDim(); ij < limit; ij++) {
+            final double tmpVal = tmpInPlace.doubleValue(ij, ij);
+            myMaxDiag = PrimitiveMath.MAX.invoke(myMaxDiag, tmpVal * tmpVal);
+            myMinDiag = PrimitiveMath.MIN.invoke(myMinDiag, tmpVal * tmpVal);
+        }
+
+        return this.computed(true);
+    }
+
 }
@@ -25,6 +25,7 @@ import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.type.context.NumberContext;
 
@@ -97,6 +98,17 @@ public interface LDL<N extends Comparable<N>> extends LDU<N>, MatrixDecompositio
         return decomposition.reconstruct();
     }
 
+    /**
+     * Modify the already computed decomposition of [A] to instead be that of [A] - [x][x]<sup>H</sup>. This
+     * is an O(n<sup>2</sup>) operation compared to O(n<sup>3</sup>) for a full {@link #decompose(Access2D.Collectable)}.
+     * The pivot order is kept as is.
+     *
+     * @param vector [x]
+     * @return false if the decomposition was not computed or if [A] - [x][x]<sup>H</sup> would be singular.
+     *         In that case the decomposition is left unchanged.
+     */
+    boolean downdate(Access1D<?> vector);
+
     MatrixStore<N> getD();
 
     /**
@@ -120,7 +132,22 @@ public interface LDL<N extends Comparable<N>> extends LDU<N>, MatrixDecompositio
         MatrixStore<N> mtrxR = this.getR();
 
         int[] pivotOrder = this.getPivotOrder();
+        int[] inverseOrder = new int[pivotOrder.length];
+        for (int i = 0; i < pivotOrder.length; i++) {
+            inverseOrder[pivotOrder[i]] = i;
+        }
 
-        return mtrxL.multiply(mtrxD).multiply(mtrxR).logical().row(pivotOrder).column(pivotOrder).get();
+        return mtrxL.multiply(mtrxD).multiply(mtrxR).logical().row(inverseOrder).column(inverseOrder).get();
     }
+
+    /**
+     * Modify the already computed decomposition of [A] to instead be that of [A] + [x][x]<sup>H</sup>. This
+     * is an O(n<sup>2</sup>) operation compared to O(n<sup>3</sup>) for a full {@link #decompose(Access2D.Collectable)}.
+     * The pivot order is kept as is.
+     *
+     * @param vector [x]
+     * @return false if the decomposition was not computed or if [A] + [x][x]<sup>H</sup> would be singular.
+     *         In that case the decomposition is left unchanged.
+     */
+    boolean update(Access1D<?> vector);
 }
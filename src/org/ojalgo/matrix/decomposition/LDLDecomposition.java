@@ -38,6 +38,7 @@ import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Access2D.Collectable;
 import org.ojalgo.structure.Structure2D;
@@ -51,6 +52,11 @@ abstract class LDLDecomposition<N extends Comparable<N>> extends InPlaceDecompos
             super(GenericStore.COMPLEX);
         }
 
+        @Override
+        boolean modify(final DecompositionStore<ComplexNumber> store, final int[] order, final Access1D<?> vector, final double sign) {
+            return LDLDecomposition.modify(store, this.scalar(), order, vector, sign);
+        }
+
     }
 
     static class Primitive extends LDLDecomposition<Double> {
@@ -67,6 +73,11 @@ abstract class LDLDecomposition<N extends Comparable<N>> extends InPlaceDecompos
             super(GenericStore.QUATERNION);
         }
 
+        @Override
+        boolean modify(final DecompositionStore<Quaternion> store, final int[] order, final Access1D<?> vector, final double sign) {
+            return LDLDecomposition.modify(store, this.scalar(), order, vector, sign);
+        }
+
     }
 
     static class Rational extends LDLDecomposition<RationalNumber> {
@@ -77,6 +88,59 @@ abstract class LDLDecomposition<N extends Comparable<N>> extends InPlaceDecompos
 
     }
 
+    /**
+     * Same as {@link #modify(DecompositionStore, int[], Access1D, double)} but for the Hermitian case,
+     * [L][D][L]<sup>H</sup> + sign * [x][x]<sup>H</sup>. [D] stays real. Multiplication order is kept as is
+     * so that this also works for quaternions.
+     */
+    static <N extends Scalar<N>> boolean modify(final PhysicalStore<N> store, final Scalar.Factory<N> scalar, final int[] order, final Access1D<?> vector,
+            final double sign) {
+
+        int dim = order.length;
+
+        N[] work = scalar.newArrayInstance(dim);
+        for (int i = 0; i < dim; i++) {
+            work[i] = scalar.cast(vector.get(order[i]));
+        }
+
+        N[] solution = work.clone();
+        double ratio = ONE;
+        for (int i = 0; i < dim; i++) {
+            double diagVal = store.doubleValue(i, i);
+            if (diagVal == ZERO) {
+                return false;
+            }
+            N tmpVal = work[i];
+            for (int j = 0; j < i; j++) {
+                tmpVal = tmpVal.subtract(store.get(i, j).multiply(solution[j]).get()).get();
+            }
+            solution[i] = tmpVal;
+            ratio += sign * tmpVal.norm() * tmpVal.norm() / diagVal;
+            if (Math.abs(ratio) <= MACHINE_EPSILON) {
+                return false;
+            }
+        }
+
+        double alpha = sign;
+        for (int j = 0; j < dim; j++) {
+
+            N p = work[j];
+            double diagVal = store.doubleValue(j, j);
+            double newDiag = diagVal + alpha * p.norm() * p.norm();
+            N beta = p.conjugate().multiply(alpha / newDiag).get();
+            alpha = diagVal * alpha / newDiag;
+
+            store.set(j, j, newDiag);
+
+            for (int i = j + 1; i < dim; i++) {
+                work[i] = work[i].subtract(store.get(i, j).multiply(p).get()).get();
+                store.set(i, j, store.get(i, j).add(work[i].multiply(beta).get()).get());
+            }
+        }
+
+        return true;
+    }
+
     private final Pivot myPivot = new Pivot();
 
     protected LDLDecomposition(final PhysicalStore.Factory<N, ? extends DecompositionStore<N>> factory) {
@@ -110,6 +174,10 @@ abstract class LDLDecomposition<N extends Comparable<N>> extends InPlaceDecompos
         return this.doDecompose(matrix, false);
     }
 
+    public boolean downdate(final Access1D<?> vector) {
+        return this.doModify(vector, NEG);
+    }
+
     public MatrixStore<N> getD() {
         return this.getInPlace().logical().diagonal().get();
     }
@@ -255,6 +323,10 @@ abstract class LDLDecomposition<N extends Comparable<N>> extends InPlaceDecompos
         }
     }
 
+    public boolean update(final Access1D<?> vector) {
+        return this.doModify(vector, ONE);
+    }
+
     private boolean doDecompose(final Access2D.Collectable<N, ? super PhysicalStore<N>> matrix, final boolean pivoting) {
 
         this.reset();
@@ -300,6 +372,67 @@ abstract class LDLDecomposition<N extends Comparable<N>> extends InPlaceDecompos
         return this.computed(true);
     }
 
+    /**
+     * Rank-one modification, [L][D][L]<sup>T</sup> + sign * [x][x]<sup>T</sup>, using method C1 from Gill,
+     * Golub, Murray and Saunders, "Methods for Modifying Matrix Factorizations" (1974). Before anything is
+     * modified [L][p] = [x] is solved to verify that none of the new [D] elements will be zero.
+     */
+    boolean modify(final DecompositionStore<N> store, final int[] order, final Access1D<?> vector, final double sign) {
+
+        int dim = order.length;
+
+        double[] work = new double[dim];
+        for (int i = 0; i < dim; i++) {
+            work[i] = vector.doubleValue(order[i]);
+        }
+
+        double[] solution = new double[dim];
+        double ratio = ONE;
+        for (int i = 0; i < dim; i++) {
+            double diagVal = store.doubleValue(i, i);
+            if (diagVal == ZERO) {
+                return false;
+            }
+            double tmpVal = work[i];
+            for (int j = 0; j < i; j++) {
+                tmpVal -= store.doubleValue(i, j) * solution[j];
+            }
+            solution[i] = tmpVal;
+            ratio += sign * tmpVal * tmpVal / diagVal;
+            if (Math.abs(ratio) <= MACHINE_EPSILON) {
+                return false;
+            }
+        }
+
+        double alpha = sign;
+        for (int j = 0; j < dim; j++) {
+
+            double p = work[j];
+            double diagVal = store.doubleValue(j, j);
+            double newDiag = diagVal + alpha * p * p;
+            double beta = p * alpha / newDiag;
+            alpha = diagVal * alpha / newDiag;
+
+            store.set(j, j, newDiag);
+
+            for (int i = j + 1; i < dim; i++) {
+                work[i] -= p * store.doubleValue(i, j);
+                store.set(i, j, store.doubleValue(i, j) + beta * work[i]);
+            }
+        }
+
+        return true;
+    }
+
+    private boolean doModify(final Access1D<?> vector, final double sign) {
+
+        if (!this.isComputed() || !this.isSquare() || (vector.count() != this.getMinDim())) {
+            return false;
+        }
+
+        return this.modify(this.getInPlace(), myPivot.getOrder(), vector, sign) && this.computed(true);
+    }
+
     @Override
     protected boolean checkSolvability() {
         return this.isSquare() && this.isFullRank();
@@ -25,6 +25,7 @@ import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import org.ojalgo.RecoverableCondition;
 import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.operation.GETRF;
 import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.constant.PrimitiveMath;
@@ -265,6 +266,21 @@ abstract class LUDecomposition<N extends Comparable<N>> extends InPlaceDecomposi
 
         myPivot.reset(tmpRowDim);
 
+        if ((tmpInPlace instanceof Primitive64Store) && (this.getColDim() > GETRF.THRESHOLD)) {
+
+            // Blocked (and multi-threaded) - for large matrices
+            final int[] tmpInterchanges = new int[tmpMinDim];
+            GETRF.invoke(((Primitive64Store) tmpInPlace).data, tmpRowDim, this.getColDim(), pivoting, tmpInterchanges);
+
+            for (int ij = 0; ij < tmpMinDim; ij++) {
+                if (tmpInterchanges[ij] != ij) {
+                    myPivot.change(tmpInterchanges[ij], ij);
+                }
+            }
+
+            return this.computed(true);
+        }
+
         final BasicArray<N> tmpMultipliers = this.makeArray(tmpRowDim);
 
         // Main loop - along the diagonal
@@ -23,6 +23,7 @@ package org.ojalgo.matrix.decomposition;
 
 import org.ojalgo.array.DenseArray;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
@@ -82,6 +83,15 @@ public interface QR<N extends Comparable<N>> extends MatrixDecomposition<N>, Mat
 
     Factory<RationalNumber> RATIONAL = (typical, fullSize) -> new QRDecomposition.Rational(fullSize);
 
+    /**
+     * Decomposes in place in stores created by the supplied factory - use with
+     * {@link org.ojalgo.matrix.store.MappedStore#factory(java.io.File)} to decompose (out-of-core) matrices
+     * that don't fit on the heap.
+     */
+    static Factory<Double> newPrimitive(final PhysicalStore.Factory<Double, ? extends DecompositionStore<Double>> storeFactory) {
+        return (typical, fullSize) -> new QRDecomposition.Primitive(storeFactory, fullSize);
+    }
+
     static <N extends Comparable<N>> boolean equals(final MatrixStore<N> matrix, final QR<N> decomposition, final NumberContext context) {
 
         final MatrixStore<N> tmpQ = decomposition.getQ();
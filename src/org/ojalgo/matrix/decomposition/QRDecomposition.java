@@ -24,6 +24,7 @@ package org.ojalgo.matrix.decomposition;
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import org.ojalgo.RecoverableCondition;
+import org.ojalgo.array.operation.GEQRF;
 import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.matrix.store.GenericStore;
@@ -61,7 +62,11 @@ abstract class QRDecomposition<N extends Comparable<N>> extends InPlaceDecomposi
         }
 
         Primitive(final boolean fullSize) {
-            super(Primitive64Store.FACTORY, fullSize);
+            this(Primitive64Store.FACTORY, fullSize);
+        }
+
+        Primitive(final DecompositionStore.Factory<Double, ? extends DecompositionStore<Double>> factory, final boolean fullSize) {
+            super(factory, fullSize);
         }
 
     }
@@ -90,6 +95,8 @@ abstract class QRDecomposition<N extends Comparable<N>> extends InPlaceDecomposi
 
     }
 
+    private double[] myBetas = null;
+    private double[][] myFactors = null;
     private final boolean myFullSize;
     private int myNumberOfHouseholderTransformations = 0;
 
@@ -130,6 +137,18 @@ abstract class QRDecomposition<N extends Comparable<N>> extends InPlaceDecomposi
 
         final int tmpLimit = Math.min(tmpRowDim, tmpColDim);
 
+        if ((tmpStore instanceof Primitive64Store) && (tmpHouseholder instanceof Householder.Primitive64)
+                && (Math.max(tmpRowDim, tmpColDim) > GEQRF.THRESHOLD)) {
+
+            // Blocked (compact WY) - for large matrices
+            myBetas = new double[tmpLimit];
+            myFactors = new double[tmpLimit][];
+            myNumberOfHouseholderTransformations = GEQRF.invoke(((Primitive64Store) tmpStore).data, tmpRowDim, tmpColDim,
+                    (Householder.Primitive64) tmpHouseholder, myBetas, myFactors);
+
+            return this.computed(true);
+        }
+
         for (int ij = 0; ij < tmpLimit; ij++) {
             if (((ij + 1) < tmpRowDim) && tmpStore.generateApplyAndCopyHouseholderColumn(ij, ij, tmpHouseholder)) {
                 tmpStore.transformLeft(tmpHouseholder, ij + 1);
@@ -162,6 +181,12 @@ abstract class QRDecomposition<N extends Comparable<N>> extends InPlaceDecomposi
 
         final DecompositionStore<N> retVal = this.makeEye(this.getRowDim(), myFullSize ? this.getRowDim() : this.getMinDim());
 
+        if ((myBetas != null) && (retVal instanceof Primitive64Store)) {
+            GEQRF.transformLeft(((Primitive64Store) this.getInPlace()).data, this.getRowDim(), this.getMinDim(), myBetas, myFactors,
+                    ((Primitive64Store) retVal).data, (int) retVal.countColumns(), false, true);
+            return retVal;
+        }
+
         final HouseholderReference<N> tmpReference = HouseholderReference.makeColumn(this.getInPlace());
 
         for (int j = this.getMinDim() - 1; j >= 0; j--) {
@@ -217,15 +242,24 @@ abstract class QRDecomposition<N extends Comparable<N>> extends InPlaceDecomposi
         final int tmpRowDim = this.getRowDim();
         final int tmpColDim = this.getColDim();
 
-        final HouseholderReference<N> tmpReference = HouseholderReference.makeColumn(tmpStore);
+        // Blocked (compact WY) unless there are only a few right hand side columns
+        if ((myBetas != null) && (preallocated instanceof Primitive64Store) && (preallocated.countColumns() >= 4L)) {
 
-        final int tmpLimit = this.getMinDim();
-        for (int j = 0; j < tmpLimit; j++) {
+            GEQRF.transformLeft(((Primitive64Store) tmpStore).data, tmpRowDim, this.getMinDim(), myBetas, myFactors,
+                    ((Primitive64Store) preallocated).data, (int) preallocated.countColumns(), true, false);
 
-            tmpReference.point(j, j);
+        } else {
 
-            if (!tmpReference.isZero()) {
-                preallocated.transformLeft(tmpReference, 0);
+            final HouseholderReference<N> tmpReference = HouseholderReference.makeColumn(tmpStore);
+
+            final int tmpLimit = this.getMinDim();
+            for (int j = 0; j < tmpLimit; j++) {
+
+                tmpReference.point(j, j);
+
+                if (!tmpReference.isZero()) {
+                    preallocated.transformLeft(tmpReference, 0);
+                }
             }
         }
 
@@ -280,6 +314,8 @@ abstract class QRDecomposition<N extends Comparable<N>> extends InPlaceDecomposi
 
         super.reset();
 
+        myBetas = null;
+        myFactors = null;
         myNumberOfHouseholderTransformations = 0;
     }
 
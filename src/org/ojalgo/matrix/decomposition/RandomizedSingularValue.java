@@ -0,0 +1,357 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.operation.DOT;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.store.DiagonalStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.random.Normal;
+import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Access2D.Collectable;
+import org.ojalgo.structure.Structure2D;
+
+/**
+ * Randomized, truncated, singular value decomposition - only the leading singular values and vectors are
+ * calculated. The range of [A] is sampled with a random (Gaussian) test matrix, with some oversampling, and
+ * the sample refined with a few power iterations. With [Q] an orthonormal basis for that sample, [B] =
+ * [Q]<sup>T</sup>[A] is small enough to decompose with an ordinary SVD, and then [A] &asymp; [Q][B] =
+ * [Q][U<sub>B</sub>][D][V]<sup>T</sup>.
+ * <p>
+ * Everything reported (norms, condition, rank, pseudoinverse...) refers to the truncated decomposition.
+ * <p>
+ * N. Halko, P.G. Martinsson and J.A. Tropp, "Finding structure with randomness: Probabilistic algorithms for
+ * constructing approximate matrix decompositions", SIAM Review 53(2), 2011.
+ *
+ * @author apete
+ */
+final class RandomizedSingularValue extends AbstractDecomposition<Double> implements SingularValue<Double> {
+
+    private static Primitive64Store orthonormalise(final MatrixStore<Double> sample) {
+        final QR<Double> decomposition = QR.PRIMITIVE.make(sample);
+        decomposition.decompose(sample);
+        return Primitive64Store.FACTORY.copy(decomposition.getQ());
+    }
+
+    private int myColDim;
+    private final int myIterations;
+    private final int myOversampling;
+    private final int myRank;
+    private int myRowDim;
+    private double[] mySingularValues = null;
+    private Primitive64Store myU = null;
+    private Primitive64Store myV = null;
+
+    RandomizedSingularValue(final int rank, final int oversampling, final int iterations) {
+
+        super();
+
+        myRank = rank;
+        myOversampling = oversampling;
+        myIterations = iterations;
+    }
+
+    public boolean computeValuesOnly(final Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.doDecompose(matrix, false);
+    }
+
+    public int countSignificant(final double threshold) {
+        int significant = 0;
+        for (int i = 0; i < mySingularValues.length; i++) {
+            if (mySingularValues[i] > threshold) {
+                significant++;
+            }
+        }
+        return significant;
+    }
+
+    public boolean decompose(final Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.doDecompose(matrix, true);
+    }
+
+    public double getCondition() {
+        return mySingularValues[0] / mySingularValues[mySingularValues.length - 1];
+    }
+
+    public MatrixStore<Double> getCovariance() {
+
+        final MatrixStore<Double> tmp = myV.logical().limits(-1, this.getRank()).operateOnColumns(DIVIDE, this.getSingularValues()).get();
+
+        return tmp.multiply(tmp.transpose());
+    }
+
+    public MatrixStore<Double> getD() {
+        return DiagonalStore.builder(Primitive64Store.FACTORY, this.getSingularValues()).get();
+    }
+
+    public double getFrobeniusNorm() {
+        double retVal = ZERO;
+        for (int i = 0; i < mySingularValues.length; i++) {
+            retVal += mySingularValues[i] * mySingularValues[i];
+        }
+        return SQRT.invoke(retVal);
+    }
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myColDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+
+        final Primitive64Store scaledUt = Primitive64Store.FACTORY.transpose(myU);
+        this.scale(scaledUt);
+
+        preallocated.fillByMultiplying(myV, scaledUt);
+
+        return preallocated;
+    }
+
+    public double getKyFanNorm(final int k) {
+        double retVal = ZERO;
+        for (int i = Math.min(mySingularValues.length, k) - 1; i >= 0; i--) {
+            retVal += mySingularValues[i];
+        }
+        return retVal;
+    }
+
+    public double getOperatorNorm() {
+        return mySingularValues[0];
+    }
+
+    public double getRankThreshold() {
+        return Math.max(MACHINE_SMALLEST, mySingularValues[0]) * this.getDimensionalEpsilon();
+    }
+
+    public Array1D<Double> getSingularValues() {
+        return Array1D.PRIMITIVE64.copy(mySingularValues);
+    }
+
+    public void getSingularValues(final double[] values) {
+        System.arraycopy(mySingularValues, 0, values, 0, Math.min(mySingularValues.length, values.length));
+    }
+
+    public MatrixStore<Double> getSolution(final Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(myColDim, rhs.countColumns()));
+    }
+
+    /**
+     * [X] = [V][D]<sup>-1</sup>[U]<sup>T</sup>[B] without forming the pseudoinverse
+     */
+    public MatrixStore<Double> getSolution(final Collectable<Double, ? super PhysicalStore<Double>> rhs, final PhysicalStore<Double> preallocated) {
+
+        final Primitive64Store body = rhs instanceof Primitive64Store ? (Primitive64Store) rhs : rhs.collect(Primitive64Store.FACTORY);
+
+        final int numberOfValues = mySingularValues.length;
+        final int numberOfSolutions = (int) body.countColumns();
+
+        final Primitive64Store projected = Primitive64Store.FACTORY.make(numberOfValues, numberOfSolutions);
+        for (int j = 0; j < numberOfSolutions; j++) {
+            for (int i = 0; i < numberOfValues; i++) {
+                projected.data[i + (j * numberOfValues)] = DOT.invoke(myU.data, i * myRowDim, body.data, j * myRowDim, 0, myRowDim);
+            }
+        }
+        this.scale(projected);
+
+        preallocated.fillByMultiplying(myV, projected);
+
+        return preallocated;
+    }
+
+    public double getTraceNorm() {
+        return this.getKyFanNorm(mySingularValues.length);
+    }
+
+    public MatrixStore<Double> getU() {
+        return myU;
+    }
+
+    public MatrixStore<Double> getV() {
+        return myV;
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original) throws RecoverableCondition {
+        return this.invert(original, this.allocate(original.countColumns(), original.countRows()));
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(MatrixStore.PRIMITIVE64.makeWrapper(original));
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public boolean isFullSize() {
+        return false;
+    }
+
+    public boolean isOrdered() {
+        return true;
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countColumns(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countColumns(), templateRHS.countColumns());
+    }
+
+    @Override
+    public void reset() {
+
+        super.reset();
+
+        mySingularValues = null;
+        myU = null;
+        myV = null;
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs) throws RecoverableCondition {
+        return this.solve(body, rhs, this.allocate(body.countColumns(), rhs.countColumns()));
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(MatrixStore.PRIMITIVE64.makeWrapper(body));
+
+        if (this.isSolvable()) {
+            return this.getSolution(MatrixStore.PRIMITIVE64.makeWrapper(rhs), preallocated);
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    @Override
+    protected Primitive64Store allocate(final long numberOfRows, final long numberOfColumns) {
+        return Primitive64Store.FACTORY.make(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return true;
+    }
+
+    @Override
+    protected FunctionSet<Double> function() {
+        return PrimitiveFunction.getSet();
+    }
+
+    @Override
+    protected int getColDim() {
+        return myColDim;
+    }
+
+    @Override
+    protected int getRowDim() {
+        return myRowDim;
+    }
+
+    @Override
+    protected Scalar.Factory<Double> scalar() {
+        return PrimitiveScalar.FACTORY;
+    }
+
+    boolean doDecompose(final Collectable<Double, ? super PhysicalStore<Double>> matrix, final boolean factors) {
+
+        this.reset();
+
+        // No copy needed if it already is a Primitive64Store - it's only read
+        final Primitive64Store mtrxA = matrix instanceof Primitive64Store ? (Primitive64Store) matrix : matrix.collect(Primitive64Store.FACTORY);
+
+        myRowDim = (int) mtrxA.countRows();
+        myColDim = (int) mtrxA.countColumns();
+
+        final int minDim = Math.min(myRowDim, myColDim);
+        final int rank = Math.min(myRank, minDim);
+        final int samples = Math.min(rank + myOversampling, minDim);
+
+        // [Y] = [A][Ω] sampled, and then the power iterations [Y] = ([A][A]T)^q [Y] - orthonormalising each step
+        final Primitive64Store mtrxOmega = Primitive64Store.FACTORY.makeFilled(myColDim, samples, new Normal());
+
+        final Primitive64Store mtrxY = Primitive64Store.FACTORY.make(myRowDim, samples);
+        mtrxY.fillByMultiplying(mtrxA, mtrxOmega);
+        Primitive64Store mtrxQ = RandomizedSingularValue.orthonormalise(mtrxY);
+
+        final Primitive64Store mtrxB = Primitive64Store.FACTORY.make(samples, myColDim);
+
+        for (int q = 0; q < myIterations; q++) {
+            mtrxB.fillByMultiplying(Primitive64Store.FACTORY.transpose(mtrxQ), mtrxA);
+            mtrxY.fillByMultiplying(mtrxA, RandomizedSingularValue.orthonormalise(mtrxB.transpose()));
+            mtrxQ = RandomizedSingularValue.orthonormalise(mtrxY);
+        }
+
+        // [B] = [Q]T[A] - small enough for an ordinary SVD
+        mtrxB.fillByMultiplying(Primitive64Store.FACTORY.transpose(mtrxQ), mtrxA);
+
+        final SingularValue<Double> decomposition = SingularValue.PRIMITIVE.make(mtrxB);
+        if (!(factors ? decomposition.decompose(mtrxB) : decomposition.computeValuesOnly(mtrxB))) {
+            return this.computed(false);
+        }
+
+        mySingularValues = new double[rank];
+        decomposition.getSingularValues(mySingularValues);
+
+        if (factors) {
+
+            myU = Primitive64Store.FACTORY.make(myRowDim, rank);
+            myU.fillByMultiplying(mtrxQ, Primitive64Store.FACTORY.copy(decomposition.getU().logical().limits(-1, rank).get()));
+
+            myV = Primitive64Store.FACTORY.copy(decomposition.getV().logical().limits(-1, rank).get());
+        }
+
+        return this.computed(true);
+    }
+
+    /**
+     * Divide the rows by the corresponding singular values - rows corresponding to negligible singular values
+     * are zeroed.
+     */
+    private void scale(final Primitive64Store rows) {
+
+        final double small = this.getRankThreshold();
+
+        final int numberOfValues = mySingularValues.length;
+        final int numberOfColumns = (int) rows.countColumns();
+
+        for (int i = 0; i < numberOfValues; i++) {
+            final double value = mySingularValues[i];
+            final double factor = value > small ? ONE / value : ZERO;
+            for (int j = 0; j < numberOfColumns; j++) {
+                rows.data[i + (j * numberOfValues)] *= factor;
+            }
+        }
+    }
+
+}
@@ -28,6 +28,7 @@ import org.ojalgo.array.operation.DOT;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.RawStore;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Access2D.Collectable;
 import org.ojalgo.structure.Structure2D;
@@ -98,6 +99,10 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         return this.doDecompose(retVal, tmpRawInPlaceStore);
     }
 
+    public boolean downdate(final Access1D<?> vector) {
+        return this.doModify(vector, NEG);
+    }
+
     public Double getDeterminant() {
 
         final double[][] tmpData = this.getInternalData();
@@ -188,6 +193,10 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         }
     }
 
+    public boolean update(final Access1D<?> vector) {
+        return this.doModify(vector, ONE);
+    }
+
     private boolean doDecompose(final double[][] data, final Access2D<?> input) {
 
         final int tmpDiagDim = this.getRowDim();
@@ -219,6 +228,35 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         return this.computed(mySPD);
     }
 
+    private boolean doModify(final Access1D<?> vector, final double sign) {
+
+        if (!this.isComputed() || (vector.count() != this.getRowDim())) {
+            return false;
+        }
+
+        final RawStore tmpRawInPlaceStore = this.getInternalStore();
+        final double[] tmpVector = vector.toRawCopy1D();
+
+        if ((sign < ZERO) && !CholeskyDecomposition.isDowndatable(tmpRawInPlaceStore, tmpVector)) {
+            return false;
+        }
+
+        CholeskyDecomposition.modify(tmpRawInPlaceStore, tmpVector, sign);
+
+        final double[][] tmpData = this.getInternalData();
+
+        myMaxDiag = MACHINE_SMALLEST;
+        myMinDiag = MACHINE_LARGEST;
+        double tmpVal;
+        for (int ij = 0, limit = this.getMinDim(); ij < limit; ij++) {
+            tmpVal = tmpData[ij][ij];
+            myMaxDiag = MAX.invoke(myMaxDiag, tmpVal * tmpVal);
+            myMinDiag = MIN.invoke(myMinDiag, tmpVal * tmpVal);
+        }
+
+        return this.computed(true);
+    }
+
     private MatrixStore<Double> doGetInverse(final PhysicalStore<Double> preallocated) {
 
         final RawStore body = this.getInternalStore();
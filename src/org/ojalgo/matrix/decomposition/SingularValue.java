@@ -81,6 +81,27 @@ public interface SingularValue<N extends Comparable<N>> extends MatrixDecomposit
 
     Factory<RationalNumber> RATIONAL = (typical, fullSize) -> new SingularValueDecomposition.Rational(fullSize);
 
+    /**
+     * @see #randomized(int, int, int)
+     */
+    static Factory<Double> randomized(final int rank) {
+        return SingularValue.randomized(rank, 10, 2);
+    }
+
+    /**
+     * A randomized (range finder) decomposition that only calculates the leading singular values and vectors
+     * - much faster than the full decomposition when the rank is small compared to the matrix dimensions. The
+     * returned instances are truncated: [U] is m x rank, [D] rank x rank and [V] n x rank.
+     *
+     * @param rank The number of singular values/vectors to calculate
+     * @param oversampling The number of additional random samples used to capture the range of the matrix
+     * @param iterations The number of power iterations - improves the accuracy when the singular values decay
+     *        slowly
+     */
+    static Factory<Double> randomized(final int rank, final int oversampling, final int iterations) {
+        return (typical, fullSize) -> new RandomizedSingularValue(rank, oversampling, iterations);
+    }
+
     static <N extends Comparable<N>> boolean equals(final MatrixStore<N> matrix, final SingularValue<N> decomposition, final NumberContext context) {
 
         final int tmpRowDim = (int) matrix.countRows();
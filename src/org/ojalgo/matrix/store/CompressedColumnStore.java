@@ -0,0 +1,198 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * Compressed Sparse Column (CSC) format. The nonzeros of column j are at positions pointers[j] (inclusive)
+ * to pointers[j+1] (exclusive) in the indices (row indices) and values arrays.
+ *
+ * @author apete
+ */
+public final class CompressedColumnStore extends CompressedStore {
+
+    CompressedColumnStore(final int rowsCount, final int columnsCount, final int[] pointers, final int[] indices, final double[] values) {
+        super(rowsCount, columnsCount, pointers, indices, values);
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return this.value((int) col, (int) row);
+    }
+
+    public int firstInColumn(final int col) {
+        return this.first(col, this.getRowDim());
+    }
+
+    @Override
+    public int limitOfColumn(final int col) {
+        return this.limit(col);
+    }
+
+    /**
+     * With more than one right hand side column the work is split by (target) column - the different parts
+     * can be calculated in parallel without any locking. A single matrix-vector product is always done
+     * sequentially; use {@link CompressedRowStore} (or {@link #transpose()}) to parallelise that. Only a
+     * dense target, {@link Primitive64Store}, can be written to in parallel.
+     */
+    public void multiply(final Access1D<Double> right, final TransformableRegion<Double> target) {
+
+        int complexity = this.getColDim();
+        int numberOfColumns = Math.toIntExact(right.count() / complexity);
+
+        if (right.count() != ((long) complexity * numberOfColumns)) {
+            ProgrammingError.throwForMultiplicationNotPossible();
+        }
+
+        if ((numberOfColumns > 1) && (target instanceof Primitive64Store) && (((long) this.countNonzeros() * numberOfColumns) >= (2L * THRESHOLD))) {
+
+            DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    CompressedColumnStore.this.multiply(right, first, limit, complexity, target);
+                }
+
+            };
+
+            conquerer.invoke(0, numberOfColumns, Math.max(1, THRESHOLD / Math.max(1, this.countNonzeros())));
+
+        } else {
+
+            this.multiply(right, 0, numberOfColumns, complexity, target);
+        }
+    }
+
+    public CompressedColumnStore multiply(final double scalar) {
+        return new CompressedColumnStore(this.getRowDim(), this.getColDim(), myPointers, myIndices, this.values(scalar));
+    }
+
+    public CompressedColumnStore multiply(final Double scalar) {
+        return this.multiply(scalar.doubleValue());
+    }
+
+    public Primitive64Store premultiply(final Access1D<Double> left) {
+
+        int complexity = this.getRowDim();
+        int numberOfColumns = this.getColDim();
+        int numberOfRows = Math.toIntExact(left.count() / complexity);
+
+        Primitive64Store retVal = Primitive64Store.FACTORY.make(numberOfRows, numberOfColumns);
+        double[] data = retVal.data;
+
+        for (int j = 0; j < numberOfColumns; j++) {
+            int base = j * numberOfRows;
+            for (int p = myPointers[j], limit = myPointers[j + 1]; p < limit; p++) {
+                int c = myIndices[p];
+                double value = myValues[p];
+                for (int i = 0; i < numberOfRows; i++) {
+                    data[base + i] += left.doubleValue(i + ((long) c * numberOfRows)) * value;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    public void supplyTo(final TransformableRegion<Double> receiver) {
+
+        receiver.reset();
+
+        for (int j = 0, numberOfColumns = this.getColDim(); j < numberOfColumns; j++) {
+            for (int p = myPointers[j], limit = myPointers[j + 1]; p < limit; p++) {
+                receiver.set(myIndices[p], j, myValues[p]);
+            }
+        }
+    }
+
+    /**
+     * The transpose of a CSC matrix is a CSR matrix using the same arrays - nothing is copied.
+     */
+    @Override
+    public CompressedRowStore transpose() {
+        return new CompressedRowStore(this.getColDim(), this.getRowDim(), myPointers, myIndices, myValues);
+    }
+
+    /**
+     * Calculates the target columns [first, limit) as linear combinations of this matrix' columns.
+     */
+    void multiply(final Access1D<Double> right, final int first, final int limit, final int complexity, final TransformableRegion<Double> target) {
+
+        int numberOfRows = this.getRowDim();
+
+        int[] pointers = myPointers;
+        int[] indices = myIndices;
+        double[] values = myValues;
+
+        if ((right instanceof Primitive64Store) && (target instanceof Primitive64Store) && (target.countRows() == numberOfRows)) {
+
+            double[] rightData = ((Primitive64Store) right).data;
+            double[] targetData = ((Primitive64Store) target).data;
+
+            for (int j = first; j < limit; j++) {
+
+                int base = j * numberOfRows;
+                Arrays.fill(targetData, base, base + numberOfRows, ZERO);
+
+                for (int c = 0; c < complexity; c++) {
+                    double factor = rightData[c + (j * complexity)];
+                    if (factor != ZERO) {
+                        for (int p = pointers[c], pLimit = pointers[c + 1]; p < pLimit; p++) {
+                            targetData[base + indices[p]] += values[p] * factor;
+                        }
+                    }
+                }
+            }
+
+        } else {
+
+            double[] column = new double[numberOfRows];
+
+            for (int j = first; j < limit; j++) {
+
+                if (j > first) {
+                    Arrays.fill(column, ZERO);
+                }
+
+                for (long c = 0L, base = (long) j * complexity; c < complexity; c++) {
+                    double factor = right.doubleValue(base + c);
+                    if (factor != ZERO) {
+                        for (int p = pointers[(int) c], pLimit = pointers[(int) c + 1]; p < pLimit; p++) {
+                            column[indices[p]] += values[p] * factor;
+                        }
+                    }
+                }
+
+                for (int i = 0; i < numberOfRows; i++) {
+                    target.set(i, j, column[i]);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * Compressed Sparse Row (CSR) format. The nonzeros of row i are at positions pointers[i] (inclusive) to
+ * pointers[i+1] (exclusive) in the indices (column indices) and values arrays.
+ *
+ * @author apete
+ */
+public final class CompressedRowStore extends CompressedStore {
+
+    CompressedRowStore(final int rowsCount, final int columnsCount, final int[] pointers, final int[] indices, final double[] values) {
+        super(rowsCount, columnsCount, pointers, indices, values);
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return this.value((int) row, (int) col);
+    }
+
+    public int firstInRow(final int row) {
+        return this.first(row, this.getColDim());
+    }
+
+    @Override
+    public int limitOfRow(final int row) {
+        return this.limit(row);
+    }
+
+    /**
+     * With many nonzeros, and a dense target ({@link Primitive64Store}), the rows are partitioned by nonzero
+     * count and the different parts calculated in parallel.
+     */
+    public void multiply(final Access1D<Double> right, final TransformableRegion<Double> target) {
+
+        int numberOfRows = this.getRowDim();
+        int complexity = this.getColDim();
+        int numberOfColumns = Math.toIntExact(right.count() / complexity);
+
+        if (right.count() != ((long) complexity * numberOfColumns)) {
+            ProgrammingError.throwForMultiplicationNotPossible();
+        }
+
+        if ((target instanceof Primitive64Store) && (this.countNonzeros() >= (2 * THRESHOLD))) {
+
+            int[] partitions = this.partition();
+
+            DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int k = first; k < limit; k++) {
+                        CompressedRowStore.this.multiply(right, partitions[k], partitions[k + 1], complexity, numberOfColumns, target);
+                    }
+                }
+
+            };
+
+            conquerer.invoke(0, partitions.length - 1, 1);
+
+        } else {
+
+            this.multiply(right, 0, numberOfRows, complexity, numberOfColumns, target);
+        }
+    }
+
+    public CompressedRowStore multiply(final double scalar) {
+        return new CompressedRowStore(this.getRowDim(), this.getColDim(), myPointers, myIndices, this.values(scalar));
+    }
+
+    public CompressedRowStore multiply(final Double scalar) {
+        return this.multiply(scalar.doubleValue());
+    }
+
+    public Primitive64Store premultiply(final Access1D<Double> left) {
+
+        int complexity = this.getRowDim();
+        int numberOfColumns = this.getColDim();
+        int numberOfRows = Math.toIntExact(left.count() / complexity);
+
+        Primitive64Store retVal = Primitive64Store.FACTORY.make(numberOfRows, numberOfColumns);
+        double[] data = retVal.data;
+
+        for (int c = 0; c < complexity; c++) {
+            for (int p = myPointers[c], limit = myPointers[c + 1]; p < limit; p++) {
+                int base = myIndices[p] * numberOfRows;
+                double value = myValues[p];
+                for (int i = 0; i < numberOfRows; i++) {
+                    data[base + i] += left.doubleValue(i + ((long) c * numberOfRows)) * value;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    public void supplyTo(final TransformableRegion<Double> receiver) {
+
+        receiver.reset();
+
+        for (int i = 0, numberOfRows = this.getRowDim(); i < numberOfRows; i++) {
+            for (int p = myPointers[i], limit = myPointers[i + 1]; p < limit; p++) {
+                receiver.set(i, myIndices[p], myValues[p]);
+            }
+        }
+    }
+
+    /**
+     * The transpose of a CSR matrix is a CSC matrix using the same arrays - nothing is copied.
+     */
+    @Override
+    public CompressedColumnStore transpose() {
+        return new CompressedColumnStore(this.getColDim(), this.getRowDim(), myPointers, myIndices, myValues);
+    }
+
+    /**
+     * Each target row is a sequence of dot products with the (contiguous) nonzeros of the corresponding row
+     * of this matrix. Rows are independent of each other - different row ranges can be calculated in
+     * parallel, writing to disjoint parts of the target, without any locking.
+     */
+    void multiply(final Access1D<Double> right, final int first, final int limit, final int complexity, final int numberOfColumns,
+            final TransformableRegion<Double> target) {
+
+        int[] pointers = myPointers;
+        int[] indices = myIndices;
+        double[] values = myValues;
+
+        if ((right instanceof Primitive64Store) && (target instanceof Primitive64Store) && (target.countRows() == this.countRows())) {
+
+            double[] rightData = ((Primitive64Store) right).data;
+            double[] targetData = ((Primitive64Store) target).data;
+            int structure = this.getRowDim();
+
+            for (int i = first; i < limit; i++) {
+                int pFirst = pointers[i];
+                int pLimit = pointers[i + 1];
+                for (int j = 0; j < numberOfColumns; j++) {
+                    int base = j * complexity;
+                    double sum = ZERO;
+                    for (int p = pFirst; p < pLimit; p++) {
+                        sum += values[p] * rightData[base + indices[p]];
+                    }
+                    targetData[i + (j * structure)] = sum;
+                }
+            }
+
+            return;
+        }
+
+        for (int i = first; i < limit; i++) {
+            int pFirst = pointers[i];
+            int pLimit = pointers[i + 1];
+            for (int j = 0; j < numberOfColumns; j++) {
+                long base = (long) j * complexity;
+                double sum = ZERO;
+                for (int p = pFirst; p < pLimit; p++) {
+                    sum += values[p] * right.doubleValue(base + indices[p]);
+                }
+                target.set(i, j, sum);
+            }
+        }
+    }
+
+}
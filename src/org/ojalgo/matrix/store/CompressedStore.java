@@ -0,0 +1,301 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.ProgrammingError;
+
+/**
+ * Common parts of {@link CompressedColumnStore} (CSC) and {@link CompressedRowStore} (CSR). The nonzero
+ * elements are stored in contiguous arrays. There is one pointer per column (CSC) or row (CSR), plus one,
+ * delimiting the range of elements in that column/row, and within each such range the row/column indices
+ * are sorted.
+ * <p>
+ * Instances are immutable. Create them using a {@link Builder} or by converting a {@link SparseStore}.
+ *
+ * @author apete
+ */
+public abstract class CompressedStore extends FactoryStore<Double> {
+
+    /**
+     * Collects (row, column, value) triplets, in any order, and then compresses them to either CSC or CSR
+     * format. Duplicate entries are summed.
+     */
+    public static final class Builder {
+
+        private int[] myColumns;
+        private final int myColumnsCount;
+        private int[] myRows;
+        private final int myRowsCount;
+        private int mySize = 0;
+        private double[] myValues;
+
+        Builder(final int rowsCount, final int columnsCount, final int capacity) {
+
+            super();
+
+            myRowsCount = rowsCount;
+            myColumnsCount = columnsCount;
+
+            int initial = Math.max(capacity, 16);
+
+            myRows = new int[initial];
+            myColumns = new int[initial];
+            myValues = new double[initial];
+        }
+
+        public Builder add(final int row, final int col, final double value) {
+
+            if ((row < 0) || (row >= myRowsCount) || (col < 0) || (col >= myColumnsCount)) {
+                throw new ArrayIndexOutOfBoundsException("(" + row + "," + col + ") not in " + myRowsCount + "x" + myColumnsCount);
+            }
+
+            if (mySize == myValues.length) {
+                int capacity = mySize + (mySize >> 1);
+                myRows = Arrays.copyOf(myRows, capacity);
+                myColumns = Arrays.copyOf(myColumns, capacity);
+                myValues = Arrays.copyOf(myValues, capacity);
+            }
+
+            myRows[mySize] = row;
+            myColumns[mySize] = col;
+            myValues[mySize] = value;
+            mySize++;
+
+            return this;
+        }
+
+        /**
+         * @return The number of triplets added so far (duplicates not yet summed)
+         */
+        public int size() {
+            return mySize;
+        }
+
+        public CompressedColumnStore toCSC() {
+            CompressedStore.Parts parts = CompressedStore.compress(myColumnsCount, myColumns, myRowsCount, myRows, myValues, mySize);
+            return new CompressedColumnStore(myRowsCount, myColumnsCount, parts.pointers, parts.indices, parts.values);
+        }
+
+        public CompressedRowStore toCSR() {
+            CompressedStore.Parts parts = CompressedStore.compress(myRowsCount, myRows, myColumnsCount, myColumns, myValues, mySize);
+            return new CompressedRowStore(myRowsCount, myColumnsCount, parts.pointers, parts.indices, parts.values);
+        }
+
+    }
+
+    static final class Parts {
+
+        final int[] indices;
+        final int[] pointers;
+        final double[] values;
+
+        Parts(final int[] pointers, final int[] indices, final double[] values) {
+            super();
+            this.pointers = pointers;
+            this.indices = indices;
+            this.values = values;
+        }
+
+    }
+
+    /**
+     * Multiplication is split in to (at most 4 x threads) parts, each with at least this many nonzeros, that
+     * are executed in parallel.
+     */
+    public static int THRESHOLD = 16_384;
+
+    /**
+     * @param rowsCount The number of rows
+     * @param columnsCount The number of columns
+     * @param capacity The expected number of triplets (it's fine to add more)
+     */
+    public static Builder builder(final int rowsCount, final int columnsCount, final int capacity) {
+        return new Builder(rowsCount, columnsCount, capacity);
+    }
+
+    /**
+     * Two stable counting sorts, first on the minor index and then on the major, sorts the triplets
+     * lexicographically in O(nnz + majorCount + minorCount). Duplicates end up next to each other and are
+     * then summed.
+     */
+    static Parts compress(final int majorCount, final int[] major, final int minorCount, final int[] minor, final double[] values, final int size) {
+
+        int[] byMinor = CompressedStore.countingSort(minorCount, minor, size, null);
+        int[] order = CompressedStore.countingSort(majorCount, major, size, byMinor);
+
+        int[] pointers = new int[majorCount + 1];
+        int[] retIndices = new int[size];
+        double[] retValues = new double[size];
+
+        int nnz = 0;
+        int prevMajor = -1;
+        int prevMinor = -1;
+
+        for (int k = 0; k < size; k++) {
+
+            int i = order[k];
+            int maj = major[i];
+            int min = minor[i];
+
+            if ((maj == prevMajor) && (min == prevMinor)) {
+                retValues[nnz - 1] += values[i];
+            } else {
+                retIndices[nnz] = min;
+                retValues[nnz] = values[i];
+                pointers[maj + 1]++;
+                nnz++;
+                prevMajor = maj;
+                prevMinor = min;
+            }
+        }
+
+        for (int m = 0; m < majorCount; m++) {
+            pointers[m + 1] += pointers[m];
+        }
+
+        if (nnz < size) {
+            return new Parts(pointers, Arrays.copyOf(retIndices, nnz), Arrays.copyOf(retValues, nnz));
+        } else {
+            return new Parts(pointers, retIndices, retValues);
+        }
+    }
+
+    /**
+     * Stable counting sort of (the permutation) order, or of 0..size-1 if order is null, using keys.
+     */
+    static int[] countingSort(final int keyCount, final int[] keys, final int size, final int[] order) {
+
+        int[] offsets = new int[keyCount + 1];
+        for (int k = 0; k < size; k++) {
+            offsets[keys[k] + 1]++;
+        }
+        for (int m = 0; m < keyCount; m++) {
+            offsets[m + 1] += offsets[m];
+        }
+
+        int[] retVal = new int[size];
+        for (int k = 0; k < size; k++) {
+            int i = order != null ? order[k] : k;
+            retVal[offsets[keys[i]]++] = i;
+        }
+
+        return retVal;
+    }
+
+    final int[] myIndices;
+    final int[] myPointers;
+    final double[] myValues;
+
+    CompressedStore(final int rowsCount, final int columnsCount, final int[] pointers, final int[] indices, final double[] values) {
+
+        super(Primitive64Store.FACTORY, rowsCount, columnsCount);
+
+        if (indices.length != values.length) {
+            ProgrammingError.throwForIllegalInvocation();
+        }
+
+        myPointers = pointers;
+        myIndices = indices;
+        myValues = values;
+    }
+
+    public final int countNonzeros() {
+        return myPointers[myPointers.length - 1];
+    }
+
+    public final Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    /**
+     * The index of the first nonzero (the lowest row/column index) in the major column/row, or the minor
+     * dimension if there are none.
+     */
+    final int first(final int major, final int minorDimension) {
+        int first = myPointers[major];
+        return first < myPointers[major + 1] ? myIndices[first] : minorDimension;
+    }
+
+    /**
+     * Partition the major (column/row) indices in to consecutive ranges with (roughly) the same number of
+     * nonzeros. Range k is [partitions[k], partitions[k+1]).
+     */
+    final int[] partition() {
+
+        int numberOfMajors = myPointers.length - 1;
+        int numberOfNonzeros = this.countNonzeros();
+
+        int numberOfParts = Math.min(numberOfNonzeros / THRESHOLD, 4 * OjAlgoUtils.ENVIRONMENT.threads);
+        numberOfParts = Math.max(1, Math.min(numberOfParts, numberOfMajors));
+
+        int[] retVal = new int[numberOfParts + 1];
+        retVal[numberOfParts] = numberOfMajors;
+
+        for (int k = 1; k < numberOfParts; k++) {
+
+            long target = ((long) numberOfNonzeros * k) / numberOfParts;
+
+            // First major index with pointer >= target
+            int low = retVal[k - 1];
+            int high = numberOfMajors;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (myPointers[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            retVal[k] = low;
+        }
+
+        return retVal;
+    }
+
+    /**
+     * One more than the index of the last nonzero in the major column/row, or 0 if there are none.
+     */
+    final int limit(final int major) {
+        int limit = myPointers[major + 1];
+        return limit > myPointers[major] ? myIndices[limit - 1] + 1 : 0;
+    }
+
+    final double value(final int major, final int minor) {
+        int index = Arrays.binarySearch(myIndices, myPointers[major], myPointers[major + 1], minor);
+        return index >= 0 ? myValues[index] : ZERO;
+    }
+
+    final double[] values(final double scalar) {
+        double[] retVal = new double[myValues.length];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = scalar * myValues[i];
+        }
+        return retVal;
+    }
+
+}
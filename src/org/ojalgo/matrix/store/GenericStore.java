@@ -621,6 +621,8 @@ public final class GenericStore<N extends Scalar<N>> extends ScalarArray<N> impl
             this.set(tmpMax, ij, tmpVal.conjugate().get());
         }
 
+        this.set(tmpMax, tmpMin, this.get(tmpMax, tmpMin).conjugate().get());
+
         for (int i = tmpMax + 1; i < myRowDim; i++) {
             tmpVal = this.get(i, tmpMin);
             this.set(i, tmpMin, this.get(i, tmpMax));
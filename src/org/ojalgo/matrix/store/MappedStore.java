@@ -0,0 +1,1224 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Array2D;
+import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.MappedArray;
+import org.ojalgo.array.operation.ApplyCholesky;
+import org.ojalgo.array.operation.ApplyLDL;
+import org.ojalgo.array.operation.ApplyLU;
+import org.ojalgo.array.operation.HouseholderLeft;
+import org.ojalgo.array.operation.MultiplyBoth;
+import org.ojalgo.array.operation.SubstituteBackwards;
+import org.ojalgo.array.operation.SubstituteForwards;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.constant.PrimitiveMath;
+import org.ojalgo.matrix.decomposition.DecompositionStore;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Mutate1D;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * A {@linkplain double} implementation of {@linkplain PhysicalStore} with the elements stored, column major,
+ * in a memory mapped file. The file is mapped in several regions so the total size is not limited to 2GB,
+ * and all internal indexing is done with long:s. The operating system pages the data in and out as needed,
+ * making it possible to work with matrices larger than the heap.
+ * <p>
+ * All operations and decompositions that are implemented to work column by column, such as multiplication,
+ * Cholesky, LU and QR, access the file sequentially. Row oriented operations work, but are slow.
+ * {@link #computeInPlaceSchur(PhysicalStore, boolean)}, {@link #transformSymmetric(Householder)} and
+ * {@link #tred2(BasicArray, BasicArray, boolean)} are not supported - there are no eigenvalue decompositions
+ * with this store.
+ * <p>
+ * Use {@link #factory(File)} to get a factory that creates (temporary) files in a directory of your choice,
+ * or {@link #make(File, long, long)} to create or reopen a specific (persistent) file.
+ * <p>
+ * Each instance keeps its file mapped until it is {@linkplain #close() closed}. Operations that return new
+ * stores, such as multiplication or the decompositions, create them with the same factory - those
+ * intermediate results are also mapped (temporary) files and must be closed as well, preferably using
+ * try-with-resources. Otherwise the mappings are only released when garbage collected, and the files are
+ * only deleted when the JVM exits.
+ *
+ * @author apete
+ */
+public final class MappedStore implements PhysicalStore<Double>, DecompositionStore<Double>, AutoCloseable {
+
+    static final class Factory extends PrimitiveFactory<MappedStore> {
+
+        private final File myDirectory;
+
+        Factory(final File directory) {
+            super();
+            myDirectory = directory;
+        }
+
+        public MappedStore columns(final Access1D<?>... source) {
+
+            final MappedStore retVal = this.make(source[0].count(), source.length);
+
+            for (int j = 0; j < source.length; j++) {
+                final Access1D<?> tmpColumn = source[j];
+                for (long i = 0L, limit = retVal.countRows(); i < limit; i++) {
+                    retVal.set(i, j, tmpColumn.doubleValue(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public MappedStore columns(final Comparable<?>[]... source) {
+
+            final MappedStore retVal = this.make(source[0].length, source.length);
+
+            for (int j = 0; j < source.length; j++) {
+                final Comparable<?>[] tmpColumn = source[j];
+                for (int i = 0; i < tmpColumn.length; i++) {
+                    retVal.set(i, j, Scalar.doubleValue(tmpColumn[i]));
+                }
+            }
+
+            return retVal;
+        }
+
+        public MappedStore columns(final double[]... source) {
+
+            final MappedStore retVal = this.make(source[0].length, source.length);
+
+            for (int j = 0; j < source.length; j++) {
+                final double[] tmpColumn = source[j];
+                for (int i = 0; i < tmpColumn.length; i++) {
+                    retVal.set(i, j, tmpColumn[i]);
+                }
+            }
+
+            return retVal;
+        }
+
+        @SuppressWarnings("unchecked")
+        public MappedStore columns(final List<? extends Comparable<?>>... source) {
+
+            final MappedStore retVal = this.make(source[0].size(), source.length);
+
+            for (int j = 0; j < source.length; j++) {
+                final List<? extends Comparable<?>> tmpColumn = source[j];
+                for (int i = 0, limit = tmpColumn.size(); i < limit; i++) {
+                    retVal.set(i, j, Scalar.doubleValue(tmpColumn.get(i)));
+                }
+            }
+
+            return retVal;
+        }
+
+        public MappedStore copy(final Access2D<?> source) {
+
+            final MappedStore retVal = this.make(source.countRows(), source.countColumns());
+
+            retVal.fillMatching(source);
+
+            return retVal;
+        }
+
+        public MappedStore make(final long rows, final long columns) {
+            try {
+                final File tmpFile = File.createTempFile("ojAlgo", ".mapped", myDirectory);
+                tmpFile.deleteOnExit();
+                return new MappedStore(this, tmpFile, rows, columns, true);
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+
+        public MappedStore makeEye(final long rows, final long columns) {
+
+            final MappedStore retVal = this.make(rows, columns);
+
+            retVal.fillDiagonal(ONE);
+
+            return retVal;
+        }
+
+        public MappedStore rows(final Access1D<?>... source) {
+
+            final MappedStore retVal = this.make(source.length, source[0].count());
+
+            for (long j = 0L, limit = retVal.countColumns(); j < limit; j++) {
+                for (int i = 0; i < source.length; i++) {
+                    retVal.set(i, j, source[i].doubleValue(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public MappedStore rows(final Comparable<?>[]... source) {
+
+            final MappedStore retVal = this.make(source.length, source[0].length);
+
+            for (int j = 0, limit = source[0].length; j < limit; j++) {
+                for (int i = 0; i < source.length; i++) {
+                    retVal.set(i, j, Scalar.doubleValue(source[i][j]));
+                }
+            }
+
+            return retVal;
+        }
+
+        public MappedStore rows(final double[]... source) {
+
+            final MappedStore retVal = this.make(source.length, source[0].length);
+
+            for (int j = 0, limit = source[0].length; j < limit; j++) {
+                for (int i = 0; i < source.length; i++) {
+                    retVal.set(i, j, source[i][j]);
+                }
+            }
+
+            return retVal;
+        }
+
+        @SuppressWarnings("unchecked")
+        public MappedStore rows(final List<? extends Comparable<?>>... source) {
+
+            final MappedStore retVal = this.make(source.length, source[0].size());
+
+            for (int j = 0, limit = source[0].size(); j < limit; j++) {
+                for (int i = 0; i < source.length; i++) {
+                    retVal.set(i, j, Scalar.doubleValue(source[i].get(j)));
+                }
+            }
+
+            return retVal;
+        }
+
+        public MappedStore transpose(final Access2D<?> source) {
+
+            final MappedStore retVal = this.make(source.countColumns(), source.countRows());
+
+            for (long j = 0L, limit = retVal.countColumns(); j < limit; j++) {
+                for (long i = 0L; i < retVal.countRows(); i++) {
+                    retVal.set(i, j, source.doubleValue(j, i));
+                }
+            }
+
+            return retVal;
+        }
+
+    }
+
+    /**
+     * @param directory Where to create the files - one per instance. The files are deleted when the JVM
+     *        exits.
+     */
+    public static PhysicalStore.Factory<Double, MappedStore> factory(final File directory) {
+        return new MappedStore.Factory(directory);
+    }
+
+    /**
+     * Will create the file if it doesn't exist. If it does exist its current contents become the initial
+     * elements of the store. The file is not deleted when the JVM exits.
+     */
+    public static MappedStore make(final File file, final long rows, final long columns) {
+        return new MappedStore(new MappedStore.Factory(file.getAbsoluteFile().getParentFile()), file, rows, columns, false);
+    }
+
+    private final MappedArray myArray;
+    private final int myColDim;
+    private final MappedStore.Factory myFactory;
+    private final File myFile;
+    private final TransformableRegion.FillByMultiplying<Double> myMultiplyer;
+    private final int myRowDim;
+    private final boolean myTemporary;
+    private final Array2D<Double> myUtility;
+
+    MappedStore(final MappedStore.Factory factory, final File file, final long numbRows, final long numbCols, final boolean temporary) {
+
+        super();
+
+        myFactory = factory;
+        myFile = file;
+        myTemporary = temporary;
+
+        myRowDim = Math.toIntExact(numbRows);
+        myColDim = Math.toIntExact(numbCols);
+
+        myArray = MappedArray.make(file, numbRows * numbCols);
+        myUtility = Array2D.DIRECT64.wrap(myArray, numbRows);
+
+        myMultiplyer = MultiplyBoth.newPrimitive64(myRowDim, myColDim);
+    }
+
+    public void accept(final Access2D<?> supplied) {
+        for (long j = 0L, limit = Math.min(myColDim, supplied.countColumns()); j < limit; j++) {
+            for (long i = 0L, rows = Math.min(myRowDim, supplied.countRows()); i < rows; i++) {
+                myUtility.set(i, j, supplied.doubleValue(i, j));
+            }
+        }
+    }
+
+    public void add(final long row, final long col, final Comparable<?> addend) {
+        myUtility.add(row, col, addend);
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        myUtility.add(row, col, addend);
+    }
+
+    public Double aggregateAll(final Aggregator aggregator) {
+        return myUtility.aggregateRange(0L, myUtility.count(), aggregator);
+    }
+
+    public Double aggregateColumn(final long row, final long col, final Aggregator aggregator) {
+        return myUtility.aggregateColumn(row, col, aggregator);
+    }
+
+    public Double aggregateDiagonal(final long row, final long col, final Aggregator aggregator) {
+        return myUtility.aggregateDiagonal(row, col, aggregator);
+    }
+
+    public Double aggregateRange(final long first, final long limit, final Aggregator aggregator) {
+        return myUtility.aggregateRange(first, limit, aggregator);
+    }
+
+    public Double aggregateRow(final long row, final long col, final Aggregator aggregator) {
+        return myUtility.aggregateRow(row, col, aggregator);
+    }
+
+    public void applyCholesky(final int iterationPoint, final BasicArray<Double> multipliers) {
+
+        final double[] tmpColumn = this.copyOf(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyCholesky.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    MappedStore.this.applyCholesky(first, limit, tmpColumn);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyCholesky.THRESHOLD);
+
+        } else {
+
+            this.applyCholesky(iterationPoint + 1, myColDim, tmpColumn);
+        }
+    }
+
+    public void applyLDL(final int iterationPoint, final BasicArray<Double> multipliers) {
+
+        final double[] tmpColumn = this.copyOf(multipliers);
+        final double tmpDiagonal = this.doubleValue(iterationPoint, iterationPoint);
+
+        if ((myColDim - iterationPoint - 1) > ApplyLDL.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    MappedStore.this.applyLDL(first, limit, tmpColumn, tmpDiagonal);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLDL.THRESHOLD);
+
+        } else {
+
+            this.applyLDL(iterationPoint + 1, myColDim, tmpColumn, tmpDiagonal);
+        }
+    }
+
+    public void applyLU(final int iterationPoint, final BasicArray<Double> multipliers) {
+
+        final double[] tmpColumn = this.copyOf(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyLU.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    MappedStore.this.applyLU(first, limit, tmpColumn, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLU.THRESHOLD);
+
+        } else {
+
+            this.applyLU(iterationPoint + 1, myColDim, tmpColumn, iterationPoint);
+        }
+    }
+
+    public Array1D<Double> asList() {
+        return myUtility.asArray1D();
+    }
+
+    /**
+     * Not supported. The Schur form (as well as {@link #tred2(BasicArray, BasicArray, boolean)} and
+     * {@link #transformSymmetric(Householder)}) is only used by the eigenvalue decompositions, and their
+     * implementations access the elements row by row. Copy to a {@link Primitive64Store} to calculate
+     * eigenvalues.
+     *
+     * @throws UnsupportedOperationException Always
+     */
+    public Array1D<ComplexNumber> computeInPlaceSchur(final PhysicalStore<Double> transformationCollector, final boolean eigenvalue) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+        return null;
+    }
+
+    /**
+     * Unmaps the file, and if it is a temporary file (any store created by a {@link #factory(File)}) deletes
+     * it. The store can not be used after this.
+     */
+    public void close() {
+        myArray.close();
+        if (myTemporary) {
+            myFile.delete();
+        }
+    }
+
+    public MatrixStore<Double> conjugate() {
+        return this.transpose();
+    }
+
+    public long count() {
+        return myUtility.count();
+    }
+
+    public long countColumns() {
+        return myColDim;
+    }
+
+    public long countRows() {
+        return myRowDim;
+    }
+
+    public void divideAndCopyColumn(final int row, final int column, final BasicArray<Double> destination) {
+
+        final long tmpBase = column * (long) myRowDim;
+        final double tmpDenominator = myUtility.doubleValue(tmpBase + row);
+
+        for (int i = row + 1; i < myRowDim; i++) {
+            final double tmpValue = myUtility.doubleValue(tmpBase + i) / tmpDenominator;
+            myUtility.set(tmpBase + i, tmpValue);
+            destination.set(i, tmpValue);
+        }
+    }
+
+    public double doubleValue(final long index) {
+        return myUtility.doubleValue(index);
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return myUtility.doubleValue(row, col);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof MatrixStore) {
+            return this.equals((MatrixStore<Double>) anObj, NumberContext.getGeneral(6));
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void exchangeColumns(final long colA, final long colB) {
+        myUtility.exchangeColumns(colA, colB);
+    }
+
+    public void exchangeHermitian(final int indexA, final int indexB) {
+
+        final int indexMin = Math.min(indexA, indexB);
+        final int indexMax = Math.max(indexA, indexB);
+
+        double tmpVal;
+
+        for (int j = 0; j < indexMin; j++) {
+            tmpVal = this.doubleValue(indexMin, j);
+            this.set(indexMin, j, this.doubleValue(indexMax, j));
+            this.set(indexMax, j, tmpVal);
+        }
+
+        tmpVal = this.doubleValue(indexMin, indexMin);
+        this.set(indexMin, indexMin, this.doubleValue(indexMax, indexMax));
+        this.set(indexMax, indexMax, tmpVal);
+
+        for (int ij = indexMin + 1; ij < indexMax; ij++) {
+            tmpVal = this.doubleValue(ij, indexMin);
+            this.set(ij, indexMin, this.doubleValue(indexMax, ij));
+            this.set(indexMax, ij, tmpVal);
+        }
+
+        for (int i = indexMax + 1; i < myRowDim; i++) {
+            tmpVal = this.doubleValue(i, indexMin);
+            this.set(i, indexMin, this.doubleValue(i, indexMax));
+            this.set(i, indexMax, tmpVal);
+        }
+    }
+
+    public void exchangeRows(final long rowA, final long rowB) {
+        myUtility.exchangeRows(rowA, rowB);
+    }
+
+    public void fillAll(final Double value) {
+        myUtility.fillAll(value);
+    }
+
+    public void fillAll(final NullaryFunction<?> supplier) {
+        myUtility.fillAll(supplier);
+    }
+
+    public void fillByMultiplying(final Access1D<Double> left, final Access1D<Double> right) {
+
+        final int complexity = Math.toIntExact(left.count() / this.countRows());
+        if (complexity != Math.toIntExact(right.count() / this.countColumns())) {
+            ProgrammingError.throwForMultiplicationNotPossible();
+        }
+
+        myMultiplyer.invoke(this, left, complexity, right);
+    }
+
+    public void fillColumn(final long row, final long col, final Access1D<Double> values) {
+        myUtility.fillColumn(row, col, values);
+    }
+
+    public void fillColumn(final long row, final long col, final Double value) {
+        myUtility.fillColumn(row, col, value);
+    }
+
+    public void fillColumn(final long row, final long col, final NullaryFunction<?> supplier) {
+        myUtility.fillColumn(row, col, supplier);
+    }
+
+    public void fillDiagonal(final long row, final long col, final Double value) {
+        myUtility.fillDiagonal(row, col, value);
+    }
+
+    public void fillDiagonal(final long row, final long col, final NullaryFunction<?> supplier) {
+        myUtility.fillDiagonal(row, col, supplier);
+    }
+
+    public void fillMatching(final Access1D<?> values) {
+        if ((values instanceof Access2D<?>) && (((Access2D<?>) values).countRows() == myRowDim)) {
+            this.accept((Access2D<?>) values);
+        } else {
+            for (long i = 0L, limit = Math.min(this.count(), values.count()); i < limit; i++) {
+                myUtility.set(i, values.doubleValue(i));
+            }
+        }
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        myUtility.fillOne(row, col, values, valueIndex);
+    }
+
+    public void fillOne(final long row, final long col, final Double value) {
+        myUtility.fillOne(row, col, value);
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<?> supplier) {
+        myUtility.fillOne(row, col, supplier);
+    }
+
+    public void fillRange(final long first, final long limit, final Double value) {
+        myUtility.fillRange(first, limit, value);
+    }
+
+    public void fillRange(final long first, final long limit, final NullaryFunction<?> supplier) {
+        myUtility.fillRange(first, limit, supplier);
+    }
+
+    public void fillRow(final long row, final long col, final Access1D<Double> values) {
+        myUtility.fillRow(row, col, values);
+    }
+
+    public void fillRow(final long row, final long col, final Double value) {
+        myUtility.fillRow(row, col, value);
+    }
+
+    public void fillRow(final long row, final long col, final NullaryFunction<?> supplier) {
+        myUtility.fillRow(row, col, supplier);
+    }
+
+    public boolean generateApplyAndCopyHouseholderColumn(final int row, final int column, final Householder<Double> destination) {
+
+        final Householder.Primitive64 tmpDestination = (Householder.Primitive64) destination;
+        final double[] tmpVector = tmpDestination.vector;
+        tmpDestination.first = row;
+
+        final long tmpBase = column * (long) myRowDim;
+
+        double tmpNormInf = ZERO; // Copy column and calculate its infinity-norm.
+        for (int i = row; i < myRowDim; i++) {
+            tmpNormInf = MAX.invoke(tmpNormInf, ABS.invoke(tmpVector[i] = myUtility.doubleValue(tmpBase + i)));
+        }
+
+        boolean retVal = tmpNormInf != ZERO;
+        double tmpVal;
+        double tmpNorm2 = ZERO;
+
+        if (retVal) {
+            for (int i = row + 1; i < myRowDim; i++) {
+                tmpVal = tmpVector[i] /= tmpNormInf;
+                tmpNorm2 += tmpVal * tmpVal;
+            }
+            retVal = !PrimitiveScalar.isSmall(ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            double tmpScale = tmpVector[row] / tmpNormInf;
+            tmpNorm2 += tmpScale * tmpScale;
+            tmpNorm2 = SQRT.invoke(tmpNorm2); // 2-norm of the vector to transform (scaled by inf-norm)
+
+            if (tmpScale <= ZERO) {
+                myUtility.set(tmpBase + row, tmpNorm2 * tmpNormInf);
+                tmpScale -= tmpNorm2;
+            } else {
+                myUtility.set(tmpBase + row, -tmpNorm2 * tmpNormInf);
+                tmpScale += tmpNorm2;
+            }
+
+            tmpVector[row] = ONE;
+
+            for (int i = row + 1; i < myRowDim; i++) {
+                myUtility.set(tmpBase + i, tmpVector[i] /= tmpScale);
+            }
+
+            tmpDestination.beta = ABS.invoke(tmpScale) / tmpNorm2;
+        }
+
+        return retVal;
+    }
+
+    public boolean generateApplyAndCopyHouseholderRow(final int row, final int column, final Householder<Double> destination) {
+
+        final Householder.Primitive64 tmpDestination = (Householder.Primitive64) destination;
+        final double[] tmpVector = tmpDestination.vector;
+        tmpDestination.first = column;
+
+        double tmpNormInf = ZERO; // Copy row and calculate its infinity-norm.
+        for (int j = column; j < myColDim; j++) {
+            tmpNormInf = MAX.invoke(tmpNormInf, ABS.invoke(tmpVector[j] = myUtility.doubleValue(row, j)));
+        }
+
+        boolean retVal = tmpNormInf != ZERO;
+        double tmpVal;
+        double tmpNorm2 = ZERO;
+
+        if (retVal) {
+            for (int j = column + 1; j < myColDim; j++) {
+                tmpVal = tmpVector[j] /= tmpNormInf;
+                tmpNorm2 += tmpVal * tmpVal;
+            }
+            retVal = !PrimitiveScalar.isSmall(ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            double tmpScale = tmpVector[column] / tmpNormInf;
+            tmpNorm2 += tmpScale * tmpScale;
+            tmpNorm2 = SQRT.invoke(tmpNorm2); // 2-norm of the vector to transform (scaled by inf-norm)
+
+            if (tmpScale <= ZERO) {
+                myUtility.set(row, column, tmpNorm2 * tmpNormInf);
+                tmpScale -= tmpNorm2;
+            } else {
+                myUtility.set(row, column, -tmpNorm2 * tmpNormInf);
+                tmpScale += tmpNorm2;
+            }
+
+            tmpVector[column] = ONE;
+
+            for (int j = column + 1; j < myColDim; j++) {
+                myUtility.set(row, j, tmpVector[j] /= tmpScale);
+            }
+
+            tmpDestination.beta = ABS.invoke(tmpScale) / tmpNorm2;
+        }
+
+        return retVal;
+    }
+
+    public Double get(final long index) {
+        return myUtility.get(index);
+    }
+
+    public Double get(final long row, final long col) {
+        return myUtility.get(row, col);
+    }
+
+    /**
+     * @return The file the elements are stored in
+     */
+    public File getFile() {
+        return myFile;
+    }
+
+    @Override
+    public int hashCode() {
+        return myUtility.hashCode();
+    }
+
+    public long indexOfLargest() {
+        return myUtility.indexOfLargest();
+    }
+
+    public long indexOfLargestInColumn(final long row, final long col) {
+        return myUtility.indexOfLargestInColumn(row, col);
+    }
+
+    public long indexOfLargestInRange(final long first, final long limit) {
+        return myUtility.indexOfLargestInRange(first, limit);
+    }
+
+    public long indexOfLargestInRow(final long row, final long col) {
+        return myUtility.indexOfLargestInRow(row, col);
+    }
+
+    public long indexOfLargestOnDiagonal(final long first) {
+        return myUtility.indexOfLargestOnDiagonal(first);
+    }
+
+    public boolean isAbsolute(final long row, final long col) {
+        return myUtility.isAbsolute(row, col);
+    }
+
+    public boolean isColumnSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isColumnSmall(row, col, comparedTo);
+    }
+
+    public boolean isRowSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isRowSmall(row, col, comparedTo);
+    }
+
+    public boolean isSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isSmall(row, col, comparedTo);
+    }
+
+    public void modifyAll(final UnaryFunction<Double> modifier) {
+        myUtility.modifyAll(modifier);
+    }
+
+    public void modifyColumn(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myUtility.modifyColumn(row, col, modifier);
+    }
+
+    public void modifyDiagonal(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myUtility.modifyDiagonal(row, col, modifier);
+    }
+
+    public void modifyMatching(final Access1D<Double> left, final BinaryFunction<Double> function) {
+        myUtility.modifyMatching(left, function);
+    }
+
+    public void modifyMatching(final BinaryFunction<Double> function, final Access1D<Double> right) {
+        myUtility.modifyMatching(function, right);
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myUtility.modifyOne(row, col, modifier);
+    }
+
+    public void modifyRange(final long first, final long limit, final UnaryFunction<Double> modifier) {
+        myUtility.modifyRange(first, limit, modifier);
+    }
+
+    public void modifyRow(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myUtility.modifyRow(row, col, modifier);
+    }
+
+    public void negateColumn(final int column) {
+        myUtility.modifyColumn(0, column, PrimitiveMath.NEGATE);
+    }
+
+    public PhysicalStore.Factory<Double, MappedStore> physical() {
+        return myFactory;
+    }
+
+    public void reduceColumns(final Aggregator aggregator, final Mutate1D receiver) {
+        for (long j = 0L; j < myColDim; j++) {
+            receiver.set(j, myUtility.aggregateColumn(0L, j, aggregator));
+        }
+    }
+
+    public TransformableRegion<Double> regionByColumns(final int... columns) {
+        return new TransformableRegion.ColumnsRegion<>(this, myMultiplyer, columns);
+    }
+
+    public TransformableRegion<Double> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new TransformableRegion.LimitRegion<>(this, myMultiplyer, rowLimit, columnLimit);
+    }
+
+    public TransformableRegion<Double> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new TransformableRegion.OffsetRegion<>(this, myMultiplyer, rowOffset, columnOffset);
+    }
+
+    public TransformableRegion<Double> regionByRows(final int... rows) {
+        return new TransformableRegion.RowsRegion<>(this, myMultiplyer, rows);
+    }
+
+    public TransformableRegion<Double> regionByTransposing() {
+        return new TransformableRegion.TransposedRegion<>(this, myMultiplyer);
+    }
+
+    public void rotateRight(final int low, final int high, final double cos, final double sin) {
+
+        final long tmpBaseA = low * (long) myRowDim;
+        final long tmpBaseB = high * (long) myRowDim;
+
+        double tmpOldA;
+        double tmpOldB;
+
+        for (int i = 0; i < myRowDim; i++) {
+
+            tmpOldA = myUtility.doubleValue(tmpBaseA + i);
+            tmpOldB = myUtility.doubleValue(tmpBaseB + i);
+
+            myUtility.set(tmpBaseA + i, (cos * tmpOldA) - (sin * tmpOldB));
+            myUtility.set(tmpBaseB + i, (cos * tmpOldB) + (sin * tmpOldA));
+        }
+    }
+
+    public void set(final long index, final double value) {
+        myUtility.set(index, value);
+    }
+
+    public void set(final long row, final long col, final Comparable<?> value) {
+        myUtility.set(row, col, value);
+    }
+
+    public void set(final long row, final long col, final double value) {
+        myUtility.set(row, col, value);
+    }
+
+    public void setToIdentity(final int col) {
+        myUtility.set(col, col, ONE);
+        myUtility.fillColumn(col + 1, col, ZERO);
+    }
+
+    public Array1D<Double> sliceColumn(final long row, final long col) {
+        return myUtility.sliceColumn(row, col);
+    }
+
+    public Array1D<Double> sliceDiagonal(final long row, final long col) {
+        return myUtility.sliceDiagonal(row, col);
+    }
+
+    public Array1D<Double> sliceRange(final long first, final long limit) {
+        return myUtility.sliceRange(first, limit);
+    }
+
+    public Array1D<Double> sliceRow(final long row, final long col) {
+        return myUtility.sliceRow(row, col);
+    }
+
+    /**
+     * Column by column. If [body] is accessed conjugated its rows are (sequentially read) columns, otherwise
+     * the substitution is done in column (axpy) order.
+     *
+     * @see SubstituteBackwards
+     */
+    public void substituteBackwards(final Access2D<Double> body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        if (myColDim > SubstituteBackwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    MappedStore.this.substituteBackwards(first, limit, body, unitDiagonal, conjugated, hermitian);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, myColDim, SubstituteBackwards.THRESHOLD);
+
+        } else {
+
+            this.substituteBackwards(0, myColDim, body, unitDiagonal, conjugated, hermitian);
+        }
+    }
+
+    /**
+     * Column by column. If [body] is accessed conjugated its rows are (sequentially read) columns, otherwise
+     * the substitution is done in column (axpy) order.
+     *
+     * @see SubstituteForwards
+     */
+    public void substituteForwards(final Access2D<Double> body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        if (myColDim > SubstituteForwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    MappedStore.this.substituteForwards(first, limit, body, unitDiagonal, conjugated, identity);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, myColDim, SubstituteForwards.THRESHOLD);
+
+        } else {
+
+            this.substituteForwards(0, myColDim, body, unitDiagonal, conjugated, identity);
+        }
+    }
+
+    public PrimitiveScalar toScalar(final long row, final long column) {
+        return PrimitiveScalar.of(this.doubleValue(row, column));
+    }
+
+    @Override
+    public String toString() {
+        return Access2D.toString(this);
+    }
+
+    public void transformLeft(final Householder<Double> transformation, final int firstColumn) {
+
+        final Householder.Primitive64 tmpTransf = Primitive64Store.cast(transformation);
+
+        if ((myColDim - firstColumn) > HouseholderLeft.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    MappedStore.this.transformLeft(first, limit, tmpTransf);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstColumn, myColDim, HouseholderLeft.THRESHOLD);
+
+        } else {
+
+            this.transformLeft(firstColumn, myColDim, tmpTransf);
+        }
+    }
+
+    public void transformLeft(final Rotation<Double> transformation) {
+
+        final Rotation.Primitive tmpTransf = Primitive64Store.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if (!Double.isNaN(tmpTransf.cos) && !Double.isNaN(tmpTransf.sin)) {
+
+                double tmpOldLow;
+                double tmpOldHigh;
+
+                for (int j = 0; j < myColDim; j++) {
+
+                    tmpOldLow = myUtility.doubleValue(tmpLow, j);
+                    tmpOldHigh = myUtility.doubleValue(tmpHigh, j);
+
+                    myUtility.set(tmpLow, j, (tmpTransf.cos * tmpOldLow) + (tmpTransf.sin * tmpOldHigh));
+                    myUtility.set(tmpHigh, j, (tmpTransf.cos * tmpOldHigh) - (tmpTransf.sin * tmpOldLow));
+                }
+
+            } else {
+                myUtility.exchangeRows(tmpLow, tmpHigh);
+            }
+        } else {
+            if (!Double.isNaN(tmpTransf.cos)) {
+                myUtility.modifyRow(tmpLow, 0L, PrimitiveMath.MULTIPLY.second(tmpTransf.cos));
+            } else if (!Double.isNaN(tmpTransf.sin)) {
+                myUtility.modifyRow(tmpLow, 0L, PrimitiveMath.DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyRow(tmpLow, 0, PrimitiveMath.NEGATE);
+            }
+        }
+    }
+
+    public void transformRight(final Householder<Double> transformation, final int firstRow) {
+
+        final Householder.Primitive64 tmpTransf = Primitive64Store.cast(transformation);
+
+        final double[] tmpVector = tmpTransf.vector;
+        final int tmpFirstNonZero = tmpTransf.first;
+        final double tmpBeta = tmpTransf.beta;
+
+        final double[] tmpWork = new double[myRowDim];
+
+        for (int j = tmpFirstNonZero; j < myColDim; j++) {
+            final double tmpScale = tmpBeta * tmpVector[j];
+            if (tmpScale != ZERO) {
+                final long tmpBase = j * (long) myRowDim;
+                for (int i = firstRow; i < myRowDim; i++) {
+                    tmpWork[i] += tmpScale * myUtility.doubleValue(tmpBase + i);
+                }
+            }
+        }
+
+        for (int j = tmpFirstNonZero; j < myColDim; j++) {
+            final double tmpScale = tmpVector[j];
+            if (tmpScale != ZERO) {
+                final long tmpBase = j * (long) myRowDim;
+                for (int i = firstRow; i < myRowDim; i++) {
+                    myUtility.set(tmpBase + i, myUtility.doubleValue(tmpBase + i) - (tmpScale * tmpWork[i]));
+                }
+            }
+        }
+    }
+
+    public void transformRight(final Rotation<Double> transformation) {
+
+        final Rotation.Primitive tmpTransf = Primitive64Store.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if (!Double.isNaN(tmpTransf.cos) && !Double.isNaN(tmpTransf.sin)) {
+                this.rotateRight(tmpLow, tmpHigh, tmpTransf.cos, tmpTransf.sin);
+            } else {
+                myUtility.exchangeColumns(tmpLow, tmpHigh);
+            }
+        } else {
+            if (!Double.isNaN(tmpTransf.cos)) {
+                myUtility.modifyColumn(0L, tmpHigh, PrimitiveMath.MULTIPLY.second(tmpTransf.cos));
+            } else if (!Double.isNaN(tmpTransf.sin)) {
+                myUtility.modifyColumn(0L, tmpHigh, PrimitiveMath.DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyColumn(0, tmpHigh, PrimitiveMath.NEGATE);
+            }
+        }
+    }
+
+    /**
+     * Not supported, see {@link #computeInPlaceSchur(PhysicalStore, boolean)}.
+     *
+     * @throws UnsupportedOperationException Always
+     */
+    public void transformSymmetric(final Householder<Double> transformation) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+    }
+
+    /**
+     * Not supported, see {@link #computeInPlaceSchur(PhysicalStore, boolean)}.
+     *
+     * @throws UnsupportedOperationException Always
+     */
+    public void tred2(final BasicArray<Double> mainDiagonal, final BasicArray<Double> offDiagonal, final boolean yesvecs) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+    }
+
+    public void visitAll(final VoidFunction<Double> visitor) {
+        myUtility.visitAll(visitor);
+    }
+
+    public void visitColumn(final long row, final long col, final VoidFunction<Double> visitor) {
+        myUtility.visitColumn(row, col, visitor);
+    }
+
+    public void visitDiagonal(final long row, final long col, final VoidFunction<Double> visitor) {
+        myUtility.visitDiagonal(row, col, visitor);
+    }
+
+    public void visitRange(final long first, final long limit, final VoidFunction<Double> visitor) {
+        myUtility.visitRange(first, limit, visitor);
+    }
+
+    public void visitRow(final long row, final long col, final VoidFunction<Double> visitor) {
+        myUtility.visitRow(row, col, visitor);
+    }
+
+    private void applyCholesky(final int first, final int limit, final double[] multipliers) {
+        for (int j = first; j < limit; j++) {
+            this.axpy(j, j, -multipliers[j], multipliers);
+        }
+    }
+
+    private void applyLDL(final int first, final int limit, final double[] multipliers, final double diagonal) {
+        for (int j = first; j < limit; j++) {
+            this.axpy(j, j, -(diagonal * multipliers[j]), multipliers);
+        }
+    }
+
+    private void applyLU(final int first, final int limit, final double[] multipliers, final int iterationPoint) {
+        for (int j = first; j < limit; j++) {
+            this.axpy(j, iterationPoint + 1, -this.doubleValue(iterationPoint, j), multipliers);
+        }
+    }
+
+    /**
+     * this(i,col) += a * x(i) for i = first..rows
+     */
+    private void axpy(final int col, final int first, final double a, final double[] x) {
+        if (a != ZERO) {
+            final long tmpBase = col * (long) myRowDim;
+            for (int i = first; i < myRowDim; i++) {
+                myUtility.set(tmpBase + i, myUtility.doubleValue(tmpBase + i) + (a * x[i]));
+            }
+        }
+    }
+
+    private double[] copyOf(final BasicArray<Double> array) {
+        final double[] retVal = new double[myRowDim];
+        for (int i = 0, limit = (int) Math.min(myRowDim, array.count()); i < limit; i++) {
+            retVal[i] = array.doubleValue(i);
+        }
+        return retVal;
+    }
+
+    private void substituteBackwards(final int first, final int limit, final Access2D<?> body, final boolean unitDiagonal, final boolean conjugated,
+            final boolean hermitian) {
+
+        final int tmpDiagDim = (int) Math.min(body.countRows(), body.countColumns());
+        final double[] tmpColumn = new double[myRowDim];
+
+        for (int s = first; s < limit; s++) {
+
+            final long tmpBase = s * (long) myRowDim;
+            final int tmpFirstRow = hermitian ? s : 0;
+
+            for (int i = tmpFirstRow; i < tmpDiagDim; i++) {
+                tmpColumn[i] = myUtility.doubleValue(tmpBase + i);
+            }
+
+            if (conjugated) {
+                // Row i of the transposed body is column i
+                for (int i = tmpDiagDim - 1; i >= tmpFirstRow; i--) {
+                    double tmpVal = tmpColumn[i];
+                    for (int j = i + 1; j < tmpDiagDim; j++) {
+                        tmpVal -= body.doubleValue(j, i) * tmpColumn[j];
+                    }
+                    tmpColumn[i] = unitDiagonal ? tmpVal : tmpVal / body.doubleValue(i, i);
+                }
+            } else {
+                for (int j = tmpDiagDim - 1; j >= tmpFirstRow; j--) {
+                    if (!unitDiagonal) {
+                        tmpColumn[j] /= body.doubleValue(j, j);
+                    }
+                    final double tmpVal = tmpColumn[j];
+                    if (tmpVal != ZERO) {
+                        for (int i = tmpFirstRow; i < j; i++) {
+                            tmpColumn[i] -= body.doubleValue(i, j) * tmpVal;
+                        }
+                    }
+                }
+            }
+
+            for (int i = tmpFirstRow; i < tmpDiagDim; i++) {
+                myUtility.set(tmpBase + i, tmpColumn[i]);
+            }
+        }
+    }
+
+    private void substituteForwards(final int first, final int limit, final Access2D<?> body, final boolean unitDiagonal, final boolean conjugated,
+            final boolean identity) {
+
+        final int tmpDiagDim = (int) Math.min(body.countRows(), body.countColumns());
+        final double[] tmpColumn = new double[myRowDim];
+
+        for (int s = first; s < limit; s++) {
+
+            final long tmpBase = s * (long) myRowDim;
+            final int tmpFirstRow = identity ? s : 0;
+
+            if (identity) {
+                for (int i = 0; i < tmpDiagDim; i++) {
+                    tmpColumn[i] = i == s ? ONE : ZERO;
+                }
+            } else {
+                for (int i = 0; i < tmpDiagDim; i++) {
+                    tmpColumn[i] = myUtility.doubleValue(tmpBase + i);
+                }
+            }
+
+            if (conjugated) {
+                // Row i of the transposed body is column i
+                for (int i = tmpFirstRow; i < tmpDiagDim; i++) {
+                    double tmpVal = tmpColumn[i];
+                    for (int j = tmpFirstRow; j < i; j++) {
+                        tmpVal -= body.doubleValue(j, i) * tmpColumn[j];
+                    }
+                    tmpColumn[i] = unitDiagonal ? tmpVal : tmpVal / body.doubleValue(i, i);
+                }
+            } else {
+                for (int j = tmpFirstRow; j < tmpDiagDim; j++) {
+                    if (!unitDiagonal) {
+                        tmpColumn[j] /= body.doubleValue(j, j);
+                    }
+                    final double tmpVal = tmpColumn[j];
+                    if (tmpVal != ZERO) {
+                        for (int i = j + 1; i < tmpDiagDim; i++) {
+                            tmpColumn[i] -= body.doubleValue(i, j) * tmpVal;
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < tmpDiagDim; i++) {
+                myUtility.set(tmpBase + i, tmpColumn[i]);
+            }
+        }
+    }
+
+    private void transformLeft(final int first, final int limit, final Householder.Primitive64 householder) {
+
+        final double[] tmpVector = householder.vector;
+        final int tmpFirstNonZero = householder.first;
+        final double tmpBeta = householder.beta;
+
+        for (int j = first; j < limit; j++) {
+
+            final long tmpBase = j * (long) myRowDim;
+
+            double tmpScale = ZERO;
+            for (int i = tmpFirstNonZero; i < myRowDim; i++) {
+                tmpScale += tmpVector[i] * myUtility.doubleValue(tmpBase + i);
+            }
+            tmpScale *= tmpBeta;
+
+            this.axpy(j, tmpFirstNonZero, -tmpScale, tmpVector);
+        }
+    }
+
+}
@@ -21,16 +21,19 @@
  */
 package org.ojalgo.matrix.store;
 
+import org.ojalgo.array.operation.ModifyAll;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.matrix.store.PhysicalStore.Factory;
 import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Transformation2D;
 
 abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSupplier<N> {
 
-    static final class BinaryOperatorLeft<N extends Comparable<N>> extends MatrixPipeline<N> {
+    static final class BinaryOperatorLeft<N extends Comparable<N>> extends ElementWise<N> {
 
         private final MatrixStore<N> myLeft;
         private final BinaryFunction<N> myOperator;
@@ -42,13 +45,22 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
         }
 
         @Override
-        public void supplyTo(final TransformableRegion<N> receiver) {
-            this.getContext().supplyTo(receiver);
+        double invoke(final long row, final long col, final double arg) {
+            return myOperator.invoke(myLeft.doubleValue(row, col), arg);
+        }
+
+        @Override
+        N invoke(final long row, final long col, final N arg) {
+            return myOperator.invoke(myLeft.get(row, col), arg);
+        }
+
+        @Override
+        void modify(final TransformableRegion<N> receiver) {
             receiver.modifyMatching(myLeft, myOperator);
         }
     }
 
-    static final class BinaryOperatorRight<N extends Comparable<N>> extends MatrixPipeline<N> {
+    static final class BinaryOperatorRight<N extends Comparable<N>> extends ElementWise<N> {
 
         private final BinaryFunction<N> myOperator;
         private final MatrixStore<N> myRight;
@@ -60,27 +72,46 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
         }
 
         @Override
-        public void supplyTo(final TransformableRegion<N> receiver) {
-            this.getContext().supplyTo(receiver);
+        double invoke(final long row, final long col, final double arg) {
+            return myOperator.invoke(arg, myRight.doubleValue(row, col));
+        }
+
+        @Override
+        N invoke(final long row, final long col, final N arg) {
+            return myOperator.invoke(arg, myRight.get(row, col));
+        }
+
+        @Override
+        void modify(final TransformableRegion<N> receiver) {
             receiver.modifyMatching(myOperator, myRight);
         }
     }
 
-    static final class ColumnsModifier<N extends Comparable<N>> extends MatrixPipeline<N> {
+    static final class ColumnsModifier<N extends Comparable<N>> extends ElementWise<N> {
 
         private final BinaryFunction<N> myFunction;
+        private final long myLimit;
         private final Access1D<N> myRightArgumnts;
 
         ColumnsModifier(final ElementsSupplier<N> base, final BinaryFunction<N> modifier, final Access1D<N> right) {
             super(base);
             myFunction = modifier;
             myRightArgumnts = right;
+            myLimit = Math.min(base.countColumns(), right.count());
         }
 
         @Override
-        public void supplyTo(final TransformableRegion<N> receiver) {
+        double invoke(final long row, final long col, final double arg) {
+            return col < myLimit ? myFunction.invoke(arg, myRightArgumnts.doubleValue(col)) : arg;
+        }
 
-            this.getContext().supplyTo(receiver);
+        @Override
+        N invoke(final long row, final long col, final N arg) {
+            return col < myLimit ? myFunction.invoke(arg, myRightArgumnts.get(col)) : arg;
+        }
+
+        @Override
+        void modify(final TransformableRegion<N> receiver) {
 
             UnaryFunction<N> modifier;
 
@@ -89,7 +120,6 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
                 modifier = myFunction.second(myRightArgumnts.get(j));
                 receiver.modifyColumn(j, modifier);
             }
-
         }
 
     }
@@ -117,6 +147,129 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
 
     }
 
+    /**
+     * Pipeline stages that operate on each element individually - the result at (row,col) only depends on
+     * the context's value at that same position. A chain of two or more such stages is fused and evaluated
+     * in a single (possibly parallel) pass over the receiver. If the source of the chain can be read element
+     * by element (it's a physical store, or a lazy element-wise operation on one) it is never materialised -
+     * it is read and the result written to the receiver in the same pass. A single stage is simply applied
+     * to the receiver, using its (array level) modify methods.
+     */
+    static abstract class ElementWise<N extends Comparable<N>> extends MatrixPipeline<N> {
+
+        static boolean isDirectlyReadable(final ElementsSupplier<?> source) {
+            if (source instanceof PhysicalStore) {
+                return true;
+            } else if (source instanceof UnaryOperatoStore) {
+                return ElementWise.isDirectlyReadable(((UnaryOperatoStore<?>) source).base());
+            } else {
+                return false;
+            }
+        }
+
+        private static <N extends Comparable<N>> void evaluate(final ElementWise<N>[] stages, final Access2D<N> source,
+                final TransformableRegion<N> receiver, final int numberOfRows, final int first, final int limit, final boolean primitive) {
+
+            final int numberOfStages = stages.length;
+
+            if (primitive) {
+
+                for (int j = first; j < limit; j++) {
+                    for (int i = 0; i < numberOfRows; i++) {
+                        double value = source.doubleValue(i, j);
+                        for (int s = 0; s < numberOfStages; s++) {
+                            value = stages[s].invoke(i, j, value);
+                        }
+                        receiver.set(i, j, value);
+                    }
+                }
+
+            } else {
+
+                for (int j = first; j < limit; j++) {
+                    for (int i = 0; i < numberOfRows; i++) {
+                        N value = source.get(i, j);
+                        for (int s = 0; s < numberOfStages; s++) {
+                            value = stages[s].invoke(i, j, value);
+                        }
+                        receiver.set(i, j, value);
+                    }
+                }
+            }
+        }
+
+        ElementWise(final ElementsSupplier<N> context) {
+            super(context);
+        }
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public final void supplyTo(final TransformableRegion<N> receiver) {
+
+            ElementsSupplier<N> context = this.getContext();
+
+            if (!(context instanceof ElementWise)) {
+                // Nothing to fuse - the receiver's own modify methods are at least as fast
+                context.supplyTo(receiver);
+                this.modify(receiver);
+                return;
+            }
+
+            int numberOfStages = 1;
+            while (context instanceof ElementWise) {
+                numberOfStages++;
+                context = ((ElementWise<N>) context).getContext();
+            }
+
+            final ElementWise<N>[] stages = new ElementWise[numberOfStages];
+            ElementsSupplier<N> stage = this;
+            for (int s = numberOfStages - 1; s >= 0; s--) {
+                stages[s] = (ElementWise<N>) stage;
+                stage = stages[s].getContext();
+            }
+
+            final Access2D<N> source;
+            if (ElementWise.isDirectlyReadable(context)) {
+                source = (MatrixStore<N>) context;
+            } else {
+                context.supplyTo(receiver);
+                source = receiver;
+            }
+
+            final int numberOfRows = Math.toIntExact(this.countRows());
+            final int numberOfCols = Math.toIntExact(this.countColumns());
+            final boolean primitive = this.physical().scalar().zero().get() instanceof Double;
+
+            if ((numberOfCols > ModifyAll.THRESHOLD) && (receiver instanceof PhysicalStore)) {
+
+                final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        ElementWise.evaluate(stages, source, receiver, numberOfRows, first, limit, primitive);
+                    }
+
+                };
+
+                conquerer.invoke(0, numberOfCols, ModifyAll.THRESHOLD);
+
+            } else {
+
+                ElementWise.evaluate(stages, source, receiver, numberOfRows, 0, numberOfCols, primitive);
+            }
+        }
+
+        abstract double invoke(long row, long col, double arg);
+
+        abstract N invoke(long row, long col, N arg);
+
+        /**
+         * Apply this (single) stage to a receiver that already contains the context
+         */
+        abstract void modify(TransformableRegion<N> receiver);
+
+    }
+
     static final class Multiplication<N extends Comparable<N>> extends MatrixPipeline<N> {
 
         private final Access1D<N> myLeft;
@@ -147,21 +300,31 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
 
     }
 
-    static final class RowsModifier<N extends Comparable<N>> extends MatrixPipeline<N> {
+    static final class RowsModifier<N extends Comparable<N>> extends ElementWise<N> {
 
         private final BinaryFunction<N> myFunction;
+        private final long myLimit;
         private final Access1D<N> myRightArgumnts;
 
         RowsModifier(final ElementsSupplier<N> base, final BinaryFunction<N> modifier, final Access1D<N> right) {
             super(base);
             myFunction = modifier;
             myRightArgumnts = right;
+            myLimit = Math.min(base.countRows(), right.count());
         }
 
         @Override
-        public void supplyTo(final TransformableRegion<N> receiver) {
+        double invoke(final long row, final long col, final double arg) {
+            return row < myLimit ? myFunction.invoke(arg, myRightArgumnts.doubleValue(row)) : arg;
+        }
 
-            this.getContext().supplyTo(receiver);
+        @Override
+        N invoke(final long row, final long col, final N arg) {
+            return row < myLimit ? myFunction.invoke(arg, myRightArgumnts.get(row)) : arg;
+        }
+
+        @Override
+        void modify(final TransformableRegion<N> receiver) {
 
             UnaryFunction<N> modifier;
 
@@ -170,7 +333,6 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
                 modifier = myFunction.second(myRightArgumnts.get(i));
                 receiver.modifyRow(i, modifier);
             }
-
         }
 
     }
@@ -261,7 +423,7 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
         }
     }
 
-    static final class UnaryOperator<N extends Comparable<N>> extends MatrixPipeline<N> {
+    static final class UnaryOperator<N extends Comparable<N>> extends ElementWise<N> {
 
         private final UnaryFunction<N> myOperator;
 
@@ -271,8 +433,17 @@ abstract class MatrixPipeline<N extends Comparable<N>> implements ElementsSuppli
         }
 
         @Override
-        public void supplyTo(final TransformableRegion<N> receiver) {
-            this.getContext().supplyTo(receiver);
+        double invoke(final long row, final long col, final double arg) {
+            return myOperator.invoke(arg);
+        }
+
+        @Override
+        N invoke(final long row, final long col, final N arg) {
+            return myOperator.invoke(arg);
+        }
+
+        @Override
+        void modify(final TransformableRegion<N> receiver) {
             receiver.modifyAll(myOperator);
         }
     }
@@ -25,6 +25,7 @@ import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import java.util.Arrays;
 
+import org.ojalgo.OjAlgoUtils;
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.array.SparseArray;
 import org.ojalgo.array.SparseArray.NonzeroView;
@@ -300,12 +301,26 @@ public final class SparseStore<N extends Comparable<N>> extends FactoryStore<N>
         }
     }
 
+    /**
+     * With a dense right hand side and many nonzeros (and more than a couple of threads) this matrix is
+     * converted to CSR format and the multiplication is done in parallel, with the target rows partitioned
+     * by nonzero count. That requires a dense target, {@link Primitive64Store}, as different threads write
+     * to (disjoint parts of) it. If you multiply with the same matrix repeatedly (iterative solvers) it's
+     * better to call {@link #toCSR()} once yourself.
+     */
     public void multiply(final Access1D<N> right, final TransformableRegion<N> target) {
 
         if (right instanceof SparseStore<?>) {
 
             SparseStore.multiply(this, (SparseStore<N>) right, target);
 
+        } else if (this.isPrimitive() && (target instanceof Primitive64Store) && (OjAlgoUtils.ENVIRONMENT.threads > 2)
+                && (myElements.countNonzeros() >= (2L * CompressedStore.THRESHOLD))) {
+
+            Access1D<Double> primitive = right instanceof Primitive64Store ? (Primitive64Store) right : Access1D.asPrimitive1D(right);
+
+            this.toCSR().multiply(primitive, (Primitive64Store) target);
+
         } else if (this.isPrimitive()) {
 
             final long complexity = this.countColumns();
@@ -525,6 +540,79 @@ public final class SparseStore<N extends Comparable<N>> extends FactoryStore<N>
         myElements.supplyNonZerosTo(receiver);
     }
 
+    /**
+     * @return A copy of this matrix in compressed sparse column (CSC) format. This is a single pass over the
+     *         nonzeros as they are already stored in column major order.
+     */
+    public CompressedColumnStore toCSC() {
+
+        int numberOfRows = this.getRowDim();
+        int numberOfColumns = this.getColDim();
+        int numberOfNonzeros = Math.toIntExact(myElements.countNonzeros());
+
+        int[] pointers = new int[numberOfColumns + 1];
+        int[] indices = new int[numberOfNonzeros];
+        double[] values = new double[numberOfNonzeros];
+
+        int k = 0;
+        for (NonzeroView<N> element : myElements.nonzeros()) {
+            long index = element.index();
+            pointers[Structure2D.column(index, numberOfRows) + 1]++;
+            indices[k] = Structure2D.row(index, numberOfRows);
+            values[k] = element.doubleValue();
+            k++;
+        }
+
+        for (int j = 0; j < numberOfColumns; j++) {
+            pointers[j + 1] += pointers[j];
+        }
+
+        return new CompressedColumnStore(numberOfRows, numberOfColumns, pointers, indices, values);
+    }
+
+    /**
+     * @return A copy of this matrix in compressed sparse row (CSR) format. The nonzeros are (stable) counting
+     *         sorted by row, and are already ordered by column within each row.
+     */
+    public CompressedRowStore toCSR() {
+
+        int numberOfRows = this.getRowDim();
+        int numberOfColumns = this.getColDim();
+        int numberOfNonzeros = Math.toIntExact(myElements.countNonzeros());
+
+        int[] rows = new int[numberOfNonzeros];
+        int[] columns = new int[numberOfNonzeros];
+        double[] values = new double[numberOfNonzeros];
+
+        int k = 0;
+        for (NonzeroView<N> element : myElements.nonzeros()) {
+            long index = element.index();
+            rows[k] = Structure2D.row(index, numberOfRows);
+            columns[k] = Structure2D.column(index, numberOfRows);
+            values[k] = element.doubleValue();
+            k++;
+        }
+
+        int[] order = CompressedStore.countingSort(numberOfRows, rows, numberOfNonzeros, null);
+
+        int[] pointers = new int[numberOfRows + 1];
+        int[] indices = new int[numberOfNonzeros];
+        double[] sorted = new double[numberOfNonzeros];
+
+        for (int p = 0; p < numberOfNonzeros; p++) {
+            int i = order[p];
+            pointers[rows[i] + 1]++;
+            indices[p] = columns[i];
+            sorted[p] = values[i];
+        }
+
+        for (int i = 0; i < numberOfRows; i++) {
+            pointers[i + 1] += pointers[i];
+        }
+
+        return new CompressedRowStore(numberOfRows, numberOfColumns, pointers, indices, sorted);
+    }
+
     public void visitColumn(final long row, final long col, final VoidFunction<N> visitor) {
 
         long structure = this.countRows();
@@ -0,0 +1,161 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.List;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * BiCGSTAB - BiConjugate Gradient STABilized. Works with non-symmetric (square) systems using a fixed amount
+ * of memory, 2 matrix-vector multiplications per iteration, but the residual norm does not decrease
+ * monotonically. The preconditioner, default {@link Preconditioner#newJacobi()}, is applied from the right.
+ * <p>
+ * The work vectors are allocated once and then reused for as long as the problem size stays the same.
+ *
+ * @author apete
+ */
+public final class BiCGSTABSolver extends KrylovSubspaceSolver implements IterativeSolverTask.SparseDelegate {
+
+    private transient Primitive64Store myDirection = null;
+    private transient Primitive64Store myPreconditioned = null;
+    private transient Primitive64Store myResidual = null;
+    private transient Primitive64Store myShadow = null;
+    private transient Primitive64Store myStabilising = null;
+    private transient Primitive64Store myVector = null;
+
+    public BiCGSTABSolver() {
+        super();
+    }
+
+    public double resolve(final List<Equation> equations, final PhysicalStore<Double> solution) {
+
+        final long tmpSize = solution.count();
+
+        final Primitive64Store tmpResidual = myResidual = KrylovSubspaceSolver.work(myResidual, tmpSize);
+        final Primitive64Store tmpShadow = myShadow = KrylovSubspaceSolver.work(myShadow, tmpSize);
+        final Primitive64Store tmpDirection = myDirection = KrylovSubspaceSolver.work(myDirection, tmpSize);
+        final Primitive64Store tmpPreconditioned = myPreconditioned = KrylovSubspaceSolver.work(myPreconditioned, tmpSize);
+        final Primitive64Store tmpVector = myVector = KrylovSubspaceSolver.work(myVector, tmpSize);
+        final Primitive64Store tmpStabilising = myStabilising = KrylovSubspaceSolver.work(myStabilising, tmpSize);
+
+        final Preconditioner tmpPreconditioner = this.getPreconditioner();
+        tmpPreconditioner.prepare(equations, tmpSize);
+
+        double tmpNormRHS = KrylovSubspaceSolver.rhs(equations);
+        if (tmpNormRHS == ZERO) {
+            tmpNormRHS = ONE;
+        }
+        double tmpNormErr = KrylovSubspaceSolver.residual(equations, solution, tmpResidual);
+
+        tmpShadow.fillMatching(tmpResidual);
+
+        double rho0 = ONE;
+        double rho1;
+        double alpha = ONE;
+        double omega = ONE;
+
+        int tmpIterations = 0;
+        final int tmpLimit = this.getIterationsLimit();
+        final NumberContext tmpCntxt = this.getAccuracyContext();
+
+        while ((tmpIterations < tmpLimit) && !Double.isNaN(tmpNormErr) && !tmpCntxt.isSmall(tmpNormRHS, tmpNormErr)) {
+
+            rho1 = tmpShadow.dot(tmpResidual);
+
+            if (rho1 == ZERO) {
+                // Breakdown - restart with the current residual as the shadow residual
+                tmpShadow.fillMatching(tmpResidual);
+                tmpDirection.fillAll(ZERO);
+                tmpVector.fillAll(ZERO);
+                rho0 = alpha = omega = ONE;
+                rho1 = tmpShadow.dot(tmpResidual);
+            }
+
+            // p = r + beta (p - omega v)
+            final double beta = (rho1 / rho0) * (alpha / omega);
+            tmpVector.axpy(-omega, tmpDirection);
+            tmpDirection.modifyAll(MULTIPLY.second(beta));
+            tmpResidual.axpy(ONE, tmpDirection);
+
+            tmpPreconditioner.apply(equations, tmpDirection, tmpPreconditioned);
+            KrylovSubspaceSolver.multiply(equations, tmpPreconditioned, tmpVector);
+
+            alpha = rho1 / tmpShadow.dot(tmpVector);
+
+            // x += alpha M^-1 p, s = r - alpha v (s overwrites r)
+            tmpPreconditioned.axpy(alpha, solution);
+            tmpVector.axpy(-alpha, tmpResidual);
+
+            tmpNormErr = SQRT.invoke(tmpResidual.dot(tmpResidual));
+
+            if (!tmpCntxt.isSmall(tmpNormRHS, tmpNormErr)) {
+
+                tmpPreconditioner.apply(equations, tmpResidual, tmpPreconditioned);
+                KrylovSubspaceSolver.multiply(equations, tmpPreconditioned, tmpStabilising);
+
+                final double tt = tmpStabilising.dot(tmpStabilising);
+                omega = tt != ZERO ? tmpStabilising.dot(tmpResidual) / tt : ZERO;
+
+                // x += omega M^-1 s, r = s - omega t
+                tmpPreconditioned.axpy(omega, solution);
+                tmpStabilising.axpy(-omega, tmpResidual);
+
+                tmpNormErr = SQRT.invoke(tmpResidual.dot(tmpResidual));
+
+                if (omega == ZERO) {
+                    // Stagnation - the next iteration restarts
+                    omega = ONE;
+                    tmpShadow.fillAll(ZERO);
+                }
+            }
+
+            rho0 = rho1;
+
+            tmpIterations++;
+
+            if (this.isDebugPrinterSet()) {
+                this.debug(tmpIterations, tmpNormErr / tmpNormRHS, solution);
+            }
+        }
+
+        return tmpNormErr / tmpNormRHS;
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        final List<Equation> tmpRows = IterativeSolverTask.toListOfRows(body, rhs);
+
+        this.resolve(tmpRows, preallocated);
+
+        return preallocated;
+    }
+
+}
@@ -35,7 +35,8 @@ import org.ojalgo.structure.Structure1D;
 import org.ojalgo.type.context.NumberContext;
 
 /**
- * A (Jacobi) preconditioned conjugate gradient solver.
+ * A preconditioned conjugate gradient solver. The default preconditioner is {@link Preconditioner#newJacobi()}.
+ * Configure another one using {@link IterativeSolverTask.Configurator#preconditioner(Preconditioner)}.
  *
  * @author apete
  */
@@ -69,15 +70,19 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
         double zr1 = 1;
         double pAp0 = 0;
 
+        final Preconditioner tmpPreconditioner = this.getPreconditioner();
+        tmpPreconditioner.prepare(equations, solution.count());
+
         for (int r = 0; r < tmpCountRows; r++) {
             final Equation tmpRow = equations.get(r);
             double tmpVal = tmpRow.getRHS();
             tmpNormRHS = HYPOT.invoke(tmpNormRHS, tmpVal);
             tmpVal -= tmpRow.dot(solution);
             tmpResidual.set(tmpRow.index, tmpVal);
-            tmpPreconditioned.set(tmpRow.index, tmpVal / tmpRow.getPivot()); // precondition
         }
 
+        tmpPreconditioner.apply(equations, tmpResidual, tmpPreconditioned);
+
         tmpDirection.fillMatching(tmpPreconditioned); // tmpPreconditioned.supplyNonZerosTo(tmpDirection);
 
         int tmpIterations = 0;
@@ -117,9 +122,10 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
                 final Equation tmpRow = equations.get(r);
                 final double tmpValue = tmpResidual.doubleValue(tmpRow.index);
                 tmpNormErr = HYPOT.invoke(tmpNormErr, tmpValue);
-                tmpPreconditioned.set(tmpRow.index, tmpValue / tmpRow.getPivot());
             }
 
+            tmpPreconditioner.apply(equations, tmpResidual, tmpPreconditioned);
+
             zr1 = tmpPreconditioned.dot(tmpResidual);
             tmpGradientCorrectionFactor = zr1 / zr0;
 
@@ -150,7 +156,7 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
 
     private Primitive64Store direction(final Structure1D structure) {
         if ((myDirection == null) || (myDirection.count() != structure.count())) {
-            myDirection = Primitive64Store.FACTORY.makeZero(structure.count(), 1L);
+            myDirection = Primitive64Store.FACTORY.make(structure.count(), 1L);
         } else {
             myDirection.fillAll(ZERO);
         }
@@ -159,7 +165,7 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
 
     private Primitive64Store preconditioned(final Structure1D structure) {
         if ((myPreconditioned == null) || (myPreconditioned.count() != structure.count())) {
-            myPreconditioned = Primitive64Store.FACTORY.makeZero(structure.count(), 1L);
+            myPreconditioned = Primitive64Store.FACTORY.make(structure.count(), 1L);
         } else {
             myPreconditioned.fillAll(ZERO);
         }
@@ -168,7 +174,7 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
 
     private Primitive64Store residual(final Structure1D structure) {
         if ((myResidual == null) || (myResidual.count() != structure.count())) {
-            myResidual = Primitive64Store.FACTORY.makeZero(structure.count(), 1L);
+            myResidual = Primitive64Store.FACTORY.make(structure.count(), 1L);
         } else {
             myResidual.fillAll(ZERO);
         }
@@ -177,7 +183,7 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
 
     private Primitive64Store vector(final Structure1D structure) {
         if ((myVector == null) || (myVector.count() != structure.count())) {
-            myVector = Primitive64Store.FACTORY.makeZero(structure.count(), 1L);
+            myVector = Primitive64Store.FACTORY.make(structure.count(), 1L);
         } else {
             myVector.fillAll(ZERO);
         }
@@ -0,0 +1,228 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.List;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Restarted GMRES(m) - Generalised Minimal RESidual. Works with non-symmetric (square) systems. The
+ * preconditioner, default {@link Preconditioner#newJacobi()}, is applied from the right so that the residual
+ * norm minimised (and reported) is that of the original system.
+ * <p>
+ * The Krylov basis, the Hessenberg matrix and all other work vectors are allocated once and then reused for
+ * as long as the problem size stays the same.
+ *
+ * @author apete
+ */
+public final class GMRESSolver extends KrylovSubspaceSolver implements IterativeSolverTask.SparseDelegate {
+
+    public static int DEFAULT_RESTART = 30;
+
+    private transient Primitive64Store[] myBasis = null;
+    private double[] myCosines;
+    private double[][] myHessenberg;
+    private transient Primitive64Store myPreconditioned = null;
+    private double[] myProjected;
+    private transient Primitive64Store myResidual = null;
+    private int myRestart;
+    private double[] mySines;
+    private transient Primitive64Store myVector = null;
+
+    public GMRESSolver() {
+        this(DEFAULT_RESTART);
+    }
+
+    /**
+     * @param restart The max dimension of the Krylov subspace before restarting
+     */
+    public GMRESSolver(final int restart) {
+
+        super();
+
+        this.setRestart(restart);
+    }
+
+    public int getRestart() {
+        return myRestart;
+    }
+
+    public double resolve(final List<Equation> equations, final PhysicalStore<Double> solution) {
+
+        final long tmpSize = solution.count();
+
+        final Primitive64Store[] tmpBasis = this.basis(tmpSize);
+        final Primitive64Store tmpResidual = myResidual = KrylovSubspaceSolver.work(myResidual, tmpSize);
+        final Primitive64Store tmpPreconditioned = myPreconditioned = KrylovSubspaceSolver.work(myPreconditioned, tmpSize);
+        final Primitive64Store tmpVector = myVector = KrylovSubspaceSolver.work(myVector, tmpSize);
+
+        final double[][] tmpH = myHessenberg;
+        final double[] tmpCos = myCosines;
+        final double[] tmpSin = mySines;
+        final double[] tmpG = myProjected;
+
+        final Preconditioner tmpPreconditioner = this.getPreconditioner();
+        tmpPreconditioner.prepare(equations, tmpSize);
+
+        double tmpNormRHS = KrylovSubspaceSolver.rhs(equations);
+        if (tmpNormRHS == ZERO) {
+            tmpNormRHS = ONE;
+        }
+        double tmpNormErr = KrylovSubspaceSolver.residual(equations, solution, tmpResidual);
+
+        int tmpIterations = 0;
+        final int tmpLimit = this.getIterationsLimit();
+        final NumberContext tmpCntxt = this.getAccuracyContext();
+
+        while ((tmpIterations < tmpLimit) && !Double.isNaN(tmpNormErr) && !tmpCntxt.isSmall(tmpNormRHS, tmpNormErr)) {
+
+            tmpBasis[0].fillMatching(tmpResidual);
+            tmpBasis[0].modifyAll(DIVIDE.second(tmpNormErr));
+
+            tmpG[0] = tmpNormErr;
+            for (int i = 1; i <= myRestart; i++) {
+                tmpG[i] = ZERO;
+            }
+
+            int k = 0;
+            while ((k < myRestart) && (tmpIterations < tmpLimit)) {
+
+                tmpPreconditioner.apply(equations, tmpBasis[k], tmpPreconditioned);
+                KrylovSubspaceSolver.multiply(equations, tmpPreconditioned, tmpVector);
+
+                // Modified Gram-Schmidt
+                for (int i = 0; i <= k; i++) {
+                    final double tmpDot = tmpVector.dot(tmpBasis[i]);
+                    tmpH[i][k] = tmpDot;
+                    tmpBasis[i].axpy(-tmpDot, tmpVector);
+                }
+                final double tmpNorm = SQRT.invoke(tmpVector.dot(tmpVector));
+                tmpH[k + 1][k] = tmpNorm;
+
+                if (tmpNorm != ZERO) {
+                    tmpBasis[k + 1].fillMatching(tmpVector);
+                    tmpBasis[k + 1].modifyAll(DIVIDE.second(tmpNorm));
+                }
+
+                // Apply the previous rotations to the new column
+                for (int i = 0; i < k; i++) {
+                    final double tmpUpper = tmpH[i][k];
+                    final double tmpLower = tmpH[i + 1][k];
+                    tmpH[i][k] = (tmpCos[i] * tmpUpper) + (tmpSin[i] * tmpLower);
+                    tmpH[i + 1][k] = (tmpCos[i] * tmpLower) - (tmpSin[i] * tmpUpper);
+                }
+
+                // ...and a new rotation to eliminate the sub-diagonal element
+                final double tmpRadius = HYPOT.invoke(tmpH[k][k], tmpH[k + 1][k]);
+                if (tmpRadius != ZERO) {
+                    tmpCos[k] = tmpH[k][k] / tmpRadius;
+                    tmpSin[k] = tmpH[k + 1][k] / tmpRadius;
+                } else {
+                    tmpCos[k] = ONE;
+                    tmpSin[k] = ZERO;
+                }
+                tmpH[k][k] = tmpRadius;
+                tmpH[k + 1][k] = ZERO;
+
+                tmpG[k + 1] = -tmpSin[k] * tmpG[k];
+                tmpG[k] = tmpCos[k] * tmpG[k];
+
+                tmpNormErr = ABS.invoke(tmpG[k + 1]);
+
+                k++;
+                tmpIterations++;
+
+                if (this.isDebugPrinterSet()) {
+                    this.debug(tmpIterations, tmpNormErr / tmpNormRHS, solution);
+                }
+
+                if ((tmpNorm == ZERO) || tmpCntxt.isSmall(tmpNormRHS, tmpNormErr)) {
+                    break;
+                }
+            }
+
+            // Back substitution, H[0:k,0:k] y = g[0:k], storing y in g
+            for (int i = k - 1; i >= 0; i--) {
+                double tmpVal = tmpG[i];
+                for (int j = i + 1; j < k; j++) {
+                    tmpVal -= tmpH[i][j] * tmpG[j];
+                }
+                tmpG[i] = tmpH[i][i] != ZERO ? tmpVal / tmpH[i][i] : ZERO;
+            }
+
+            // solution += M^-1 V y
+            tmpVector.fillAll(ZERO);
+            for (int i = 0; i < k; i++) {
+                tmpBasis[i].axpy(tmpG[i], tmpVector);
+            }
+            tmpPreconditioner.apply(equations, tmpVector, tmpPreconditioned);
+            tmpPreconditioned.axpy(ONE, solution);
+
+            // Restart from the true residual
+            tmpNormErr = KrylovSubspaceSolver.residual(equations, solution, tmpResidual);
+        }
+
+        return tmpNormErr / tmpNormRHS;
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        final List<Equation> tmpRows = IterativeSolverTask.toListOfRows(body, rhs);
+
+        this.resolve(tmpRows, preallocated);
+
+        return preallocated;
+    }
+
+    @Override
+    protected void setRestart(final int restart) {
+
+        myRestart = Math.max(1, restart);
+
+        myHessenberg = new double[myRestart + 1][myRestart];
+        myCosines = new double[myRestart];
+        mySines = new double[myRestart];
+        myProjected = new double[myRestart + 1];
+
+        myBasis = null;
+    }
+
+    private Primitive64Store[] basis(final long size) {
+        if ((myBasis == null) || (myBasis[0].count() != size)) {
+            myBasis = new Primitive64Store[myRestart + 1];
+            for (int i = 0; i <= myRestart; i++) {
+                myBasis[i] = Primitive64Store.FACTORY.make(size, 1L);
+            }
+        }
+        return myBasis;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.List;
+
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * IC(0): M = LL<sup>T</sup> where L has the same sparsity pattern as the lower triangular part of A.
+ *
+ * @author apete
+ */
+final class IncompleteCholeskyPreconditioner extends SparsePreconditioner {
+
+    private double[] myFactorDiagonal = new double[0];
+    /**
+     * The strictly lower triangular elements of L, at the same positions as in {@link #myValues}
+     */
+    private double[] myFactorLower = new double[0];
+
+    IncompleteCholeskyPreconditioner() {
+        super();
+    }
+
+    public void apply(final List<Equation> equations, final Access1D<Double> residual, final PhysicalStore<Double> preconditioned) {
+
+        final int dim = myDimension;
+        final int[] pointers = myPointers;
+        final int[] columns = myColumns;
+        final double[] lower = myFactorLower;
+        final double[] diagonal = myFactorDiagonal;
+        final double[] work = myWork;
+
+        // L y = r
+        for (int i = 0; i < dim; i++) {
+            double sum = residual.doubleValue(equations.get(i).index);
+            for (int p = pointers[i], limit = pointers[i + 1]; (p < limit) && (columns[p] < i); p++) {
+                sum -= lower[p] * work[columns[p]];
+            }
+            work[i] = sum / diagonal[i];
+        }
+
+        // L^T z = y (column oriented, using the rows of L)
+        for (int i = dim - 1; i >= 0; i--) {
+            double value = work[i] /= diagonal[i];
+            for (int p = pointers[i], limit = pointers[i + 1]; (p < limit) && (columns[p] < i); p++) {
+                work[columns[p]] -= lower[p] * value;
+            }
+        }
+
+        for (int i = 0; i < dim; i++) {
+            preconditioned.set(equations.get(i).index, work[i]);
+        }
+    }
+
+    @Override
+    void factorise() {
+
+        final int dim = myDimension;
+        final int[] pointers = myPointers;
+        final int[] columns = myColumns;
+        final double[] values = myValues;
+
+        if (myFactorLower.length < values.length) {
+            myFactorLower = new double[values.length];
+        }
+        if (myFactorDiagonal.length < dim) {
+            myFactorDiagonal = new double[dim];
+        }
+
+        final double[] lower = myFactorLower;
+        final double[] diagonal = myFactorDiagonal;
+
+        for (int i = 0; i < dim; i++) {
+
+            final int first = pointers[i];
+            double sumOfSquares = ZERO;
+
+            for (int p = first, limit = pointers[i + 1]; (p < limit) && (columns[p] < i); p++) {
+
+                final int j = columns[p];
+
+                // L(i,j) = (A(i,j) - L(i,0:j-1) * L(j,0:j-1)) / L(j,j), merging the two sorted rows
+                double sum = values[p];
+                int pi = first;
+                int pj = pointers[j];
+                final int limitJ = pointers[j + 1];
+                while ((pi < p) && (pj < limitJ) && (columns[pj] < j)) {
+                    if (columns[pi] == columns[pj]) {
+                        sum -= lower[pi++] * lower[pj++];
+                    } else if (columns[pi] < columns[pj]) {
+                        pi++;
+                    } else {
+                        pj++;
+                    }
+                }
+
+                final double value = sum / diagonal[j];
+                lower[p] = value;
+                sumOfSquares += value * value;
+            }
+
+            final double pivot = this.diagonal(i);
+            final double remaining = pivot - sumOfSquares;
+
+            // Breakdown - fall back to the (Jacobi) diagonal
+            diagonal[i] = remaining > (pivot * MACHINE_EPSILON) ? SQRT.invoke(remaining) : SQRT.invoke(ABS.invoke(pivot));
+        }
+    }
+
+}
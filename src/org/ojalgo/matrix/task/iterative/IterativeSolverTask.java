@@ -34,11 +34,13 @@ import org.ojalgo.equation.Equation;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.matrix.task.SolverTask;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.scalar.PrimitiveScalar;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.ElementView2D;
 import org.ojalgo.structure.Structure2D;
 import org.ojalgo.type.context.NumberContext;
 
@@ -86,6 +88,23 @@ abstract class IterativeSolverTask implements SolverTask<Double> {
             return this;
         }
 
+        /**
+         * Only used by the Krylov subspace solvers, the default is {@link Preconditioner#newJacobi()}.
+         */
+        public Configurator preconditioner(final Preconditioner preconditioner) {
+            mySolver.setPreconditioner(preconditioner);
+            return this;
+        }
+
+        /**
+         * Only used by {@link GMRESSolver}, the max dimension of the Krylov subspace before restarting. The
+         * default is {@link GMRESSolver#DEFAULT_RESTART}.
+         */
+        public Configurator restart(final int restart) {
+            mySolver.setRestart(restart);
+            return this;
+        }
+
     }
 
     interface SparseDelegate {
@@ -103,6 +122,22 @@ abstract class IterativeSolverTask implements SolverTask<Double> {
 
         final List<Equation> retVal = new ArrayList<>(numbEquations);
 
+        if (body instanceof SparseStore<?>) {
+
+            for (int i = 0; i < numbEquations; i++) {
+                retVal.add(new Equation(i, numbVariables, rhs.doubleValue(i)));
+            }
+
+            for (ElementView2D<?, ?> nonzero : ((SparseStore<?>) body).nonzeros()) {
+                final double tmpVal = nonzero.doubleValue();
+                if (!PrimitiveScalar.isSmall(ONE, tmpVal)) {
+                    retVal.get((int) nonzero.row()).set(nonzero.column(), tmpVal);
+                }
+            }
+
+            return retVal;
+        }
+
         for (int i = 0; i < numbEquations; i++) {
             final Equation tmpRow = new Equation(i, numbVariables, rhs.doubleValue(i));
             for (int j = 0; j < numbVariables; j++) {
@@ -175,4 +210,12 @@ abstract class IterativeSolverTask implements SolverTask<Double> {
         myIterationsLimit = iterationsLimit;
     }
 
+    protected void setPreconditioner(final Preconditioner preconditioner) {
+        // Only the Krylov subspace solvers are preconditioned
+    }
+
+    protected void setRestart(final int restart) {
+        // Only GMRES is restarted
+    }
+
 }
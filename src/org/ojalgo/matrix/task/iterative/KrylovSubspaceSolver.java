@@ -21,10 +21,79 @@
  */
 package org.ojalgo.matrix.task.iterative;
 
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.List;
+
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.structure.Access1D;
+
 abstract class KrylovSubspaceSolver extends IterativeSolverTask {
 
+    /**
+     * product = [A]vector (only the elements corresponding to the equations are set)
+     */
+    static void multiply(final List<Equation> equations, final Access1D<?> vector, final PhysicalStore<Double> product) {
+        for (int i = 0, limit = equations.size(); i < limit; i++) {
+            final Equation row = equations.get(i);
+            product.set(row.index, row.dot(vector));
+        }
+    }
+
+    /**
+     * residual = [b] - [A]solution
+     *
+     * @return The norm of the residual
+     */
+    static double residual(final List<Equation> equations, final Access1D<?> solution, final PhysicalStore<Double> residual) {
+        double retVal = ZERO;
+        for (int i = 0, limit = equations.size(); i < limit; i++) {
+            final Equation row = equations.get(i);
+            final double value = row.getRHS() - row.dot(solution);
+            residual.set(row.index, value);
+            retVal = HYPOT.invoke(retVal, value);
+        }
+        return retVal;
+    }
+
+    /**
+     * @return The norm of [b]
+     */
+    static double rhs(final List<Equation> equations) {
+        double retVal = ZERO;
+        for (int i = 0, limit = equations.size(); i < limit; i++) {
+            retVal = HYPOT.invoke(retVal, equations.get(i).getRHS());
+        }
+        return retVal;
+    }
+
+    /**
+     * Reuse the work vector if it has the right size, otherwise create a new one. Either way it's all zeros.
+     */
+    static Primitive64Store work(final Primitive64Store existing, final long size) {
+        if ((existing == null) || (existing.count() != size)) {
+            return Primitive64Store.FACTORY.make(size, 1L);
+        } else {
+            existing.fillAll(ZERO);
+            return existing;
+        }
+    }
+
+    private Preconditioner myPreconditioner = Preconditioner.newJacobi();
+
     protected KrylovSubspaceSolver() {
         super();
     }
 
+    protected final Preconditioner getPreconditioner() {
+        return myPreconditioner;
+    }
+
+    @Override
+    protected void setPreconditioner(final Preconditioner preconditioner) {
+        myPreconditioner = preconditioner != null ? preconditioner : Preconditioner.newJacobi();
+    }
+
 }
@@ -117,4 +117,16 @@ public abstract class MutableSolver<D extends IterativeSolverTask & IterativeSol
         myDelegate.setIterationsLimit(iterationsLimit);
     }
 
+    @Override
+    protected void setPreconditioner(final Preconditioner preconditioner) {
+        super.setPreconditioner(preconditioner);
+        myDelegate.setPreconditioner(preconditioner);
+    }
+
+    @Override
+    protected void setRestart(final int restart) {
+        super.setRestart(restart);
+        myDelegate.setRestart(restart);
+    }
+
 }
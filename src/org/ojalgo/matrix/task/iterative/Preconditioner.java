@@ -0,0 +1,84 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import java.util.List;
+
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * A preconditioner, M, approximates the system body, A, in a way that makes it cheap to solve Mz = r. The
+ * Krylov subspace solvers then work with the (better conditioned) system M<sup>-1</sup>A.
+ * <p>
+ * Instances are stateful (they hold factorisations) and should not be shared between solvers.
+ *
+ * @author apete
+ */
+public interface Preconditioner {
+
+    /**
+     * Incomplete Cholesky factorisation with no fill-in, IC(0). The system body should be symmetric positive
+     * definite. Should the factorisation break down (non-positive pivot) those pivots are replaced by the
+     * corresponding diagonal elements.
+     */
+    static Preconditioner newIncompleteCholesky() {
+        return new IncompleteCholeskyPreconditioner();
+    }
+
+    /**
+     * Diagonal scaling - what {@link ConjugateGradientSolver} has always done.
+     */
+    static Preconditioner newJacobi() {
+        return new JacobiPreconditioner();
+    }
+
+    /**
+     * Symmetric successive over-relaxation.
+     *
+     * @param relaxation Should be between 0.0 and 2.0 (exclusive). 1.0 corresponds to symmetric
+     *        Gauss-Seidel.
+     */
+    static Preconditioner newSSOR(final double relaxation) {
+        return new SSORPreconditioner(relaxation);
+    }
+
+    /**
+     * Solve Mz = r. Only the elements corresponding to the equations (their {@link Equation#index}) are read
+     * from the residual or written to the preconditioned vector.
+     *
+     * @param equations The same equations as when {@link #prepare(List, long)} was called
+     * @param residual r
+     * @param preconditioned z
+     */
+    void apply(List<Equation> equations, Access1D<Double> residual, PhysicalStore<Double> preconditioned);
+
+    /**
+     * Called at the start of each solve. The equations may have changed since the previous call.
+     *
+     * @param equations The system rows
+     * @param size The full size of the solution (and residual) vectors
+     */
+    void prepare(List<Equation> equations, long size);
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.List;
+
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.structure.Access1D;
+
+/**
+ * M = w/(2-w) (D/w + L) (D/w)<sup>-1</sup> (D/w + U) where A = L + D + U. Applying it is one forward and one
+ * backward Gauss-Seidel sweep.
+ *
+ * @author apete
+ */
+final class SSORPreconditioner extends SparsePreconditioner {
+
+    private final double myRelaxation;
+
+    SSORPreconditioner(final double relaxation) {
+
+        super();
+
+        if ((relaxation <= ZERO) || (relaxation >= TWO)) {
+            throw new IllegalArgumentException("The relaxation factor must be in (0,2)!");
+        }
+
+        myRelaxation = relaxation;
+    }
+
+    public void apply(final List<Equation> equations, final Access1D<Double> residual, final PhysicalStore<Double> preconditioned) {
+
+        final int dim = myDimension;
+        final int[] pointers = myPointers;
+        final int[] columns = myColumns;
+        final double[] values = myValues;
+        final double[] work = myWork;
+        final double relaxation = myRelaxation;
+
+        // (D/w + L) y = r
+        for (int k = 0; k < dim; k++) {
+            double sum = residual.doubleValue(equations.get(k).index);
+            for (int p = pointers[k], limit = pointers[k + 1]; (p < limit) && (columns[p] < k); p++) {
+                sum -= values[p] * work[columns[p]];
+            }
+            work[k] = (sum * relaxation) / this.diagonal(k);
+        }
+
+        // (D/w + U) z = (D/w) y
+        for (int k = dim - 1; k >= 0; k--) {
+            double sum = ZERO;
+            for (int p = pointers[k + 1] - 1, first = pointers[k]; (p >= first) && (columns[p] > k); p--) {
+                sum += values[p] * work[columns[p]];
+            }
+            work[k] -= (sum * relaxation) / this.diagonal(k);
+        }
+
+        final double scale = (TWO - relaxation) / relaxation;
+        for (int k = 0; k < dim; k++) {
+            preconditioned.set(equations.get(k).index, scale * work[k]);
+        }
+    }
+
+    @Override
+    void factorise() {
+        // Nothing to factorise
+    }
+
+}
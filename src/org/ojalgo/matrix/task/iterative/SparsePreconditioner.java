@@ -0,0 +1,143 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task.iterative;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.ojalgo.equation.Equation;
+import org.ojalgo.structure.ElementView1D;
+
+/**
+ * Copies the equations to a compressed row structure, restricted to the variables that have a
+ * corresponding equation, and with the rows and columns ordered as the equations. The arrays are reused
+ * between solves when large enough.
+ *
+ * @author apete
+ */
+abstract class SparsePreconditioner implements Preconditioner {
+
+    /**
+     * Column positions (not indices), sorted within each row
+     */
+    int[] myColumns = new int[0];
+    /**
+     * Value position of each row's diagonal element, or -1
+     */
+    int[] myDiagonals = new int[0];
+    int myDimension = 0;
+    /**
+     * Row k has its nonzeros at [myPointers[k], myPointers[k+1])
+     */
+    int[] myPointers = new int[1];
+    double[] myValues = new double[0];
+    /**
+     * Work vector, one element per equation
+     */
+    double[] myWork = new double[0];
+
+    private int[] myPositions = new int[0];
+
+    SparsePreconditioner() {
+        super();
+    }
+
+    public final void prepare(final List<Equation> equations, final long size) {
+
+        int dim = equations.size();
+        int length = Math.toIntExact(size);
+
+        if (myPositions.length != length) {
+            myPositions = new int[length];
+        }
+        Arrays.fill(myPositions, -1);
+        for (int k = 0; k < dim; k++) {
+            myPositions[equations.get(k).index] = k;
+        }
+
+        int nnz = 0;
+        for (int k = 0; k < dim; k++) {
+            for (ElementView1D<Double, ?> element : equations.get(k).nonzeros()) {
+                if (myPositions[(int) element.index()] >= 0) {
+                    nnz++;
+                }
+            }
+        }
+
+        if (myPointers.length < (dim + 1)) {
+            myPointers = new int[dim + 1];
+            myDiagonals = new int[dim];
+            myWork = new double[dim];
+        }
+        if (myValues.length < nnz) {
+            myColumns = new int[nnz];
+            myValues = new double[nnz];
+        }
+
+        int p = 0;
+        for (int k = 0; k < dim; k++) {
+
+            myPointers[k] = p;
+            myDiagonals[k] = -1;
+
+            for (ElementView1D<Double, ?> element : equations.get(k).nonzeros()) {
+                int col = myPositions[(int) element.index()];
+                if (col >= 0) {
+                    // Insertion sort - only needed if the equations are not ordered by index
+                    int q = p;
+                    while ((q > myPointers[k]) && (myColumns[q - 1] > col)) {
+                        myColumns[q] = myColumns[q - 1];
+                        myValues[q] = myValues[q - 1];
+                        q--;
+                    }
+                    myColumns[q] = col;
+                    myValues[q] = element.doubleValue();
+                    p++;
+                }
+            }
+
+            for (int q = myPointers[k]; q < p; q++) {
+                if (myColumns[q] == k) {
+                    myDiagonals[k] = q;
+                }
+            }
+        }
+        myPointers[dim] = p;
+
+        myDimension = dim;
+
+        this.factorise();
+    }
+
+    /**
+     * @return The diagonal element of row k, or 1.0 if it is zero/missing
+     */
+    final double diagonal(final int k) {
+        int d = myDiagonals[k];
+        return (d >= 0) && (myValues[d] != ZERO) ? myValues[d] : ONE;
+    }
+
+    abstract void factorise();
+
+}
@@ -23,10 +23,14 @@ package org.ojalgo.optimisation.convex;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Arrays;
+
 import org.ojalgo.matrix.store.ElementsSupplier;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
 
 /**
  * Solves optimisation problems of the form:
@@ -36,13 +40,122 @@ import org.ojalgo.optimisation.Optimisation;
  * and [AI][X] &lt;= [BI]
  * </p>
  * Where [AE] and [BE] are optional.
+ * <p>
+ * The (negated) Schur complement of the iteration KKT system is kept factorised between iterations, and
+ * updated as constraints enter or leave the working set - see {@link SchurComplementSolver}. Only if that
+ * fails (linearly dependent constraints) is the Schur complement calculated and factorised from scratch.
  *
  * @author apete
  */
 final class DirectASS extends ActiveSetSolver {
 
+    /**
+     * [Q]<sup>-1</sup>[A]<sup>T</sup> columns, one per constraint, calculated when needed and then reused.
+     */
+    private final MatrixStore<Double>[] myInvQAT;
+    private final double[] myMultipliers;
+    private final double[] myResiduals;
+    private final SchurComplementSolver mySchurComplement;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     DirectASS(final ConvexSolver.Builder matrices, final Optimisation.Options solverOptions) {
+
         super(matrices, solverOptions);
+
+        int numberOfConstraints = this.countEqualityConstraints() + this.countInequalityConstraints();
+        int maxSize = Math.min(numberOfConstraints, this.countVariables());
+
+        myInvQAT = new MatrixStore[numberOfConstraints];
+        myMultipliers = new double[maxSize];
+        myResiduals = new double[maxSize];
+        mySchurComplement = new SchurComplementSolver(maxSize);
+    }
+
+    private Access1D<Double> getConstraintBody(final int constraint) {
+        int numbEqus = this.countEqualityConstraints();
+        if (constraint < numbEqus) {
+            return this.getMatrixAE().sliceRow(constraint);
+        } else {
+            return this.getMatrixAI(constraint - numbEqus);
+        }
+    }
+
+    private double getConstraintRHS(final int constraint) {
+        int numbEqus = this.countEqualityConstraints();
+        if (constraint < numbEqus) {
+            return this.getMatrixBE().doubleValue(constraint);
+        } else {
+            return this.getMatrixBI(constraint - numbEqus);
+        }
+    }
+
+    /**
+     * Solve the iteration subproblem using the (updated) Schur complement factorisation.
+     *
+     * @return false if the factorisation could not be updated to match the current working set
+     */
+    private boolean solveUsingSchurComplement(final int[] included, final Primitive64Store iterX, final Primitive64Store iterL) {
+
+        int numbEqus = this.countEqualityConstraints();
+
+        // Drop constraints that are no longer in the working set
+        for (int i = mySchurComplement.size() - 1; i >= 0; i--) {
+            int constraint = mySchurComplement.getConstraint(i);
+            if ((constraint >= numbEqus) && (Arrays.binarySearch(included, constraint - numbEqus) < 0)) {
+                mySchurComplement.remove(constraint);
+            }
+        }
+
+        // Add the ones that are new
+        for (int i = 0, limit = numbEqus + included.length; i < limit; i++) {
+            int constraint = i < numbEqus ? i : numbEqus + included[i - numbEqus];
+            if (!mySchurComplement.contains(constraint)) {
+                Access1D<Double> body = this.getConstraintBody(constraint);
+                if (myInvQAT[constraint] == null) {
+                    myInvQAT[constraint] = this.getSolutionQ(Access2D.newPrimitiveColumnCollectable(body));
+                }
+                if (!mySchurComplement.add(constraint, body, myInvQAT[constraint])) {
+                    return false;
+                }
+            }
+        }
+
+        MatrixStore<Double> invQC = this.getInvQC();
+        int size = mySchurComplement.size();
+
+        for (int i = 0; i < size; i++) {
+            int constraint = mySchurComplement.getConstraint(i);
+            myMultipliers[i] = this.getConstraintBody(constraint).dot(invQC) - this.getConstraintRHS(constraint);
+        }
+
+        mySchurComplement.solve(myMultipliers);
+
+        // [X] = [Q]<sup>-1</sup>([C] - [A]<sup>T</sup>[L])
+        Primitive64Store rhsX = Primitive64Store.FACTORY.copy(this.getIterationC());
+        for (int i = 0; i < size; i++) {
+            this.getConstraintBody(mySchurComplement.getConstraint(i)).axpy(-myMultipliers[i], rhsX);
+        }
+        this.getSolutionQ(rhsX, iterX);
+
+        // One step of iterative refinement - with an ill-conditioned [Q] the working set constraints may no
+        // longer be satisfied to full precision
+        for (int i = 0; i < size; i++) {
+            int constraint = mySchurComplement.getConstraint(i);
+            myResiduals[i] = this.getConstraintRHS(constraint) - this.getConstraintBody(constraint).dot(iterX);
+        }
+        mySchurComplement.solve(myResiduals);
+        for (int i = 0; i < size; i++) {
+            mySchurComplement.getInvQAT(i).axpy(myResiduals[i], iterX);
+            myMultipliers[i] -= myResiduals[i];
+        }
+
+        for (int i = 0; i < size; i++) {
+            int constraint = mySchurComplement.getConstraint(i);
+            int row = constraint < numbEqus ? constraint : numbEqus + Arrays.binarySearch(included, constraint - numbEqus);
+            iterL.set(row, myMultipliers[i]);
+        }
+
+        return true;
     }
 
     @Override
@@ -75,8 +188,17 @@ final class DirectASS extends ActiveSetSolver {
 
                 iterX.fillMatching(this.getInvQC());
 
+            } else if (this.solveUsingSchurComplement(incl, iterX, iterL)) {
+                // Actual/normal optimisation problem, solved using the updated factorisation
+
+                if (this.isLogDebug()) {
+                    this.log("Schur complement factorisation updated, L={}", iterL.toRawCopy1D());
+                }
+
             } else {
-                // Actual/normal optimisation problem
+                // Actual/normal optimisation problem, linearly dependent constraints
+
+                mySchurComplement.clear();
 
                 final MatrixStore<Double> iterA = this.getIterationA();
                 final MatrixStore<Double> iterB = this.getIterationB();
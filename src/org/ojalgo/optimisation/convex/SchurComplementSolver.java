@@ -0,0 +1,222 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.convex;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Maintains the Cholesky factor of the (negated) Schur complement [A][Q]<sup>-1</sup>[A]<sup>T</sup> of
+ * the active set solver's KKT system. When a single constraint enters or leaves the working set the factor
+ * is updated in O(m<sup>2</sup>) (plus one solve with [Q] for a constraint that has never been included
+ * before) rather than recalculating the Schur complement and refactoring it from scratch.
+ * <p>
+ * Constraints are appended to the end of the factor as they enter. When a constraint leaves, its row and
+ * column are deleted and the trailing part of the factor is restored to triangular form with a rank-one
+ * update - no downdates are ever needed.
+ *
+ * @author apete
+ */
+final class SchurComplementSolver {
+
+    /**
+     * Used to decide if a constraint is linearly dependent on the others
+     */
+    private static final NumberContext ACCURACY = new NumberContext(12, 14);
+
+    private final int[] myConstraints;
+    private final Access1D<?>[] myInvQAT;
+    /**
+     * The lower triangular factor, stored by row. Row i has (at least) i+1 elements.
+     */
+    private final double[][] myL;
+    private int mySize = 0;
+    private final double[] myWork;
+
+    SchurComplementSolver(final int maxSize) {
+
+        super();
+
+        myConstraints = new int[maxSize];
+        myInvQAT = new Access1D<?>[maxSize];
+        myL = new double[maxSize][];
+        myWork = new double[maxSize];
+    }
+
+    /**
+     * @param constraint The constraint index (used to identify it)
+     * @param body The constraint body - a row of [A]
+     * @param invQAT [Q]<sup>-1</sup> times the transpose of that row
+     * @return false if the constraint is linearly dependent on the ones already in the factor (it is then
+     *         not added)
+     */
+    boolean add(final int constraint, final Access1D<?> body, final Access1D<?> invQAT) {
+
+        if (mySize >= myConstraints.length) {
+            return false;
+        }
+
+        double[] row = new double[mySize + 1];
+
+        // The new row/column of the Schur complement
+        for (int j = 0; j < mySize; j++) {
+            row[j] = body.dot(myInvQAT[j]);
+        }
+        double diagonal = body.dot(invQAT);
+
+        // Forward substitution - solve [L][l] = [s]
+        double sumOfSquares = ZERO;
+        for (int j = 0; j < mySize; j++) {
+            double[] rowJ = myL[j];
+            double value = row[j];
+            for (int k = 0; k < j; k++) {
+                value -= rowJ[k] * row[k];
+            }
+            value /= rowJ[j];
+            row[j] = value;
+            sumOfSquares += value * value;
+        }
+
+        double remainder = diagonal - sumOfSquares;
+        if ((remainder <= ZERO) || ACCURACY.isSmall(diagonal, remainder)) {
+            return false;
+        }
+        row[mySize] = SQRT.invoke(remainder);
+
+        myConstraints[mySize] = constraint;
+        myInvQAT[mySize] = invQAT;
+        myL[mySize] = row;
+        mySize++;
+
+        return true;
+    }
+
+    void clear() {
+        for (int i = 0; i < mySize; i++) {
+            myInvQAT[i] = null;
+            myL[i] = null;
+        }
+        mySize = 0;
+    }
+
+    boolean contains(final int constraint) {
+        return this.indexOf(constraint) >= 0;
+    }
+
+    int getConstraint(final int index) {
+        return myConstraints[index];
+    }
+
+    Access1D<?> getInvQAT(final int index) {
+        return myInvQAT[index];
+    }
+
+    int indexOf(final int constraint) {
+        for (int i = 0; i < mySize; i++) {
+            if (myConstraints[i] == constraint) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Delete the row and column of that constraint from the factor. Deleting row k leaves the trailing rows
+     * with one element too many (in column k). Dropping that column is the same thing as the trailing
+     * block having been downdated by that column, so the trailing block is (rank-one) updated with it.
+     */
+    void remove(final int constraint) {
+
+        int index = this.indexOf(constraint);
+        if (index < 0) {
+            return;
+        }
+
+        int last = mySize - 1;
+        double[] column = myWork;
+
+        for (int i = index; i < last; i++) {
+
+            double[] oldRow = myL[i + 1];
+            double[] newRow = new double[i + 1];
+
+            System.arraycopy(oldRow, 0, newRow, 0, index);
+            System.arraycopy(oldRow, index + 1, newRow, index, i + 1 - index);
+            column[i] = oldRow[index];
+
+            myL[i] = newRow;
+            myConstraints[i] = myConstraints[i + 1];
+            myInvQAT[i] = myInvQAT[i + 1];
+        }
+
+        myL[last] = null;
+        myInvQAT[last] = null;
+        mySize = last;
+
+        // Rank-one update of the trailing block
+        for (int k = index; k < mySize; k++) {
+
+            double[] rowK = myL[k];
+            double diagonal = rowK[k];
+            double radius = HYPOT.invoke(diagonal, column[k]);
+            double cos = radius / diagonal;
+            double sin = column[k] / diagonal;
+            rowK[k] = radius;
+
+            for (int i = k + 1; i < mySize; i++) {
+                double[] rowI = myL[i];
+                rowI[k] = (rowI[k] + (sin * column[i])) / cos;
+                column[i] = (cos * column[i]) - (sin * rowI[k]);
+            }
+        }
+    }
+
+    int size() {
+        return mySize;
+    }
+
+    /**
+     * Solve [L][L]<sup>T</sup>[x] = [b] in place. The elements are ordered as the constraints in the factor.
+     */
+    void solve(final double[] rhsAndSolution) {
+
+        for (int i = 0; i < mySize; i++) {
+            double[] rowI = myL[i];
+            double value = rhsAndSolution[i];
+            for (int k = 0; k < i; k++) {
+                value -= rowI[k] * rhsAndSolution[k];
+            }
+            rhsAndSolution[i] = value / rowI[i];
+        }
+
+        for (int i = mySize - 1; i >= 0; i--) {
+            double value = rhsAndSolution[i];
+            for (int k = i + 1; k < mySize; k++) {
+                value -= myL[k][i] * rhsAndSolution[k];
+            }
+            rhsAndSolution[i] = value / myL[i][i];
+        }
+    }
+
+}
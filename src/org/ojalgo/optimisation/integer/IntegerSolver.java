@@ -24,13 +24,19 @@ package org.ojalgo.optimisation.integer;
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import org.ojalgo.OjAlgoUtils;
 import org.ojalgo.function.aggregator.Aggregator;
@@ -134,6 +140,51 @@ public final class IntegerSolver extends GenericSolver {
 
     }
 
+    /**
+     * Repeatedly picks the best ranked node from the (global) node queue and evaluates it. Any number of
+     * these can work in parallel. They all stop when the queue is empty and no worker is evaluating a node
+     * (that could add new nodes to the queue), or when any node evaluation returns false.
+     */
+    final class NodeQueueWorker extends RecursiveTask<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected Boolean compute() {
+
+            while (myNodeQueueNormal) {
+
+                myNodeQueueActive.incrementAndGet();
+
+                final NodeKey nodeKey = myNodeQueue.poll();
+
+                if (nodeKey != null) {
+
+                    if (IntegerSolver.this.isGoodEnoughToContinueBranching(nodeKey.objective)) {
+                        if (!new BranchAndBoundNodeTask(nodeKey).compute().booleanValue()) {
+                            myNodeQueueNormal = false;
+                        }
+                    } else {
+                        myNodeStatistics.abandoned();
+                    }
+
+                    myNodeQueueActive.decrementAndGet();
+
+                } else {
+
+                    if ((myNodeQueueActive.decrementAndGet() == 0) && myNodeQueue.isEmpty()) {
+                        break;
+                    }
+
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+
+            return myNodeQueueNormal;
+        }
+
+    }
+
     static final class NodeStatistics {
 
         private final AtomicInteger myAbandoned = new AtomicInteger();
@@ -226,6 +277,7 @@ public final class IntegerSolver extends GenericSolver {
     }
 
     private static volatile ForkJoinPool EXECUTOR;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100L);
 
     public static IntegerSolver make(final ExpressionsBasedModel model) {
         return new IntegerSolver(model, model.options);
@@ -255,7 +307,14 @@ public final class IntegerSolver extends GenericSolver {
     private final double[] myIntegerSignificances;
     private final AtomicInteger myIntegerSolutionsCount = new AtomicInteger();
     private final boolean myMinimisation;
+    private final PriorityBlockingQueue<NodeKey> myNodeQueue;
+    private final AtomicInteger myNodeQueueActive = new AtomicInteger();
+    private volatile boolean myNodeQueueNormal = true;
+    private final NodeSelection myNodeSelection;
     private final NodeStatistics myNodeStatistics = new NodeStatistics();
+    private final int[] myPseudoCostCounts;
+    private final double[] myPseudoCostSums;
+    private final boolean myWarmStart;
 
     protected IntegerSolver(final ExpressionsBasedModel model, final Options solverOptions) {
 
@@ -272,6 +331,23 @@ public final class IntegerSolver extends GenericSolver {
             myIntegerIndices[i] = myIntegerModel.indexOf(integerVariables.get(i));
         }
 
+        myNodeSelection = solverOptions.getConfigurator(NodeSelection.class).orElse(NodeSelection.DEPTH_FIRST);
+        if (myNodeSelection != NodeSelection.DEPTH_FIRST) {
+            myNodeQueue = new PriorityBlockingQueue<>(64, this.makeNodeComparator());
+        } else {
+            myNodeQueue = null;
+        }
+
+        if (myNodeSelection.isEstimating()) {
+            myPseudoCostSums = new double[myIntegerIndices.length];
+            myPseudoCostCounts = new int[myIntegerIndices.length];
+        } else {
+            myPseudoCostSums = null;
+            myPseudoCostCounts = null;
+        }
+
+        myWarmStart = !myIntegerModel.isAnyObjectiveQuadratic();
+
         myIntegerSignificances = new double[myIntegerIndices.length];
         Arrays.fill(myIntegerSignificances, ONE);
         final MatrixStore<Double> gradient = this.getGradient(Access1D.asPrimitive1D(model.getVariableValues()));
@@ -297,13 +373,32 @@ public final class IntegerSolver extends GenericSolver {
         final BranchAndBoundNodeTask rootNodeTask = new BranchAndBoundNodeTask();
 
         boolean normalExit = IntegerSolver.executor().invoke(rootNodeTask).booleanValue();
-        while (normalExit && (myDeferredNodes.size() > 0)) {
-            NodeKey nodeKey = myDeferredNodes.poll();
-            if (this.isGoodEnoughToContinueBranching(nodeKey.objective)) {
-                normalExit &= IntegerSolver.executor().invoke(new BranchAndBoundNodeTask(nodeKey)).booleanValue();
+
+        if (myNodeQueue != null) {
+
+            myNodeQueueNormal = normalExit;
+
+            final ForkJoinPool executor = IntegerSolver.executor();
+            final List<ForkJoinTask<Boolean>> workers = new ArrayList<>(executor.getParallelism());
+            for (int w = 0, limit = executor.getParallelism(); w < limit; w++) {
+                workers.add(executor.submit(new NodeQueueWorker()));
+            }
+            for (final ForkJoinTask<Boolean> worker : workers) {
+                normalExit &= worker.join().booleanValue();
             }
+
+            myNodeQueue.clear();
+
+        } else {
+
+            while (normalExit && (myDeferredNodes.size() > 0)) {
+                NodeKey nodeKey = myDeferredNodes.poll();
+                if (this.isGoodEnoughToContinueBranching(nodeKey.objective)) {
+                    normalExit &= IntegerSolver.executor().invoke(new BranchAndBoundNodeTask(nodeKey)).booleanValue();
+                }
+            }
+            myDeferredNodes.clear();
         }
-        myDeferredNodes.clear();
 
         final Optimisation.Result bestSolutionFound = this.getBestResultSoFar();
 
@@ -348,8 +443,7 @@ public final class IntegerSolver extends GenericSolver {
             nodeKey.enforceBounds(nodeModel, this.getIntegerIndices());
         }
 
-        final Optimisation.Result bestEstimate = this.getBestEstimate();
-        final Optimisation.Result nodeResult = nodeModel.solve(bestEstimate);
+        final Optimisation.Result nodeResult = nodeModel.solve(this.getKickStarter(nodeKey));
 
         // Increment when/if an iteration was actually performed
         this.incrementIterationsCount();
@@ -363,6 +457,10 @@ public final class IntegerSolver extends GenericSolver {
                 nodePrinter.println("Node solved to optimality!");
             }
 
+            if ((nodeKey.index >= 0) && myNodeSelection.isEstimating()) {
+                this.updatePseudoCost(nodeKey, nodeResult.getValue());
+            }
+
             if (options.validate && !nodeModel.validate(nodeResult, nodePrinter)) {
                 // This should not be possible. There is a bug somewhere.
                 nodePrinter.println("Node solution marked as OPTIMAL, but is actually INVALID/INFEASIBLE/FAILED. Stop this branch!");
@@ -415,8 +513,28 @@ public final class IntegerSolver extends GenericSolver {
 
                     // this.generateCuts(nodeModel);
 
-                    final NodeKey lowerBranch = nodeKey.createLowerBranch(branchIntegerIndex, variableValue, tmpSolutionValue);
-                    final NodeKey upperBranch = nodeKey.createUpperBranch(branchIntegerIndex, variableValue, tmpSolutionValue);
+                    final double pseudoCost = myNodeSelection.isEstimating() ? this.getPseudoCost(branchIntegerIndex) : ZERO;
+                    final NodeKey lowerBranch = nodeKey.createLowerBranch(branchIntegerIndex, variableValue, tmpSolutionValue, pseudoCost, nodeResult);
+                    final NodeKey upperBranch = nodeKey.createUpperBranch(branchIntegerIndex, variableValue, tmpSolutionValue, pseudoCost, nodeResult);
+
+                    if (myNodeQueue != null) {
+
+                        if (myNodeSelection.isDiving()) {
+                            // Dive in to the branch with the smallest displacement, queue the other
+                            if (upperBranch.displacement <= HALF) {
+                                myNodeQueue.offer(lowerBranch);
+                                return this.compute(upperBranch, nodeModel, nodePrinter);
+                            } else {
+                                myNodeQueue.offer(upperBranch);
+                                return this.compute(lowerBranch, nodeModel, nodePrinter);
+                            }
+                        } else {
+                            myNodeQueue.offer(lowerBranch);
+                            myNodeQueue.offer(upperBranch);
+                            nodeModel.dispose();
+                            return true;
+                        }
+                    }
 
                     final NodeKey nextTask;
                     final BranchAndBoundNodeTask forkedTask;
@@ -597,6 +715,22 @@ public final class IntegerSolver extends GenericSolver {
             }
         }
 
+        if ((myNodeQueue != null) && (myBestResultSoFar == result)) {
+            // Prune nodes that can no longer lead to a better solution
+            final List<NodeKey> pruned = new ArrayList<>();
+            for (final NodeKey node : myNodeQueue) {
+                if (!this.isGoodEnoughToContinueBranching(node.objective)) {
+                    pruned.add(node);
+                }
+            }
+            for (final NodeKey node : pruned) {
+                // Could have been polled by a worker in the meantime
+                if (myNodeQueue.remove(node)) {
+                    myNodeStatistics.abandoned();
+                }
+            }
+        }
+
         if ((currentlyTheBest != null) && options.solution.isDifferent(currentlyTheBest.getValue(), result.getValue())) {
             for (int i = 0, limit = myIntegerIndices.length; i < limit; i++) {
                 final int globalIndex = myIntegerIndices[i];
@@ -663,6 +797,32 @@ public final class IntegerSolver extends GenericSolver {
         return myIntegerSignificances[index];
     }
 
+    /**
+     * For linear models the node problems are warm started from the parent node's optimal solution (the
+     * simplex solver pivots its nonzero variables in to the initial basis). With a quadratic objective the
+     * best integer solution found so far is used as a starting point instead.
+     */
+    Optimisation.Result getKickStarter(final NodeKey nodeKey) {
+        if (myWarmStart && (nodeKey.solution != null)) {
+            return new Optimisation.Result(Optimisation.State.APPROXIMATE, nodeKey.solution.getValue(), nodeKey.solution);
+        } else {
+            return this.getBestEstimate();
+        }
+    }
+
+    NodeSelection getNodeSelection() {
+        return myNodeSelection;
+    }
+
+    /**
+     * The average observed objective function value degradation per unit change of the integer variable,
+     * or 0.0 if nothing has been observed yet. Only maintained if {@link NodeSelection#isEstimating()}.
+     */
+    synchronized double getPseudoCost(final int integerIndex) {
+        final int count = myPseudoCostCounts[integerIndex];
+        return count > 0 ? myPseudoCostSums[integerIndex] / count : ZERO;
+    }
+
     /**
      * Should return the index of the (best) integer variable to branch on. Returning a negative index means
      * an integer solution has been found (no further branching). Does NOT return a global variable index -
@@ -708,4 +868,36 @@ public final class IntegerSolver extends GenericSolver {
         return retVal;
     }
 
+    /**
+     * Nodes are ranked by their bound (the parent node's objective function value), or estimate (bound
+     * adjusted by pseudo-cost penalty). Ties are broken in favour of the most recently created node.
+     */
+    Comparator<NodeKey> makeNodeComparator() {
+
+        final boolean estimate = myNodeSelection.isEstimating();
+        final double sign = myMinimisation ? ONE : NEG;
+
+        return (node1, node2) -> {
+
+            double rank1 = node1.objective;
+            double rank2 = node2.objective;
+
+            if (estimate) {
+                rank1 += sign * node1.penalty;
+                rank2 += sign * node2.penalty;
+            }
+
+            final int retVal = Double.compare(sign * rank1, sign * rank2);
+
+            return retVal != 0 ? retVal : Long.compare(node2.sequence, node1.sequence);
+        };
+    }
+
+    synchronized void updatePseudoCost(final NodeKey nodeKey, final double nodeValue) {
+        if (!Double.isNaN(nodeKey.objective) && !Double.isNaN(nodeValue) && (nodeKey.displacement > ZERO)) {
+            myPseudoCostSums[nodeKey.index] += ABS.invoke(nodeValue - nodeKey.objective) / nodeKey.displacement;
+            myPseudoCostCounts[nodeKey.index]++;
+        }
+    }
+
 }
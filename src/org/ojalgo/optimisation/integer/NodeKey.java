@@ -31,6 +31,7 @@ import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
 import org.ojalgo.optimisation.ExpressionsBasedModel.Intermediate;
+import org.ojalgo.optimisation.Optimisation;
 import org.ojalgo.optimisation.Variable;
 import org.ojalgo.type.context.NumberContext;
 
@@ -64,13 +65,23 @@ final class NodeKey implements Comparable<NodeKey> {
      * Parent node sequence number.
      */
     final long parent;
+    /**
+     * Estimated (non-negative) objective function value degradation caused by the new bound introduced with
+     * this node. Based on pseudo-costs - it's 0.0 when nothing is known.
+     */
+    final double penalty;
     /**
      * Node sequennce number to keep track of in which order the nodes were created.
      */
     final long sequence = GENERATOR.getAndIncrement();
+    /**
+     * The (optimal) solution of the parent node - used to warm start this node. Is null for the root node.
+     */
+    final Optimisation.Result solution;
 
     private NodeKey(final int[] lowerBounds, final int[] upperBounds, final long parentSequenceNumber, final int integerIndexBranchedOn,
-            final double branchVariableDisplacement, final double parentObjectiveFunctionValue, final boolean signChanged) {
+            final double branchVariableDisplacement, final double parentObjectiveFunctionValue, final double estimatedPenalty,
+            final Optimisation.Result parentSolution, final boolean signChanged) {
 
         super();
 
@@ -81,6 +92,8 @@ final class NodeKey implements Comparable<NodeKey> {
         index = integerIndexBranchedOn;
         displacement = branchVariableDisplacement;
         objective = parentObjectiveFunctionValue;
+        penalty = estimatedPenalty;
+        solution = parentSolution;
 
         mySignChanged = signChanged;
     }
@@ -117,6 +130,8 @@ final class NodeKey implements Comparable<NodeKey> {
         index = -1;
         displacement = PrimitiveMath.NaN;
         objective = PrimitiveMath.NaN;
+        penalty = PrimitiveMath.ZERO;
+        solution = null;
 
         mySignChanged = false;
     }
@@ -244,7 +259,8 @@ final class NodeKey implements Comparable<NodeKey> {
         return retVal;
     }
 
-    NodeKey createLowerBranch(final int branchIntegerIndex, final double value, final double objective) {
+    NodeKey createLowerBranch(final int branchIntegerIndex, final double value, final double objective, final double pseudoCost,
+            final Optimisation.Result parentSolution) {
 
         final int[] tmpLBs = this.getLowerBounds();
         final int[] tmpUBs = this.getUpperBounds();
@@ -265,10 +281,13 @@ final class NodeKey implements Comparable<NodeKey> {
 
         final boolean changed = (oldVal > 0) && (newVal <= 0);
 
-        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, value - tmpFloor, objective, changed);
+        final double displacement = value - tmpFloor;
+
+        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, displacement, objective, displacement * pseudoCost, parentSolution, changed);
     }
 
-    NodeKey createUpperBranch(final int branchIntegerIndex, final double value, final double objective) {
+    NodeKey createUpperBranch(final int branchIntegerIndex, final double value, final double objective, final double pseudoCost,
+            final Optimisation.Result parentSolution) {
 
         final int[] tmpLBs = this.getLowerBounds();
         final int[] tmpUBs = this.getUpperBounds();
@@ -289,7 +308,9 @@ final class NodeKey implements Comparable<NodeKey> {
 
         final boolean changed = (oldVal < 0) && (newVal >= 0);
 
-        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, tmpCeil - value, objective, changed);
+        final double displacement = tmpCeil - value;
+
+        return new NodeKey(tmpLBs, tmpUBs, sequence, branchIntegerIndex, displacement, objective, displacement * pseudoCost, parentSolution, changed);
     }
 
     void enforceBounds(final ExpressionsBasedModel model, final int integerIndex, final int[] integerToGlobalTranslator) {
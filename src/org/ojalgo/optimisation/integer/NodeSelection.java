@@ -0,0 +1,81 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+/**
+ * Determines in which order the {@link IntegerSolver} evaluates the branch&bound nodes. Set it using
+ * {@link org.ojalgo.optimisation.Optimisation.Options#setConfigurator(Object)}. The default is
+ * {@link #DEPTH_FIRST}.
+ * <p>
+ * With any of the other strategies the nodes are kept in a global (concurrent) priority queue, and worker
+ * threads repeatedly pick the best ranked node from that queue. Whenever a new integer solution is found the
+ * queue is pruned of nodes that can no longer lead to a better solution.
+ *
+ * @author apete
+ */
+public enum NodeSelection {
+
+    /**
+     * Always pick the node with the best bound - the best parent node objective function value. Tends to
+     * minimise the number of nodes evaluated to prove optimality, but is slow to find integer solutions.
+     */
+    BEST_BOUND(false, false),
+    /**
+     * Pick the node with the best estimated integer solution value - the parent node objective function
+     * value adjusted by pseudo-costs (observed objective degradation per unit change of the branched on
+     * variable).
+     */
+    BEST_ESTIMATE(false, true),
+    /**
+     * Recursively branch (fork) depth-first, deferring some nodes to be evaluated at the end. This is the
+     * original strategy, and still the default.
+     *
+     * @see org.ojalgo.optimisation.Optimisation.Options#mip_defer
+     */
+    DEPTH_FIRST(true, false),
+    /**
+     * Pick the best bound node from the queue, and then dive (depth-first) from there, putting the other
+     * branch of each node on the queue. Combines the quick integer solutions of depth-first with the
+     * global view of best-bound.
+     */
+    HYBRID(true, false);
+
+    private final boolean myDiving;
+    private final boolean myEstimating;
+
+    NodeSelection(final boolean diving, final boolean estimating) {
+        myDiving = diving;
+        myEstimating = estimating;
+    }
+
+    boolean isDiving() {
+        return myDiving;
+    }
+
+    /**
+     * Only when the nodes are ranked by estimate are the pseudo-costs needed, and maintained.
+     */
+    boolean isEstimating() {
+        return myEstimating;
+    }
+
+}
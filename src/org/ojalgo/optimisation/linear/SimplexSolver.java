@@ -29,6 +29,7 @@ import org.ojalgo.array.Array1D;
 import org.ojalgo.array.LongToNumberMap;
 import org.ojalgo.array.Primitive64Array;
 import org.ojalgo.array.SparseArray.NonzeroView;
+import org.ojalgo.array.operation.IndexOf;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.aggregator.PrimitiveAggregator;
 import org.ojalgo.matrix.store.Primitive64Store;
@@ -131,6 +132,10 @@ public abstract class SimplexSolver extends LinearSolver {
 
         this.resetIterationsCount();
 
+        if ((kickStarter != null) && (kickStarter.getState() == State.APPROXIMATE) && !Double.isNaN(kickStarter.getValue()) && myPoint.isPhase1()) {
+            this.crash(kickStarter);
+        }
+
         while (this.isIterationAllowed() && this.needsAnotherIteration()) {
 
             this.performIteration(myPoint);
@@ -145,6 +150,46 @@ public abstract class SimplexSolver extends LinearSolver {
         return this.buildResult();
     }
 
+    /**
+     * Warm start: Pivot the (positive) problem variables of an approximate solution in to the basis, before
+     * the regular iterations begin. Only done when the approximate solution has an objective function value
+     * - it's the optimal solution to a closely related problem (a branch&bound parent node) rather than just
+     * an initial guess - and then its nonzero variables were basic. Only pivots
+     * that improve the phase 1 objective and replace an artificial variable are made. The pivot rows are
+     * selected using the usual ratio test, so the basis stays feasible.
+     */
+    private void crash(final Access1D<?> hint) {
+
+        int numberOfProblemVariables = myTableau.countProblemVariables();
+
+        if (hint.count() != numberOfProblemVariables) {
+            return;
+        }
+
+        for (int j = 0; (j < numberOfProblemVariables) && myTableau.isBasicArtificials() && this.isIterationAllowed(); j++) {
+
+            double value = hint.doubleValue(j);
+
+            if ((value > ZERO) && !PHASE1.isZero(value) && (IndexOf.indexOf(myTableau.getExcluded(), j) >= 0)
+                    && (myTableau.doubleValue(this.getRowObjective(), j) < ZERO)) {
+
+                myPoint.col = j;
+                myPoint.row = this.findNextPivotRow();
+
+                if ((myPoint.row >= 0) && (myTableau.getBasisColumnIndex(myPoint.row) < 0)) {
+
+                    if (this.isLogDebug()) {
+                        this.log("\n==>>\tCrash Row: {},\tExit: {},\tColumn/Enter: {}.\n", myPoint.row, myTableau.getBasisColumnIndex(myPoint.row), myPoint.col);
+                    }
+
+                    this.performIteration(myPoint);
+
+                    this.incrementIterationsCount();
+                }
+            }
+        }
+    }
+
     private int getRowObjective() {
         return myPoint.isPhase1() ? myTableau.countConstraints() + 1 : myTableau.countConstraints();
     }
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 abstract class AbstractContinuous extends RandomNumber implements ContinuousDistribution {
 
     AbstractContinuous() {
@@ -39,7 +41,12 @@ abstract class AbstractContinuous extends RandomNumber implements ContinuousDist
 
     @Override
     protected double generate() {
-        return this.getQuantile(this.random().nextDouble());
+        return this.generate(this.random());
+    }
+
+    @Override
+    protected double generate(final Random random) {
+        return this.getQuantile(random.nextDouble());
     }
 
 }
@@ -21,10 +21,20 @@
  */
 package org.ojalgo.random;
 
+import java.util.Random;
+
 abstract class AbstractDiscrete extends RandomNumber implements DiscreteDistribution {
 
     AbstractDiscrete() {
         super();
     }
 
+    @Override
+    protected double generate() {
+        return this.generate(this.random());
+    }
+
+    @Override
+    protected abstract double generate(Random random);
+
 }
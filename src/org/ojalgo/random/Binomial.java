@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.function.special.CombinatorialFunctions;
 
@@ -67,12 +69,12 @@ public class Binomial extends AbstractDiscrete {
     }
 
     @Override
-    protected double generate() {
+    protected double generate(final Random random) {
 
         int retVal = 0;
 
         for (int i = 0; i < myCount; i++) {
-            retVal += (int) (myProbability + this.random().nextDouble());
+            retVal += (int) (myProbability + random.nextDouble());
         }
 
         return retVal;
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.scalar.Scalar;
 
 /**
@@ -73,6 +75,11 @@ public class Deterministic extends RandomNumber {
 
     @Override
     protected double generate() {
+        return this.generate(this.random());
+    }
+
+    @Override
+    protected double generate(final Random random) {
         return myValue;
     }
 
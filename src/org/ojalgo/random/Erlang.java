@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 
 /**
@@ -58,11 +60,16 @@ public class Erlang extends RandomNumber {
 
     @Override
     protected double generate() {
+        return this.generate(this.random());
+    }
+
+    @Override
+    protected double generate(final Random random) {
 
         double tmpVal = ZERO;
 
         for (int i = 0; i < myCount; i++) {
-            tmpVal -= PrimitiveMath.LOG.invoke(this.random().nextDouble());
+            tmpVal -= PrimitiveMath.LOG.invoke(random.nextDouble());
         }
 
         return tmpVal / myRate;
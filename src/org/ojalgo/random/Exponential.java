@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 
 /**
@@ -84,8 +86,8 @@ public class Exponential extends AbstractContinuous {
     }
 
     @Override
-    protected double generate() {
-        return -PrimitiveMath.LOG.invoke(this.random().nextDouble()) / myRate;
+    protected double generate(final Random random) {
+        return -PrimitiveMath.LOG.invoke(random.nextDouble()) / myRate;
     }
 
 }
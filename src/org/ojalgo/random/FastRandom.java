@@ -0,0 +1,270 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Fast pseudo random number generators that are drop-in replacements for {@link Random}, but not thread
+ * safe (no atomic or synchronized state), and that can be split into independent streams for parallel use.
+ * {@link #nextGaussian()} uses the ziggurat method.
+ * <p>
+ * Set one as the generator of a {@link RandomNumber} with {@link RandomNumber#setGenerator(Random)}.
+ *
+ * @author apete
+ */
+public abstract class FastRandom extends Random {
+
+    /**
+     * Wraps {@link SplittableRandom}
+     */
+    public static final class SplitMix extends FastRandom {
+
+        private static final long serialVersionUID = 1L;
+
+        private SplittableRandom myDelegate;
+
+        public SplitMix(final long seed) {
+            super();
+            myDelegate = new SplittableRandom(seed);
+        }
+
+        SplitMix(final SplittableRandom delegate) {
+            super();
+            myDelegate = delegate;
+        }
+
+        @Override
+        public double nextDouble() {
+            return myDelegate.nextDouble();
+        }
+
+        @Override
+        public long nextLong() {
+            return myDelegate.nextLong();
+        }
+
+        @Override
+        public void setSeed(final long seed) {
+            myDelegate = new SplittableRandom(seed);
+        }
+
+        @Override
+        public SplitMix split() {
+            return new SplitMix(myDelegate.split());
+        }
+
+    }
+
+    /**
+     * xoshiro256++ by David Blackman and Sebastiano Vigna. Splitting uses the jump function - each split off
+     * stream is 2<sup>128</sup> steps apart.
+     */
+    public static final class Xoshiro extends FastRandom {
+
+        private static final long[] JUMP = { 0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL };
+        private static final long serialVersionUID = 1L;
+
+        private long s0, s1, s2, s3;
+
+        public Xoshiro(final long seed) {
+            super();
+            this.setSeed(seed);
+        }
+
+        private Xoshiro(final long state0, final long state1, final long state2, final long state3) {
+            super();
+            s0 = state0;
+            s1 = state1;
+            s2 = state2;
+            s3 = state3;
+        }
+
+        @Override
+        public long nextLong() {
+
+            final long retVal = Long.rotateLeft(s0 + s3, 23) + s0;
+
+            final long t = s1 << 17;
+
+            s2 ^= s0;
+            s3 ^= s1;
+            s1 ^= s2;
+            s0 ^= s3;
+
+            s2 ^= t;
+            s3 = Long.rotateLeft(s3, 45);
+
+            return retVal;
+        }
+
+        /**
+         * The state is initialised using SplitMix64, as recommended by the authors.
+         */
+        @Override
+        public void setSeed(final long seed) {
+
+            final SplittableRandom initialiser = new SplittableRandom(seed);
+
+            s0 = initialiser.nextLong();
+            s1 = initialiser.nextLong();
+            s2 = initialiser.nextLong();
+            s3 = initialiser.nextLong();
+        }
+
+        @Override
+        public Xoshiro split() {
+
+            final Xoshiro retVal = new Xoshiro(s0, s1, s2, s3);
+
+            long t0 = 0L, t1 = 0L, t2 = 0L, t3 = 0L;
+            for (int i = 0; i < JUMP.length; i++) {
+                for (int b = 0; b < 64; b++) {
+                    if ((JUMP[i] & (1L << b)) != 0L) {
+                        t0 ^= s0;
+                        t1 ^= s1;
+                        t2 ^= s2;
+                        t3 ^= s3;
+                    }
+                    this.nextLong();
+                }
+            }
+
+            s0 = t0;
+            s1 = t1;
+            s2 = t2;
+            s3 = t3;
+
+            return retVal;
+        }
+
+    }
+
+    private static final double[] F = new double[128];
+    private static final long[] K = new long[128];
+    private static final double R = 3.442619855899;
+    private static final long serialVersionUID = 1L;
+    private static final double[] W = new double[128];
+
+    static {
+
+        // Ziggurat tables, for 128 layers, as in Marsaglia & Tsang (2000)
+
+        final double m1 = 2147483648.0;
+        final double vn = 9.91256303526217e-3;
+
+        double dn = R;
+        double tn = dn;
+
+        final double q = vn / EXP.invoke(-HALF * dn * dn);
+
+        K[0] = (long) ((dn / q) * m1);
+        K[1] = 0L;
+
+        W[0] = q / m1;
+        W[127] = dn / m1;
+
+        F[0] = ONE;
+        F[127] = EXP.invoke(-HALF * dn * dn);
+
+        for (int i = 126; i >= 1; i--) {
+            dn = SQRT.invoke(-TWO * LOG.invoke((vn / dn) + EXP.invoke(-HALF * dn * dn)));
+            K[i + 1] = (long) ((dn / tn) * m1);
+            tn = dn;
+            F[i] = EXP.invoke(-HALF * dn * dn);
+            W[i] = dn / m1;
+        }
+    }
+
+    protected FastRandom() {
+        super(0L);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (this.nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Ziggurat method - not synchronized, and no cached second value.
+     */
+    @Override
+    public double nextGaussian() {
+
+        int hz = this.nextInt();
+        int iz = hz & 127;
+
+        if (Math.abs((long) hz) < K[iz]) {
+            return hz * W[iz];
+        }
+
+        for (;;) {
+
+            double x = hz * W[iz];
+
+            if (iz == 0) {
+                double y;
+                do {
+                    x = -LOG.invoke(ONE - this.nextDouble()) / R;
+                    y = -LOG.invoke(ONE - this.nextDouble());
+                } while ((y + y) < (x * x));
+                return hz > 0 ? R + x : -R - x;
+            }
+
+            if ((F[iz] + (this.nextDouble() * (F[iz - 1] - F[iz]))) < EXP.invoke(-HALF * x * x)) {
+                return x;
+            }
+
+            hz = this.nextInt();
+            iz = hz & 127;
+
+            if (Math.abs((long) hz) < K[iz]) {
+                return hz * W[iz];
+            }
+        }
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (this.nextLong() >>> 32);
+    }
+
+    @Override
+    public abstract long nextLong();
+
+    @Override
+    public abstract void setSeed(long seed);
+
+    /**
+     * @return A new generator, independent of this one - the state of this generator is also changed.
+     */
+    public abstract FastRandom split();
+
+    @Override
+    protected int next(final int bits) {
+        return (int) (this.nextLong() >>> (64 - bits));
+    }
+
+}
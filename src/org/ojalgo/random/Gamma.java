@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.scalar.PrimitiveScalar;
 
 /**
@@ -56,20 +58,25 @@ public class Gamma extends RandomNumber {
         return myShape / (myRate * myRate);
     }
 
+    @Override
+    protected double generate() {
+        return this.generate(this.random());
+    }
+
     /**
      * A Convenient Way of Generating Gamma Random Variables Using Generalized Exponential Distribution
      *
-     * @see org.ojalgo.random.RandomNumber#generate()
+     * @see org.ojalgo.random.RandomNumber#generate(Random)
      */
     @Override
-    protected double generate() {
+    protected double generate(final Random random) {
 
         final int tmpInteger = (int) myShape;
         final double tmpFraction = myShape - tmpInteger;
 
         double tmpIntegralPart = ZERO;
         for (int i = 0; i < tmpInteger; i++) {
-            tmpIntegralPart -= LOG.invoke(this.random().nextDouble());
+            tmpIntegralPart -= LOG.invoke(random.nextDouble());
         }
 
         double tmpFractionalPart = ZERO;
@@ -83,13 +90,13 @@ public class Gamma extends RandomNumber {
 
             do {
 
-                tmpFractionalPart = -TWO * LOG.invoke(ONE - POW.invoke(this.random().nextDouble(), ONE / tmpFraction));
+                tmpFractionalPart = -TWO * LOG.invoke(ONE - POW.invoke(random.nextDouble(), ONE / tmpFraction));
                 tmpNegHalfFraction = -tmpFractionalPart / TWO;
 
                 tmpNumer = POW.invoke(tmpFractionalPart, tmpFractionMinusOne) * EXP.invoke(tmpNegHalfFraction);
                 tmpDenom = POW.invoke(TWO, tmpFractionMinusOne) * POW.invoke(-EXPM1.invoke(tmpNegHalfFraction), tmpFractionMinusOne);
 
-            } while (this.random().nextDouble() > (tmpNumer / tmpDenom));
+            } while (random.nextDouble() > (tmpNumer / tmpDenom));
         }
 
         return (tmpIntegralPart + tmpFractionalPart) / myRate;
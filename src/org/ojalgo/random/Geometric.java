@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 
 /**
@@ -64,11 +66,11 @@ public class Geometric extends AbstractDiscrete {
     }
 
     @Override
-    protected double generate() {
+    protected double generate(final Random random) {
 
         int retVal = 1;
 
-        while ((this.random().nextDouble() + myProbability) <= ONE) {
+        while ((random.nextDouble() + myProbability) <= ONE) {
             retVal++;
         }
 
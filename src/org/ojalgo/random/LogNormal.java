@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.array.Array1D;
 import org.ojalgo.structure.Access1D;
 
@@ -115,13 +117,8 @@ public class LogNormal extends AbstractContinuous {
     }
 
     @Override
-    public void setSeed(final long seed) {
-        myNormal.setSeed(seed);
-    }
-
-    @Override
-    protected double generate() {
-        return EXP.invoke(myNormal.generate());
+    protected double generate(final Random random) {
+        return EXP.invoke(myNormal.generate(random));
     }
 
 }
@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.function.special.ErrorFunction;
 
@@ -85,8 +87,8 @@ public class Normal extends AbstractContinuous {
     }
 
     @Override
-    protected double generate() {
-        return (this.random().nextGaussian() * myScale) + myLocation;
+    protected double generate(final Random random) {
+        return (random.nextGaussian() * myScale) + myLocation;
     }
 
 }
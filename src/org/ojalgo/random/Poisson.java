@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.function.special.MissingMath;
 
@@ -69,7 +71,7 @@ public class Poisson extends AbstractDiscrete {
     }
 
     @Override
-    protected double generate() {
+    protected double generate(final Random random) {
 
         int retVal = -1;
         double tmpVal = ZERO;
@@ -78,7 +80,7 @@ public class Poisson extends AbstractDiscrete {
 
             retVal++;
 
-            tmpVal -= PrimitiveMath.LOG.invoke(this.random().nextDouble()) / myLambda;
+            tmpVal -= PrimitiveMath.LOG.invoke(random.nextDouble()) / myLambda;
         }
 
         return retVal;
@@ -21,32 +21,65 @@
  */
 package org.ojalgo.random;
 
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
 import java.util.Random;
 
 import org.ojalgo.array.Array1D;
 import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.Eigenvalue;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.structure.Access2D;
 
+/**
+ * Generates vectors of (correlated) random numbers. The correlations matrix is factorised once, at
+ * construction, and the factor is shared with any instance created using {@link #split()}. Instances are not
+ * thread safe - use {@link #split()} to get one per thread.
+ */
 public class Random1D {
 
-    public final int length;
+    /**
+     * A matrix F such that F * F<sup>T</sup> equals the correlations matrix - the Cholesky factor if the
+     * matrix is positive definite, otherwise V * sqrt(D) from the eigenvalue decomposition.
+     */
+    static Primitive64Store factor(final Access2D<?> correlations) {
 
-    private final MatrixStore<Double> myCholeskiedCorrelations;
-    private final Random myRandom = new Random();
+        final MatrixStore<Double> matrix = MatrixStore.PRIMITIVE64.makeWrapper(correlations).get();
 
-    public Random1D(final Access2D<?> correlations) {
+        final Cholesky<Double> cholesky = Cholesky.PRIMITIVE.make(matrix);
+        if (cholesky.decompose(matrix) && cholesky.isSPD()) {
+            return Primitive64Store.FACTORY.copy(cholesky.getL());
+        }
 
-        super();
+        // Semi-definite (or numerically indefinite) - clamp negative eigenvalues to zero
 
-        final Cholesky<Double> tmpCholesky = Cholesky.PRIMITIVE.make();
-        tmpCholesky.decompose(MatrixStore.PRIMITIVE64.makeWrapper(correlations));
-        myCholeskiedCorrelations = tmpCholesky.getL();
+        final Eigenvalue<Double> evd = Eigenvalue.PRIMITIVE.make(matrix, true);
+        evd.decompose(matrix);
 
-        tmpCholesky.reset();
+        final Primitive64Store retVal = Primitive64Store.FACTORY.copy(evd.getV());
+        final MatrixStore<Double> values = evd.getD();
 
-        length = (int) myCholeskiedCorrelations.countRows();
+        final int dim = (int) retVal.countColumns();
+        for (int j = 0; j < dim; j++) {
+            final double scale = SQRT.invoke(Math.max(values.doubleValue(j, j), ZERO));
+            for (int i = 0; i < dim; i++) {
+                retVal.set(i, j, scale * retVal.doubleValue(i, j));
+            }
+        }
+
+        return retVal;
+    }
+
+    public final int length;
+
+    private final Primitive64Store myCholeskiedCorrelations;
+    private final Normal myNormal = new Normal();
+    private Random myRandom;
+    private Primitive64Store myUncorrelated = null;
+
+    public Random1D(final Access2D<?> correlations) {
+        this(Random1D.factor(correlations), new Random());
     }
 
     /**
@@ -59,6 +92,30 @@ public class Random1D {
         myCholeskiedCorrelations = null;
 
         length = size;
+
+        this.setGenerator(new Random());
+    }
+
+    private Random1D(final Primitive64Store factor, final Random random) {
+
+        super();
+
+        myCholeskiedCorrelations = factor;
+
+        length = (int) factor.countRows();
+
+        this.setGenerator(random);
+    }
+
+    private Random1D(final int size, final Random random) {
+
+        super();
+
+        myCholeskiedCorrelations = null;
+
+        length = size;
+
+        this.setGenerator(random);
     }
 
     @SuppressWarnings("unused")
@@ -102,6 +159,43 @@ public class Random1D {
         }
     }
 
+    /**
+     * Fill the target with (correlated) standard normal random numbers - each column is one draw, and the
+     * number of rows must match {@link #size()}. The uncorrelated numbers are bulk generated and then
+     * correlated, all columns at once, with a single matrix multiplication.
+     */
+    public void nextGaussian(final Primitive64Store target) {
+
+        if (target.countRows() != length) {
+            throw new IllegalArgumentException("The target must have " + length + " rows!");
+        }
+
+        if (myCholeskiedCorrelations != null) {
+
+            final int numberOfDraws = (int) target.countColumns();
+
+            if ((myUncorrelated == null) || (myUncorrelated.countColumns() != numberOfDraws)) {
+                myUncorrelated = Primitive64Store.FACTORY.make(length, numberOfDraws);
+            }
+
+            myNormal.fill(myUncorrelated);
+
+            target.fillByMultiplying(myCholeskiedCorrelations, myUncorrelated);
+
+        } else {
+
+            myNormal.fill(target);
+        }
+    }
+
+    /**
+     * Use another random number generator, typically one of the {@link FastRandom} implementations.
+     */
+    public void setGenerator(final Random generator) {
+        myRandom = generator;
+        myNormal.setGenerator(generator);
+    }
+
     public void setSeed(final long seed) {
         myRandom.setSeed(seed);
     }
@@ -110,6 +204,26 @@ public class Random1D {
         return length;
     }
 
+    /**
+     * @return A new instance, sharing the (cached) factorisation of the correlations matrix, but with its own
+     *         random number generator split off from (or seeded by) this instance's generator.
+     */
+    public Random1D split() {
+        return this.split(myRandom instanceof FastRandom ? ((FastRandom) myRandom).split() : new FastRandom.Xoshiro(myRandom.nextLong()));
+    }
+
+    /**
+     * @return A new instance, sharing the (cached) factorisation of the correlations matrix, but using the
+     *         supplied random number generator. This instance's generator is not touched.
+     */
+    public Random1D split(final Random generator) {
+        if (myCholeskiedCorrelations != null) {
+            return new Random1D(myCholeskiedCorrelations, generator);
+        } else {
+            return new Random1D(length, generator);
+        }
+    }
+
     protected Random random() {
         return myRandom;
     }
@@ -25,8 +25,11 @@ import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import java.util.Random;
 
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.function.NullaryFunction;
 import org.ojalgo.function.constant.PrimitiveMath;
+import org.ojalgo.structure.Mutate1D;
 import org.ojalgo.type.ComparableNumber;
 
 /**
@@ -36,7 +39,13 @@ import org.ojalgo.type.ComparableNumber;
  */
 public abstract class RandomNumber implements Distribution, NullaryFunction<Double>, ComparableNumber<RandomNumber> {
 
-    private final Random myRandom = new Random();
+    /**
+     * Bulk fills are split into blocks of this size, each with its own generator. The split is independent
+     * of the number of threads, so the results are reproducible for a given seed.
+     */
+    private static final int BLOCK = 4096;
+
+    private Random myRandom = new Random();
 
     protected RandomNumber() {
         super();
@@ -56,6 +65,71 @@ public abstract class RandomNumber implements Distribution, NullaryFunction<Doub
         return (float) this.generate();
     }
 
+    /**
+     * Fill the entire array with samples from this distribution.
+     *
+     * @see #fill(double[], int, int)
+     */
+    public void fill(final double[] target) {
+        this.fill(target, 0, target.length);
+    }
+
+    /**
+     * Fill target[first, limit) with samples from this distribution. Large ranges are split in blocks that
+     * are filled in parallel, each using a generator split off from this instance's generator (if it is a
+     * {@link FastRandom}) or seeded from it (otherwise). The result depends on the seed, but not on
+     * the number of threads.
+     */
+    public void fill(final double[] target, final int first, final int limit) {
+
+        final int count = limit - first;
+
+        if (count <= BLOCK) {
+
+            this.generate(myRandom, target, first, limit);
+
+        } else {
+
+            final int numberOfBlocks = ((count - 1) / BLOCK) + 1;
+
+            final Random[] generators = new Random[numberOfBlocks];
+            for (int b = 0; b < numberOfBlocks; b++) {
+                generators[b] = myRandom instanceof FastRandom ? ((FastRandom) myRandom).split()
+                        : new FastRandom.Xoshiro(myRandom.nextLong());
+            }
+
+            final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int firstBlock, final int limitBlock) {
+                    for (int b = firstBlock; b < limitBlock; b++) {
+                        final int blockFirst = first + (b * BLOCK);
+                        RandomNumber.this.generate(generators[b], target, blockFirst, Math.min(blockFirst + BLOCK, limit));
+                    }
+                }
+
+            };
+
+            conquerer.invoke(0, numberOfBlocks, 1);
+        }
+    }
+
+    /**
+     * Fill the target with samples from this distribution. Dense primitive arrays (that includes
+     * Primitive64Store) are filled directly, and in parallel, other structures one element at the time.
+     */
+    public void fill(final Mutate1D target) {
+        if (target instanceof Primitive64Array) {
+            final double[] data = ((Primitive64Array) target).data;
+            this.fill(data, 0, Math.min(data.length, (int) target.count()));
+        } else {
+            final long count = target.count();
+            for (long i = 0L; i < count; i++) {
+                target.set(i, this.generate(myRandom));
+            }
+        }
+    }
+
     /**
      * Subclasses must override either getStandardDeviation() or getVariance()!
      *
@@ -95,6 +169,13 @@ public abstract class RandomNumber implements Distribution, NullaryFunction<Doub
         return SampleSet.make(this, numberOfSamples);
     }
 
+    /**
+     * Replace the underlying generator, typically with one of the {@link FastRandom} implementations.
+     */
+    public void setGenerator(final Random generator) {
+        myRandom = generator;
+    }
+
     public void setSeed(final long seed) {
         myRandom.setSeed(seed);
     }
@@ -110,8 +191,33 @@ public abstract class RandomNumber implements Distribution, NullaryFunction<Doub
         }
     }
 
+    /**
+     * Generate a sample using this instance's own generator, {@link #random()}.
+     */
     protected abstract double generate();
 
+    /**
+     * Generate a sample using the supplied generator. The bulk fills call this with generators split off
+     * from this instance's own. The default implementation ignores the supplied generator and delegates to
+     * {@link #generate()}, serialised as that uses the shared instance generator. Override it to make bulk
+     * fills run in parallel and be reproducible. All the distributions in this package do.
+     */
+    protected double generate(final Random random) {
+        synchronized (this) {
+            return this.generate();
+        }
+    }
+
+    /**
+     * Generate samples to target[first, limit) using the supplied generator. Override to batch the
+     * transformation.
+     */
+    protected void generate(final Random random, final double[] target, final int first, final int limit) {
+        for (int i = first; i < limit; i++) {
+            target[i] = this.generate(random);
+        }
+    }
+
     protected final Random random() {
         return myRandom;
     }
@@ -0,0 +1,458 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleConsumer;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.function.constant.PrimitiveMath;
+
+/**
+ * A one-pass, bounded memory, alternative to {@link SampleSet}. The values are not stored - they're
+ * accumulated as they're accepted:
+ * <ul>
+ * <li>Count, mean and variance are calculated exactly, using Welford's algorithm.</li>
+ * <li>Min and max are exact.</li>
+ * <li>Quantiles (median, quartiles...) are approximated using a KLL sketch. The memory used is
+ * O(k&middot;log(n/k)) and the rank error is roughly proportional to 1/k.</li>
+ * </ul>
+ * Accumulators can be merged, making it possible to have parallel workers each accumulate a part of the
+ * values and then combine the results:
+ *
+ * <pre>
+ * SampleAccumulator all = values.parallel().collect(SampleAccumulator::make, SampleAccumulator::accept, SampleAccumulator::merge);
+ * </pre>
+ *
+ * An instance is not thread safe.
+ *
+ * @see <a href="https://arxiv.org/abs/1603.05346">Optimal Quantile Approximation in Streams</a>
+ * @author apete
+ */
+public final class SampleAccumulator implements DoubleConsumer {
+
+    /**
+     * The default size parameter - the rank error is roughly 1%
+     */
+    public static final int DEFAULT_K = 200;
+
+    /**
+     * Capacity ratio between consecutive (KLL sketch) levels
+     */
+    private static final double C = TWO_THIRDS;
+
+    public static SampleAccumulator make() {
+        return new SampleAccumulator(DEFAULT_K);
+    }
+
+    /**
+     * @param k The size (accuracy) parameter of the quantile sketch. Memory use is proportional to k, and
+     *        the rank error is roughly proportional to 1/k.
+     */
+    public static SampleAccumulator make(final int k) {
+        return new SampleAccumulator(k);
+    }
+
+    /**
+     * @param k The size (accuracy) parameter of the quantile sketch
+     * @param random Decides which items are kept when the sketch is compacted - seed it to get reproducible
+     *        quantiles. It is used exclusively by this accumulator, don't share it between threads.
+     */
+    public static SampleAccumulator make(final int k, final Random random) {
+        return new SampleAccumulator(k, random);
+    }
+
+    private static void merge(final double[] values1, final long[] weights1, final int size1, final double[] values2, final long[] weights2,
+            final int size2, final double[] values, final long[] weights) {
+
+        int i1 = 0, i2 = 0, i = 0;
+
+        while ((i1 < size1) && (i2 < size2)) {
+            if (values1[i1] <= values2[i2]) {
+                values[i] = values1[i1];
+                weights[i++] = weights1[i1++];
+            } else {
+                values[i] = values2[i2];
+                weights[i++] = weights2[i2++];
+            }
+        }
+        while (i1 < size1) {
+            values[i] = values1[i1];
+            weights[i++] = weights1[i1++];
+        }
+        while (i2 < size2) {
+            values[i] = values2[i2];
+            weights[i++] = weights2[i2++];
+        }
+    }
+
+    /**
+     * Per level capacity, updated when levels are added
+     */
+    private int[] myCapacities;
+    private long myCount = 0L;
+    private final int myK;
+    /**
+     * Level h items each represent 2^h values
+     */
+    private double[][] myLevels;
+    private double myMax = NEGATIVE_INFINITY;
+    private double myMean = ZERO;
+    private double myMin = POSITIVE_INFINITY;
+    private int myNumberOfLevels;
+    private final Random myRandom;
+    private int[] mySizes;
+    /**
+     * Sorted (by value) items from all levels, and their cumulative weights. Created (from the levels) when
+     * a quantile is requested and discarded when a value is accepted.
+     */
+    private transient double[] mySortedValues = null;
+    private transient long[] mySortedWeights = null;
+    private double mySumOfSquaredDeviations = ZERO;
+    private int myTotalCapacity = 0;
+    private int myTotalSize = 0;
+
+    @SuppressWarnings("unused")
+    private SampleAccumulator() {
+
+        this(DEFAULT_K);
+
+        ProgrammingError.throwForIllegalInvocation();
+    }
+
+    SampleAccumulator(final int k) {
+        this(k, new FastRandom.SplitMix(ThreadLocalRandom.current().nextLong()));
+    }
+
+    SampleAccumulator(final int k, final Random random) {
+
+        super();
+
+        if (k < 8) {
+            throw new ProgrammingError("k must be at least 8!");
+        }
+
+        myK = k;
+        myRandom = random;
+
+        myLevels = new double[4][];
+        mySizes = new int[4];
+        myCapacities = new int[4];
+        myNumberOfLevels = 0;
+        this.addLevel();
+    }
+
+    /**
+     * Accept (accumulate) another value.
+     */
+    public void accept(final double value) {
+
+        myCount++;
+
+        final double delta = value - myMean;
+        myMean += delta / myCount;
+        mySumOfSquaredDeviations += delta * (value - myMean);
+
+        myMin = PrimitiveMath.MIN.invoke(myMin, value);
+        myMax = PrimitiveMath.MAX.invoke(myMax, value);
+
+        this.append(0, value);
+        this.compress();
+
+        mySortedValues = null;
+        mySortedWeights = null;
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    public double getInterquartileRange() {
+        return this.getQuartile3() - this.getQuartile1();
+    }
+
+    /**
+     * max(value)
+     */
+    public double getMaximum() {
+        return myCount > 0L ? myMax : ZERO;
+    }
+
+    public double getMean() {
+        return myCount > 0L ? myMean : NaN;
+    }
+
+    /**
+     * Approximate
+     */
+    public double getMedian() {
+        return this.getQuantile(HALF);
+    }
+
+    /**
+     * min(value)
+     */
+    public double getMinimum() {
+        return myCount > 0L ? myMin : ZERO;
+    }
+
+    /**
+     * Approximate: the smallest (accumulated) value such that at least the fraction [probability] of all
+     * values are less than or equal to it. Exact as long as the number of values accumulated is less than k.
+     *
+     * @param probability [0,1]
+     */
+    public double getQuantile(final double probability) {
+
+        if (myCount == 0L) {
+            return ZERO;
+        } else if (probability <= ZERO) {
+            return myMin;
+        } else if (probability >= ONE) {
+            return myMax;
+        }
+
+        if (mySortedValues == null) {
+            this.sort();
+        }
+
+        final double rank = probability * myCount;
+
+        int low = 0;
+        int high = mySortedWeights.length - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (mySortedWeights[middle] < rank) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return mySortedValues[low];
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile1() {
+        return this.getQuantile(QUARTER);
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile2() {
+        return this.getQuantile(HALF);
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile3() {
+        return this.getQuantile(THREE_QUARTERS);
+    }
+
+    public double getStandardDeviation() {
+        return PrimitiveMath.SQRT.invoke(this.getVariance());
+    }
+
+    /**
+     * The sum of the squared deviations from the mean
+     */
+    public double getSumOfSquares() {
+        return mySumOfSquaredDeviations;
+    }
+
+    /**
+     * Sample variance (divided by n-1)
+     */
+    public double getVariance() {
+        return myCount > 1L ? mySumOfSquaredDeviations / (myCount - 1L) : ZERO;
+    }
+
+    /**
+     * Merge (add) the values accumulated by another instance in to this one. The other instance is not
+     * modified.
+     */
+    public SampleAccumulator merge(final SampleAccumulator other) {
+
+        if (other.myCount == 0L) {
+            return this;
+        }
+
+        final long count = myCount + other.myCount;
+        final double delta = other.myMean - myMean;
+
+        mySumOfSquaredDeviations += other.mySumOfSquaredDeviations + (((delta * delta) * myCount * other.myCount) / count);
+        myMean += (delta * other.myCount) / count;
+        myCount = count;
+
+        myMin = PrimitiveMath.MIN.invoke(myMin, other.myMin);
+        myMax = PrimitiveMath.MAX.invoke(myMax, other.myMax);
+
+        while (myNumberOfLevels < other.myNumberOfLevels) {
+            this.addLevel();
+        }
+        for (int h = 0; h < other.myNumberOfLevels; h++) {
+            final double[] items = other.myLevels[h];
+            for (int i = 0, limit = other.mySizes[h]; i < limit; i++) {
+                this.append(h, items[i]);
+            }
+        }
+        this.compress();
+
+        mySortedValues = null;
+        mySortedWeights = null;
+
+        return this;
+    }
+
+    /**
+     * The number of values currently retained by the quantile sketch
+     */
+    public int size() {
+        return myTotalSize;
+    }
+
+    @Override
+    public String toString() {
+        return "Sample accumulator Count=" + this.count() + ", Mean=" + this.getMean() + ", Var=" + this.getVariance() + ", StdDev="
+                + this.getStandardDeviation() + ", Min=" + this.getMinimum() + ", Median=" + this.getMedian() + ", Max=" + this.getMaximum();
+    }
+
+    private void addLevel() {
+
+        if (myNumberOfLevels == myLevels.length) {
+            myLevels = Arrays.copyOf(myLevels, 2 * myNumberOfLevels);
+            mySizes = Arrays.copyOf(mySizes, 2 * myNumberOfLevels);
+            myCapacities = Arrays.copyOf(myCapacities, 2 * myNumberOfLevels);
+        }
+
+        myNumberOfLevels++;
+
+        // The capacity of a level is k*(2/3)^depth, where depth is the distance from the top level, but never less than 2.
+        myTotalCapacity = 0;
+        for (int h = 0; h < myNumberOfLevels; h++) {
+            final int depth = myNumberOfLevels - h - 1;
+            myCapacities[h] = Math.max(2, (int) Math.ceil(myK * Math.pow(C, depth)));
+            myTotalCapacity += myCapacities[h];
+        }
+
+        myLevels[myNumberOfLevels - 1] = new double[myCapacities[myNumberOfLevels - 1] + 1];
+        mySizes[myNumberOfLevels - 1] = 0;
+    }
+
+    private void append(final int level, final double value) {
+
+        double[] items = myLevels[level];
+        final int size = mySizes[level];
+
+        if (size == items.length) {
+            items = myLevels[level] = Arrays.copyOf(items, 2 * size);
+        }
+
+        items[size] = value;
+        mySizes[level] = size + 1;
+        myTotalSize++;
+    }
+
+    /**
+     * Sort a level and promote every other item (randomly the odd or even ones) to the next level, where
+     * they represent twice as many values. With an odd number of items the largest is kept.
+     */
+    private void compact(final int level) {
+
+        if ((level + 1) == myNumberOfLevels) {
+            this.addLevel();
+        }
+
+        final double[] items = myLevels[level];
+        final int size = mySizes[level];
+
+        Arrays.sort(items, 0, size);
+
+        final int even = size & ~1;
+        for (int i = myRandom.nextBoolean() ? 1 : 0; i < even; i += 2) {
+            this.append(level + 1, items[i]);
+        }
+
+        if (even < size) {
+            items[0] = items[size - 1];
+            mySizes[level] = 1;
+        } else {
+            mySizes[level] = 0;
+        }
+
+        myTotalSize -= size - mySizes[level];
+    }
+
+    private void compress() {
+        while (myTotalSize >= myTotalCapacity) {
+            int h = 0;
+            while (mySizes[h] < myCapacities[h]) {
+                h++;
+            }
+            this.compact(h);
+        }
+    }
+
+    private void sort() {
+
+        double[] values = new double[0];
+        long[] weights = new long[0];
+        int size = 0;
+
+        for (int h = 0; h < myNumberOfLevels; h++) {
+
+            final int levelSize = mySizes[h];
+
+            if (levelSize > 0) {
+
+                final double[] levelValues = myLevels[h];
+                Arrays.sort(levelValues, 0, levelSize);
+                final long[] levelWeights = new long[levelSize];
+                Arrays.fill(levelWeights, 1L << h);
+
+                final double[] mergedValues = new double[size + levelSize];
+                final long[] mergedWeights = new long[size + levelSize];
+                SampleAccumulator.merge(values, weights, size, levelValues, levelWeights, levelSize, mergedValues, mergedWeights);
+
+                values = mergedValues;
+                weights = mergedWeights;
+                size += levelSize;
+            }
+        }
+
+        for (int i = 1; i < size; i++) {
+            weights[i] += weights[i - 1];
+        }
+
+        mySortedValues = values;
+        mySortedWeights = weights;
+    }
+
+}
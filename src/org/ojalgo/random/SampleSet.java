@@ -215,6 +215,8 @@ public final class SampleSet implements Access1D<Double> {
 
     /**
      * Potentially expensive as it requires copying and sorting of the samples.
+     *
+     * @see SampleAccumulator#getMedian()
      */
     public double getMedian() {
         return this.getQuartile2();
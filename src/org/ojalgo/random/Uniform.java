@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 
 /**
@@ -121,7 +123,7 @@ public class Uniform extends AbstractContinuous {
     }
 
     @Override
-    protected double generate() {
-        return myLower + (myRange * this.random().nextDouble());
+    protected double generate(final Random random) {
+        return myLower + (myRange * random.nextDouble());
     }
 }
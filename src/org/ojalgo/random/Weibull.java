@@ -23,6 +23,8 @@ package org.ojalgo.random;
 
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
+import java.util.Random;
+
 import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.function.special.GammaFunction;
 
@@ -63,7 +65,12 @@ public class Weibull extends RandomNumber {
 
     @Override
     protected double generate() {
-        return PrimitiveMath.POW.invoke(-PrimitiveMath.LOG.invoke(this.random().nextDouble()), ONE / myShape) / myRate;
+        return this.generate(this.random());
+    }
+
+    @Override
+    protected double generate(final Random random) {
+        return PrimitiveMath.POW.invoke(-PrimitiveMath.LOG.invoke(random.nextDouble()), ONE / myShape) / myRate;
     }
 
 }
@@ -24,17 +24,27 @@ package org.ojalgo.random.process;
 import static org.ojalgo.function.constant.PrimitiveMath.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.ojalgo.array.Array2D;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.random.ContinuousDistribution;
 import org.ojalgo.random.Distribution;
+import org.ojalgo.random.FastRandom;
+import org.ojalgo.random.RandomNumber;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
 
 abstract class AbstractProcess<D extends Distribution> implements RandomProcess<D> {
 
+    /**
+     * The number of realisations simulated together, using the same random number stream.
+     */
+    private static final int BLOCK = 64;
+
     private final TreeSet<ComparableToDouble<Double>> myObservations = new TreeSet<>();
 
     protected AbstractProcess() {
@@ -102,24 +112,66 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
     /**
      * @return An array of sample sets. The array has aNumberOfSteps elements, and each sample set has
      *         aNumberOfRealisations samples.
+     * @see #simulate(int, int, double, long)
      */
     public final RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize) {
+        return this.simulate(numberOfRealisations, numberOfSteps, stepSize, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * The realisations are simulated in parallel, in blocks of rows. Each block has its own random number
+     * generator, a {@link FastRandom} split off from one seeded with the input seed, so the results are fully
+     * determined by the seed regardless of the number of threads. The process itself is not modified.
+     */
+    public final RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize,
+            final long seed) {
+
+        final double initialValue = this.getValue();
+
+        final Array2D<Double> realisationValues = Array2D.PRIMITIVE64.makeZero(numberOfRealisations, numberOfSteps);
+
+        final int numberOfBlocks = (numberOfRealisations + BLOCK - 1) / BLOCK;
+
+        final RandomNumber[] increments = new RandomNumber[numberOfBlocks];
+        final FastRandom master = new FastRandom.SplitMix(seed);
+        for (int b = 0; b < numberOfBlocks; b++) {
+            increments[b] = this.makeIncrementGenerator();
+            increments[b].setGenerator(master.split());
+        }
+
+        if (this.isMarkov()) {
+
+            final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int b = first; b < limit; b++) {
+                        AbstractProcess.this.simulate(realisationValues, b * BLOCK, Math.min(numberOfRealisations, (b + 1) * BLOCK), initialValue,
+                                stepSize, increments[b]);
+                    }
+                }
+            };
+
+            conquerer.invoke(0, numberOfBlocks, 1);
+
+        } else {
 
-        final List<ComparableToDouble<Double>> tmpInitialState = new ArrayList<>(myObservations);
-        final double tmpInitialValue = this.getValue();
+            // Each step depends on the (observations of the) previous ones - one realisation at the time
 
-        final Array2D<Double> tmpRealisationValues = Array2D.PRIMITIVE64.makeZero(numberOfRealisations, numberOfSteps);
+            final List<ComparableToDouble<Double>> initialState = new ArrayList<>(myObservations);
 
-        for (int r = 0; r < numberOfRealisations; r++) {
-            double tmpCurrentValue = tmpInitialValue;
-            for (int s = 0; s < numberOfSteps; s++) {
-                tmpCurrentValue = this.step(tmpCurrentValue, stepSize, this.getNormalisedRandomIncrement());
-                tmpRealisationValues.set(r, s, tmpCurrentValue);
+            for (int r = 0; r < numberOfRealisations; r++) {
+                final RandomNumber generator = increments[r / BLOCK];
+                double currentValue = initialValue;
+                for (int s = 0; s < numberOfSteps; s++) {
+                    currentValue = this.step(currentValue, stepSize, generator.doubleValue());
+                    realisationValues.set(r, s, currentValue);
+                }
+                this.setObservations(initialState);
             }
-            this.setObservations(tmpInitialState);
         }
 
-        return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
+        return new RandomProcess.SimulationResults(initialValue, realisationValues);
     }
 
     protected abstract double getNormalisedRandomIncrement();
@@ -145,6 +197,40 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
 
     abstract double getVariance(double stepSize);
 
+    /**
+     * @return true if {@link #next(double, double, double)} is supported - the next value only depends on
+     *         the current value (not on the observations).
+     */
+    abstract boolean isMarkov();
+
+    /**
+     * @return A new instance of the distribution sampled by {@link #getNormalisedRandomIncrement()}, not shared
+     *         with anything else, so that it can be given its own generator.
+     */
+    abstract RandomNumber makeIncrementGenerator();
+
+    /**
+     * The same as {@link #step(double, double, double)} but without any side effects - the process state is
+     * not updated.
+     */
+    abstract double next(double currentValue, final double stepSize, final double normalisedRandomIncrement);
+
+    private void simulate(final Array2D<Double> destination, final int first, final int limit, final double initialValue, final double stepSize,
+            final RandomNumber generator) {
+
+        final int numberOfSteps = (int) destination.countColumns();
+
+        final double[] currentValues = new double[limit - first];
+        Arrays.fill(currentValues, initialValue);
+
+        for (int s = 0; s < numberOfSteps; s++) {
+            for (int i = 0; i < currentValues.length; i++) {
+                currentValues[i] = this.next(currentValues[i], stepSize, generator.doubleValue());
+                destination.set(first + i, s, currentValues[i]);
+            }
+        }
+    }
+
     final double step(final double stepSize) {
         return this.step(this.getValue(), stepSize, this.getNormalisedRandomIncrement());
     }
@@ -21,9 +21,11 @@
  */
 package org.ojalgo.random.process;
 
+import org.ojalgo.ProgrammingError;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.random.Normal;
 import org.ojalgo.random.Normal1D;
+import org.ojalgo.random.RandomNumber;
 
 /**
  * A Gaussian process is a stochastic process whose realizations consist of random values associated with
@@ -124,4 +126,23 @@ public final class GaussianProcess extends AbstractProcess<Normal> {
         return this.getDistribution(stepSize).getVariance();
     }
 
+    /**
+     * The distribution of the next value is conditioned on all the observations
+     */
+    @Override
+    boolean isMarkov() {
+        return false;
+    }
+
+    @Override
+    RandomNumber makeIncrementGenerator() {
+        return new Normal();
+    }
+
+    @Override
+    double next(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+        return currentValue;
+    }
+
 }
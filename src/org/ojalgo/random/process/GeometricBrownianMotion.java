@@ -27,6 +27,8 @@ import org.ojalgo.array.Array1D;
 import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.function.special.ErrorFunction;
 import org.ojalgo.random.LogNormal;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.RandomNumber;
 import org.ojalgo.random.SampleSet;
 import org.ojalgo.structure.Access1D;
 
@@ -158,11 +160,7 @@ public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
 
     @Override
     protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
-
-        final double tmpDetPart = (myLocalDrift - ((myDiffusionFunction * myDiffusionFunction) / TWO)) * stepSize;
-        final double tmpRandPart = myDiffusionFunction * PrimitiveMath.SQRT.invoke(stepSize) * normalisedRandomIncrement;
-
-        final double retVal = currentValue * PrimitiveMath.EXP.invoke(tmpDetPart + tmpRandPart);
+        final double retVal = this.next(currentValue, stepSize, normalisedRandomIncrement);
         this.setValue(retVal);
         return retVal;
     }
@@ -210,4 +208,23 @@ public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
                 * PrimitiveMath.EXPM1.invoke(this.getDistributionVariance(stepSize));
     }
 
+    @Override
+    boolean isMarkov() {
+        return true;
+    }
+
+    @Override
+    RandomNumber makeIncrementGenerator() {
+        return new Normal();
+    }
+
+    @Override
+    double next(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+
+        final double tmpDetPart = (myLocalDrift - ((myDiffusionFunction * myDiffusionFunction) / TWO)) * stepSize;
+        final double tmpRandPart = myDiffusionFunction * PrimitiveMath.SQRT.invoke(stepSize) * normalisedRandomIncrement;
+
+        return currentValue * PrimitiveMath.EXP.invoke(tmpDetPart + tmpRandPart);
+    }
+
 }
@@ -27,6 +27,7 @@ import org.ojalgo.ProgrammingError;
 import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.random.Exponential;
 import org.ojalgo.random.Poisson;
+import org.ojalgo.random.RandomNumber;
 
 /**
  * A Poisson process is a stochastic process which counts the number of events in a given time interval. The
@@ -67,7 +68,7 @@ public final class PoissonProcess extends AbstractProcess<Poisson> {
 
     @Override
     protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
-        final double retVal = currentValue + ((myRate * stepSize) * normalisedRandomIncrement);
+        final double retVal = this.next(currentValue, stepSize, normalisedRandomIncrement);
         this.setValue(retVal);
         return retVal;
     }
@@ -99,4 +100,19 @@ public final class PoissonProcess extends AbstractProcess<Poisson> {
         return myRate * stepSize;
     }
 
+    @Override
+    boolean isMarkov() {
+        return true;
+    }
+
+    @Override
+    RandomNumber makeIncrementGenerator() {
+        return new Poisson();
+    }
+
+    @Override
+    double next(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+        return currentValue + ((myRate * stepSize) * normalisedRandomIncrement);
+    }
+
 }
@@ -22,10 +22,15 @@
 package org.ojalgo.random.process;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Array2D;
 import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.random.ContinuousDistribution;
+import org.ojalgo.random.FastRandom;
 import org.ojalgo.random.Random1D;
 import org.ojalgo.random.process.RandomProcess.SimulationResults;
 import org.ojalgo.structure.Access1D;
@@ -33,6 +38,11 @@ import org.ojalgo.structure.Access2D;
 
 abstract class Process1D<D extends ContinuousDistribution, P extends AbstractProcess<D>> {
 
+    /**
+     * The number of realisations simulated together, using the same (correlated) random number stream.
+     */
+    private static final int BLOCK = 64;
+
     private final Random1D myGenerator;
     private final AbstractProcess<? extends D>[] myProcesses;
 
@@ -85,6 +95,63 @@ abstract class Process1D<D extends ContinuousDistribution, P extends AbstractPro
         return myProcesses.length;
     }
 
+    /**
+     * @see #simulate(int, int, double, long)
+     */
+    public SimulationResults[] simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize) {
+        return this.simulate(numberOfRealisations, numberOfSteps, stepSize, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Simulates all the processes together, with correlated increments. The realisations are simulated in
+     * parallel, in blocks. Each block has its own generator, sharing the factorisation of the correlations
+     * matrix, and generates the increments of all processes, for all realisations in the block, one step at
+     * the time as a single matrix multiplication. The results are fully determined by the seed regardless of
+     * the number of threads. The processes themselves are not modified.
+     *
+     * @return One {@link SimulationResults} instance per process
+     */
+    @SuppressWarnings("unchecked")
+    public SimulationResults[] simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize,
+            final long seed) {
+
+        final int numberOfProcesses = myProcesses.length;
+
+        final double[] initialValues = new double[numberOfProcesses];
+        final Array2D<Double>[] realisationValues = (Array2D<Double>[]) new Array2D<?>[numberOfProcesses];
+        for (int p = 0; p < numberOfProcesses; p++) {
+            initialValues[p] = myProcesses[p].getValue();
+            realisationValues[p] = Array2D.PRIMITIVE64.make(numberOfRealisations, numberOfSteps);
+        }
+
+        final int numberOfBlocks = (numberOfRealisations + BLOCK - 1) / BLOCK;
+
+        final Random1D master = myGenerator.split(new FastRandom.Xoshiro(seed));
+        final Random1D[] generators = new Random1D[numberOfBlocks];
+        for (int b = 0; b < numberOfBlocks; b++) {
+            generators[b] = master.split();
+        }
+
+        final DivideAndConquer conquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int b = first; b < limit; b++) {
+                    Process1D.this.simulate(realisationValues, b * BLOCK, Math.min(numberOfRealisations, (b + 1) * BLOCK), initialValues, stepSize,
+                            generators[b]);
+                }
+            }
+        };
+
+        conquerer.invoke(0, numberOfBlocks, 1);
+
+        final SimulationResults[] retVal = new SimulationResults[numberOfProcesses];
+        for (int p = 0; p < numberOfProcesses; p++) {
+            retVal[p] = new SimulationResults(initialValues[p], realisationValues[p]);
+        }
+        return retVal;
+    }
+
     public Array1D<Double> step(final double stepSize) {
 
         final Array1D<Double> retVal = myGenerator.nextGaussian();
@@ -132,4 +199,33 @@ abstract class Process1D<D extends ContinuousDistribution, P extends AbstractPro
         return myProcesses[index].step(stepSize);
     }
 
+    private void simulate(final Array2D<Double>[] destination, final int first, final int limit, final double[] initialValues, final double stepSize,
+            final Random1D generator) {
+
+        final int numberOfProcesses = myProcesses.length;
+        final int numberOfRealisations = limit - first;
+        final int numberOfSteps = (int) destination[0].countColumns();
+
+        // The same layout as the increments - column r is realisation first + r
+        final double[] currentValues = new double[numberOfProcesses * numberOfRealisations];
+        for (int r = 0; r < numberOfRealisations; r++) {
+            System.arraycopy(initialValues, 0, currentValues, r * numberOfProcesses, numberOfProcesses);
+        }
+
+        final Primitive64Store increments = Primitive64Store.FACTORY.make(numberOfProcesses, numberOfRealisations);
+
+        for (int s = 0; s < numberOfSteps; s++) {
+
+            generator.nextGaussian(increments);
+
+            for (int r = 0; r < numberOfRealisations; r++) {
+                for (int p = 0; p < numberOfProcesses; p++) {
+                    final int index = p + (r * numberOfProcesses);
+                    currentValues[index] = myProcesses[p].next(currentValues[index], stepSize, increments.data[index]);
+                    destination[p].set(first + r, s, currentValues[index]);
+                }
+            }
+        }
+    }
+
 }
@@ -119,4 +119,10 @@ public interface RandomProcess<D extends Distribution> {
      */
     RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize);
 
+    /**
+     * Same as {@link #simulate(int, int, double)} but reproducible - the results are fully determined by the
+     * seed.
+     */
+    RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed);
+
 }
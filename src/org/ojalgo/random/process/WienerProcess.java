@@ -26,6 +26,7 @@ import static org.ojalgo.function.constant.PrimitiveMath.*;
 import org.ojalgo.function.constant.PrimitiveMath;
 import org.ojalgo.function.special.ErrorFunction;
 import org.ojalgo.random.Normal;
+import org.ojalgo.random.RandomNumber;
 
 public final class WienerProcess extends AbstractProcess<Normal> {
 
@@ -57,7 +58,7 @@ public final class WienerProcess extends AbstractProcess<Normal> {
 
     @Override
     protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
-        final double retVal = currentValue + (PrimitiveMath.SQRT.invoke(stepSize) * normalisedRandomIncrement);
+        final double retVal = this.next(currentValue, stepSize, normalisedRandomIncrement);
         this.setValue(retVal);
         return retVal;
     }
@@ -87,4 +88,19 @@ public final class WienerProcess extends AbstractProcess<Normal> {
         return stepSize;
     }
 
+    @Override
+    boolean isMarkov() {
+        return true;
+    }
+
+    @Override
+    RandomNumber makeIncrementGenerator() {
+        return new Normal();
+    }
+
+    @Override
+    double next(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
+        return currentValue + (PrimitiveMath.SQRT.invoke(stepSize) * normalisedRandomIncrement);
+    }
+
 }
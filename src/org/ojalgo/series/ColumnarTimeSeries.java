@@ -0,0 +1,404 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.series.primitive.ExplicitTimeSeries;
+import org.ojalgo.series.primitive.PrimitiveSeries;
+import org.ojalgo.type.CalendarDate;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * A time series with the keys (epoch millis) and values stored in separate, growable, primitive arrays -
+ * about 16 bytes per observation compared to 80+ with {@link CalendarDateSeries}. Appending (in key order)
+ * is amortised constant time, and lookup/slicing uses binary search.
+ * <p>
+ * The slices, {@link #headSeries(CalendarDate)}, {@link #tailSeries(CalendarDate)} and
+ * {@link #subSeries(CalendarDate, CalendarDate)}, as well as the values of the series returned by
+ * {@link #resample(CalendarDateUnit)} and {@link #getPrimitiveTimeSeries()}, are views that share the
+ * arrays with this instance. Slices are read-only, and they remain valid as long as this instance is only
+ * appended to.
+ *
+ * @author apete
+ */
+public final class ColumnarTimeSeries extends PrimitiveSeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public static <N extends Comparable<N>> ColumnarTimeSeries from(final CalendarDateSeries<N> series) {
+
+        final CalendarDateUnit resolution = series.getResolution() != null ? series.getResolution() : CalendarDateUnit.MILLIS;
+
+        final ColumnarTimeSeries retVal = new ColumnarTimeSeries(resolution, series.size());
+
+        for (final Map.Entry<CalendarDate, N> entry : series.entrySet()) {
+            retVal.append(entry.getKey().millis, Scalar.doubleValue(entry.getValue()));
+        }
+
+        return retVal;
+    }
+
+    public static ColumnarTimeSeries from(final ExplicitTimeSeries series, final CalendarDateUnit resolution) {
+
+        final long[] keys = series.keys();
+
+        final ColumnarTimeSeries retVal = new ColumnarTimeSeries(resolution, keys.length);
+
+        for (int i = 0; i < keys.length; i++) {
+            retVal.put(keys[i], series.value(i));
+        }
+
+        return retVal;
+    }
+
+    static long filter(final long millis, final CalendarDateUnit resolution) {
+        if (resolution.isCalendarUnit()) {
+            return new CalendarDate(millis).filter(resolution).millis;
+        } else {
+            return resolution.adjustInto(millis);
+        }
+    }
+
+    private final int myFirst;
+    private long[] myKeys;
+    private int myLimit;
+    private final CalendarDateUnit myResolution;
+    private double[] myValues;
+    private final boolean myView;
+
+    public ColumnarTimeSeries() {
+        this(CalendarDateUnit.MILLIS);
+    }
+
+    public ColumnarTimeSeries(final CalendarDateUnit resolution) {
+        this(resolution, INITIAL_CAPACITY);
+    }
+
+    public ColumnarTimeSeries(final CalendarDateUnit resolution, final int initialCapacity) {
+
+        super();
+
+        myResolution = resolution;
+
+        final int capacity = Math.max(initialCapacity, INITIAL_CAPACITY);
+        myKeys = new long[capacity];
+        myValues = new double[capacity];
+        myFirst = 0;
+        myLimit = 0;
+        myView = false;
+    }
+
+    private ColumnarTimeSeries(final ColumnarTimeSeries base, final int first, final int limit) {
+
+        super();
+
+        myResolution = base.getResolution();
+
+        myKeys = base.myKeys;
+        myValues = base.myValues;
+        myFirst = first;
+        myLimit = limit;
+        myView = true;
+    }
+
+    /**
+     * Add an observation after the last one. If the (resolution filtered) key is equal to the last key, the
+     * last value is replaced. Keys before the last key are rejected - use {@link #put(long, double)} to
+     * insert those.
+     *
+     * @throws ProgrammingError If the key is before the last key
+     */
+    public void append(final long key, final double value) {
+
+        this.checkMutable();
+
+        final long filtered = ColumnarTimeSeries.filter(key, myResolution);
+
+        if ((myLimit == myFirst) || (filtered > myKeys[myLimit - 1])) {
+            this.ensureCapacity();
+            myKeys[myLimit] = filtered;
+            myValues[myLimit] = value;
+            myLimit++;
+        } else if (filtered == myKeys[myLimit - 1]) {
+            myValues[myLimit - 1] = value;
+        } else {
+            throw new ProgrammingError("Keys must be appended in order, use put(...) to insert!");
+        }
+    }
+
+    public void append(final CalendarDate key, final double value) {
+        this.append(key.millis, value);
+    }
+
+    /**
+     * @throws NoSuchElementException If the series is empty
+     */
+    public CalendarDate first() {
+        if (myLimit == myFirst) {
+            throw new NoSuchElementException();
+        }
+        return new CalendarDate(myKeys[myFirst]);
+    }
+
+    /**
+     * @return 0 if there are less than 2 observations
+     */
+    public long getAverageStepSize() {
+        if ((myLimit - myFirst) < 2) {
+            return 0L;
+        }
+        return (myKeys[myLimit - 1] - myKeys[myFirst]) / (myLimit - myFirst - 1);
+    }
+
+    /**
+     * The same as {@link #keys()}
+     */
+    public long[] getPrimitiveKeys() {
+        return this.keys();
+    }
+
+    /**
+     * The keys are copied, the values are not.
+     */
+    public ExplicitTimeSeries getPrimitiveTimeSeries() {
+        return new ExplicitTimeSeries(this.keys(), this.view(myFirst, myLimit));
+    }
+
+    public CalendarDateUnit getResolution() {
+        return myResolution;
+    }
+
+    /**
+     * A read-only view of the observations with keys strictly less than toKey.
+     */
+    public ColumnarTimeSeries headSeries(final CalendarDate toKey) {
+        return new ColumnarTimeSeries(this, myFirst, this.search(toKey.millis));
+    }
+
+    /**
+     * Binary search for the (resolution filtered) key.
+     *
+     * @return The index of the key, if present, otherwise (-(insertion point) - 1) - just like
+     *         {@link Arrays#binarySearch(long[], long)}.
+     */
+    public int indexOf(final long key) {
+        final int index = Arrays.binarySearch(myKeys, myFirst, myLimit, ColumnarTimeSeries.filter(key, myResolution));
+        return index >= 0 ? index - myFirst : index + myFirst;
+    }
+
+    public int indexOf(final CalendarDate key) {
+        return this.indexOf(key.millis);
+    }
+
+    public long key(final int index) {
+        return myKeys[myFirst + index];
+    }
+
+    /**
+     * @return A copy of the keys
+     */
+    public long[] keys() {
+        return Arrays.copyOfRange(myKeys, myFirst, myLimit);
+    }
+
+    /**
+     * @throws NoSuchElementException If the series is empty
+     */
+    public CalendarDate last() {
+        if (myLimit == myFirst) {
+            throw new NoSuchElementException();
+        }
+        return new CalendarDate(myKeys[myLimit - 1]);
+    }
+
+    /**
+     * Insert or replace the value at the (resolution filtered) key. Inserting anywhere but at the end means
+     * shifting all later entries, and any existing views of this series are then no longer valid.
+     */
+    public void put(final long key, final double value) {
+
+        this.checkMutable();
+
+        final long filtered = ColumnarTimeSeries.filter(key, myResolution);
+
+        final int index = Arrays.binarySearch(myKeys, myFirst, myLimit, filtered);
+
+        if (index >= 0) {
+            myValues[index] = value;
+        } else {
+            final int insertion = -(index + 1);
+            this.ensureCapacity();
+            System.arraycopy(myKeys, insertion, myKeys, insertion + 1, myLimit - insertion);
+            System.arraycopy(myValues, insertion, myValues, insertion + 1, myLimit - insertion);
+            myKeys[insertion] = filtered;
+            myValues[insertion] = value;
+            myLimit++;
+        }
+    }
+
+    public void put(final CalendarDate key, final double value) {
+        this.put(key.millis, value);
+    }
+
+    /**
+     * Only the first and last keys (inclusive) are resampled.
+     *
+     * @see #resample(CalendarDateUnit)
+     */
+    public ExplicitTimeSeries resample(final CalendarDate firstKey, final CalendarDate lastKey, final CalendarDateUnit resolution) {
+        final int first = this.search(firstKey.millis);
+        int limit = this.search(lastKey.millis);
+        if ((limit < myLimit) && (myKeys[limit] == ColumnarTimeSeries.filter(lastKey.millis, myResolution))) {
+            limit++;
+        }
+        return this.resample(first, limit, resolution);
+    }
+
+    /**
+     * Same semantics as {@link CalendarDateSeries#resample(org.ojalgo.type.CalendarDate.Resolution)} - there
+     * is one entry for each key, filtered by the new resolution, with the last value with that key. The new
+     * keys are created, but the values are a view of this series.
+     */
+    public ExplicitTimeSeries resample(final CalendarDateUnit resolution) {
+        return this.resample(myFirst, myLimit, resolution);
+    }
+
+    @Override
+    public int size() {
+        return myLimit - myFirst;
+    }
+
+    /**
+     * A read-only view of the observations with keys from fromKey, inclusive, to toKey, exclusive.
+     */
+    public ColumnarTimeSeries subSeries(final CalendarDate fromKey, final CalendarDate toKey) {
+        final int first = this.search(fromKey.millis);
+        return new ColumnarTimeSeries(this, first, Math.max(first, this.search(toKey.millis)));
+    }
+
+    /**
+     * A read-only view of the observations with keys greater than or equal to fromKey.
+     */
+    public ColumnarTimeSeries tailSeries(final CalendarDate fromKey) {
+        return new ColumnarTimeSeries(this, this.search(fromKey.millis), myLimit);
+    }
+
+    public CalendarDateSeries<Double> toCalendarDateSeries() {
+
+        final CalendarDateSeries<Double> retVal = new CalendarDateSeries<>(myResolution);
+
+        for (int i = myFirst; i < myLimit; i++) {
+            retVal.put(new CalendarDate(myKeys[i]), myValues[i]);
+        }
+
+        return retVal;
+    }
+
+    @Override
+    public double value(final int index) {
+        return myValues[myFirst + index];
+    }
+
+    private void checkMutable() {
+        if (myView) {
+            ProgrammingError.throwForUnsupportedOptionalOperation();
+        }
+    }
+
+    private void ensureCapacity() {
+        if (myLimit >= myKeys.length) {
+            final int capacity = myKeys.length + (myKeys.length >> 1);
+            myKeys = Arrays.copyOf(myKeys, capacity);
+            myValues = Arrays.copyOf(myValues, capacity);
+        }
+    }
+
+    private ExplicitTimeSeries resample(final int first, final int limit, final CalendarDateUnit resolution) {
+
+        int count = 0;
+        long[] keys = new long[INITIAL_CAPACITY];
+        int[] positions = new int[INITIAL_CAPACITY];
+
+        for (int i = first; i < limit; i++) {
+            final long key = ColumnarTimeSeries.filter(myKeys[i], resolution);
+            if ((count == 0) || (key != keys[count - 1])) {
+                if (count >= keys.length) {
+                    keys = Arrays.copyOf(keys, count + (count >> 1));
+                    positions = Arrays.copyOf(positions, count + (count >> 1));
+                }
+                keys[count++] = key;
+            }
+            positions[count - 1] = i;
+        }
+
+        final int size = count;
+        final int[] indices = positions;
+        final double[] values = myValues;
+
+        return new ExplicitTimeSeries(Arrays.copyOf(keys, size), new PrimitiveSeries() {
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public double value(final int index) {
+                return values[indices[index]];
+            }
+
+        });
+    }
+
+    /**
+     * @return The (absolute) index of the first entry with a key greater than or equal to the (filtered) key
+     */
+    private int search(final long key) {
+        final int index = Arrays.binarySearch(myKeys, myFirst, myLimit, ColumnarTimeSeries.filter(key, myResolution));
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    private PrimitiveSeries view(final int first, final int limit) {
+
+        final double[] values = myValues;
+
+        return new PrimitiveSeries() {
+
+            @Override
+            public int size() {
+                return limit - first;
+            }
+
+            @Override
+            public double value(final int index) {
+                return values[first + index];
+            }
+
+        };
+    }
+
+}
@@ -169,6 +169,18 @@ public class CoordinationSet<N extends Comparable<N>> extends HashMap<String, Ca
         return this.get(series).get(date);
     }
 
+    /**
+     * @param resolution The resolution of the aligned series
+     * @param tolerance How late (in millis) a tick may be, and still be included
+     * @return An {@link IncrementalCoordinator}, with the same series names, that has already been fed the
+     *         data currently in this set. Feed new ticks to it, rather than to the series in
+     *         this set, and it keeps the aligned and resampled series up to date without recomputing
+     *         everything.
+     */
+    public IncrementalCoordinator incremental(final CalendarDateUnit resolution, final long tolerance) {
+        return new IncrementalCoordinator(this, resolution, tolerance);
+    }
+
     /**
      * @return A new CoordinationSet where all series have the same first and last keys.
      */
@@ -0,0 +1,277 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.type.CalendarDate;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * Incrementally resamples and aligns a fixed set of (live) series. Each tick is put to a bucket (its key
+ * filtered by the resolution), and a bucket is completed when a tick, for any of the series, arrives that is
+ * more than the out-of-order tolerance later. Completed buckets are appended to the aligned series and
+ * passed to the listeners, once, in key order. Missing values (and empty buckets in between) are filled
+ * with the previous value - the same as {@link CoordinationSet#complete()}.
+ * <p>
+ * Within a bucket the value with the latest tick key is used, regardless of arrival order. Ticks for an
+ * already completed bucket are too late, and are dropped.
+ * <p>
+ * The cost per tick is amortised constant (logarithmic in the number of pending buckets, which is bounded
+ * by the tolerance). Not thread safe.
+ *
+ * @author apete
+ */
+public final class IncrementalCoordinator {
+
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @param key The bucket key
+         * @param values The aligned values, in the order of the series names. Only valid during the call.
+         */
+        void completed(CalendarDate key, Access1D<Double> values);
+
+    }
+
+    private static final class Bucket {
+
+        final long[] keys;
+        final double[] values;
+
+        Bucket(final int size) {
+            super();
+            keys = new long[size];
+            values = new double[size];
+            Arrays.fill(keys, Long.MIN_VALUE);
+            Arrays.fill(values, Double.NaN);
+        }
+
+    }
+
+    private final ColumnarTimeSeries[] myAligned;
+    private final double[] myCurrent;
+    private final Access1D<Double> myCurrentView;
+    private final Map<String, Integer> myIndices;
+    private long myLastCompleted = Long.MIN_VALUE;
+    private long myLatest = Long.MIN_VALUE;
+    private final List<Listener> myListeners = new ArrayList<>();
+    private final String[] myNames;
+    private final TreeMap<Long, Bucket> myPending = new TreeMap<>();
+    private final CalendarDateUnit myResolution;
+    private long myRejected = 0L;
+    private final long myTolerance;
+
+    /**
+     * @param names The series names
+     * @param resolution The resolution of the aligned series
+     * @param tolerance How late (in millis) a tick may be, compared to the latest tick, and still be
+     *        included
+     */
+    public IncrementalCoordinator(final List<String> names, final CalendarDateUnit resolution, final long tolerance) {
+
+        super();
+
+        final int size = names.size();
+
+        myNames = names.toArray(new String[size]);
+        myResolution = resolution;
+        myTolerance = tolerance;
+
+        myIndices = new HashMap<>(size * 2);
+        myAligned = new ColumnarTimeSeries[size];
+        for (int i = 0; i < size; i++) {
+            myIndices.put(myNames[i], i);
+            myAligned[i] = new ColumnarTimeSeries(resolution);
+        }
+
+        myCurrent = new double[size];
+        Arrays.fill(myCurrent, Double.NaN);
+        myCurrentView = Access1D.wrap(myCurrent);
+    }
+
+    /**
+     * The existing data is put in key order (all series merged). After that only the new ticks need to be
+     * put.
+     */
+    <N extends Comparable<N>> IncrementalCoordinator(final CoordinationSet<N> coordinationSet, final CalendarDateUnit resolution, final long tolerance) {
+
+        this(coordinationSet.getAllSeriesNames(), resolution, tolerance);
+
+        final List<Iterator<Map.Entry<CalendarDate, N>>> iterators = new ArrayList<>(myNames.length);
+        final List<Map.Entry<CalendarDate, N>> heads = new ArrayList<>(myNames.length);
+        final PriorityQueue<Integer> queue = new PriorityQueue<>((i, j) -> heads.get(i).getKey().compareTo(heads.get(j).getKey()));
+
+        for (int i = 0; i < myNames.length; i++) {
+            final Iterator<Map.Entry<CalendarDate, N>> iterator = coordinationSet.get(myNames[i]).entrySet().iterator();
+            iterators.add(iterator);
+            heads.add(iterator.hasNext() ? iterator.next() : null);
+            if (heads.get(i) != null) {
+                queue.add(i);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final int i = queue.poll();
+            final Map.Entry<CalendarDate, N> head = heads.get(i);
+            this.put(i, head.getKey().millis, Scalar.doubleValue(head.getValue()));
+            if (iterators.get(i).hasNext()) {
+                heads.set(i, iterators.get(i).next());
+                queue.add(i);
+            }
+        }
+    }
+
+    public void addListener(final Listener listener) {
+        myListeners.add(listener);
+    }
+
+    /**
+     * @return The number of ticks that were dropped because they were too late
+     */
+    public long countRejected() {
+        return myRejected;
+    }
+
+    /**
+     * Complete all pending buckets, regardless of the tolerance.
+     */
+    public void flush() {
+        while (!myPending.isEmpty()) {
+            this.complete(myPending.pollFirstEntry());
+        }
+    }
+
+    /**
+     * The aligned, resampled, series - updated as buckets are completed. All the aligned series have the same
+     * keys.
+     */
+    public ColumnarTimeSeries getAligned(final String name) {
+        return myAligned[myIndices.get(name)];
+    }
+
+    public List<String> getAllSeriesNames() {
+        return Arrays.asList(myNames);
+    }
+
+    public CalendarDateUnit getResolution() {
+        return myResolution;
+    }
+
+    /**
+     * @param index The index of the series (the order of the names)
+     * @return false if the tick was too late, and was dropped
+     */
+    public boolean put(final int index, final long key, final double value) {
+
+        final long bucketKey = ColumnarTimeSeries.filter(key, myResolution);
+
+        if (bucketKey <= myLastCompleted) {
+            myRejected++;
+            return false;
+        }
+
+        Bucket bucket = myPending.get(bucketKey);
+        if (bucket == null) {
+            bucket = new Bucket(myNames.length);
+            myPending.put(bucketKey, bucket);
+        }
+
+        if (key >= bucket.keys[index]) {
+            bucket.keys[index] = key;
+            bucket.values[index] = value;
+        }
+
+        if (key > myLatest) {
+            myLatest = key;
+            final long watermark = ColumnarTimeSeries.filter(myLatest - myTolerance, myResolution);
+            while (!myPending.isEmpty() && (myPending.firstKey() < watermark)) {
+                this.complete(myPending.pollFirstEntry());
+            }
+        }
+
+        return true;
+    }
+
+    public boolean put(final String name, final CalendarDate key, final double value) {
+        return this.put(myIndices.get(name), key.millis, value);
+    }
+
+    public boolean put(final String name, final long key, final double value) {
+        return this.put(myIndices.get(name), key, value);
+    }
+
+    private void complete(final Map.Entry<Long, Bucket> entry) {
+
+        final long key = entry.getKey();
+
+        if (myLastCompleted != Long.MIN_VALUE) {
+            for (long gap = this.step(myLastCompleted); gap < key; gap = this.step(gap)) {
+                this.emit(gap);
+            }
+        }
+
+        final double[] values = entry.getValue().values;
+        for (int i = 0; i < myCurrent.length; i++) {
+            if (!Double.isNaN(values[i])) {
+                myCurrent[i] = values[i];
+            }
+        }
+
+        this.emit(key);
+    }
+
+    private void emit(final long key) {
+
+        for (int i = 0; i < myAligned.length; i++) {
+            myAligned[i].append(key, myCurrent[i]);
+        }
+
+        myLastCompleted = key;
+
+        if (!myListeners.isEmpty()) {
+            final CalendarDate date = new CalendarDate(key);
+            for (final Listener listener : myListeners) {
+                listener.completed(date, myCurrentView);
+            }
+        }
+    }
+
+    private long step(final long key) {
+        if (myResolution.isCalendarUnit()) {
+            return ColumnarTimeSeries.filter(new CalendarDate(key).step(1, myResolution).millis, myResolution);
+        } else {
+            return key + myResolution.toDurationInMillis();
+        }
+    }
+
+}
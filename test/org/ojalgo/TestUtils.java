@@ -476,6 +476,21 @@ public abstract class TestUtils {
         return retVal;
     }
 
+    public static PhysicalStore<Quaternion> makeRandomQuaternionStore(final int numberOfRows, final int numberOfColumns) {
+
+        PhysicalStore<Quaternion> retVal = GenericStore.QUATERNION.makeZero(numberOfRows, numberOfColumns);
+
+        Uniform tmpCompGen = new Uniform(-PrimitiveMath.ONE, PrimitiveMath.TWO);
+
+        for (int j = 0; j < numberOfColumns; j++) {
+            for (int i = 0; i < numberOfRows; i++) {
+                retVal.set(i, j, Quaternion.of(tmpCompGen.doubleValue(), tmpCompGen.doubleValue(), tmpCompGen.doubleValue(), tmpCompGen.doubleValue()));
+            }
+        }
+
+        return retVal;
+    }
+
     public static void minimiseAllBranchLimits() {
         ArrayOperation.setAllOperationThresholds(2);
     }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.ann;
+
+import static org.ojalgo.ann.ArtificialNeuralNetwork.Activator.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class InvokerTest extends ANNTest {
+
+    private static final NumberContext ACCURACY = NumberContext.getGeneral(12);
+
+    public InvokerTest() {
+        super();
+    }
+
+    @Test
+    public void testBatchMatchesSingle() {
+
+        for (ArtificialNeuralNetwork.Activator last : new ArtificialNeuralNetwork.Activator[] { SIGMOID, SOFTMAX, IDENTITY }) {
+
+            ArtificialNeuralNetwork network = ArtificialNeuralNetwork.builder(5, 7, 3).activators(RECTIFIER, last).get();
+
+            Primitive64Store inputs = Primitive64Store.FACTORY.makeFilled(20, 5, new Normal());
+
+            ArtificialNeuralNetwork.Invoker invoker = network.newInvoker();
+
+            MatrixStore<Double> batch = invoker.invokeBatch(inputs);
+
+            TestUtils.assertEquals(20, batch.countRows());
+            TestUtils.assertEquals(3, batch.countColumns());
+
+            for (int i = 0; i < 20; i++) {
+                MatrixStore<Double> expected = network.invoke(inputs.sliceRow(i, 0L));
+                TestUtils.assertEquals(expected, invoker.invoke(inputs.sliceRow(i, 0L)), ACCURACY);
+                TestUtils.assertEquals(expected, batch.logical().offsets(i, 0).limits(1, 3).get(), ACCURACY);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentInvokers() throws Exception {
+
+        ArtificialNeuralNetwork network = ArtificialNeuralNetwork.builder(5, 7, 3).activators(TANH, SOFTMAX).get();
+
+        Primitive64Store inputs = Primitive64Store.FACTORY.makeFilled(100, 5, new Normal());
+        ArtificialNeuralNetwork.Invoker sequential = network.newInvoker();
+        Primitive64Store expected = Primitive64Store.FACTORY.make(100, 3);
+        for (int i = 0; i < 100; i++) {
+            expected.fillRow(i, 0, sequential.invoke(inputs.sliceRow(i, 0L)));
+        }
+
+        ThreadLocal<ArtificialNeuralNetwork.Invoker> invokers = ThreadLocal.withInitial(network::newInvoker);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+
+            @SuppressWarnings("unchecked")
+            Future<Boolean>[] results = new Future[400];
+
+            for (int t = 0; t < results.length; t++) {
+                int row = t % 100;
+                results[t] = executor.submit(() -> {
+                    MatrixStore<Double> actual = invokers.get().invoke(inputs.sliceRow(row, 0L));
+                    for (int j = 0; j < 3; j++) {
+                        if (actual.doubleValue(j) != expected.doubleValue(row, j)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+
+            for (Future<Boolean> result : results) {
+                TestUtils.assertTrue(result.get());
+            }
+
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1L, TimeUnit.MINUTES);
+        }
+    }
+
+}
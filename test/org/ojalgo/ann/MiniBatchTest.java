@@ -0,0 +1,151 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.ann;
+
+import static org.ojalgo.ann.ArtificialNeuralNetwork.Activator.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.random.Normal;
+import org.ojalgo.structure.Structure2D;
+import org.ojalgo.type.context.NumberContext;
+
+public class MiniBatchTest extends ANNTest {
+
+    private static final int SAMPLES = 200;
+
+    private static void copyWeights(final NetworkBuilder from, final NetworkBuilder to) {
+        Structure2D[] structure = from.structure();
+        for (int l = 0; l < structure.length; l++) {
+            for (int o = 0; o < structure[l].countColumns(); o++) {
+                to.bias(l, o, from.getBias(l, o));
+                for (int i = 0; i < structure[l].countRows(); i++) {
+                    to.weight(l, i, o, from.getWeight(l, i, o));
+                }
+            }
+        }
+    }
+
+    private static double error(final NetworkBuilder builder, final Primitive64Store inputs, final Primitive64Store targets) {
+        double retVal = 0.0;
+        for (int i = 0; i < SAMPLES; i++) {
+            retVal += builder.error(targets.sliceRow(i, 0L), builder.get().invoke(inputs.sliceRow(i, 0L)));
+        }
+        return retVal / SAMPLES;
+    }
+
+    private static Primitive64Store makeInputs() {
+        return Primitive64Store.FACTORY.makeFilled(SAMPLES, 4, new Normal());
+    }
+
+    /**
+     * 3 classes, one-hot encoded
+     */
+    private static Primitive64Store makeTargets(final Primitive64Store inputs) {
+        Primitive64Store retVal = Primitive64Store.FACTORY.make(SAMPLES, 3);
+        for (int i = 0; i < SAMPLES; i++) {
+            if ((inputs.doubleValue(i, 0) + inputs.doubleValue(i, 1)) > 0.0) {
+                retVal.set(i, 0, 1.0);
+            } else if (inputs.doubleValue(i, 2) > 0.0) {
+                retVal.set(i, 1, 1.0);
+            } else {
+                retVal.set(i, 2, 1.0);
+            }
+        }
+        return retVal;
+    }
+
+    public MiniBatchTest() {
+        super();
+    }
+
+    /**
+     * With a batch size of 1 and no shuffling the mini-batch path should do exactly what sample-by-sample
+     * training does.
+     */
+    @Test
+    public void testBatchOfOne() {
+
+        Primitive64Store inputs = MiniBatchTest.makeInputs();
+        Primitive64Store targets = MiniBatchTest.makeTargets(inputs);
+
+        NetworkBuilder expected = ArtificialNeuralNetwork.builder(4, 6, 3).activators(TANH, SOFTMAX).error(ArtificialNeuralNetwork.Error.CROSS_ENTROPY)
+                .rate(0.1);
+        NetworkBuilder actual = ArtificialNeuralNetwork.builder(4, 6, 3).activators(TANH, SOFTMAX).error(ArtificialNeuralNetwork.Error.CROSS_ENTROPY)
+                .rate(0.1).batch(1);
+        MiniBatchTest.copyWeights(expected, actual);
+
+        for (int i = 0; i < SAMPLES; i++) {
+            expected.train(inputs.sliceRow(i, 0L), targets.sliceRow(i, 0L));
+        }
+        actual.train(inputs, targets, 1);
+
+        for (int l = 0; l < 2; l++) {
+            MatrixStore<Double> expectedWeights = expected.getWeights().get(l);
+            MatrixStore<Double> actualWeights = actual.getWeights().get(l);
+            TestUtils.assertEquals(expectedWeights, actualWeights, NumberContext.getGeneral(12));
+        }
+    }
+
+    /**
+     * The same seed should shuffle the same way, and give the same weights
+     */
+    @Test
+    public void testSeededShuffle() {
+
+        Primitive64Store inputs = MiniBatchTest.makeInputs();
+        Primitive64Store targets = MiniBatchTest.makeTargets(inputs);
+
+        NetworkBuilder expected = ArtificialNeuralNetwork.builder(4, 6, 3).activators(TANH, SIGMOID).rate(0.5).batch(16).shuffle(new Random(123L));
+        NetworkBuilder actual = ArtificialNeuralNetwork.builder(4, 6, 3).activators(TANH, SIGMOID).rate(0.5).batch(16).shuffle(new Random(123L));
+        MiniBatchTest.copyWeights(expected, actual);
+
+        expected.train(inputs, targets, 3);
+        actual.train(inputs, targets, 3);
+
+        for (int l = 0; l < 2; l++) {
+            TestUtils.assertEquals(expected.getWeights().get(l), actual.getWeights().get(l), NumberContext.getGeneral(12));
+        }
+    }
+
+    @Test
+    public void testTrainingReducesError() {
+
+        Primitive64Store inputs = MiniBatchTest.makeInputs();
+        Primitive64Store targets = MiniBatchTest.makeTargets(inputs);
+
+        NetworkBuilder builder = ArtificialNeuralNetwork.builder(4, 6, 3).activators(TANH, SIGMOID).rate(0.5).batch(16).shuffle(true);
+
+        double initialError = MiniBatchTest.error(builder, inputs, targets);
+
+        builder.train(inputs, targets, 50);
+
+        double trainedError = MiniBatchTest.error(builder, inputs, targets);
+
+        TestUtils.assertTrue(trainedError < initialError / 2.0);
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.constant.PrimitiveMath;
+import org.ojalgo.random.Uniform;
+
+/**
+ * MappedArrayTest
+ *
+ * @author apete
+ */
+public class MappedArrayTest extends ArrayTests {
+
+    private static File newFile() throws IOException {
+        File retVal = File.createTempFile("ojAlgo", ".mapped");
+        retVal.deleteOnExit();
+        return retVal;
+    }
+
+    /**
+     * Small windows so that the ranges span several of them
+     */
+    @Test
+    public void testRangesAcrossWindows() throws IOException {
+
+        int count = 1000;
+
+        MappedArray actual = MappedArray.make(MappedArrayTest.newFile(), count, 4);
+        Primitive64Array expected = Primitive64Array.make(count);
+
+        Primitive64Array random = Primitive64Array.make(count);
+        random.fillAll(new Uniform());
+
+        actual.fillMatching(random);
+        expected.fillMatching(random);
+        TestUtils.assertEquals(expected, actual);
+
+        actual.fillRange(13, 555, 2.5);
+        expected.fillRange(13, 555, 2.5);
+        TestUtils.assertEquals(expected, actual);
+
+        actual.fill(7, 990, 37, 9.0);
+        expected.fill(7, 990, 37, 9.0);
+        TestUtils.assertEquals(expected, actual);
+
+        actual.modify(3, 999, 3, PrimitiveMath.SQRT);
+        expected.modify(3, 999, 3, PrimitiveMath.SQRT);
+        TestUtils.assertEquals(expected, actual);
+
+        actual.modify(0, count, 5, random, PrimitiveMath.ADD);
+        expected.modify(0, count, 5, random, PrimitiveMath.ADD);
+        TestUtils.assertEquals(expected, actual);
+
+        actual.exchange(2, 500, 7, 50);
+        expected.exchange(2, 500, 7, 50);
+        TestUtils.assertEquals(expected, actual);
+
+        TestUtils.assertEquals(expected.wrapInArray1D().aggregateRange(5, 977, Aggregator.SUM),
+                actual.wrapInArray1D().aggregateRange(5, 977, Aggregator.SUM));
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+
+        File file = MappedArrayTest.newFile();
+
+        MappedArray original = MappedArray.make(file, 100, 3);
+        original.fillAll(new Uniform());
+        original.force();
+
+        MappedArray reopened = MappedArray.make(file, 100, 5);
+
+        TestUtils.assertEquals(original, reopened);
+    }
+
+    /**
+     * 2^28 doubles is (just) more than a single mapped buffer can hold
+     */
+    @Test
+    public void testWindowLimit() throws IOException {
+        try {
+            MappedArray.make(MappedArrayTest.newFile(), 100, 28).close();
+            TestUtils.fail();
+        } catch (final IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.operation;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.Stopwatch;
+
+public class GEMMTest {
+
+    /**
+     * Absolute, as relative comparisons fail when an element happens to (almost) cancel out
+     */
+    private static final double DELTA = 1E-12;
+
+    static double[] random(final int count) {
+        final double[] retVal = new double[count];
+        for (int i = 0; i < count; i++) {
+            retVal[i] = Math.random() - 0.5;
+        }
+        return retVal;
+    }
+
+    static void doTest(final int rows, final int complexity, final int columns, final GEMM.BlockSizes sizes) {
+
+        final double[] left = GEMMTest.random(rows * complexity);
+        final double[] right = GEMMTest.random(complexity * columns);
+
+        final double[] expected = new double[rows * columns];
+        MultiplyNeither.invoke(expected, 0, columns, left, complexity, right);
+
+        final double[] actual = new double[rows * columns];
+        GEMM.invoke(actual, 0, columns, left, complexity, right, sizes);
+
+        for (int i = 0; i < expected.length; i++) {
+            TestUtils.assertEquals(expected[i], actual[i], DELTA);
+        }
+    }
+
+    @Test
+    public void testBlockSizes() {
+
+        final GEMM.BlockSizes sizes = new GEMM.BlockSizes(32L * 1024L, 256L * 1024L, 8L * 1024L * 1024L);
+
+        TestUtils.assertEquals(256, sizes.kc);
+        TestUtils.assertEquals(64, sizes.mc);
+        TestUtils.assertEquals(2048, sizes.nc);
+
+        TestUtils.assertTrue(GEMM.sizes().kc > 0);
+    }
+
+    @Test
+    public void testTransposedLeft() {
+
+        final int rows = 37;
+        final int complexity = 53;
+        final int columns = 41;
+
+        final double[] transposed = GEMMTest.random(complexity * rows);
+        final double[] right = GEMMTest.random(complexity * columns);
+
+        final double[] left = new double[rows * complexity];
+        for (int i = 0; i < rows; i++) {
+            for (int p = 0; p < complexity; p++) {
+                left[i + (p * rows)] = transposed[p + (i * complexity)];
+            }
+        }
+
+        final double[] expected = new double[rows * columns];
+        MultiplyNeither.invoke(expected, 0, columns, left, complexity, right);
+
+        final double[] actual = new double[rows * columns];
+        GEMM.invoke(actual, 0, rows, 1.0, transposed, 0, complexity, true, right, 0, complexity, rows, columns, complexity,
+                new GEMM.BlockSizes(512L, 2048L, 4096L));
+
+        for (int i = 0; i < expected.length; i++) {
+            TestUtils.assertEquals(expected[i], actual[i], DELTA);
+        }
+    }
+
+    @Test
+    public void testStridedSubMatrices() {
+
+        // All 3 operands are sub-matrices of the same 50 x 40 array
+        final int structure = 50;
+        final double[] data = GEMMTest.random(structure * 40);
+        final double[] original = data.clone();
+
+        final int rows = 23;
+        final int columns = 11;
+        final int complexity = 17;
+
+        // C at (25,20), A at (2,1) and B at (1,20)
+        GEMM.invoke(data, 25 + (20 * structure), structure, -1.0, data, 2 + structure, structure, false, data, 1 + (20 * structure), structure, rows,
+                columns, complexity, new GEMM.BlockSizes(512L, 2048L, 4096L));
+
+        for (int j = 0; j < 40; j++) {
+            for (int i = 0; i < structure; i++) {
+                double expected = original[i + (j * structure)];
+                if ((i >= 25) && (i < 25 + rows) && (j >= 20) && (j < 20 + columns)) {
+                    for (int p = 0; p < complexity; p++) {
+                        expected -= original[(i - 23) + ((1 + p) * structure)] * original[(1 + p) + (j * structure)];
+                    }
+                }
+                TestUtils.assertEquals(expected, data[i + (j * structure)], DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleBlocksWithEdges() {
+
+        // Tiny caches to force many blocks in every dimension
+        final GEMM.BlockSizes sizes = new GEMM.BlockSizes(512L, 2048L, 4096L);
+
+        GEMMTest.doTest(1, 1, 1, sizes);
+        GEMMTest.doTest(3, 5, 7, sizes);
+        GEMMTest.doTest(37, 53, 41, sizes);
+        GEMMTest.doTest(64, 64, 64, sizes);
+        GEMMTest.doTest(101, 97, 13, sizes);
+    }
+
+    @Test
+    public void testNeitherAboveThreshold() {
+
+        final int dim = GEMM.THRESHOLD + 35;
+
+        final double[] left = GEMMTest.random(dim * dim);
+        final double[] right = GEMMTest.random(dim * dim);
+
+        final double[] expected = new double[dim * dim];
+        MultiplyNeither.invoke(expected, 0, dim, left, dim, right);
+
+        final double[] actual = new double[dim * dim];
+        MultiplyNeither.newPrimitive64(dim, dim).invoke(actual, left, dim, right);
+
+        for (int i = 0; i < expected.length; i++) {
+            TestUtils.assertEquals(expected[i], actual[i], DELTA);
+        }
+    }
+
+    /**
+     * Compares the blocked kernel with the plain AXPY based one - reports GFLOP/s.
+     */
+    @Test
+    @Tag("slow")
+    public void testPerformance() {
+
+        for (final int dim : new int[] { 250, 500, 1000, 2000 }) {
+
+            final double[] left = GEMMTest.random(dim * dim);
+            final double[] right = GEMMTest.random(dim * dim);
+            final double[] product = new double[dim * dim];
+
+            final double flop = 2.0 * dim * dim * dim;
+
+            double axpy = Double.MAX_VALUE;
+            double blocked = Double.MAX_VALUE;
+
+            for (int r = 0; r < 5; r++) {
+
+                Stopwatch clock = new Stopwatch();
+                MultiplyNeither.invoke(product, 0, dim, left, dim, right);
+                axpy = Math.min(axpy, clock.stop(CalendarDateUnit.SECOND).doubleValue());
+
+                clock = new Stopwatch();
+                GEMM.invoke(product, 0, dim, left, dim, right);
+                blocked = Math.min(blocked, clock.stop(CalendarDateUnit.SECOND).doubleValue());
+            }
+
+            BasicLogger.debug("{}x{} AXPY: {} GFLOP/s, GEMM: {} GFLOP/s", dim, dim, (flop / axpy) / 1E9, (flop / blocked) / 1E9);
+        }
+    }
+
+}
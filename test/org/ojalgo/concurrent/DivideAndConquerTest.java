@@ -0,0 +1,120 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.concurrent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+
+public class DivideAndConquerTest {
+
+    static final class Counter extends DivideAndConquer {
+
+        final AtomicIntegerArray visits;
+
+        Counter(final int size) {
+            super();
+            visits = new AtomicIntegerArray(size);
+        }
+
+        @Override
+        protected void conquer(final int first, final int limit) {
+            for (int i = first; i < limit; i++) {
+                visits.incrementAndGet(i);
+            }
+        }
+
+        void assertEachVisitedOnce() {
+            for (int i = 0; i < visits.length(); i++) {
+                TestUtils.assertEquals(1, visits.get(i));
+            }
+        }
+
+    }
+
+    @Test
+    public void testEachIndexVisitedOnce() {
+
+        final Counter counter = new Counter(10_000);
+
+        counter.invoke(0, 10_000, 7);
+
+        counter.assertEachVisitedOnce();
+    }
+
+    @Test
+    public void testNestedInvocations() {
+
+        final int outer = 64;
+        final int inner = 1_000;
+
+        final Counter[] counters = new Counter[outer];
+        for (int i = 0; i < outer; i++) {
+            counters[i] = new Counter(inner);
+        }
+
+        new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int i = first; i < limit; i++) {
+                    counters[i].invoke(0, inner, 10);
+                }
+            }
+
+        }.invoke(0, outer, 1);
+
+        for (int i = 0; i < outer; i++) {
+            counters[i].assertEachVisitedOnce();
+        }
+    }
+
+    @Test
+    public void testSpecifiedExecutor() {
+
+        final ForkJoinPool executor = new ForkJoinPool(3);
+
+        try {
+
+            final Counter perCall = new Counter(1_000);
+            perCall.invoke(0, 1_000, 10, executor);
+            perCall.assertEachVisitedOnce();
+
+            DivideAndConquer.setExecutor(executor);
+            TestUtils.assertTrue(executor == DivideAndConquer.getExecutor());
+
+            final Counter perThread = new Counter(1_000);
+            perThread.invoke(0, 1_000, 10);
+            perThread.assertEachVisitedOnce();
+
+        } finally {
+
+            DivideAndConquer.setExecutor(null);
+            executor.shutdown();
+        }
+
+        TestUtils.assertFalse(executor == DivideAndConquer.getExecutor());
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.data;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.SampleSet;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * CovarianceAccumulatorTest
+ *
+ * @author apete
+ */
+public class CovarianceAccumulatorTest {
+
+    private static final NumberContext ACCURACY = new NumberContext(12, 12);
+
+    private static Primitive64Store newData(final int numberOfSamples, final int numberOfVariables) {
+        Primitive64Store retVal = Primitive64Store.FACTORY.makeFilled(numberOfSamples, numberOfVariables, new Normal(10.0, 2.0));
+        // Make some of the variables correlated
+        for (int i = 0; i < numberOfSamples; i++) {
+            retVal.add(i, 1, retVal.doubleValue(i, 0));
+            retVal.add(i, 2, -retVal.doubleValue(i, 0));
+        }
+        return retVal;
+    }
+
+    /**
+     * The blocked implementation should produce the same result as the pairwise (per column) calculation
+     */
+    @Test
+    public void testBlockedMatchesPairwise() {
+
+        // More than one SYRK tile
+        int numberOfVariables = 150;
+        Primitive64Store data = CovarianceAccumulatorTest.newData(100, numberOfVariables);
+
+        Primitive64Store expected = Primitive64Store.FACTORY.make(numberOfVariables, numberOfVariables);
+        SampleSet rowSet = SampleSet.make();
+        SampleSet colSet = SampleSet.make();
+        for (int j = 0; j < numberOfVariables; j++) {
+            colSet.swap(data.sliceColumn(j));
+            for (int i = 0; i < numberOfVariables; i++) {
+                rowSet.swap(data.sliceColumn(i));
+                expected.set(i, j, rowSet.getCovariance(colSet));
+            }
+        }
+
+        Primitive64Store actual = DataProcessors.covariances(Primitive64Store.FACTORY, data);
+
+        TestUtils.assertEquals(expected, actual, ACCURACY);
+    }
+
+    /**
+     * With less than 2 observations there is no (sample) covariance - should be 0.0 rather than NaN or
+     * Infinity.
+     */
+    @Test
+    public void testFewObservations() {
+
+        int numberOfVariables = 3;
+        Primitive64Store expected = Primitive64Store.FACTORY.make(numberOfVariables, numberOfVariables);
+
+        CovarianceAccumulator accumulator = CovarianceAccumulator.make(numberOfVariables);
+        TestUtils.assertEquals(expected, accumulator.getCovariances(Primitive64Store.FACTORY));
+        TestUtils.assertEquals(0.0, accumulator.getCovariance(0, 0));
+
+        accumulator.accept(1.0, 2.0, 3.0);
+        TestUtils.assertEquals(expected, accumulator.getCovariances(Primitive64Store.FACTORY));
+        TestUtils.assertEquals(0.0, accumulator.getCovariance(1, 2));
+
+        Primitive64Store data = CovarianceAccumulatorTest.newData(1, numberOfVariables);
+        TestUtils.assertEquals(expected, DataProcessors.covariances(Primitive64Store.FACTORY, data));
+    }
+
+    /**
+     * Accumulating blocks of different sizes, single observations, and merging accumulators should all give
+     * the same result as calculating everything at once.
+     */
+    @Test
+    public void testStreamingMatchesBatch() {
+
+        int numberOfVariables = 7;
+        Primitive64Store data = CovarianceAccumulatorTest.newData(300, numberOfVariables);
+
+        Primitive64Store expected = DataProcessors.covariances(Primitive64Store.FACTORY, data);
+
+        CovarianceAccumulator first = CovarianceAccumulator.make(numberOfVariables);
+        first.accept(data.logical().offsets(0, 0).limits(1, numberOfVariables).get());
+        first.accept(data.logical().offsets(1, 0).limits(99, numberOfVariables).get());
+        for (int i = 100; i < 150; i++) {
+            first.accept(data.sliceRow(i).toRawCopy1D());
+        }
+
+        CovarianceAccumulator second = CovarianceAccumulator.make(numberOfVariables);
+        second.accept(data.logical().offsets(150, 0).limits(37, numberOfVariables).get());
+        second.accept(data.logical().offsets(187, 0).limits(113, numberOfVariables).get());
+
+        first.merge(second);
+
+        TestUtils.assertEquals(300L, first.count());
+        for (int j = 0; j < numberOfVariables; j++) {
+            TestUtils.assertEquals(SampleSet.wrap(data.sliceColumn(j)).getMean(), first.getMean(j), ACCURACY);
+        }
+
+        MatrixStore<Double> actual = first.getCovariances(Primitive64Store.FACTORY);
+
+        TestUtils.assertEquals(expected, actual, ACCURACY);
+    }
+
+}
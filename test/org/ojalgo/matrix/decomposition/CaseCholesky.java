@@ -0,0 +1,245 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.operation.ArrayOperation;
+import org.ojalgo.array.operation.POTRF;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.Stopwatch;
+import org.ojalgo.type.context.NumberContext;
+
+public class CaseCholesky extends MatrixDecompositionTests {
+
+    private static final NumberContext ACCURACY = NumberContext.getGeneral(8, 10);
+
+    /**
+     * [A] = [R][R]<sup>H</sup> + dim * [I] is Hermitian positive definite.
+     */
+    static <N extends Scalar<N>> PhysicalStore<N> makeHermitian(final PhysicalStore<N> mtrxR) {
+
+        PhysicalStore<N> retVal = mtrxR.multiply(mtrxR.conjugate()).copy();
+
+        for (int ij = 0; ij < retVal.countRows(); ij++) {
+            retVal.add(ij, ij, retVal.countRows());
+        }
+
+        return retVal;
+    }
+
+    private static <N extends Scalar<N>> void doTestHermitian(final Cholesky<N> decomp, final PhysicalStore<N> mtrxR, final PhysicalStore<N> vectX) {
+
+        PhysicalStore<N> mtrxA = CaseCholesky.makeHermitian(mtrxR);
+        MatrixStore<N> mtrxB = mtrxA.add(vectX.multiply(vectX.conjugate()));
+
+        decomp.decompose(mtrxA);
+
+        TestUtils.assertTrue(decomp.update(vectX));
+        TestUtils.assertTrue(decomp.isSolvable());
+        TestUtils.assertEquals(mtrxB, decomp.reconstruct(), ACCURACY);
+
+        TestUtils.assertTrue(decomp.downdate(vectX));
+        TestUtils.assertTrue(decomp.isSolvable());
+        TestUtils.assertEquals(mtrxA, decomp.reconstruct(), ACCURACY);
+
+        // [A] - [x][x]H, with [x] much larger than [A], is not positive definite
+        TestUtils.assertFalse(decomp.downdate(vectX.multiply(mtrxR.countRows())));
+        TestUtils.assertEquals(mtrxA, decomp.reconstruct(), ACCURACY);
+    }
+
+    @Test
+    public void testBlocked() {
+
+        int dim = POTRF.THRESHOLD + 37;
+
+        Primitive64Store mtrxA = Primitive64Store.FACTORY.makeSPD(dim);
+
+        Cholesky<Double> blocked = new CholeskyDecomposition.Primitive();
+        Cholesky<Double> reference = new RawCholesky();
+
+        TestUtils.assertTrue(blocked.decompose(mtrxA));
+        TestUtils.assertTrue(reference.decompose(mtrxA));
+
+        TestUtils.assertTrue(blocked.isSolvable());
+        TestUtils.assertEquals(reference.getL(), blocked.getL());
+        TestUtils.assertEquals(reference.getRankThreshold(), blocked.getRankThreshold());
+        TestUtils.assertEquals(mtrxA, blocked.reconstruct());
+
+        // Not positive definite, in the last panel
+        mtrxA.set(dim - 3, dim - 3, -1.0);
+
+        TestUtils.assertFalse(blocked.decompose(mtrxA));
+        TestUtils.assertFalse(blocked.isSPD());
+        TestUtils.assertFalse(blocked.isSolvable());
+    }
+
+    /**
+     * Compares the blocked (multi-threaded) algorithm with the column by column one.
+     */
+    @Test
+    @Tag("slow")
+    public void testBlockedPerformance() {
+
+        ArrayOperation.setThresholdsMinValue(64);
+
+        int threshold = POTRF.THRESHOLD;
+
+        try {
+
+            for (int dim : new int[] { 500, 1000, 2000 }) {
+
+                Primitive64Store mtrxA = Primitive64Store.FACTORY.makeSPD(dim);
+
+                Cholesky<Double> decomp = new CholeskyDecomposition.Primitive();
+
+                double blocked = Double.MAX_VALUE;
+                double unblocked = Double.MAX_VALUE;
+
+                for (int r = 0; r < 3; r++) {
+
+                    POTRF.THRESHOLD = Integer.MAX_VALUE;
+                    Stopwatch clock = new Stopwatch();
+                    decomp.decompose(mtrxA);
+                    unblocked = Math.min(unblocked, clock.stop(CalendarDateUnit.MILLIS).doubleValue());
+
+                    POTRF.THRESHOLD = threshold;
+                    clock = new Stopwatch();
+                    decomp.decompose(mtrxA);
+                    blocked = Math.min(blocked, clock.stop(CalendarDateUnit.MILLIS).doubleValue());
+                }
+
+                BasicLogger.debug("Cholesky {}x{} column by column: {}ms, blocked: {}ms", dim, dim, unblocked, blocked);
+            }
+
+        } finally {
+            POTRF.THRESHOLD = threshold;
+        }
+    }
+
+    /**
+     * Compares a rank-one update/downdate with a full (re)decomposition - a rolling window covariance
+     * matrix is the typical use case.
+     */
+    @Test
+    public void testHermitianUpdateAndDowndate() {
+
+        int dim = 9;
+
+        CaseCholesky.doTestHermitian(Cholesky.COMPLEX.make(), TestUtils.makeRandomComplexStore(dim, dim), TestUtils.makeRandomComplexStore(dim, 1));
+        CaseCholesky.doTestHermitian(Cholesky.QUATERNION.make(), TestUtils.makeRandomQuaternionStore(dim, dim), TestUtils.makeRandomQuaternionStore(dim, 1));
+    }
+
+    @Test
+    @Tag("slow")
+    public void testPerformance() {
+
+        for (int dim : new int[] { 50, 100, 200, 400, 800 }) {
+
+            Primitive64Store mtrxA = Primitive64Store.FACTORY.makeSPD(dim);
+            Primitive64Store vectX = Primitive64Store.FACTORY.makeFilled(dim, 1, new Normal());
+
+            for (Cholesky<Double> decomp : MatrixDecompositionTests.getPrimitiveCholesky()) {
+
+                double full = Double.MAX_VALUE;
+                double modified = Double.MAX_VALUE;
+
+                for (int r = 0; r < 5; r++) {
+
+                    Stopwatch clock = new Stopwatch();
+                    decomp.decompose(mtrxA);
+                    full = Math.min(full, clock.stop(CalendarDateUnit.MILLIS).doubleValue());
+
+                    clock = new Stopwatch();
+                    decomp.update(vectX);
+                    decomp.downdate(vectX);
+                    modified = Math.min(modified, clock.stop(CalendarDateUnit.MILLIS).doubleValue() / 2.0);
+                }
+
+                BasicLogger.debug("{} {}x{} decompose: {}ms, update/downdate: {}ms", decomp.getClass().getSimpleName(), dim, dim, full, modified);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectedDowndate() {
+
+        int dim = 9;
+
+        MatrixStore<Double> mtrxIdentity = MatrixStore.PRIMITIVE64.makeIdentity(dim).get();
+
+        Primitive64Store vectX = Primitive64Store.FACTORY.make(dim, 1);
+        vectX.set(dim / 2, 1.0);
+
+        for (Cholesky<Double> decomp : MatrixDecompositionTests.getPrimitiveCholesky()) {
+
+            // Not computed
+            TestUtils.assertFalse(decomp.update(vectX));
+
+            decomp.decompose(mtrxIdentity);
+
+            // [I] - [e][e]T is singular
+            TestUtils.assertFalse(decomp.downdate(vectX));
+            TestUtils.assertTrue(decomp.isSolvable());
+            TestUtils.assertEquals(mtrxIdentity, decomp.getL());
+        }
+    }
+
+    @Test
+    public void testUpdateAndDowndate() {
+
+        int dim = 50;
+
+        Primitive64Store mtrxA = Primitive64Store.FACTORY.makeSPD(dim);
+        Primitive64Store vectX = Primitive64Store.FACTORY.makeFilled(dim, 1, new Normal());
+
+        MatrixStore<Double> mtrxB = mtrxA.add(vectX.multiply(vectX.transpose()));
+
+        for (Cholesky<Double> decomp : MatrixDecompositionTests.getPrimitiveCholesky()) {
+
+            Cholesky<Double> expected = Cholesky.PRIMITIVE.make(mtrxB);
+            expected.decompose(mtrxB);
+
+            decomp.decompose(mtrxA);
+
+            TestUtils.assertTrue(decomp.update(vectX));
+            TestUtils.assertTrue(decomp.isSolvable());
+            TestUtils.assertEquals(expected.getL(), decomp.getL());
+            TestUtils.assertEquals(mtrxB, decomp.reconstruct());
+
+            expected.decompose(mtrxA);
+
+            TestUtils.assertTrue(decomp.downdate(vectX));
+            TestUtils.assertTrue(decomp.isSolvable());
+            TestUtils.assertEquals(expected.getL(), decomp.getL());
+            TestUtils.assertEquals(mtrxA, decomp.reconstruct());
+        }
+    }
+
+}
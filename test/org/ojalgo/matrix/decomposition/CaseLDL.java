@@ -28,8 +28,13 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
 import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.matrix.store.RawStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.type.context.NumberContext;
 
 /**
  * @author apete
@@ -86,6 +91,45 @@ public class CaseLDL extends MatrixDecompositionTests {
         this.doTest(mtrxA, mtrxL, mtrxD);
     }
 
+    @Test
+    public void testHermitianUpdateAndDowndate() {
+
+        int dim = 9;
+
+        this.doTestHermitian(LDL.COMPLEX.make(), TestUtils.makeRandomComplexStore(dim, dim), TestUtils.makeRandomComplexStore(dim, 1));
+        this.doTestHermitian(LDL.QUATERNION.make(), TestUtils.makeRandomQuaternionStore(dim, dim), TestUtils.makeRandomQuaternionStore(dim, 1));
+    }
+
+    @Test
+    public void testUpdateAndDowndate() {
+
+        int dim = 9;
+
+        Primitive64Store mtrxA = Primitive64Store.FACTORY.makeSPD(dim);
+        Primitive64Store vectX = Primitive64Store.FACTORY.makeFilled(dim, 1, new Normal());
+
+        MatrixStore<Double> mtrxB = mtrxA.add(vectX.multiply(vectX.transpose()));
+        MatrixStore<Double> mtrxIdentity = MatrixStore.PRIMITIVE64.makeIdentity(dim).get();
+
+        LDL<Double> decomp = new LDLDecomposition.Primitive();
+
+        decomp.decompose(mtrxA);
+        TestUtils.assertTrue(decomp.update(vectX));
+        TestUtils.assertTrue(decomp.isSolvable());
+        TestUtils.assertEquals(mtrxIdentity, decomp.getSolution(mtrxB));
+
+        TestUtils.assertTrue(decomp.downdate(vectX));
+        TestUtils.assertTrue(decomp.isSolvable());
+        TestUtils.assertEquals(mtrxIdentity, decomp.getSolution(mtrxA));
+
+        // [I] - [e][e]T is singular - the downdate should be rejected, and the decomposition left unchanged
+        Primitive64Store vectE = Primitive64Store.FACTORY.make(dim, 1);
+        vectE.set(dim / 2, 1.0);
+        decomp.decompose(mtrxIdentity);
+        TestUtils.assertFalse(decomp.downdate(vectE));
+        TestUtils.assertEquals(mtrxIdentity, decomp.reconstruct());
+    }
+
     private void doTest(final MatrixStore<Double> mtrxA, final RawStore mtrxL, final RawStore mtrxD) {
 
         MatrixStore<Double> mtrxIdentity = MatrixStore.PRIMITIVE64.makeIdentity((int) mtrxA.countRows()).get();
@@ -141,4 +185,22 @@ public class CaseLDL extends MatrixDecompositionTests {
         TestUtils.assertEquals(mtrxIdentity, primSol.multiply(mtrxA));
         TestUtils.assertEquals(mtrxIdentity, rawSol.multiply(mtrxA));
     }
+    private <N extends Scalar<N>> void doTestHermitian(final LDL<N> decomp, final PhysicalStore<N> mtrxR, final PhysicalStore<N> vectX) {
+
+        NumberContext accuracy = NumberContext.getGeneral(8, 10);
+
+        PhysicalStore<N> mtrxA = CaseCholesky.makeHermitian(mtrxR);
+        MatrixStore<N> mtrxB = mtrxA.add(vectX.multiply(vectX.conjugate()));
+
+        decomp.decompose(mtrxA);
+
+        TestUtils.assertTrue(decomp.update(vectX));
+        TestUtils.assertTrue(decomp.isSolvable());
+        TestUtils.assertEquals(mtrxB, decomp.reconstruct(), accuracy);
+
+        TestUtils.assertTrue(decomp.downdate(vectX));
+        TestUtils.assertTrue(decomp.isSolvable());
+        TestUtils.assertEquals(mtrxA, decomp.reconstruct(), accuracy);
+    }
+
 }
@@ -22,15 +22,21 @@
 package org.ojalgo.matrix.decomposition;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
+import org.ojalgo.array.operation.ArrayOperation;
+import org.ojalgo.array.operation.GETRF;
 import org.ojalgo.matrix.P20061119Case;
 import org.ojalgo.matrix.RationalMatrix;
 import org.ojalgo.matrix.store.GenericStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.Stopwatch;
 import org.ojalgo.type.context.NumberContext;
 
 /**
@@ -44,6 +50,80 @@ public class CaseLU extends MatrixDecompositionTests {
         TestUtils.minimiseAllBranchLimits();
     }
 
+    @Test
+    public void testBlocked() {
+
+        int dim = GETRF.THRESHOLD + 37;
+
+        for (int[] shape : new int[][] { { dim, dim }, { dim + 50, dim } }) {
+
+            Primitive64Store mtrxA = Primitive64Store.FACTORY.makeFilled(shape[0], shape[1], new Normal());
+
+            LU<Double> blocked = new LUDecomposition.Primitive();
+            LU<Double> reference = new RawLU();
+
+            blocked.decompose(mtrxA);
+            reference.decompose(mtrxA);
+
+            TestUtils.assertEquals(reference.getPivotOrder(), blocked.getPivotOrder());
+            TestUtils.assertEquals(reference.getL(), blocked.getL());
+            TestUtils.assertEquals(reference.getU(), blocked.getU());
+        }
+
+        // Singular - 2 identical columns
+        Primitive64Store mtrxA = Primitive64Store.FACTORY.makeFilled(dim, dim, new Normal());
+        mtrxA.fillColumn(dim - 1, mtrxA.sliceColumn(0));
+
+        LU<Double> blocked = new LUDecomposition.Primitive();
+        blocked.decompose(mtrxA);
+
+        TestUtils.assertEquals(dim - 1, blocked.getRank());
+        TestUtils.assertFalse(blocked.isSolvable());
+    }
+
+    /**
+     * Compares the blocked (multi-threaded) algorithm with the column by column one.
+     */
+    @Test
+    @Tag("slow")
+    public void testBlockedPerformance() {
+
+        ArrayOperation.setThresholdsMinValue(64);
+
+        int threshold = GETRF.THRESHOLD;
+
+        try {
+
+            for (int dim : new int[] { 500, 1000, 2000 }) {
+
+                Primitive64Store mtrxA = Primitive64Store.FACTORY.makeFilled(dim, dim, new Normal());
+
+                LU<Double> decomp = new LUDecomposition.Primitive();
+
+                double blocked = Double.MAX_VALUE;
+                double unblocked = Double.MAX_VALUE;
+
+                for (int r = 0; r < 3; r++) {
+
+                    GETRF.THRESHOLD = Integer.MAX_VALUE;
+                    Stopwatch clock = new Stopwatch();
+                    decomp.decompose(mtrxA);
+                    unblocked = Math.min(unblocked, clock.stop(CalendarDateUnit.MILLIS).doubleValue());
+
+                    GETRF.THRESHOLD = threshold;
+                    clock = new Stopwatch();
+                    decomp.decompose(mtrxA);
+                    blocked = Math.min(blocked, clock.stop(CalendarDateUnit.MILLIS).doubleValue());
+                }
+
+                BasicLogger.debug("LU {}x{} column by column: {}ms, blocked: {}ms", dim, dim, unblocked, blocked);
+            }
+
+        } finally {
+            GETRF.THRESHOLD = threshold;
+        }
+    }
+
     @Test
     public void testP20061119Case() {
 
@@ -22,10 +22,12 @@
 package org.ojalgo.matrix.decomposition;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.RecoverableCondition;
 import org.ojalgo.TestUtils;
 import org.ojalgo.array.operation.ArrayOperation;
+import org.ojalgo.array.operation.GEQRF;
 import org.ojalgo.matrix.MatrixUtils;
 import org.ojalgo.matrix.P20030422Case;
 import org.ojalgo.matrix.RationalMatrix;
@@ -36,7 +38,10 @@ import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.matrix.transformation.Householder;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.random.Normal;
 import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.Stopwatch;
 import org.ojalgo.type.context.NumberContext;
 
 /**
@@ -61,6 +66,94 @@ public class CaseQR extends MatrixDecompositionTests {
         TestUtils.minimiseAllBranchLimits();
     }
 
+    /**
+     * Compares the blocked (compact WY) algorithm with the reflector by reflector one - square, tall, fat and
+     * tall-skinny matrices.
+     */
+    @Test
+    public void testBlocked() {
+
+        int threshold = GEQRF.THRESHOLD;
+        int size = (3 * GEQRF.BLOCK) + 5;
+
+        NumberContext accuracy = new NumberContext(11, 9);
+
+        for (int[] shape : new int[][] { { size, size }, { 2 * size, size }, { size, 2 * size }, { 20 * size, 7 } }) {
+
+            Primitive64Store mtrxA = Primitive64Store.FACTORY.makeFilled(shape[0], shape[1], new Normal());
+            Primitive64Store mtrxB = Primitive64Store.FACTORY.makeFilled(shape[0], 5, new Normal());
+
+            for (boolean fullSize : new boolean[] { false, true }) {
+
+                QR<Double> blocked = new QRDecomposition.Primitive(fullSize);
+                QR<Double> reference = new QRDecomposition.Primitive(fullSize);
+
+                try {
+                    GEQRF.THRESHOLD = 0;
+                    TestUtils.assertTrue(blocked.decompose(mtrxA));
+                    GEQRF.THRESHOLD = Integer.MAX_VALUE;
+                    TestUtils.assertTrue(reference.decompose(mtrxA));
+                } finally {
+                    GEQRF.THRESHOLD = threshold;
+                }
+
+                TestUtils.assertEquals(reference.getR(), blocked.getR(), accuracy);
+                TestUtils.assertEquals(reference.getQ(), blocked.getQ(), accuracy);
+                TestUtils.assertEquals(reference.getDeterminant(), blocked.getDeterminant(), accuracy);
+                TestUtils.assertEquals(mtrxA, blocked.reconstruct(), accuracy);
+
+                if (shape[0] >= shape[1]) {
+                    TestUtils.assertEquals(reference.getSolution(mtrxB), blocked.getSolution(mtrxB), accuracy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the blocked (compact WY) algorithm with the reflector by reflector one - decomposition
+     * followed by extracting [Q].
+     */
+    @Test
+    @Tag("slow")
+    public void testBlockedPerformance() {
+
+        ArrayOperation.setThresholdsMinValue(64);
+
+        int threshold = GEQRF.THRESHOLD;
+
+        try {
+
+            for (int[] shape : new int[][] { { 500, 500 }, { 1000, 1000 }, { 2000, 2000 }, { 1_000_000, 20 } }) {
+
+                Primitive64Store mtrxA = Primitive64Store.FACTORY.makeFilled(shape[0], shape[1], new Normal());
+                QR<Double> decomp = new QRDecomposition.Primitive();
+
+                double blocked = Double.MAX_VALUE;
+                double unblocked = Double.MAX_VALUE;
+
+                for (int r = 0; r < 3; r++) {
+
+                    GEQRF.THRESHOLD = Integer.MAX_VALUE;
+                    Stopwatch clock = new Stopwatch();
+                    decomp.decompose(mtrxA);
+                    decomp.getQ();
+                    unblocked = Math.min(unblocked, clock.stop(CalendarDateUnit.MILLIS).doubleValue());
+
+                    GEQRF.THRESHOLD = 0;
+                    clock = new Stopwatch();
+                    decomp.decompose(mtrxA);
+                    decomp.getQ();
+                    blocked = Math.min(blocked, clock.stop(CalendarDateUnit.MILLIS).doubleValue());
+                }
+
+                BasicLogger.debug("QR {}x{} reflector by reflector: {}ms, blocked: {}ms", shape[0], shape[1], unblocked, blocked);
+            }
+
+        } finally {
+            GEQRF.THRESHOLD = threshold;
+        }
+    }
+
     @Test
     public void testDiagonalCase() {
 
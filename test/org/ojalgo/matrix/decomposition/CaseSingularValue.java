@@ -25,6 +25,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
 import org.ojalgo.array.Array1D;
+import org.ojalgo.data.DataProcessors;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.constant.ComplexMath;
@@ -197,6 +198,47 @@ public class CaseSingularValue extends MatrixDecompositionTests {
 
     }
 
+    /**
+     * The randomized (truncated) decomposition should reproduce the leading singular values, and the matrix
+     * itself, when the rank is low.
+     */
+    @Test
+    public void testRandomized() {
+
+        int rank = 5;
+
+        for (int[] shape : new int[][] { { 300, 80 }, { 80, 300 } }) {
+
+            Primitive64Store left = Primitive64Store.FACTORY.makeFilled(shape[0], rank, new Normal());
+            Primitive64Store right = Primitive64Store.FACTORY.makeFilled(rank, shape[1], new Normal());
+            MatrixStore<Double> original = left.multiply(right);
+
+            SingularValue<Double> randomized = SingularValue.randomized(rank).make(original);
+            SingularValue<Double> full = new RawSingularValue();
+
+            TestUtils.assertTrue(randomized.decompose(original));
+            TestUtils.assertTrue(full.decompose(original));
+
+            TestUtils.assertEquals(rank, randomized.getSingularValues().size());
+            TestUtils.assertEquals(shape[0], randomized.getU().countRows());
+            TestUtils.assertEquals(rank, randomized.getU().countColumns());
+            TestUtils.assertEquals(shape[1], randomized.getV().countRows());
+            TestUtils.assertEquals(rank, randomized.getV().countColumns());
+
+            TestUtils.assertEquals(full.getSingularValues().sliceRange(0L, rank), randomized.getSingularValues(), CNTXT_REAL_VALUES);
+            TestUtils.assertEquals(original, randomized.reconstruct(), CNTXT_REAL_VALUES);
+            TestUtils.assertEquals(rank, randomized.getRank());
+
+            MatrixStore<Double> solution = Primitive64Store.FACTORY.makeFilled(shape[1], 2, new Normal());
+            MatrixStore<Double> rhs = original.multiply(solution);
+            TestUtils.assertEquals(rhs, original.multiply(randomized.getSolution(rhs)), CNTXT_REAL_VALUES);
+            TestUtils.assertEquals(randomized.getSolution(rhs), randomized.getInverse().multiply(rhs), CNTXT_REAL_VALUES);
+
+            Primitive64Store covariances = DataProcessors.covariances(Primitive64Store.FACTORY, randomized, rank);
+            TestUtils.assertEquals(DataProcessors.covariances(Primitive64Store.FACTORY, full, rank), covariances, CNTXT_REAL_VALUES);
+        }
+    }
+
     /**
      * https://stackoverflow.com/questions/56752647/huge-difference-between-svd-solution-output-of-commons-math3-and-ojalgo-librarie
      */
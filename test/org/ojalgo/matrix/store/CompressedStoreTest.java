@@ -0,0 +1,188 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+public class CompressedStoreTest extends MatrixStoreTests {
+
+    private static final NumberContext ACCURACY = new NumberContext(12, 12);
+
+    private static SparseStore<Double> makeRandom(final int rows, final int columns) {
+        SparseStore<Double> retVal = SparseStore.PRIMITIVE64.make(rows, columns);
+        SparsePerformance.fill(retVal);
+        retVal.set(rows - 1, columns - 1, Math.random());
+        return retVal;
+    }
+
+    @Test
+    public void testBuilderSumsDuplicates() {
+
+        CompressedStore.Builder builder = CompressedStore.builder(3, 4, 2);
+
+        builder.add(2, 3, 1.0);
+        builder.add(0, 1, 2.0);
+        builder.add(2, 0, 3.0);
+        builder.add(0, 1, 4.0);
+        builder.add(1, 2, 5.0);
+        builder.add(2, 3, -1.0);
+
+        TestUtils.assertEquals(6, builder.size());
+
+        SparseStore<Double> expected = SparseStore.PRIMITIVE64.make(3, 4);
+        expected.set(0, 1, 6.0);
+        expected.set(2, 0, 3.0);
+        expected.set(1, 2, 5.0);
+
+        CompressedColumnStore csc = builder.toCSC();
+        CompressedRowStore csr = builder.toCSR();
+
+        TestUtils.assertEquals(expected, csc);
+        TestUtils.assertEquals(expected, csr);
+
+        TestUtils.assertEquals(4, csc.countNonzeros());
+        TestUtils.assertEquals(4, csr.countNonzeros());
+    }
+
+    @Test
+    public void testConversion() {
+
+        int rows = Uniform.randomInteger(2, 50);
+        int columns = Uniform.randomInteger(2, 50);
+
+        SparseStore<Double> sparse = CompressedStoreTest.makeRandom(rows, columns);
+
+        CompressedColumnStore csc = sparse.toCSC();
+        CompressedRowStore csr = sparse.toCSR();
+
+        TestUtils.assertEquals(sparse, csc);
+        TestUtils.assertEquals(sparse, csr);
+
+        TestUtils.assertEquals(sparse.transpose(), csc.transpose());
+        TestUtils.assertEquals(sparse.transpose(), csr.transpose());
+
+        for (int j = 0; j < columns; j++) {
+            TestUtils.assertTrue(csc.firstInColumn(j) >= sparse.firstInColumn(j));
+            TestUtils.assertTrue(csc.limitOfColumn(j) <= sparse.limitOfColumn(j));
+        }
+        for (int i = 0; i < rows; i++) {
+            TestUtils.assertEquals(sparse.firstInRow(i), csr.firstInRow(i));
+            TestUtils.assertEquals(sparse.limitOfRow(i), csr.limitOfRow(i));
+        }
+
+        Primitive64Store copy = Primitive64Store.FACTORY.make(rows, columns);
+        csr.supplyTo(copy);
+        TestUtils.assertEquals(sparse, copy);
+        csc.supplyTo(copy);
+        TestUtils.assertEquals(sparse, copy);
+    }
+
+    @Test
+    public void testMultiply() {
+
+        int rows = Uniform.randomInteger(2, 50);
+        int complexity = Uniform.randomInteger(2, 50);
+        int columns = Uniform.randomInteger(1, 5);
+
+        SparseStore<Double> sparse = CompressedStoreTest.makeRandom(rows, complexity);
+        Primitive64Store dense = Primitive64Store.FACTORY.copy(sparse);
+
+        Primitive64Store right = Primitive64Store.FACTORY.makeFilled(complexity, columns, new Uniform());
+        Primitive64Store left = Primitive64Store.FACTORY.makeFilled(columns, rows, new Uniform());
+
+        MatrixStore<Double> expected = dense.multiply(right);
+        TestUtils.assertEquals(expected, sparse.toCSC().multiply(right), ACCURACY);
+        TestUtils.assertEquals(expected, sparse.toCSR().multiply(right), ACCURACY);
+
+        expected = left.multiply(dense);
+        TestUtils.assertEquals(expected, sparse.toCSC().premultiply(left).get(), ACCURACY);
+        TestUtils.assertEquals(expected, sparse.toCSR().premultiply(left).get(), ACCURACY);
+
+        expected = dense.multiply(2.5);
+        TestUtils.assertEquals(expected, sparse.toCSC().multiply(2.5), ACCURACY);
+        TestUtils.assertEquals(expected, sparse.toCSR().multiply(2.5), ACCURACY);
+    }
+
+    @Test
+    public void testParallelMultiply() {
+
+        int threshold = CompressedStore.THRESHOLD;
+
+        try {
+
+            CompressedStore.THRESHOLD = 8;
+
+            int rows = Uniform.randomInteger(100, 200);
+            int complexity = Uniform.randomInteger(100, 200);
+
+            SparseStore<Double> sparse = CompressedStoreTest.makeRandom(rows, complexity);
+            Primitive64Store dense = Primitive64Store.FACTORY.copy(sparse);
+
+            CompressedRowStore csr = sparse.toCSR();
+            CompressedColumnStore csc = sparse.toCSC();
+
+            int[] partitions = csr.partition();
+            TestUtils.assertTrue(partitions.length > 2);
+            TestUtils.assertEquals(0, partitions[0]);
+            TestUtils.assertEquals(rows, partitions[partitions.length - 1]);
+            for (int k = 1; k < partitions.length; k++) {
+                TestUtils.assertTrue(partitions[k - 1] <= partitions[k]);
+            }
+
+            for (int columns : new int[] { 1, 3 }) {
+
+                Primitive64Store right = Primitive64Store.FACTORY.makeFilled(complexity, columns, new Uniform());
+                MatrixStore<Double> expected = dense.multiply(right);
+
+                TestUtils.assertEquals(expected, csr.multiply(right), ACCURACY);
+                TestUtils.assertEquals(expected, csc.multiply(right), ACCURACY);
+
+                // Not a Primitive64Store
+                MatrixStore<Double> logical = right.logical().get();
+                TestUtils.assertEquals(expected, csr.multiply(logical), ACCURACY);
+                TestUtils.assertEquals(expected, csc.multiply(logical), ACCURACY);
+            }
+
+            // Via SparseStore, after a modification
+            Primitive64Store right = Primitive64Store.FACTORY.makeFilled(complexity, 1, new Uniform());
+            TestUtils.assertEquals(dense.multiply(right), sparse.multiply(right), ACCURACY);
+            sparse.set(0, 0, sparse.doubleValue(0, 0) + 1.0);
+            dense.set(0, 0, dense.doubleValue(0, 0) + 1.0);
+            TestUtils.assertEquals(dense.multiply(right), sparse.multiply(right), ACCURACY);
+
+            // Not thread safe targets are filled sequentially
+            SparseStore<Double> target = SparseStore.PRIMITIVE64.make(rows, 1);
+            sparse.multiply(right, target);
+            TestUtils.assertEquals(dense.multiply(right), target, ACCURACY);
+            target = SparseStore.PRIMITIVE64.make(rows, 1);
+            sparse.toCSR().multiply(right, target);
+            TestUtils.assertEquals(dense.multiply(right), target, ACCURACY);
+
+        } finally {
+            CompressedStore.THRESHOLD = threshold;
+        }
+    }
+
+}
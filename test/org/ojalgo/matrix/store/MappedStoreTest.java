@@ -0,0 +1,137 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class MappedStoreTest extends MatrixStoreTests {
+
+    private static final NumberContext ACCURACY = new NumberContext(10, 10);
+
+    private static File DIRECTORY;
+
+    @BeforeAll
+    public static void createDirectory() throws IOException {
+        DIRECTORY = Files.createTempDirectory("ojAlgo").toFile();
+        DIRECTORY.deleteOnExit();
+    }
+
+    @Test
+    public void testCholesky() {
+
+        PhysicalStore.Factory<Double, MappedStore> factory = MappedStore.factory(DIRECTORY);
+
+        Primitive64Store random = Primitive64Store.FACTORY.makeFilled(100, 120, new Normal());
+        MatrixStore<Double> matrix = random.multiply(random.transpose());
+        MatrixStore<Double> rhs = random.logical().limits(100, 7).get();
+
+        Cholesky<Double> expected = Cholesky.PRIMITIVE.make(matrix);
+        Cholesky<Double> actual = Cholesky.newPrimitive(factory).make(matrix);
+
+        TestUtils.assertTrue(expected.decompose(matrix));
+        TestUtils.assertTrue(actual.decompose(matrix));
+
+        TestUtils.assertEquals(expected.getL(), actual.getL(), ACCURACY);
+        TestUtils.assertEquals(expected.getSolution(rhs), actual.getSolution(rhs), ACCURACY);
+        TestUtils.assertEquals(expected.getInverse(), actual.getInverse(), ACCURACY);
+    }
+
+    @Test
+    public void testClose() {
+
+        PhysicalStore.Factory<Double, MappedStore> factory = MappedStore.factory(DIRECTORY);
+
+        MappedStore temporary = factory.makeFilled(9, 7, new Normal());
+        File file = temporary.getFile();
+
+        TestUtils.assertTrue(file.exists());
+        temporary.close();
+        TestUtils.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testMultiply() {
+
+        PhysicalStore.Factory<Double, MappedStore> factory = MappedStore.factory(DIRECTORY);
+
+        Primitive64Store left = Primitive64Store.FACTORY.makeFilled(67, 45, new Normal());
+        Primitive64Store right = Primitive64Store.FACTORY.makeFilled(45, 89, new Normal());
+
+        try (MappedStore mappedLeft = factory.copy(left); MappedStore mappedRight = factory.copy(right); MappedStore product = factory.make(67, 89)) {
+
+            TestUtils.assertEquals(left, mappedLeft);
+            TestUtils.assertEquals(left.multiply(right), mappedLeft.multiply(mappedRight), ACCURACY);
+            TestUtils.assertEquals(left.multiply(right), mappedLeft.multiply(right), ACCURACY);
+
+            product.fillByMultiplying(left, mappedRight);
+            TestUtils.assertEquals(left.multiply(right), product, ACCURACY);
+        }
+    }
+
+    @Test
+    public void testPersistent() {
+
+        File file = new File(DIRECTORY, "persistent.mapped");
+        file.deleteOnExit();
+
+        Primitive64Store expected = Primitive64Store.FACTORY.makeFilled(9, 7, new Normal());
+
+        try (MappedStore original = MappedStore.make(file, 9, 7)) {
+            original.fillMatching(expected);
+        }
+
+        TestUtils.assertTrue(file.exists());
+
+        try (MappedStore reopened = MappedStore.make(file, 9, 7)) {
+            TestUtils.assertEquals(expected, reopened);
+        }
+    }
+
+    @Test
+    public void testQR() {
+
+        PhysicalStore.Factory<Double, MappedStore> factory = MappedStore.factory(DIRECTORY);
+
+        MatrixStore<Double> matrix = Primitive64Store.FACTORY.makeFilled(150, 90, new Normal());
+        MatrixStore<Double> rhs = Primitive64Store.FACTORY.makeFilled(150, 3, new Normal());
+
+        QR<Double> expected = QR.PRIMITIVE.make(matrix);
+        QR<Double> actual = QR.newPrimitive(factory).make(matrix);
+
+        TestUtils.assertTrue(expected.decompose(matrix));
+        TestUtils.assertTrue(actual.decompose(matrix));
+
+        TestUtils.assertEquals(matrix, actual.getQ().multiply(actual.getR()), ACCURACY);
+        TestUtils.assertEquals(expected.getSolution(rhs), actual.getSolution(rhs), ACCURACY);
+    }
+
+}
@@ -51,6 +51,41 @@ public class SparsePerformance extends MatrixStoreTests {
         }
     }
 
+    @Test
+    public void testCompressedMultiplyByOneVector() {
+
+        int n = 100_000;
+
+        SparseStore<Double> mtrx = SparseStore.PRIMITIVE64.make(n, n);
+        SparsePerformance.fill(mtrx);
+
+        Primitive64Store ones = Primitive64Store.FACTORY.make(n, 1);
+        ones.fillAll(ONE);
+
+        Stopwatch clock = new Stopwatch();
+
+        CompressedRowStore csr = mtrx.toCSR();
+        CompressedColumnStore csc = mtrx.toCSC();
+
+        TestUtils.assertFasterThan(1, CalendarDateUnit.SECOND, clock);
+
+        MatrixStore<Double> expected = mtrx.multiply(ones);
+
+        clock.reset();
+
+        MatrixStore<Double> actual = csr.multiply(ones);
+
+        TestUtils.assertFasterThan(50, CalendarDateUnit.MILLIS, clock);
+        TestUtils.assertEquals(expected, actual);
+
+        clock.reset();
+
+        actual = csc.multiply(ones);
+
+        TestUtils.assertFasterThan(50, CalendarDateUnit.MILLIS, clock);
+        TestUtils.assertEquals(expected, actual);
+    }
+
     @Test
     public void testElementwiseMultiplication() {
 
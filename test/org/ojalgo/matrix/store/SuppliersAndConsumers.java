@@ -21,11 +21,64 @@
  */
 package org.ojalgo.matrix.store;
 
+import static org.ojalgo.function.constant.PrimitiveMath.*;
+
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.function.constant.RationalMath;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.scalar.RationalNumber;
 
 public class SuppliersAndConsumers extends MatrixStoreTests {
 
+    /**
+     * A chain of element-wise operations is evaluated in a single (fused) pass - the result should be the
+     * same as when performing the operations one at the time.
+     */
+    @Test
+    public void testFusedElementWise() {
+
+        for (int numberOfColumns : new int[] { 7, 200 }) {
+
+            Primitive64Store base = Primitive64Store.FACTORY.makeFilled(50, numberOfColumns, new Uniform());
+            Primitive64Store other = Primitive64Store.FACTORY.makeFilled(50, numberOfColumns, new Uniform());
+            Array1D<Double> perColumn = Array1D.PRIMITIVE64.makeFilled(numberOfColumns, new Uniform());
+            Array1D<Double> perRow = Array1D.PRIMITIVE64.makeFilled(20, new Uniform());
+
+            Primitive64Store expected = base.copy();
+            expected.modifyAll(SQRT);
+            expected.modifyMatching(ADD, other);
+            expected.modifyMatching(other, DIVIDE);
+            for (int j = 0; j < numberOfColumns; j++) {
+                expected.modifyColumn(j, MULTIPLY.second(perColumn.doubleValue(j)));
+            }
+            for (int i = 0; i < 20; i++) {
+                expected.modifyRow(i, SUBTRACT.second(perRow.doubleValue(i)));
+            }
+            expected.modifyAll(NEGATE);
+
+            ElementsSupplier<Double> pipeline = base.operateOnAll(SQRT).operateOnMatching(ADD, other).operateOnMatching(other, DIVIDE)
+                    .operateOnColumns(MULTIPLY, perColumn).operateOnRows(SUBTRACT, perRow).operateOnAll(NEGATE);
+
+            TestUtils.assertEquals(expected, pipeline.get());
+
+            // Source that has to be materialised (multiplication) before the element-wise operations
+            Primitive64Store identity = Primitive64Store.FACTORY.makeEye(numberOfColumns, numberOfColumns);
+            Primitive64Store receiver = Primitive64Store.FACTORY.makeZero(50, numberOfColumns);
+            identity.premultiply(other).operateOnMatching(base, SUBTRACT).operateOnAll(NEGATE).supplyTo(receiver);
+            TestUtils.assertEquals(other.subtract(base), receiver);
+        }
+
+        GenericStore<RationalNumber> rational = GenericStore.RATIONAL.makeFilled(9, 3, new Uniform());
+        GenericStore<RationalNumber> expected = rational.copy();
+        expected.modifyAll(RationalMath.ADD.second(RationalNumber.ONE));
+        expected.modifyMatching(RationalMath.MULTIPLY, rational);
+
+        TestUtils.assertEquals(expected,
+                rational.operateOnAll(RationalMath.ADD.second(RationalNumber.ONE)).operateOnMatching(RationalMath.MULTIPLY, rational).get());
+    }
+
     @Test
     public void testMultiplyingAndTransposing() {
 
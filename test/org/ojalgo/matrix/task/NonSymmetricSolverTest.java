@@ -0,0 +1,148 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.matrix.task.iterative.BiCGSTABSolver;
+import org.ojalgo.matrix.task.iterative.GMRESSolver;
+import org.ojalgo.matrix.task.iterative.Preconditioner;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+public class NonSymmetricSolverTest extends MatrixTaskTests {
+
+    private static final NumberContext ACCURACY = NumberContext.getGeneral(10, 10);
+    private static final NumberContext SOLUTION = NumberContext.getGeneral(6, 6);
+
+    /**
+     * Upwind finite difference discretisation of -laplace(u) + convection * du/dx on a dim x dim grid. The
+     * larger the convection the less symmetric (more convection dominated) the system.
+     */
+    static SparseStore<Double> makeConvectionDiffusion(final int dim, final double convection) {
+
+        int size = dim * dim;
+
+        SparseStore<Double> retVal = SparseStore.PRIMITIVE64.make(size, size);
+
+        for (int x = 0; x < dim; x++) {
+            for (int y = 0; y < dim; y++) {
+                int i = x + (y * dim);
+                retVal.set(i, i, 4.0 + convection);
+                if (x > 0) {
+                    retVal.set(i, i - 1, -1.0 - convection);
+                }
+                if (x < (dim - 1)) {
+                    retVal.set(i, i + 1, -1.0);
+                }
+                if (y > 0) {
+                    retVal.set(i, i - dim, -1.0);
+                }
+                if (y < (dim - 1)) {
+                    retVal.set(i, i + dim, -1.0);
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    private static List<Equation> toEquations(final SparseStore<Double> body, final MatrixStore<Double> rhs) {
+        List<Equation> retVal = new ArrayList<>();
+        for (int i = 0; i < body.countRows(); i++) {
+            retVal.add(new Equation(i, body.countColumns(), rhs.doubleValue(i)));
+        }
+        body.nonzeros().forEach(nz -> retVal.get((int) nz.row()).set(nz.column(), nz.doubleValue()));
+        return retVal;
+    }
+
+    @Test
+    public void testBiCGSTAB() {
+
+        int dim = 12;
+        int size = dim * dim;
+
+        for (double convection : new double[] { 0.0, 1.0, 10.0 }) {
+
+            SparseStore<Double> body = NonSymmetricSolverTest.makeConvectionDiffusion(dim, convection);
+            Primitive64Store expected = Primitive64Store.FACTORY.makeFilled(size, 1, new Uniform());
+            MatrixStore<Double> rhs = body.multiply(expected);
+
+            for (Preconditioner preconditioner : new Preconditioner[] { Preconditioner.newJacobi(), Preconditioner.newSSOR(1.0) }) {
+
+                BiCGSTABSolver solver = new BiCGSTABSolver();
+                solver.configurator().accuracy(ACCURACY).preconditioner(preconditioner);
+
+                TestUtils.assertEquals(expected, solver.solve(body, rhs).get(), SOLUTION);
+
+                // Again, reusing the work vectors
+                List<Equation> equations = NonSymmetricSolverTest.toEquations(body, rhs);
+                Primitive64Store solution = Primitive64Store.FACTORY.make(size, 1);
+                solver.resolve(equations, solution);
+                TestUtils.assertEquals(expected, solution, SOLUTION);
+            }
+        }
+    }
+
+    @Test
+    public void testGMRES() {
+
+        int dim = 12;
+        int size = dim * dim;
+
+        for (double convection : new double[] { 0.0, 1.0, 10.0 }) {
+
+            SparseStore<Double> body = NonSymmetricSolverTest.makeConvectionDiffusion(dim, convection);
+            Primitive64Store expected = Primitive64Store.FACTORY.makeFilled(size, 1, new Uniform());
+            MatrixStore<Double> rhs = body.multiply(expected);
+
+            for (int restart : new int[] { 5, GMRESSolver.DEFAULT_RESTART, size }) {
+
+                GMRESSolver solver = new GMRESSolver(restart);
+                solver.configurator().accuracy(ACCURACY).preconditioner(Preconditioner.newSSOR(1.0));
+
+                TestUtils.assertEquals(expected, solver.solve(body, rhs).get(), SOLUTION);
+
+                // Again, reusing the Krylov basis and work vectors
+                List<Equation> equations = NonSymmetricSolverTest.toEquations(body, rhs);
+                Primitive64Store solution = Primitive64Store.FACTORY.make(size, 1);
+                solver.resolve(equations, solution);
+                TestUtils.assertEquals(expected, solution, SOLUTION);
+
+                // Again, with the restart length reconfigured
+                solver.configurator().restart(restart + 1);
+                TestUtils.assertEquals(restart + 1, solver.getRestart());
+                solution = Primitive64Store.FACTORY.make(size, 1);
+                solver.resolve(equations, solution);
+                TestUtils.assertEquals(expected, solution, SOLUTION);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.equation.Equation;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.matrix.task.iterative.ConjugateGradientSolver;
+import org.ojalgo.matrix.task.iterative.GaussSeidelSolver;
+import org.ojalgo.matrix.task.iterative.MutableSolver;
+import org.ojalgo.matrix.task.iterative.Preconditioner;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.CalendarDateDuration;
+import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.Stopwatch;
+import org.ojalgo.type.context.NumberContext;
+
+public class PreconditionerTest extends MatrixTaskTests {
+
+    /**
+     * Only counts the debug print calls, one per iteration.
+     */
+    static final class IterationCounter implements BasicLogger.Printer {
+
+        int count = 0;
+
+        public void print(final char c) {
+        }
+
+        public void print(final char[] ca) {
+        }
+
+        public void print(final String str) {
+        }
+
+        public BasicLogger.Printer printf(final Locale locale, final String format, final Object... args) {
+            return this;
+        }
+
+        public BasicLogger.Printer printf(final String format, final Object... args) {
+            return this;
+        }
+
+        public void println() {
+        }
+
+        @Override
+        public void println(final String message, final Object... args) {
+            count++;
+        }
+
+    }
+
+    static final class MutableCG extends MutableSolver<ConjugateGradientSolver> {
+
+        MutableCG(final long size) {
+            super(new ConjugateGradientSolver(), size);
+        }
+
+    }
+
+    private static final NumberContext ACCURACY = NumberContext.getGeneral(10, 10);
+    private static final NumberContext SOLUTION = NumberContext.getGeneral(6, 6);
+
+    /**
+     * The 5-point finite difference Laplacian on a dim x dim grid - symmetric positive definite with a
+     * condition number that grows as dim^2.
+     */
+    static SparseStore<Double> makePoisson(final int dim) {
+
+        int size = dim * dim;
+
+        SparseStore<Double> retVal = SparseStore.PRIMITIVE64.make(size, size);
+
+        for (int x = 0; x < dim; x++) {
+            for (int y = 0; y < dim; y++) {
+                int i = x + (y * dim);
+                retVal.set(i, i, 4.0);
+                if (x > 0) {
+                    retVal.set(i, i - 1, -1.0);
+                }
+                if (x < (dim - 1)) {
+                    retVal.set(i, i + 1, -1.0);
+                }
+                if (y > 0) {
+                    retVal.set(i, i - dim, -1.0);
+                }
+                if (y < (dim - 1)) {
+                    retVal.set(i, i + dim, -1.0);
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    static final String[] NAMES = { "Jacobi", "SSOR(1.0)", "SSOR(1.5)", "IC(0)" };
+
+    static Preconditioner[] preconditioners() {
+        return new Preconditioner[] { Preconditioner.newJacobi(), Preconditioner.newSSOR(1.0), Preconditioner.newSSOR(1.5),
+                Preconditioner.newIncompleteCholesky() };
+    }
+
+    private static int iterations(final ConjugateGradientSolver solver, final List<Equation> equations, final PhysicalStore<Double> solution) {
+        IterationCounter counter = new IterationCounter();
+        solver.configurator().debug(counter);
+        solution.fillAll(0.0);
+        solver.resolve(equations, solution);
+        solver.configurator().debug(null);
+        return counter.count;
+    }
+
+    @Test
+    public void testIncompleteCholeskyIsExactForTridiagonal() {
+
+        int size = 50;
+
+        SparseStore<Double> body = SparseStore.PRIMITIVE64.make(size, size);
+        for (int i = 0; i < size; i++) {
+            body.set(i, i, 2.0 + (i % 3));
+            if (i > 0) {
+                body.set(i, i - 1, -1.0);
+                body.set(i - 1, i, -1.0);
+            }
+        }
+
+        Primitive64Store expected = Primitive64Store.FACTORY.makeFilled(size, 1, new Uniform());
+        MatrixStore<Double> rhs = body.multiply(expected);
+
+        ConjugateGradientSolver solver = new ConjugateGradientSolver();
+        solver.configurator().accuracy(ACCURACY).preconditioner(Preconditioner.newIncompleteCholesky());
+
+        List<Equation> equations = PreconditionerTest.toEquations(body, rhs);
+        Primitive64Store solution = Primitive64Store.FACTORY.make(size, 1);
+
+        // No fill-in, so IC(0) is the complete Cholesky factorisation
+        TestUtils.assertEquals(1, PreconditionerTest.iterations(solver, equations, solution));
+        TestUtils.assertEquals(expected, solution, SOLUTION);
+    }
+
+    @Test
+    public void testPoisson() {
+
+        int dim = 12;
+        int size = dim * dim;
+
+        SparseStore<Double> body = PreconditionerTest.makePoisson(dim);
+        Primitive64Store expected = Primitive64Store.FACTORY.makeFilled(size, 1, new Uniform());
+        MatrixStore<Double> rhs = body.multiply(expected);
+
+        for (Preconditioner preconditioner : PreconditionerTest.preconditioners()) {
+
+            ConjugateGradientSolver solver = new ConjugateGradientSolver();
+            solver.configurator().accuracy(ACCURACY).preconditioner(preconditioner);
+
+            TestUtils.assertEquals(expected, solver.solve(body, rhs).get(), SOLUTION);
+
+            // Again, with the equations in some other order
+            List<Equation> equations = PreconditionerTest.toEquations(body, rhs);
+            Collections.shuffle(equations);
+            Primitive64Store solution = Primitive64Store.FACTORY.make(size, 1);
+            solver.resolve(equations, solution);
+            TestUtils.assertEquals(expected, solution, SOLUTION);
+
+            // ...and via MutableSolver
+            MutableCG mutable = new MutableCG(size);
+            mutable.configurator().accuracy(ACCURACY).preconditioner(preconditioner);
+            for (Equation equation : PreconditionerTest.toEquations(body, rhs)) {
+                mutable.add(equation);
+            }
+            solution.fillAll(0.0);
+            mutable.resolve(solution);
+            TestUtils.assertEquals(expected, solution, SOLUTION);
+        }
+    }
+
+    /**
+     * Iteration count and wall-clock time, to a relative residual of 1E-10, for the 2D Poisson problem.
+     */
+    @Test
+    @Tag("slow")
+    public void testPoissonPerformance() {
+
+        for (int dim : new int[] { 50, 100 }) {
+
+            int size = dim * dim;
+
+            SparseStore<Double> body = PreconditionerTest.makePoisson(dim);
+            Primitive64Store expected = Primitive64Store.FACTORY.makeFilled(size, 1, new Uniform());
+            MatrixStore<Double> rhs = body.multiply(expected);
+            List<Equation> equations = PreconditionerTest.toEquations(body, rhs);
+            Primitive64Store solution = Primitive64Store.FACTORY.make(size, 1);
+
+            if (dim <= 50) {
+                GaussSeidelSolver gaussSeidel = new GaussSeidelSolver();
+                IterationCounter counter = new IterationCounter();
+                gaussSeidel.configurator().accuracy(ACCURACY).debug(counter);
+                Stopwatch clock = new Stopwatch();
+                gaussSeidel.resolve(equations, solution);
+                BasicLogger.debug("{}x{} GaussSeidel: {} iterations in {}", size, size, counter.count, clock.stop(CalendarDateUnit.MILLIS));
+            }
+
+            Preconditioner[] preconditioners = PreconditionerTest.preconditioners();
+
+            int jacobi = Integer.MAX_VALUE;
+            for (int p = 0; p < preconditioners.length; p++) {
+
+                Preconditioner preconditioner = preconditioners[p];
+
+                ConjugateGradientSolver solver = new ConjugateGradientSolver();
+                solver.configurator().accuracy(ACCURACY).preconditioner(preconditioner);
+
+                int iterations = PreconditionerTest.iterations(solver, equations, solution);
+
+                solution.fillAll(0.0);
+                Stopwatch clock = new Stopwatch();
+                solver.resolve(equations, solution);
+                CalendarDateDuration time = clock.stop(CalendarDateUnit.MILLIS);
+
+                TestUtils.assertEquals(expected, solution, SOLUTION);
+
+                BasicLogger.debug("{}x{} CG with {}: {} iterations in {}", size, size, NAMES[p], iterations, time);
+
+                if (jacobi == Integer.MAX_VALUE) {
+                    jacobi = iterations;
+                } else {
+                    TestUtils.assertTrue(iterations < jacobi);
+                }
+            }
+        }
+    }
+
+    private static List<Equation> toEquations(final SparseStore<Double> body, final MatrixStore<Double> rhs) {
+        List<Equation> retVal = new ArrayList<>();
+        for (int i = 0; i < body.countRows(); i++) {
+            retVal.add(new Equation(i, body.countColumns(), rhs.doubleValue(i)));
+        }
+        body.nonzeros().forEach(nz -> retVal.get((int) nz.row()).set(nz.column(), nz.doubleValue()));
+        return retVal;
+    }
+
+}
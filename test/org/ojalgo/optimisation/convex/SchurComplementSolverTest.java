@@ -0,0 +1,127 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.convex;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Constraints are added to, and removed from, the factorisation - the solution should always match that of
+ * the Schur complement calculated and factorised from scratch.
+ *
+ * @author apete
+ */
+public class SchurComplementSolverTest extends OptimisationConvexTests {
+
+    private static final NumberContext ACCURACY = new NumberContext(10, 10);
+
+    private static void assertSolution(final SchurComplementSolver solver, final Primitive64Store bodies, final MatrixStore<Double> invQAT) {
+
+        int size = solver.size();
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = solver.getConstraint(i);
+        }
+
+        MatrixStore<Double> iterA = bodies.logical().row(rows).get();
+        MatrixStore<Double> iterS = iterA.multiply(invQAT.logical().column(rows).get());
+        MatrixStore<Double> rhs = Primitive64Store.FACTORY.makeFilled(size, 1, new Normal());
+
+        LU<Double> lu = LU.PRIMITIVE.make(iterS);
+        lu.decompose(iterS);
+        MatrixStore<Double> expected = lu.getSolution(rhs);
+
+        double[] actual = rhs.toRawCopy1D();
+        solver.solve(actual);
+
+        TestUtils.assertEquals(expected, Primitive64Store.FACTORY.columns(actual), ACCURACY);
+    }
+
+    @Test
+    public void testAddAndRemove() {
+
+        int numberOfVariables = 12;
+        int numberOfConstraints = 9;
+
+        Primitive64Store matrixQ = Primitive64Store.FACTORY.makeSPD(numberOfVariables);
+        Primitive64Store bodies = Primitive64Store.FACTORY.makeFilled(numberOfConstraints, numberOfVariables, new Normal());
+
+        Cholesky<Double> cholesky = Cholesky.PRIMITIVE.make(matrixQ);
+        cholesky.decompose(matrixQ);
+        MatrixStore<Double> invQAT = cholesky.getSolution(bodies.transpose());
+
+        SchurComplementSolver solver = new SchurComplementSolver(numberOfVariables);
+
+        for (int c = 0; c < 6; c++) {
+            TestUtils.assertTrue(solver.add(c, bodies.sliceRow(c), invQAT.sliceColumn(c)));
+        }
+        SchurComplementSolverTest.assertSolution(solver, bodies, invQAT);
+
+        solver.remove(2);
+        SchurComplementSolverTest.assertSolution(solver, bodies, invQAT);
+
+        solver.remove(0);
+        solver.remove(5);
+        SchurComplementSolverTest.assertSolution(solver, bodies, invQAT);
+
+        TestUtils.assertTrue(solver.add(8, bodies.sliceRow(8), invQAT.sliceColumn(8)));
+        TestUtils.assertTrue(solver.add(0, bodies.sliceRow(0), invQAT.sliceColumn(0)));
+        SchurComplementSolverTest.assertSolution(solver, bodies, invQAT);
+
+        TestUtils.assertEquals(5, solver.size());
+        TestUtils.assertFalse(solver.contains(2));
+    }
+
+    /**
+     * A constraint that is a linear combination of the ones already in the factorisation is rejected.
+     */
+    @Test
+    public void testLinearlyDependent() {
+
+        int numberOfVariables = 5;
+
+        Primitive64Store matrixQ = Primitive64Store.FACTORY.makeSPD(numberOfVariables);
+        Primitive64Store bodies = Primitive64Store.FACTORY.makeFilled(3, numberOfVariables, new Normal());
+        for (int j = 0; j < numberOfVariables; j++) {
+            bodies.set(2, j, bodies.doubleValue(0, j) - (2.0 * bodies.doubleValue(1, j)));
+        }
+
+        Cholesky<Double> cholesky = Cholesky.PRIMITIVE.make(matrixQ);
+        cholesky.decompose(matrixQ);
+        MatrixStore<Double> invQAT = cholesky.getSolution(bodies.transpose());
+
+        SchurComplementSolver solver = new SchurComplementSolver(numberOfVariables);
+
+        TestUtils.assertTrue(solver.add(0, bodies.sliceRow(0), invQAT.sliceColumn(0)));
+        TestUtils.assertTrue(solver.add(1, bodies.sliceRow(1), invQAT.sliceColumn(1)));
+        TestUtils.assertFalse(solver.add(2, bodies.sliceRow(2), invQAT.sliceColumn(2)));
+
+        TestUtils.assertEquals(2, solver.size());
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.ModelFileMPS;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * Solves the same problems using each of the {@link NodeSelection} strategies.
+ *
+ * @author apete
+ */
+public class NodeSelectionTest extends OptimisationIntegerTests {
+
+    static void doTest(final String modelName, final String expMinValString) {
+        for (final NodeSelection selection : NodeSelection.values()) {
+
+            final ExpressionsBasedModel model = ModelFileMPS.makeModel("miplib", modelName, false);
+            model.options.setConfigurator(selection);
+
+            ModelFileMPS.assertValues(model, new BigDecimal(expMinValString), null, null, MIPLIBTheEasySet.PRECISION);
+        }
+    }
+
+    @Test
+    public void testConfigured() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        model.addVariable(Variable.makeBinary("X").weight(1));
+
+        TestUtils.assertEquals(NodeSelection.DEPTH_FIRST, IntegerSolver.make(model).getNodeSelection());
+
+        model.options.setConfigurator(NodeSelection.BEST_BOUND);
+        TestUtils.assertEquals(NodeSelection.BEST_BOUND, IntegerSolver.make(model).getNodeSelection());
+    }
+
+    @Test
+    public void testFlugpl() {
+        NodeSelectionTest.doTest("flugpl.mps", "1201500");
+    }
+
+    @Test
+    public void testGr4x6() {
+        NodeSelectionTest.doTest("gr4x6.mps", "202.35");
+    }
+
+    @Test
+    public void testKnapsack() {
+
+        final int[] weights = { 12, 7, 11, 8, 9, 6, 14, 5, 10, 13 };
+        final int[] values = { 24, 13, 23, 15, 16, 11, 29, 9, 19, 25 };
+
+        Optimisation.Result reference = null;
+
+        for (final NodeSelection selection : NodeSelection.values()) {
+
+            final ExpressionsBasedModel model = new ExpressionsBasedModel();
+            for (int i = 0; i < weights.length; i++) {
+                model.addVariable(Variable.makeBinary("X" + i).weight(values[i]));
+            }
+            final Expression capacity = model.addExpression("Capacity").upper(26);
+            for (int i = 0; i < weights.length; i++) {
+                capacity.set(i, weights[i]);
+            }
+            model.options.setConfigurator(selection);
+
+            final Optimisation.Result result = model.maximise();
+
+            TestUtils.assertStateNotLessThanOptimal(result);
+            if (reference == null) {
+                reference = result;
+            } else {
+                TestUtils.assertEquals(reference.getValue(), result.getValue(), 1E-9);
+            }
+        }
+    }
+
+}
@@ -451,4 +451,62 @@ public class LinearProblems extends OptimisationLinearTests {
         TestUtils.assertStateNotLessThanOptimal(solution);
     }
 
+    /**
+     * A node in a branch&bound tree is solved using its parent's optimal solution as an (approximate)
+     * kick-starter. The simplex solver pivots those variables in to the initial basis, and the result has to
+     * be the same as when solving from scratch.
+     */
+    @Test
+    public void testWarmStartFromParentSolution() {
+
+        ExpressionsBasedModel parent = new ExpressionsBasedModel();
+
+        double[][] costs = { { 4.0, 6.0, 9.0 }, { 5.0, 3.0, 7.0 } };
+        double[] supply = { 35.0, 25.0 };
+        double[] demand = { 20.5, 19.5, 20.0 };
+
+        Variable[][] flows = new Variable[supply.length][demand.length];
+        for (int i = 0; i < supply.length; i++) {
+            for (int j = 0; j < demand.length; j++) {
+                flows[i][j] = parent.addVariable("x" + i + j).lower(0).weight(costs[i][j]);
+            }
+        }
+        for (int i = 0; i < supply.length; i++) {
+            Expression row = parent.addExpression("S" + i).level(supply[i]);
+            for (int j = 0; j < demand.length; j++) {
+                row.set(flows[i][j], 1);
+            }
+        }
+        for (int j = 0; j < demand.length; j++) {
+            Expression col = parent.addExpression("D" + j).level(demand[j]);
+            for (int i = 0; i < supply.length; i++) {
+                col.set(flows[i][j], 1);
+            }
+        }
+
+        Optimisation.Result parentResult = parent.minimise();
+        TestUtils.assertStateNotLessThanOptimal(parentResult);
+
+        for (int i = 0; i < supply.length; i++) {
+            for (int j = 0; j < demand.length; j++) {
+
+                double value = parentResult.doubleValue(parent.indexOf(flows[i][j]));
+
+                if (value > 1.0) {
+
+                    ExpressionsBasedModel node = parent.copy();
+                    node.getVariable(parent.indexOf(flows[i][j])).upper(Math.floor(value / 2.0));
+
+                    Optimisation.Result cold = node.prepare().solve(null);
+                    Optimisation.Result warm = node.prepare().solve(new Optimisation.Result(State.APPROXIMATE, parentResult.getValue(), parentResult));
+
+                    TestUtils.assertStateNotLessThanOptimal(cold);
+                    TestUtils.assertStateNotLessThanOptimal(warm);
+                    TestUtils.assertTrue(node.validate(warm));
+                    TestUtils.assertEquals(cold.getValue(), warm.getValue(), 1E-9);
+                }
+            }
+        }
+    }
+
 }
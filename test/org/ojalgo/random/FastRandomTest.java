@@ -0,0 +1,189 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.special.ErrorFunction;
+import org.ojalgo.matrix.store.Primitive64Store;
+
+/**
+ * @author apete
+ */
+public class FastRandomTest extends RandomTests {
+
+    private static double[] fill(final RandomNumber distribution, final Random generator, final int size, final int threads) {
+
+        final double[] retVal = new double[size];
+
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            DivideAndConquer.setExecutor(pool);
+            distribution.setGenerator(generator);
+            distribution.fill(retVal);
+        } finally {
+            DivideAndConquer.setExecutor(null);
+            pool.shutdown();
+        }
+
+        return retVal;
+    }
+
+    /**
+     * A subclass that only implements generate(), sampling with the instance generator, can still be bulk
+     * filled - the (not thread safe) generator is then used one sample at the time.
+     */
+    @Test
+    public void testFillOnlyGenerate() {
+
+        final RandomNumber distribution = new RandomNumber() {
+
+            public double getExpected() {
+                return 0.5;
+            }
+
+            @Override
+            public double getVariance() {
+                return 1.0 / 12.0;
+            }
+
+            @Override
+            protected double generate() {
+                return this.random().nextDouble();
+            }
+
+        };
+
+        final SampleSet samples = SampleSet.wrap(Primitive64Store.FACTORY.columns(FastRandomTest.fill(distribution, new FastRandom.Xoshiro(1L), 100_000, 4)));
+
+        TestUtils.assertEquals(distribution.getExpected(), samples.getMean(), 0.005);
+        TestUtils.assertEquals(distribution.getStandardDeviation(), samples.getStandardDeviation(), 0.005);
+        TestUtils.assertTrue(samples.getMinimum() >= 0.0);
+        TestUtils.assertTrue(samples.getMaximum() < 1.0);
+    }
+
+    /**
+     * Bulk filling with a given seed should give the same samples regardless of the number of threads, and
+     * regardless of whether the generator is splittable or not.
+     */
+    @Test
+    public void testFillReproducible() {
+
+        final int size = 100_000;
+
+        final double[] expected = FastRandomTest.fill(new Normal(), new FastRandom.Xoshiro(123L), size, 1);
+        TestUtils.assertTrue(Arrays.equals(expected, FastRandomTest.fill(new Normal(), new FastRandom.Xoshiro(123L), size, 4)));
+
+        final double[] other = FastRandomTest.fill(new Normal(), new FastRandom.Xoshiro(321L), size, 4);
+        TestUtils.assertFalse(expected[size - 1] == other[size - 1]);
+
+        final double[] split = FastRandomTest.fill(new Uniform(), new FastRandom.SplitMix(123L), size, 1);
+        TestUtils.assertTrue(Arrays.equals(split, FastRandomTest.fill(new Uniform(), new FastRandom.SplitMix(123L), size, 3)));
+
+        final double[] legacy = FastRandomTest.fill(new Exponential(), new Random(123L), size, 1);
+        TestUtils.assertTrue(Arrays.equals(legacy, FastRandomTest.fill(new Exponential(), new Random(123L), size, 2)));
+    }
+
+    @Test
+    public void testFillStore() {
+
+        final LogNormal distribution = new LogNormal(0.1, 0.2);
+        distribution.setGenerator(new FastRandom.Xoshiro(7L));
+
+        final Primitive64Store store = Primitive64Store.FACTORY.make(300, 200);
+        distribution.fill(store);
+
+        final SampleSet samples = SampleSet.wrap(store);
+
+        TestUtils.assertEquals(distribution.getExpected(), samples.getMean(), 0.005);
+        TestUtils.assertEquals(distribution.getStandardDeviation(), samples.getStandardDeviation(), 0.005);
+        TestUtils.assertTrue(samples.getMinimum() > 0.0);
+    }
+
+    /**
+     * Check the ziggurat normal variate generator against the normal distribution at a few points (including
+     * in the tail).
+     */
+    @Test
+    public void testZiggurat() {
+
+        for (final FastRandom generator : new FastRandom[] { new FastRandom.Xoshiro(1L), new FastRandom.SplitMix(2L) }) {
+
+            final int size = 2_000_000;
+
+            double sum = 0.0, sum2 = 0.0;
+            int count1 = 0, count2 = 0, count3 = 0;
+
+            for (int i = 0; i < size; i++) {
+                final double value = generator.nextGaussian();
+                sum += value;
+                sum2 += value * value;
+                if (value > 1.0) {
+                    count1++;
+                }
+                if (value < -2.0) {
+                    count2++;
+                }
+                if (value > 3.5) {
+                    count3++;
+                }
+            }
+
+            TestUtils.assertEquals(0.0, sum / size, 0.005);
+            TestUtils.assertEquals(1.0, sum2 / size, 0.005);
+
+            TestUtils.assertEquals(FastRandomTest.tail(1.0), (double) count1 / size, 0.002);
+            TestUtils.assertEquals(FastRandomTest.tail(2.0), (double) count2 / size, 0.0005);
+            TestUtils.assertEquals(FastRandomTest.tail(3.5), (double) count3 / size, 0.00005);
+        }
+    }
+
+    @Test
+    public void testSplit() {
+
+        final FastRandom.Xoshiro generator = new FastRandom.Xoshiro(99L);
+        final FastRandom.Xoshiro copy = new FastRandom.Xoshiro(99L);
+
+        final FastRandom split = generator.split();
+
+        // The split off generator continues the original sequence, and the original jumps ahead
+
+        for (int i = 0; i < 100; i++) {
+            TestUtils.assertEquals(copy.nextLong(), split.nextLong());
+        }
+        TestUtils.assertFalse(copy.nextLong() == generator.nextLong());
+
+        final double value = generator.nextDouble();
+        TestUtils.assertTrue((0.0 <= value) && (value < 1.0));
+    }
+
+    private static double tail(final double x) {
+        return (1.0 - ErrorFunction.erf(Math.abs(x) / Math.sqrt(2.0))) / 2.0;
+    }
+
+}
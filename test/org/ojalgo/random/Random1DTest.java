@@ -0,0 +1,119 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.Primitive64Store;
+
+/**
+ * @author apete
+ */
+public class Random1DTest extends RandomTests {
+
+    private static void assertCorrelations(final double[][] expected, final Primitive64Store draws, final double delta) {
+
+        final int dim = (int) draws.countRows();
+        final int count = (int) draws.countColumns();
+
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                double sum = 0.0;
+                for (int k = 0; k < count; k++) {
+                    sum += draws.doubleValue(i, k) * draws.doubleValue(j, k);
+                }
+                TestUtils.assertEquals(expected[i][j], sum / count, delta);
+            }
+        }
+    }
+
+    @Test
+    public void testPositiveDefinite() {
+
+        final double[][] correlations = { { 1.0, 0.5, 0.2 }, { 0.5, 1.0, -0.3 }, { 0.2, -0.3, 1.0 } };
+
+        final Random1D random = new Random1D(Primitive64Store.FACTORY.rows(correlations));
+        random.setGenerator(new FastRandom.Xoshiro(1L));
+
+        final Primitive64Store draws = Primitive64Store.FACTORY.make(3, 100_000);
+        random.nextGaussian(draws);
+
+        Random1DTest.assertCorrelations(correlations, draws, 0.02);
+    }
+
+    /**
+     * The first two variables are perfectly correlated - Cholesky fails and the eigenvalue decomposition is
+     * used instead.
+     */
+    @Test
+    public void testSemiDefinite() {
+
+        final double[][] correlations = { { 1.0, 1.0, 0.4 }, { 1.0, 1.0, 0.4 }, { 0.4, 0.4, 1.0 } };
+
+        final Random1D random = new Random1D(Primitive64Store.FACTORY.rows(correlations));
+        random.setGenerator(new FastRandom.Xoshiro(2L));
+
+        final Primitive64Store draws = Primitive64Store.FACTORY.make(3, 100_000);
+        random.nextGaussian(draws);
+
+        Random1DTest.assertCorrelations(correlations, draws, 0.02);
+
+        for (int k = 0; k < 100; k++) {
+            TestUtils.assertEquals(draws.doubleValue(0, k), draws.doubleValue(1, k), 1E-10);
+        }
+    }
+
+    @Test
+    public void testSplit() {
+
+        final double[][] correlations = { { 1.0, 0.9 }, { 0.9, 1.0 } };
+
+        final Random1D random1 = new Random1D(Primitive64Store.FACTORY.rows(correlations));
+        random1.setGenerator(new FastRandom.Xoshiro(3L));
+        final Random1D random2 = new Random1D(Primitive64Store.FACTORY.rows(correlations));
+        random2.setGenerator(new FastRandom.Xoshiro(3L));
+
+        final Random1D split1 = random1.split();
+        final Random1D split2 = random2.split();
+
+        final Primitive64Store draws1 = Primitive64Store.FACTORY.make(2, 10_000);
+        final Primitive64Store draws2 = Primitive64Store.FACTORY.make(2, 10_000);
+
+        split1.nextGaussian(draws1);
+        split2.nextGaussian(draws2);
+
+        TestUtils.assertEquals(draws1, draws2);
+
+        Random1DTest.assertCorrelations(correlations, draws1, 0.05);
+
+        // Splitting with a supplied generator does not touch the original's generator
+        final Random1D supplied = random1.split(new FastRandom.Xoshiro(5L));
+
+        random1.nextGaussian(draws1);
+        random2.nextGaussian(draws2);
+        TestUtils.assertEquals(draws1, draws2);
+
+        supplied.nextGaussian(draws1);
+        Random1DTest.assertCorrelations(correlations, draws1, 0.05);
+    }
+
+}
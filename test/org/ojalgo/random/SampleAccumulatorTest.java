@@ -0,0 +1,133 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+
+/**
+ * SampleAccumulatorTest
+ *
+ * @author apete
+ */
+public class SampleAccumulatorTest extends RandomTests {
+
+    private static double rank(final double[] sorted, final double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return (double) index / sorted.length;
+    }
+
+    @Test
+    public void testEmpty() {
+
+        SampleAccumulator accumulator = SampleAccumulator.make();
+
+        TestUtils.assertEquals(0L, accumulator.count());
+        TestUtils.assertEquals(Double.NaN, accumulator.getMean());
+        TestUtils.assertEquals(0.0, accumulator.getMedian());
+        TestUtils.assertEquals(0.0, accumulator.getInterquartileRange());
+        TestUtils.assertEquals(0.0, accumulator.getVariance());
+    }
+
+    /**
+     * Fewer values than the size parameter - everything is exact.
+     */
+    @Test
+    public void testExactWhenSmall() {
+
+        SampleAccumulator accumulator = SampleAccumulator.make();
+
+        for (int i = 9; i >= 1; i--) {
+            accumulator.accept(i);
+        }
+
+        TestUtils.assertEquals(9L, accumulator.count());
+        TestUtils.assertEquals(5.0, accumulator.getMean(), 1E-14);
+        TestUtils.assertEquals(7.5, accumulator.getVariance(), 1E-14);
+        TestUtils.assertEquals(1.0, accumulator.getMinimum());
+        TestUtils.assertEquals(9.0, accumulator.getMaximum());
+        TestUtils.assertEquals(5.0, accumulator.getMedian());
+        TestUtils.assertEquals(3.0, accumulator.getQuartile1());
+        TestUtils.assertEquals(7.0, accumulator.getQuartile3());
+    }
+
+    @Test
+    public void testMergeParallelParts() {
+
+        Normal distribution = new Normal(10.0, 3.0);
+
+        int count = 200_000;
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = distribution.doubleValue();
+        }
+
+        SampleAccumulator accumulator = Arrays.stream(values).parallel().collect(SampleAccumulator::make, SampleAccumulator::accept,
+                SampleAccumulator::merge);
+
+        SampleSet sampleSet = SampleSet.wrap(values);
+
+        TestUtils.assertEquals(count, accumulator.count());
+        TestUtils.assertEquals(sampleSet.getMean(), accumulator.getMean(), 1E-10);
+        TestUtils.assertEquals(sampleSet.getVariance(), accumulator.getVariance(), 1E-8);
+        TestUtils.assertEquals(sampleSet.getMinimum(), accumulator.getMinimum());
+        TestUtils.assertEquals(sampleSet.getMaximum(), accumulator.getMaximum());
+
+        double[] sorted = sampleSet.getSortedCopy();
+
+        for (double probability : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99 }) {
+            double error = Math.abs(SampleAccumulatorTest.rank(sorted, accumulator.getQuantile(probability)) - probability);
+            TestUtils.assertTrue("Rank error " + error + " for " + probability, error < 0.02);
+        }
+
+        // Bounded memory
+        TestUtils.assertTrue(accumulator.size() < (5 * SampleAccumulator.DEFAULT_K));
+    }
+
+    /**
+     * With the same seed the same items are kept when compacting
+     */
+    @Test
+    public void testSeeded() {
+
+        SampleAccumulator accumulator1 = SampleAccumulator.make(SampleAccumulator.DEFAULT_K, new FastRandom.SplitMix(123L));
+        SampleAccumulator accumulator2 = SampleAccumulator.make(SampleAccumulator.DEFAULT_K, new FastRandom.SplitMix(123L));
+
+        Uniform distribution = new Uniform();
+        for (int i = 0; i < 10_000; i++) {
+            double value = distribution.doubleValue();
+            accumulator1.accept(value);
+            accumulator2.accept(value);
+        }
+
+        TestUtils.assertEquals(accumulator1.size(), accumulator2.size());
+        for (double probability : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99 }) {
+            TestUtils.assertEquals(accumulator1.getQuantile(probability), accumulator2.getQuantile(probability));
+        }
+    }
+
+}
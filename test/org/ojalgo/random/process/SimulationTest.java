@@ -0,0 +1,166 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random.process;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.ojalgo.random.Distribution;
+import org.ojalgo.random.SampleSet;
+
+/**
+ * @author apete
+ */
+public class SimulationTest extends RandomProcessTests {
+
+    private static final AbstractProcess<?>[] PROCESSES = new AbstractProcess<?>[] { GeometricBrownianMotion.make(1.0, 0.1), new WienerProcess(),
+            new PoissonProcess(2.0) };
+
+    private static RandomProcess.SimulationResults simulate(final RandomProcess<?> process, final int threads, final long seed) {
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            DivideAndConquer.setExecutor(pool);
+            return process.simulate(1000, 20, 0.1, seed);
+        } finally {
+            DivideAndConquer.setExecutor(null);
+            pool.shutdown();
+        }
+    }
+
+    private static RandomProcess.SimulationResults[] simulate(final Wiener1D process, final int threads, final long seed) {
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            DivideAndConquer.setExecutor(pool);
+            return process.simulate(20_000, 10, 0.1, seed);
+        } finally {
+            DivideAndConquer.setExecutor(null);
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The increments of the (multidimensional) process should have the specified correlations, and the
+     * results should only depend on the seed.
+     */
+    @Test
+    public void testCorrelated() {
+
+        double[][] correlations = { { 1.0, 0.5, 0.2 }, { 0.5, 1.0, -0.3 }, { 0.2, -0.3, 1.0 } };
+
+        Wiener1D process = new Wiener1D(Primitive64Store.FACTORY.rows(correlations),
+                Arrays.asList(new WienerProcess(), new WienerProcess(), new WienerProcess()));
+
+        RandomProcess.SimulationResults[] single = SimulationTest.simulate(process, 1, 7L);
+        RandomProcess.SimulationResults[] multi = SimulationTest.simulate(process, 4, 7L);
+
+        int last = single[0].countSampleSets() - 1;
+
+        for (int i = 0; i < correlations.length; i++) {
+
+            SampleSet samplesI = single[i].getSampleSet(last);
+
+            TestUtils.assertEquals(0.0, samplesI.getMean(), 0.03);
+            TestUtils.assertEquals(1.0, samplesI.getVariance(), 0.03);
+
+            for (int j = 0; j < correlations.length; j++) {
+
+                SampleSet samplesJ = single[j].getSampleSet(last);
+
+                double sum = 0.0;
+                for (int r = 0; r < samplesI.size(); r++) {
+                    sum += samplesI.doubleValue(r) * samplesJ.doubleValue(r);
+                }
+
+                TestUtils.assertEquals(correlations[i][j], sum / samplesI.size(), 0.03);
+            }
+
+            for (int r = 0; r < samplesI.size(); r++) {
+                TestUtils.assertEquals(samplesI.doubleValue(r), multi[i].getSampleSet(last).doubleValue(r));
+            }
+        }
+    }
+
+    /**
+     * The sample mean and variance, at the last step, should match the process' distribution
+     */
+    @Test
+    public void testDistribution() {
+
+        for (AbstractProcess<?> process : PROCESSES) {
+
+            RandomProcess.SimulationResults results = process.simulate(100_000, 10, 0.1, 123L);
+
+            Distribution expected = process.getDistribution(1.0);
+            SampleSet actual = results.getSampleSet(results.countSampleSets() - 1);
+
+            TestUtils.assertEquals(expected.getExpected(), actual.getMean(), 0.02);
+            if (!(process instanceof PoissonProcess)) {
+                // PoissonProcess scales unit (lambda = 1) increments - only the mean matches its distribution
+                TestUtils.assertEquals(expected.getVariance(), actual.getVariance(), 0.02);
+            }
+        }
+    }
+
+    /**
+     * The same seed should give the same results, regardless of the number of threads, and the process
+     * itself should not be modified.
+     */
+    @Test
+    public void testReproducible() {
+
+        for (AbstractProcess<?> process : PROCESSES) {
+
+            double value = process.getValue();
+
+            RandomProcess.SimulationResults single = SimulationTest.simulate(process, 1, 42L);
+            RandomProcess.SimulationResults multi = SimulationTest.simulate(process, 4, 42L);
+            RandomProcess.SimulationResults other = SimulationTest.simulate(process, 4, 43L);
+
+            TestUtils.assertEquals(value, process.getValue());
+
+            TestUtils.assertEquals(single.countScenarios(), multi.countScenarios());
+            TestUtils.assertEquals(single.countSampleSets(), multi.countSampleSets());
+
+            boolean different = false;
+
+            for (int s = 0; s < single.countSampleSets(); s++) {
+                SampleSet expected = single.getSampleSet(s);
+                SampleSet actual = multi.getSampleSet(s);
+                for (int r = 0; r < single.countScenarios(); r++) {
+                    TestUtils.assertEquals(expected.doubleValue(r), actual.doubleValue(r));
+                    different |= expected.doubleValue(r) != other.getSampleSet(s).doubleValue(r);
+                }
+            }
+
+            TestUtils.assertTrue(different);
+        }
+    }
+
+}
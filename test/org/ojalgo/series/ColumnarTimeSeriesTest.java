@@ -0,0 +1,198 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.TestUtils;
+import org.ojalgo.series.primitive.ExplicitTimeSeries;
+import org.ojalgo.type.CalendarDate;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * @author apete
+ */
+public class ColumnarTimeSeriesTest {
+
+    private static final long START = CalendarDateUnit.DAY.adjustInto(1_500_000_000_000L);
+
+    private static ColumnarTimeSeries make(final int size, final long step) {
+
+        final ColumnarTimeSeries retVal = new ColumnarTimeSeries(CalendarDateUnit.MILLIS);
+
+        for (int i = 0; i < size; i++) {
+            retVal.append(START + (i * step), i);
+        }
+
+        return retVal;
+    }
+
+    @Test
+    public void testAlmostEmpty() {
+
+        final ColumnarTimeSeries series = new ColumnarTimeSeries();
+
+        TestUtils.assertEquals(0L, series.getAverageStepSize());
+        try {
+            series.first();
+            TestUtils.fail();
+        } catch (final NoSuchElementException expected) {
+            // expected
+        }
+        try {
+            series.last();
+            TestUtils.fail();
+        } catch (final NoSuchElementException expected) {
+            // expected
+        }
+
+        series.append(START, 1.0);
+
+        TestUtils.assertEquals(0L, series.getAverageStepSize());
+        TestUtils.assertEquals(START, series.first().millis);
+        TestUtils.assertEquals(START, series.last().millis);
+    }
+
+    @Test
+    public void testAppendAndPut() {
+
+        final ColumnarTimeSeries series = ColumnarTimeSeriesTest.make(1000, 10L);
+
+        TestUtils.assertEquals(1000, series.size());
+        TestUtils.assertEquals(START, series.first().millis);
+        TestUtils.assertEquals(START + 9990L, series.last().millis);
+        TestUtils.assertEquals(10L, series.getAverageStepSize());
+
+        // Same key replaces
+        series.append(START + 9990L, -1.0);
+        TestUtils.assertEquals(1000, series.size());
+        TestUtils.assertEquals(-1.0, series.value(999));
+
+        // Out of order appends are rejected
+        try {
+            series.append(START + 5L, 0.5);
+            TestUtils.fail();
+        } catch (final ProgrammingError expected) {
+            // expected
+        }
+        TestUtils.assertEquals(1000, series.size());
+
+        // Out of order inserts
+        series.put(START + 5L, 0.5);
+        series.put(START - 5L, -0.5);
+        TestUtils.assertEquals(1002, series.size());
+        TestUtils.assertEquals(START - 5L, series.key(0));
+        TestUtils.assertEquals(-0.5, series.value(0));
+        TestUtils.assertEquals(START + 5L, series.key(2));
+        TestUtils.assertEquals(0.5, series.value(2));
+
+        TestUtils.assertEquals(2, series.indexOf(START + 5L));
+        TestUtils.assertEquals(-5, series.indexOf(START + 15L));
+    }
+
+    @Test
+    public void testConversions() {
+
+        final ColumnarTimeSeries series = ColumnarTimeSeriesTest.make(500, 1000L);
+
+        final CalendarDateSeries<Double> calendarDateSeries = series.toCalendarDateSeries();
+        TestUtils.assertEquals(series.size(), calendarDateSeries.size());
+        TestUtils.assertEquals(series.value(123), calendarDateSeries.get(new CalendarDate(series.key(123))).doubleValue());
+
+        final ColumnarTimeSeries fromCalendarDateSeries = ColumnarTimeSeries.from(calendarDateSeries);
+        TestUtils.assertEquals(series.keys(), fromCalendarDateSeries.keys());
+        TestUtils.assertEquals(series, fromCalendarDateSeries);
+
+        final ExplicitTimeSeries explicit = series.getPrimitiveTimeSeries();
+        TestUtils.assertEquals(series.keys(), explicit.keys());
+        TestUtils.assertEquals(series, explicit);
+
+        final ColumnarTimeSeries fromExplicit = ColumnarTimeSeries.from(explicit, CalendarDateUnit.MILLIS);
+        TestUtils.assertEquals(series.keys(), fromExplicit.keys());
+        TestUtils.assertEquals(series, fromExplicit);
+    }
+
+    /**
+     * Should give the same result as resampling the corresponding {@link CalendarDateSeries}
+     */
+    @Test
+    public void testResample() {
+
+        final ColumnarTimeSeries series = ColumnarTimeSeriesTest.make(10_000, 250L);
+
+        for (final CalendarDateUnit resolution : new CalendarDateUnit[] { CalendarDateUnit.SECOND, CalendarDateUnit.MINUTE, CalendarDateUnit.HOUR }) {
+
+            final ExplicitTimeSeries actual = series.resample(resolution);
+            final CalendarDateSeries<Double> expected = series.toCalendarDateSeries().resample(resolution);
+
+            TestUtils.assertEquals(expected.getPrimitiveKeys(), actual.keys());
+            TestUtils.assertEquals(expected.getPrimitiveTimeSeries(), actual);
+        }
+
+        final CalendarDate first = new CalendarDate(START + 60_000L);
+        final CalendarDate last = new CalendarDate(START + 120_000L);
+
+        final ExplicitTimeSeries actual = series.resample(first, last, CalendarDateUnit.SECOND);
+        final CalendarDateSeries<Double> expected = series.toCalendarDateSeries().resample(first, last, CalendarDateUnit.SECOND);
+
+        TestUtils.assertEquals(expected.getPrimitiveKeys(), actual.keys());
+        TestUtils.assertEquals(expected.getPrimitiveTimeSeries(), actual);
+    }
+
+    @Test
+    public void testSlicing() {
+
+        final ColumnarTimeSeries series = ColumnarTimeSeriesTest.make(1000, 10L);
+
+        final CalendarDate from = new CalendarDate(START + 100L);
+        final CalendarDate to = new CalendarDate(START + 205L);
+
+        final ColumnarTimeSeries sub = series.subSeries(from, to);
+        TestUtils.assertEquals(11, sub.size());
+        TestUtils.assertEquals(START + 100L, sub.first().millis);
+        TestUtils.assertEquals(START + 200L, sub.last().millis);
+        TestUtils.assertEquals(10.0, sub.value(0));
+        TestUtils.assertEquals(0, sub.indexOf(from));
+
+        final ColumnarTimeSeries head = series.headSeries(from);
+        TestUtils.assertEquals(10, head.size());
+        TestUtils.assertEquals(START + 90L, head.last().millis);
+
+        final ColumnarTimeSeries tail = series.tailSeries(to);
+        TestUtils.assertEquals(979, tail.size());
+        TestUtils.assertEquals(21.0, tail.value(0));
+
+        // The views are read-only, but see appends to the base
+        try {
+            sub.append(START, 0.0);
+            TestUtils.fail();
+        } catch (final UnsupportedOperationException expected) {
+            // expected
+        }
+        series.append(START + 10_000L, 1000.0);
+        TestUtils.assertEquals(979, tail.size());
+        TestUtils.assertEquals(1001, series.size());
+    }
+
+}
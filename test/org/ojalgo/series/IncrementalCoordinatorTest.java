@@ -0,0 +1,181 @@
+/*
+ * Copyright 1997-2019 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.type.CalendarDate;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * @author apete
+ */
+public class IncrementalCoordinatorTest {
+
+    private static final List<String> NAMES = Arrays.asList("A", "B", "C");
+    private static final long START = CalendarDateUnit.DAY.adjustInto(1_500_000_000_000L);
+
+    /**
+     * Random ticks, in key order, for the 3 series - on average 4 per second per series, but with gaps
+     */
+    private static List<long[]> ticks(final int count, final long seed) {
+
+        final Random random = new Random(seed);
+
+        final List<long[]> retVal = new ArrayList<>(count);
+
+        long key = START;
+        for (int t = 0; t < count; t++) {
+            key += 1 + random.nextInt(random.nextInt(100) == 0 ? 5_000 : 250);
+            retVal.add(new long[] { random.nextInt(NAMES.size()), key, random.nextInt(1000) });
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Resample each series, and then align them (filling with the previous value) - the expected result.
+     */
+    private static void assertAligned(final List<long[]> ticks, final IncrementalCoordinator coordinator) {
+
+        final CoordinationSet<Double> set = new CoordinationSet<>(CalendarDateUnit.MILLIS);
+        for (final String name : NAMES) {
+            set.put(new CalendarDateSeries<Double>(CalendarDateUnit.MILLIS).name(name));
+        }
+        for (final long[] tick : ticks) {
+            set.get(NAMES.get((int) tick[0])).put(new CalendarDate(tick[1]), (double) tick[2]);
+        }
+
+        final CoordinationSet<Double> resampled = set.resample(coordinator.getResolution());
+
+        final ColumnarTimeSeries first = coordinator.getAligned(NAMES.get(0));
+
+        TestUtils.assertEquals(resampled.getEarliestFirstKey(), first.first());
+        TestUtils.assertEquals(resampled.getLatestLastKey(), first.last());
+        TestUtils.assertEquals(coordinator.getResolution().count(first.first().millis, first.last().millis) + 1, first.size());
+
+        for (final String name : NAMES) {
+
+            final ColumnarTimeSeries actual = coordinator.getAligned(name);
+            final CalendarDateSeries<Double> expected = resampled.get(name);
+
+            TestUtils.assertEquals(first.keys(), actual.keys());
+
+            for (int i = 0; i < actual.size(); i++) {
+                final Map.Entry<CalendarDate, Double> floor = expected.floorEntry(new CalendarDate(actual.key(i)));
+                TestUtils.assertEquals(floor != null ? floor.getValue() : Double.NaN, actual.value(i));
+            }
+        }
+    }
+
+    @Test
+    public void testCoordinationSet() {
+
+        final List<long[]> ticks = IncrementalCoordinatorTest.ticks(2000, 3L);
+        final int split = 1500;
+
+        final CoordinationSet<Double> set = new CoordinationSet<>(CalendarDateUnit.MILLIS);
+        for (final String name : NAMES) {
+            set.put(new CalendarDateSeries<Double>(CalendarDateUnit.MILLIS).name(name));
+        }
+        for (final long[] tick : ticks.subList(0, split)) {
+            set.get(NAMES.get((int) tick[0])).put(new CalendarDate(tick[1]), (double) tick[2]);
+        }
+
+        final IncrementalCoordinator coordinator = set.incremental(CalendarDateUnit.SECOND, 0L);
+        for (final long[] tick : ticks.subList(split, ticks.size())) {
+            coordinator.put(set.getAllSeriesNames().indexOf(NAMES.get((int) tick[0])), tick[1], tick[2]);
+        }
+        coordinator.flush();
+
+        IncrementalCoordinatorTest.assertAligned(ticks, coordinator);
+    }
+
+    @Test
+    public void testInOrder() {
+
+        final List<long[]> ticks = IncrementalCoordinatorTest.ticks(5000, 1L);
+
+        for (final CalendarDateUnit resolution : new CalendarDateUnit[] { CalendarDateUnit.SECOND, CalendarDateUnit.MINUTE }) {
+
+            final IncrementalCoordinator coordinator = new IncrementalCoordinator(NAMES, resolution, 0L);
+
+            final List<CalendarDate> completed = new ArrayList<>();
+            coordinator.addListener((key, values) -> completed.add(key));
+
+            for (final long[] tick : ticks) {
+                TestUtils.assertTrue(coordinator.put((int) tick[0], tick[1], tick[2]));
+            }
+
+            // Everything but the last bucket is complete
+            final int size = coordinator.getAligned("A").size();
+            TestUtils.assertEquals(size, completed.size());
+            TestUtils.assertTrue(resolution.adjustInto(ticks.get(ticks.size() - 1)[1]) > coordinator.getAligned("A").last().millis);
+
+            coordinator.flush();
+
+            TestUtils.assertEquals(size + 1, completed.size());
+            for (int i = 0; i < completed.size(); i++) {
+                TestUtils.assertEquals(coordinator.getAligned("B").key(i), completed.get(i).millis);
+            }
+
+            IncrementalCoordinatorTest.assertAligned(ticks, coordinator);
+        }
+    }
+
+    /**
+     * Ticks that arrive out of order, but within the tolerance, should give the same result as if they were
+     * in order. Ticks later than that are rejected.
+     */
+    @Test
+    public void testOutOfOrder() {
+
+        final List<long[]> ticks = IncrementalCoordinatorTest.ticks(5000, 2L);
+
+        // Shuffle within windows of 10 ticks - no tick is delayed more than 10 * 5000 ms
+        final List<long[]> shuffled = new ArrayList<>(ticks);
+        final Random random = new Random(2L);
+        for (int i = 0; i < shuffled.size(); i += 10) {
+            Collections.shuffle(shuffled.subList(i, Math.min(i + 10, shuffled.size())), random);
+        }
+
+        final IncrementalCoordinator coordinator = new IncrementalCoordinator(NAMES, CalendarDateUnit.SECOND, 60_000L);
+        for (final long[] tick : shuffled) {
+            TestUtils.assertTrue(coordinator.put((int) tick[0], tick[1], tick[2]));
+        }
+        coordinator.flush();
+
+        IncrementalCoordinatorTest.assertAligned(ticks, coordinator);
+
+        TestUtils.assertEquals(0L, coordinator.countRejected());
+        TestUtils.assertFalse(coordinator.put(0, ticks.get(0)[1], 0.0));
+        TestUtils.assertEquals(1L, coordinator.countRejected());
+    }
+
+}